@@ -0,0 +1,85 @@
+package com.example.seatbooking.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// ✅ Compares two JMH JSON result files (-rf json) benchmark by benchmark
+//
+// A change only counts when it is bigger than both runs' error margins together; for thrpt a
+// drop is a regression, for avgt / sample / ss a rise is. Exits 1 if anything regressed.
+//
+//   mvn -Pbenchmark test-compile exec:exec@jmh-compare -Djmh.baseline=jmh-0.0.1.json
+public final class BenchmarkDiff {
+
+    private record Score(double score, double error, String unit, String mode) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: BenchmarkDiff <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  %s%n", entry.getKey(), "-", now.score(), "new", now.unit());
+                continue;
+            }
+            double change = (now.score() - before.score()) / before.score() * 100;
+            boolean significant = Math.abs(now.score() - before.score()) > before.error() + now.error();
+            boolean worse = now.mode().equals("thrpt") ? change < 0 : change > 0;
+            String verdict = !significant ? "" : worse ? "  REGRESSION" : "  improved";
+            if (significant && worse) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%  %s%s%n",
+                    entry.getKey(), before.score(), now.score(), change, now.unit(), verdict);
+        }
+        for (String gone : baseline.keySet()) {
+            if (!current.containsKey(gone)) {
+                System.out.printf("%-90s %14.3f %14s %9s%n", gone, baseline.get(gone).score(), "-", "removed");
+            }
+        }
+        System.out.println(regressions == 0 ? "No regressions." : regressions + " regression(s).");
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    // "benchmark [param=value, ...]" → primary score
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText()
+                    .replace("com.example.seatbooking.benchmark.", ""));
+            JsonNode params = run.path("params");
+            if (params.isObject() && !params.isEmpty()) {
+                key.append(" [");
+                for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> param = it.next();
+                    key.append(param.getKey()).append('=').append(param.getValue().asText());
+                    if (it.hasNext()) {
+                        key.append(", ");
+                    }
+                }
+                key.append(']');
+            }
+            key.append(" t=").append(run.path("threads").asInt());
+            JsonNode metric = run.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble();
+            scores.put(key.toString(), new Score(metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText(), run.path("mode").asText()));
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.seatbooking.benchmark;
+
+import com.example.seatbooking.SeatBookingApplication;
+import com.example.seatbooking.entity.*;
+import com.example.seatbooking.repository.*;
+import com.example.seatbooking.service.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// ✅ The booking flow under a burst — Tomcat / @Scheduled on platform threads vs virtual threads
+//
+// Each fork boots the app (H2 test profile, random port) with spring.threads.virtual.enabled
+// from `threads`. One invocation = a fresh screening with `clients` seats and `clients` buyers
+// let go at once, each on its own seat: POST hold → POST /api/checkout → PATCH payment SUCCESS.
+// The score is the time until the last of them is booked.
+//
+// More buyers than Tomcat's 200 workers is where the modes part; for real JDBC round trips
+// point the app at MySQL: -Djmh.args="BookingFlowThreads -jvmArgsAppend -Dspring.datasource.url=jdbc:mysql://…"
+//
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="BookingFlowThreads"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BookingFlowThreadsBenchmark {
+
+    private static final int SEATS_PER_ROW = 25;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"500"})
+    private int clients;
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService buyers;
+    private HttpClient http;
+    private String baseUrl;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<String> tokens = new ArrayList<>();
+    private Venue venue;
+    private Events event;
+    private List<SeatLayout> layout;
+
+    private long screeningId;
+    private List<Long> seatIds;
+    private int screenings;
+
+    @Setup(Level.Trial)
+    public void boot() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(SeatBookingApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                        "--logging.level.root=WARN",
+                        "--mail.outbox.poll-ms=3600000");
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api";
+
+        // the client side is the same in both runs — one virtual thread per buyer
+        buyers = Executors.newVirtualThreadPerTaskExecutor();
+        http = HttpClient.newBuilder()
+                .executor(buyers)
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+        UserRepository users = context.getBean(UserRepository.class);
+        JwtService jwtService = context.getBean(JwtService.class);
+        List<User> created = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            created.add(User.builder()
+                    .name("Buyer " + i).email("buyer" + i + "@bench.test").password("-")
+                    .role(User.Role.USER).build());
+        }
+        for (User user : users.saveAll(created)) {
+            userIds.add(user.getUserId());
+            tokens.add(jwtService.issue(user));
+        }
+
+        User organizer = users.save(User.builder()
+                .name("Organizer").email("organizer@bench.test").password("-").role(User.Role.ORGANIZER).build());
+        venue = context.getBean(VenueRepository.class).save(Venue.builder()
+                .venueName("Bench Hall").address("Main St").district("Colombo").region("West")
+                .capacity(clients).build());
+        event = context.getBean(EventsRepository.class).save(Events.builder()
+                .organizer(organizer).title("Benchmark Night").category("Movie").genre("Drama")
+                .duration(120).language("English").showStatus(Events.ShowStatus.UPCOMING).build());
+        List<SeatLayout> seats = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            seats.add(SeatLayout.builder()
+                    .venue(venue).seatRow("R" + (i / SEATS_PER_ROW + 1)).seatNo(String.valueOf(i % SEATS_PER_ROW + 1))
+                    .seatCategory("GOLD").ticketPrice(BigDecimal.valueOf(800)).build());
+        }
+        layout = context.getBean(SeatLayoutRepository.class).saveAll(seats);
+    }
+
+    // every invocation sells a new screening out — the seats of the last one are all BOOKED
+    @Setup(Level.Invocation)
+    public void newScreening() {
+        Screening screening = context.getBean(ScreeningRepository.class).save(Screening.builder()
+                .event(event).venue(venue).screenDate(LocalDate.now().plusDays(1 + screenings / 8))
+                .startTime(LocalTime.of(9 + screenings % 8, 0)).endTime(LocalTime.of(9 + screenings % 8, 59))
+                .remainingSeats(clients).status(Screening.Status.ACTIVE).build());
+        screenings++;
+        screeningId = screening.getScreeningId();
+
+        List<ScreeningSeats> rows = new ArrayList<>(clients);
+        for (SeatLayout seat : layout) {
+            rows.add(ScreeningSeats.builder()
+                    .screening(screening).seat(seat).price(seat.getTicketPrice())
+                    .availability(ScreeningSeats.Availability.AVAILABLE).build());
+        }
+        context.getBean(ScreeningSeatsRepository.class).saveAll(rows);
+        seatIds = layout.stream().map(SeatLayout::getSeatId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        buyers.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public int sellOut() throws Exception {
+        List<Future<Boolean>> running = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            int buyer = i;
+            running.add(buyers.submit(() -> book(userIds.get(buyer), tokens.get(buyer), seatIds.get(buyer))));
+        }
+        int booked = 0;
+        for (Future<Boolean> buyer : running) {
+            if (buyer.get()) {
+                booked++;
+            }
+        }
+        if (booked != clients) {
+            throw new IllegalStateException("only " + booked + " of " + clients + " bookings went through");
+        }
+        return booked;
+    }
+
+    private boolean book(long userId, String token, long seatId) throws IOException, InterruptedException {
+        HttpResponse<String> hold = send(token, "POST", "/screening-seats/screening/" + screeningId + "/hold",
+                Map.of("userId", userId, "seatIds", List.of(seatId)));
+        if (hold.statusCode() != 200) {
+            return false;
+        }
+        HttpResponse<String> checkout = send(token, "POST", "/checkout",
+                Map.of("userId", userId, "screeningId", screeningId, "payMode", "UPI"));
+        if (checkout.statusCode() != 201) {
+            return false;
+        }
+        long paymentId = json.readTree(checkout.body()).path("paymentId").asLong();
+        return send(token, "PATCH", "/payments/" + paymentId + "/status?status=SUCCESS", null).statusCode() == 200;
+    }
+
+    private HttpResponse<String> send(String token, String method, String path, Object body)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body)))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.seatbooking.benchmark;
+
+import com.example.seatbooking.entity.Booking;
+import com.example.seatbooking.repository.BookingRepository;
+import com.example.seatbooking.service.BookingMetrics;
+import com.example.seatbooking.service.BookingService;
+import com.example.seatbooking.service.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// ✅ Ref codes for new bookings — the generator alone, and BookingService.createBooking around it
+//
+// The repository is a proxy whose save() returns its argument, so createBooking costs the code,
+// the PENDING status and the bookit.flow timer (no transaction → stopped right away).
+// Run with several threads: every code of a node comes out of one CAS loop.
+//
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="BookingRefCode -t 1,4"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+public class BookingRefCodeBenchmark {
+
+    private SnowflakeIdGenerator generator;
+    private BookingService bookingService;
+
+    @Setup
+    public void setup() {
+        generator = SnowflakeIdGenerator.forNode(1);
+        BookingRepository repository = (BookingRepository) Proxy.newProxyInstance(
+                BookingRepository.class.getClassLoader(),
+                new Class<?>[]{BookingRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("save")) {
+                        return args[0];
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        bookingService = new BookingService(repository, null, generator,
+                new BookingMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public String nextCode() {
+        return generator.nextCode("BK-");
+    }
+
+    @Benchmark
+    public Booking createBooking() {
+        return bookingService.createBooking(Booking.builder().totalCost(BigDecimal.TEN).build());
+    }
+}
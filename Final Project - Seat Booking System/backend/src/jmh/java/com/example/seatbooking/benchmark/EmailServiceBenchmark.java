@@ -0,0 +1,91 @@
+package com.example.seatbooking.benchmark;
+
+import com.example.seatbooking.entity.Booking;
+import com.example.seatbooking.entity.EmailOutbox;
+import com.example.seatbooking.entity.Events;
+import com.example.seatbooking.entity.Screening;
+import com.example.seatbooking.entity.User;
+import com.example.seatbooking.entity.Venue;
+import com.example.seatbooking.service.EmailOutboxService;
+import com.example.seatbooking.service.EmailService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+// ✅ EmailService end to end minus the outbox row: booking → template slots → HTML body
+//
+// The outbox is replaced by a stub that only counts the rendered characters, so this is
+// exactly what a payment SUCCESS / cancellation adds to its transaction before the INSERT.
+// (EmailTemplateBenchmark measures the template engine alone against String.formatted.)
+//
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="EmailService -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+public class EmailServiceBenchmark {
+
+    private static final int BOOKINGS = 256;
+
+    private Booking[] bookings;
+
+    @State(Scope.Thread)
+    public static class Mailer {
+        EmailService emailService;
+        long chars;     // everything "queued" so far — keeps the rendering alive
+
+        @Setup
+        public void setup() {
+            emailService = new EmailService(new EmailOutboxService(null, null, null) {
+                @Override
+                public EmailOutbox enqueue(String recipient, String subject, String htmlBody) {
+                    chars += subject.length() + htmlBody.length();
+                    return null;
+                }
+            });
+        }
+    }
+
+    @Setup
+    public void setup() {
+        bookings = new Booking[BOOKINGS];
+        for (int i = 0; i < BOOKINGS; i++) {
+            Venue venue = Venue.builder().venueName("PVR Phoenix Audi " + (i % 6 + 1)).build();
+            Events event = Events.builder().title(i % 2 == 0 ? "Dune: Part Two" : "Oppenheimer").build();
+            Screening screening = Screening.builder()
+                    .event(event).venue(venue)
+                    .screenDate(LocalDate.of(2026, 11, i % 28 + 1)).startTime(LocalTime.of(18, 30))
+                    .build();
+            bookings[i] = Booking.builder()
+                    .user(User.builder().name("Customer " + i).email("customer" + i + "@bookit.lk").build())
+                    .screening(screening)
+                    .refCode("BK-0NZ3YH7P8A" + String.format("%03d", i))
+                    .totalCost(BigDecimal.valueOf(250 + i % 7 * 50))
+                    .build();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOOKINGS)
+    public long bookingConfirmation(Mailer mailer) {
+        for (Booking booking : bookings) {
+            mailer.emailService.sendBookingConfirmation(booking);
+        }
+        return mailer.chars;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOOKINGS)
+    public long cancellation(Mailer mailer) {
+        for (Booking booking : bookings) {
+            mailer.emailService.sendCancellationMail(booking, "Screening cancelled by the venue");
+        }
+        return mailer.chars;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.seatbooking.benchmark;
+
+import com.example.seatbooking.service.EmailTemplate;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// ✅ Cancellation mail bodies: the old String.formatted text block vs the compiled EmailTemplate
+//
+// One invocation = a bulk run of BATCH cancellation mails (a screening called off, every
+// booking gets its mail), rendered from several threads at once like concurrent admin actions.
+// The "formatted" side is rebuilt from the same template file, with %s in hole order, so for these
+// (markup-free) values both sides produce the same body.
+//
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="EmailTemplate -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+public class EmailTemplateBenchmark {
+
+    private static final String[] SLOTS =
+            {"userName", "eventName", "venue", "date", "time", "amount", "reason", "refCode"};
+
+    private static final Pattern HOLE = Pattern.compile("\\{\\{\\s*(\\w+)\\s*}}");
+
+    private static final int BATCH = 500;
+
+    private EmailTemplate compiled;
+    private String formatString;
+    private int[] formatOrder;          // %s number i → index into SLOTS
+    private String[][] mails;
+
+    @Setup
+    public void setup() throws IOException {
+        String source = new ClassPathResource("templates/email/booking-cancelled.html")
+                .getContentAsString(StandardCharsets.UTF_8);
+        compiled = EmailTemplate.compile("booking-cancelled", source, SLOTS);
+
+        // the pre-template path: % escaped, one %s per hole, args repeated per occurrence
+        List<String> slotNames = List.of(SLOTS);
+        List<Integer> order = new ArrayList<>();
+        Matcher m = HOLE.matcher(source.replace("%", "%%"));
+        StringBuilder format = new StringBuilder();
+        while (m.find()) {
+            order.add(slotNames.indexOf(m.group(1)));
+            m.appendReplacement(format, "%s");
+        }
+        m.appendTail(format);
+        formatString = format.toString();
+        formatOrder = order.stream().mapToInt(Integer::intValue).toArray();
+
+        mails = new String[BATCH][];
+        for (int i = 0; i < BATCH; i++) {
+            mails[i] = new String[]{
+                    "Customer " + i,
+                    "Dune: Part Two",
+                    "PVR Phoenix Audi " + (i % 6 + 1),
+                    "2026-11-0" + (i % 9 + 1),
+                    "18:30",
+                    "₹" + (250.0 + i % 7 * 50),
+                    "Screening cancelled by the venue",
+                    "BKT" + (100000 + i)
+            };
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void formatted(Blackhole bh) {
+        for (String[] mail : mails) {
+            Object[] args = new Object[formatOrder.length];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = mail[formatOrder[i]];
+            }
+            bh.consume(formatString.formatted(args));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void compiled(Blackhole bh) {
+        for (String[] mail : mails) {
+            bh.consume(compiled.render(mail));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.seatbooking.benchmark;
+
+import com.example.seatbooking.dto.EventResponseDTO;
+import com.example.seatbooking.entity.Events;
+import com.example.seatbooking.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ✅ GET /api/events — EventResponseDTO lists through Jackson, configured like Spring MVC's mapper
+//
+//   serialize        — the DTO list to UTF-8 bytes (what the message converter writes)
+//   mapAndSerialize  — Events → EventResponseDTO.from (image URL included) → bytes
+//
+// One invocation = the whole list of `events` events; -prof gc shows the bytes per response.
+//
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="EventJson -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+public class EventJsonBenchmark {
+
+    private static final String[] GENRES = {"Drama", "Action", "Comedy", "Thriller", "Sci-Fi"};
+
+    @Param({"20", "200"})
+    private int events;
+
+    private ObjectMapper objectMapper;
+    private List<Events> entities;
+    private List<EventResponseDTO> dtos;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        User organizer = User.builder().userId(3L).name("PVR Cinemas").email("events@pvr.test").build();
+        entities = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            Events.EventsBuilder event = Events.builder()
+                    .eventId(100L + i).organizer(organizer)
+                    .title("Feature Presentation #" + i).category(i % 4 == 0 ? "Concert" : "Movie")
+                    .genre(GENRES[i % GENRES.length])
+                    .description("A two-line synopsis of feature " + i + ", long enough to look like the "
+                            + "ones organizers actually paste in — cast, plot, and a tagline at the end.")
+                    .duration(95 + i % 60).language(i % 3 == 0 ? "Tamil" : "English").tag(i % 5 == 0 ? "NEW" : null)
+                    .showStatus(Events.ShowStatus.UPCOMING);
+            // half the posters are stored images (→ /api/events/{id}/image?v=…), half external URLs
+            if (i % 2 == 0) {
+                event.imageHash(String.format("%016x", i * 0x9E3779B97F4A7C15L).repeat(4));
+            } else {
+                event.imageUrl("https://images.bookit.test/posters/" + i + ".jpg");
+            }
+            entities.add(event.build());
+        }
+        dtos = entities.stream().map(EventResponseDTO::from).toList();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(entities.stream().map(EventResponseDTO::from).toList());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.seatbooking.benchmark;
+
+import com.example.seatbooking.entity.User;
+import com.example.seatbooking.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+// ✅ Per-request cost of authenticating a bearer token in JwtFilter
+//
+//   perRequestParser — the old filter: new HMAC key + new parser for every request
+//   sharedParser     — key and parser built once, every token still fully parsed and verified
+//   cached           — JwtService.verify: a token seen before is one SHA-256 + map lookup
+//
+// One invocation = BATCH requests spread over USERS logged-in users, from several threads.
+//
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtAuth -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "bookit-secret-key-change-in-production-min-256-bits";
+
+    private static final int USERS = 1_000;
+    private static final int BATCH = 100;
+
+    private JwtService jwtService;
+    private JwtParser parser;
+    private String[] tokens;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService(SECRET, 86_400_000L, 10_000, System::currentTimeMillis);
+        parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        tokens = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            tokens[i] = jwtService.issue(User.builder()
+                    .userId((long) i).email("user" + i + "@bookit.lk").role(User.Role.USER).build());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        // walk the users in a scattered order
+        int advance() {
+            next = (next + 7919) % USERS;
+            return next;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void perRequestParser(Cursor cursor, Blackhole bh) {
+        int from = cursor.advance();
+        for (int i = 0; i < BATCH; i++) {
+            Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(key)
+                    .build()
+                    .parseClaimsJws(tokens[(from + i) % USERS])
+                    .getBody();
+            bh.consume(claims.getSubject());
+            bh.consume(claims.get("role", String.class));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void sharedParser(Cursor cursor, Blackhole bh) {
+        int from = cursor.advance();
+        for (int i = 0; i < BATCH; i++) {
+            Claims claims = parser.parseClaimsJws(tokens[(from + i) % USERS]).getBody();
+            bh.consume(claims.getSubject());
+            bh.consume(claims.get("role", String.class));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void cached(Cursor cursor, Blackhole bh) {
+        int from = cursor.advance();
+        for (int i = 0; i < BATCH; i++) {
+            bh.consume(jwtService.verify(tokens[(from + i) % USERS]));
+        }
+    }
+}
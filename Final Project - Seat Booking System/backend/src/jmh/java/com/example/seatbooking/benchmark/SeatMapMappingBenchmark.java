@@ -0,0 +1,78 @@
+package com.example.seatbooking.benchmark;
+
+import com.example.seatbooking.dto.ScreeningSeatDTO;
+import com.example.seatbooking.dto.SeatLayoutDTO;
+import com.example.seatbooking.entity.Screening;
+import com.example.seatbooking.entity.ScreeningSeats;
+import com.example.seatbooking.entity.SeatLayout;
+import com.example.seatbooking.entity.Venue;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// ✅ Entity → DTO mapping of a whole seat map, as the /api/screening-seats list endpoints
+// and GET /api/seats/venue/{id} do it
+//
+// One invocation = one full map of `seats` seats (rows of 40, GOLD / SILVER / PLATINUM), so the
+// score is maps per millisecond; -prof gc shows the bytes each map costs.
+//
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="SeatMapMapping -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SeatMapMappingBenchmark {
+
+    private static final String[] CATEGORIES = {"SILVER", "GOLD", "PLATINUM"};
+
+    @Param({"200", "1200"})
+    private int seats;
+
+    private List<SeatLayout> layout;
+    private List<ScreeningSeats> seatMap;
+
+    @Setup
+    public void setup() {
+        Venue venue = Venue.builder()
+                .venueId(7L).venueName("PVR Phoenix Audi 3").address("Lower Parel").district("Mumbai")
+                .region("West").capacity(seats).build();
+        Screening screening = Screening.builder().screeningId(42L).venue(venue).build();
+
+        layout = new ArrayList<>(seats);
+        seatMap = new ArrayList<>(seats);
+        for (int i = 0; i < seats; i++) {
+            int row = i / 40;
+            String category = CATEGORIES[Math.min(row / 10, CATEGORIES.length - 1)];
+            BigDecimal price = BigDecimal.valueOf(250 + 100L * (row / 10));
+            SeatLayout seat = SeatLayout.builder()
+                    .seatId(1_000L + i).venue(venue)
+                    .seatRow(String.valueOf((char) ('A' + row % 26)) + (row / 26 == 0 ? "" : row / 26))
+                    .seatNo(String.valueOf(i % 40 + 1)).seatCategory(category).ticketPrice(price)
+                    .build();
+            layout.add(seat);
+            seatMap.add(ScreeningSeats.builder()
+                    .screeningSeatsId(50_000L + i).screening(screening).seat(seat).price(price)
+                    .availability(i % 7 == 0 ? ScreeningSeats.Availability.BOOKED
+                            : i % 11 == 0 ? ScreeningSeats.Availability.HELD
+                            : ScreeningSeats.Availability.AVAILABLE)
+                    .build());
+        }
+    }
+
+    // the same stream the controllers run
+    @Benchmark
+    public List<ScreeningSeatDTO> screeningSeatMap() {
+        return seatMap.stream().map(ScreeningSeatDTO::from).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<SeatLayoutDTO> venueLayout() {
+        return layout.stream().map(SeatLayoutDTO::from).collect(Collectors.toList());
+    }
+}
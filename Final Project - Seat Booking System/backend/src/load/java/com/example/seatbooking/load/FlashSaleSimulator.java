@@ -0,0 +1,418 @@
+package com.example.seatbooking.load;
+
+import com.example.seatbooking.SeatBookingApplication;
+import com.example.seatbooking.entity.*;
+import com.example.seatbooking.repository.*;
+import com.example.seatbooking.service.JwtService;
+import com.example.seatbooking.service.SeatStateEngine;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+// ✅ Flash sale against the real app — H2 (MySQL mode) test profile, real HTTP, real JWTs
+//
+// Boots the app on a random port, seeds one venue / screening / seat map and `clients` users,
+// then releases every client at once, each on its own virtual thread:
+//
+//   GET seat map → POST hold (up to `attempts` tries on 409) → POST /api/checkout → PATCH payment SUCCESS
+//
+// Reports throughput, p50 / p99 per step, the hold-conflict rate and any seat sold twice
+// (checked in booking_items, and across what the clients were told they bought).
+// Exits 1 if a seat was double-booked.
+//
+//   mvn -Ploadtest test-compile exec:exec
+//   mvn -Ploadtest test-compile exec:exec -Dload.args="--load.clients=5000 --load.rows=10 --spring.datasource.hikari.maximum-pool-size=20"
+public final class FlashSaleSimulator {
+
+    private enum Outcome { BOOKED, SOLD_OUT, FAILED }
+
+    private record Seat(long seatId, String row, int number, boolean available) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // devtools would restart the app in a second class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> arguments = new ArrayList<>(List.of(
+                // command-line arguments — they beat server.port=8080 in application.properties
+                "--server.port=0",
+                "--logging.level.com.example.seatbooking=WARN",
+                // nobody reads these mails — don't hammer a missing SMTP server
+                "--mail.outbox.poll-ms=3600000"));
+        arguments.addAll(List.of(args));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SeatBookingApplication.class)
+                .profiles("test")
+                .run(arguments.toArray(String[]::new));
+        int exitCode;
+        try {
+            exitCode = new FlashSaleSimulator(context).run();
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+
+    private final ConfigurableApplicationContext context;
+    private final ObjectMapper json = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final int clients;
+    private final int rows;
+    private final int seatsPerRow;
+    private final int maxGroup;
+    private final int attempts;
+    private final File reportFile;
+
+    private String baseUrl;
+    private HttpClient http;
+    private long screeningId;
+
+    // step → latencies (nanos)
+    private final Map<String, Latencies> latencies = new ConcurrentHashMap<>();
+    private final Map<Outcome, LongAdder> outcomes = new EnumMap<>(Outcome.class);
+    private final LongAdder holdAttempts = new LongAdder();
+    private final LongAdder holdConflicts = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final Queue<String> failures = new ConcurrentLinkedQueue<>();
+    // seat → client that was told it bought it
+    private final Map<Long, Long> soldTo = new ConcurrentHashMap<>();
+    private final Set<Long> soldTwice = ConcurrentHashMap.newKeySet();
+
+    private FlashSaleSimulator(ConfigurableApplicationContext context) {
+        this.context = context;
+        Environment env = context.getEnvironment();
+        this.clients = env.getProperty("load.clients", Integer.class, 2000);
+        this.rows = env.getProperty("load.rows", Integer.class, 20);
+        this.seatsPerRow = env.getProperty("load.seats-per-row", Integer.class, 25);
+        this.maxGroup = env.getProperty("load.max-group", Integer.class, 4);
+        this.attempts = env.getProperty("load.attempts", Integer.class, 3);
+        this.reportFile = new File(env.getProperty("load.report", "target/flash-sale-report.json"));
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new LongAdder());
+        }
+    }
+
+    private int run() throws Exception {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api";
+
+        List<String> tokens = new ArrayList<>(clients);
+        List<Long> userIds = new ArrayList<>(clients);
+        seed(tokens, userIds);
+        System.out.printf("Flash sale: %d clients for %d seats (%d rows × %d), groups of 1-%d, %d hold attempt(s) each%n",
+                clients, rows * seatsPerRow, rows, seatsPerRow, maxGroup, attempts);
+
+        ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+        http = HttpClient.newBuilder()
+                .executor(threads)
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> running = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            long userId = userIds.get(i);
+            String token = tokens.get(i);
+            running.add(threads.submit(() -> {
+                go.await();
+                outcomes.get(client(userId, token)).increment();
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        go.countDown();
+        for (Future<?> client : running) {
+            client.get();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        threads.shutdown();
+
+        return report(seconds);
+    }
+
+    // ── Seeding ─────────────────────────────────────────────
+
+    private void seed(List<String> tokens, List<Long> userIds) {
+        UserRepository users = context.getBean(UserRepository.class);
+        JwtService jwtService = context.getBean(JwtService.class);
+
+        List<User> buyers = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            buyers.add(User.builder()
+                    .name("Buyer " + i).email("buyer" + i + "@flash-sale.test").password("-")
+                    .role(User.Role.USER).build());
+        }
+        for (User buyer : users.saveAll(buyers)) {
+            userIds.add(buyer.getUserId());
+            tokens.add(jwtService.issue(buyer));
+        }
+
+        User organizer = users.save(User.builder()
+                .name("Organizer").email("organizer@flash-sale.test").password("-").role(User.Role.ORGANIZER).build());
+        Venue venue = context.getBean(VenueRepository.class).save(Venue.builder()
+                .venueName("Flash Sale Arena").address("Main St").district("Colombo").region("West")
+                .capacity(rows * seatsPerRow).build());
+        Events event = context.getBean(EventsRepository.class).save(Events.builder()
+                .organizer(organizer).title("Opening Night").category("Concert").genre("Live")
+                .duration(150).language("English").showStatus(Events.ShowStatus.UPCOMING).build());
+        Screening screening = context.getBean(ScreeningRepository.class).save(Screening.builder()
+                .event(event).venue(venue).screenDate(LocalDate.now().plusDays(7))
+                .startTime(LocalTime.of(19, 0)).endTime(LocalTime.of(21, 30))
+                .remainingSeats(rows * seatsPerRow).status(Screening.Status.ACTIVE).build());
+        screeningId = screening.getScreeningId();
+
+        List<SeatLayout> layout = new ArrayList<>(rows * seatsPerRow);
+        for (int r = 0; r < rows; r++) {
+            for (int n = 1; n <= seatsPerRow; n++) {
+                layout.add(SeatLayout.builder()
+                        .venue(venue).seatRow(rowName(r)).seatNo(String.valueOf(n))
+                        .seatCategory(r < rows / 4 ? "PLATINUM" : "GOLD")
+                        .ticketPrice(BigDecimal.valueOf(r < rows / 4 ? 1500 : 800)).build());
+            }
+        }
+        List<ScreeningSeats> seats = new ArrayList<>(layout.size());
+        for (SeatLayout seat : context.getBean(SeatLayoutRepository.class).saveAll(layout)) {
+            seats.add(ScreeningSeats.builder()
+                    .screening(screening).seat(seat).price(seat.getTicketPrice())
+                    .availability(ScreeningSeats.Availability.AVAILABLE).build());
+        }
+        context.getBean(ScreeningSeatsRepository.class).saveAll(seats);
+    }
+
+    private static String rowName(int row) {
+        return row < 26 ? String.valueOf((char) ('A' + row)) : "A" + (char) ('A' + row - 26);
+    }
+
+    // ── One client ──────────────────────────────────────────
+
+    private Outcome client(long userId, String token) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int group = 1 + random.nextInt(maxGroup);
+        long clientStarted = System.nanoTime();
+        try {
+            List<Long> held = null;
+            for (int attempt = 0; attempt < attempts && held == null; attempt++) {
+                List<Long> wanted = pick(seatMap(token), group, random);
+                if (wanted.isEmpty()) {
+                    return Outcome.SOLD_OUT;
+                }
+                holdAttempts.increment();
+                HttpResponse<String> hold = send("hold", token, "POST",
+                        "/screening-seats/screening/" + screeningId + "/hold",
+                        Map.of("userId", userId, "seatIds", wanted));
+                if (hold.statusCode() == 200) {
+                    held = wanted;
+                } else if (hold.statusCode() == 409) {
+                    holdConflicts.increment();
+                } else {
+                    return failed("hold", hold);
+                }
+            }
+            if (held == null) {
+                return Outcome.SOLD_OUT;
+            }
+
+            HttpResponse<String> checkout = send("checkout", token, "POST", "/checkout",
+                    Map.of("userId", userId, "screeningId", screeningId, "payMode", "UPI"),
+                    "Idempotency-Key", UUID.randomUUID().toString());
+            if (checkout.statusCode() != 201) {
+                return failed("checkout", checkout);
+            }
+            JsonNode booked = json.readTree(checkout.body());
+
+            HttpResponse<String> payment = send("payment", token, "PATCH",
+                    "/payments/" + booked.path("paymentId").asLong() + "/status?status=SUCCESS", null);
+            if (payment.statusCode() != 200) {
+                return failed("payment", payment);
+            }
+
+            for (JsonNode seat : booked.path("seats")) {
+                long seatId = seat.path("seatId").asLong();
+                Long previous = soldTo.putIfAbsent(seatId, userId);
+                if (previous != null && previous != userId) {
+                    soldTwice.add(seatId);
+                }
+            }
+            latencies("end-to-end").add(System.nanoTime() - clientStarted);
+            return Outcome.BOOKED;
+        } catch (IOException | InterruptedException e) {
+            failures.add(e.getClass().getSimpleName() + ": " + e.getMessage());
+            return Outcome.FAILED;
+        }
+    }
+
+    private List<Seat> seatMap(String token) throws IOException, InterruptedException {
+        HttpResponse<String> response = send("seat-map", token, "GET", "/screening-seats/screening/" + screeningId, null);
+        List<Seat> seats = new ArrayList<>();
+        for (JsonNode seat : json.readTree(response.body())) {
+            seats.add(new Seat(seat.path("seatId").asLong(), seat.path("seatRow").asText(),
+                    seat.path("seatNo").asInt(), "AVAILABLE".equals(seat.path("availability").asText())));
+        }
+        seats.sort(Comparator.comparing(Seat::row).thenComparingInt(Seat::number));
+        return seats;
+    }
+
+    // Everyone wants the front rows: a random AVAILABLE seat, skewed to the front (r²),
+    // plus the free seats right next to it in the same row
+    private List<Long> pick(List<Seat> seats, int group, ThreadLocalRandom random) {
+        List<Integer> free = new ArrayList<>();
+        for (int i = 0; i < seats.size(); i++) {
+            if (seats.get(i).available()) {
+                free.add(i);
+            }
+        }
+        if (free.isEmpty()) {
+            return List.of();
+        }
+        double r = random.nextDouble();
+        int start = free.get((int) (r * r * free.size()));
+        String row = seats.get(start).row();
+        List<Long> wanted = new ArrayList<>(group);
+        for (int i = start; i < seats.size() && wanted.size() < group; i++) {
+            Seat seat = seats.get(i);
+            if (!seat.row().equals(row) || !seat.available()) {
+                break;
+            }
+            wanted.add(seat.seatId());
+        }
+        return wanted;
+    }
+
+    private Outcome failed(String step, HttpResponse<String> response) {
+        String body = response.body();
+        failures.add(step + " → HTTP " + response.statusCode() + " "
+                + (body.length() > 200 ? body.substring(0, 200) : body));
+        return Outcome.FAILED;
+    }
+
+    private HttpResponse<String> send(String step, String token, String method, String path, Object body,
+                                      String... headers) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body)));
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        long started = System.nanoTime();
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        latencies(step).add(System.nanoTime() - started);
+        requests.increment();
+        return response;
+    }
+
+    private Latencies latencies(String step) {
+        return latencies.computeIfAbsent(step, s -> new Latencies());
+    }
+
+    // ── Report ──────────────────────────────────────────────
+
+    private int report(double seconds) throws IOException {
+        // write-behind → the seat rows are only checked after the last flush
+        context.getBean(SeatStateEngine.class).flush();
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        List<Long> doubleBookedInDb = jdbc.queryForList("""
+                SELECT bi.seat_id FROM booking_items bi
+                JOIN booking b ON b.booking_id = bi.booking_id
+                WHERE b.screening_id = ? AND bi.status = 'ACTIVE'
+                GROUP BY bi.seat_id HAVING COUNT(*) > 1""", Long.class, screeningId);
+        Long itemsSold = jdbc.queryForObject("""
+                SELECT COUNT(*) FROM booking_items bi JOIN booking b ON b.booking_id = bi.booking_id
+                WHERE b.screening_id = ? AND bi.status = 'ACTIVE'""", Long.class, screeningId);
+        Long rowsBooked = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM screening_seats WHERE screening_id = ? AND availability = 'BOOKED'",
+                Long.class, screeningId);
+
+        Set<Long> doubleBooked = new TreeSet<>(doubleBookedInDb);
+        doubleBooked.addAll(soldTwice);
+        long booked = outcomes.get(Outcome.BOOKED).sum();
+        long attemptsMade = holdAttempts.sum();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("clients", clients);
+        report.put("seats", rows * seatsPerRow);
+        report.put("durationSeconds", round(seconds));
+        report.put("bookingsPerSecond", round(booked / seconds));
+        report.put("requestsPerSecond", round(requests.sum() / seconds));
+        Map<String, Long> byOutcome = new LinkedHashMap<>();
+        outcomes.forEach((outcome, count) -> byOutcome.put(outcome.name(), count.sum()));
+        report.put("outcomes", byOutcome);
+        report.put("holdAttempts", attemptsMade);
+        report.put("holdConflicts", holdConflicts.sum());
+        report.put("holdConflictRate", attemptsMade > 0 ? round((double) holdConflicts.sum() / attemptsMade) : 0.0);
+        report.put("seatsSold", itemsSold);
+        report.put("seatRowsBooked", rowsBooked);
+        report.put("doubleBookedSeats", doubleBooked);
+        Map<String, Object> steps = new TreeMap<>();
+        latencies.forEach((step, recorded) -> steps.put(step, recorded.summary()));
+        report.put("latencyMillis", steps);
+        report.put("sampleFailures", failures.stream().limit(10).toList());
+
+        System.out.println(json.writeValueAsString(report));
+        File parent = reportFile.getAbsoluteFile().getParentFile();
+        if (parent.isDirectory() || parent.mkdirs()) {
+            json.writeValue(reportFile, report);
+            System.out.println("Report written to " + reportFile.getAbsolutePath());
+        }
+
+        if (!doubleBooked.isEmpty()) {
+            System.out.println("❌ " + doubleBooked.size() + " seat(s) sold more than once: " + doubleBooked);
+            return 1;
+        }
+        return 0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    // Every sample kept — a few thousand clients × 4 steps is nothing to sort
+    private static final class Latencies {
+        private final Queue<Long> nanos = new ConcurrentLinkedQueue<>();
+
+        void add(long elapsed) {
+            nanos.add(elapsed);
+        }
+
+        Map<String, Object> summary() {
+            long[] sorted = nanos.stream().mapToLong(Long::longValue).sorted().toArray();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", sorted.length);
+            summary.put("p50", millis(sorted, 0.50));
+            summary.put("p99", millis(sorted, 0.99));
+            summary.put("max", sorted.length > 0 ? round(sorted[sorted.length - 1] / 1e6) : 0.0);
+            return summary;
+        }
+
+        private static double millis(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return round(sorted[Math.max(0, index)] / 1e6);
+        }
+    }
+}
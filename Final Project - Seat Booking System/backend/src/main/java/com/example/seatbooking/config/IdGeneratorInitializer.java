@@ -0,0 +1,38 @@
+package com.example.seatbooking.config;
+
+import com.example.seatbooking.entity.ScreeningSeats;
+import com.example.seatbooking.repository.ScreeningSeatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// ✅ screening_seats ids come from the id_generators table now (pooled, ID_BLOCK per round trip)
+// Existing databases were filled by AUTO_INCREMENT, so before anything is inserted the
+// generator row is put one whole block past MAX(screening_seats_id): next_val holds the last id
+// handed out, and the pooled optimizer's next block is (next_val + 1 - ID_BLOCK, next_val + 1].
+@Component
+public class IdGeneratorInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorInitializer.class);
+
+    private final ScreeningSeatsRepository screeningSeatsRepository;
+
+    public IdGeneratorInitializer(ScreeningSeatsRepository screeningSeatsRepository) {
+        this.screeningSeatsRepository = screeningSeatsRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void alignScreeningSeatIds() {
+        long gap = ScreeningSeats.ID_BLOCK;
+        int created = screeningSeatsRepository.insertIdBlockRow(gap);
+        int moved = created == 0 ? screeningSeatsRepository.moveIdBlockPastMax(gap) : 0;
+        if (created + moved > 0) {
+            log.info("id_generators: screening_seats moved past the existing ids");
+        }
+    }
+}
@@ -1,34 +1,28 @@
 package com.example.seatbooking.config;
 
-import com.example.seatbooking.repository.UserRepository;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import com.example.seatbooking.service.JwtService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.security.Key;
-import java.util.List;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
-    private final UserRepository userRepository;
+    private static final Logger log = LoggerFactory.getLogger(JwtFilter.class);
 
-    @Value("${jwt.secret:bookit-secret-key-change-in-production-min-256-bits}")
-    private String jwtSecret;
+    private final JwtService jwtService;
 
-    public JwtFilter(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public JwtFilter(JwtService jwtService) {
+        this.jwtService = jwtService;
     }
 
     @Override
@@ -40,48 +34,17 @@ public class JwtFilter extends OncePerRequestFilter {
         String header = request.getHeader("Authorization");
 
         if (header != null && header.startsWith("Bearer ")) {
-            String token = header.substring(7);
-            try {
-                Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-                Claims claims = Jwts.parserBuilder()
-                        .setSigningKey(key)
-                        .build()
-                        .parseClaimsJws(token)
-                        .getBody();
-
-                String email = claims.getSubject();
-                String role  = claims.get("role", String.class);
-
-                // ── DEBUG: print to Spring Boot console ──
-                System.out.println("====================================");
-                System.out.println("JWT DEBUG → URL  : " + request.getRequestURI());
-                System.out.println("JWT DEBUG → Email: " + email);
-                System.out.println("JWT DEBUG → Role : " + role);
-                System.out.println("JWT DEBUG → Auth : ROLE_" + role);
-                System.out.println("====================================");
-
-                if (email != null && role != null
-                        && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-                    UsernamePasswordAuthenticationToken auth =
-                            new UsernamePasswordAuthenticationToken(
-                                    email,
-                                    null,
-                                    List.of(new SimpleGrantedAuthority("ROLE_" + role))
-                            );
-                    SecurityContextHolder.getContext().setAuthentication(auth);
-
-                } else if (role == null) {
-                    // ── Role is null in token — this causes 403 ──
-                    System.out.println("JWT DEBUG → ⚠️ ROLE IS NULL! Token has no role claim.");
-                    System.out.println("JWT DEBUG → All claims: " + claims);
-                }
-
-            } catch (Exception e) {
-                System.out.println("JWT DEBUG → ❌ Token parse failed: " + e.getMessage());
+            // ✅ key + parser are built once in JwtService, tokens seen before come from its cache
+            JwtService.Verified verified = jwtService.verify(header.substring(7));
+
+            if (verified == null) {
+                log.debug("JWT not accepted for {}", request.getRequestURI());
+            } else if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(verified.email(), null, verified.authorities()));
             }
         }
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
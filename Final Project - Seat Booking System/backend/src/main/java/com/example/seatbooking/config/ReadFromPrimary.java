@@ -0,0 +1,21 @@
+package com.example.seatbooking.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// ✅ Reads that must never see replica lag — they run on the primary even when called from a
+// @ReadFromReplica method (everything not opted in is on the primary already)
+//
+// For state that is decided from what was just read (the seat state engine loading a screening:
+// a stale copy would hand out seats that are already sold). Only matters when a replica is
+// configured (spring.datasource.replica.url); otherwise everything goes to the one pool anyway.
+// Put it on the method that opens the transaction — a readOnly transaction that is already on
+// the replica keeps the connection it has.
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromPrimary {
+}
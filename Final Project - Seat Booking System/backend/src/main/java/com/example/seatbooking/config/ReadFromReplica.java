@@ -0,0 +1,21 @@
+package com.example.seatbooking.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// ✅ Reads that may be served a few seconds stale — their readOnly transactions go to the replica
+//
+// Opt-in: a readOnly transaction without it stays on the primary, and so do Spring Data's own
+// readOnly repository transactions (findById, count, exists… called outside a service
+// transaction). Meant for listings where lag up to spring.datasource.replica.max-lag-ms is
+// harmless (the public catalogue, admin reports) — never for a read that decides a write or that
+// a user expects to show what they just did. Put it on the method that opens the transaction;
+// @ReadFromPrimary inside it still wins. Only matters when spring.datasource.replica.url is set.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromReplica {
+}
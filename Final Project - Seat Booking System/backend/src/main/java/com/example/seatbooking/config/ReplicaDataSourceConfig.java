@@ -0,0 +1,120 @@
+package com.example.seatbooking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// ✅ Read replica — only when spring.datasource.replica.url is set; without it Boot builds the one pool as before
+//
+//   primary  spring.datasource.*            + spring.datasource.hikari.*           (pool "primary")
+//   replica  spring.datasource.replica.*    + spring.datasource.replica.hikari.*   (pool "replica", read-only)
+//
+// Both pools are beans of their own, so hikaricp.* metrics come per pool; the app (JPA, JdbcTemplate)
+// gets the router behind a lazy proxy as its one DataSource. Only @ReadFromReplica methods read
+// from the replica — everything else, readOnly or not, keeps reading its own writes on the primary.
+@Configuration
+@ConditionalOnProperty(name = "spring.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return pool;
+    }
+
+    // user / password default to the primary's
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${spring.datasource.replica.url}") String url,
+            @Value("${spring.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${spring.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource pool = DataSourceBuilder.create().type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url).username(username).password(password)
+                .build();
+        pool.setPoolName(ReplicaRoutingDataSource.REPLICA);
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${spring.datasource.replica.max-lag-ms:5000}") long maxLagMillis,
+            MeterRegistry registry) {
+        return new ReplicaLagMonitor(primary, replica, maxLagMillis, registry, System::currentTimeMillis);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            ReplicaLagMonitor replicaLagMonitor,
+            MeterRegistry registry) {
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(primary, replica, replicaLagMonitor, registry);
+        router.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(router);
+    }
+
+    // ✅ @ReadFromPrimary on a method or a class → its connections come from the primary
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor readFromPrimaryAdvisor() {
+        ComposablePointcut pointcut = new ComposablePointcut(AnnotationMatchingPointcut.forMethodAnnotation(ReadFromPrimary.class))
+                .union(new AnnotationMatchingPointcut(ReadFromPrimary.class, true));
+        MethodInterceptor interceptor = invocation -> {
+            boolean entered = ReplicaRoutingDataSource.enterPrimaryOnly();
+            try {
+                return invocation.proceed();
+            } finally {
+                ReplicaRoutingDataSource.exitPrimaryOnly(entered);
+            }
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    // ✅ @ReadFromReplica on a method → its readOnly transactions may use the replica (nothing else does)
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor readFromReplicaAdvisor() {
+        MethodInterceptor interceptor = invocation -> {
+            boolean entered = ReplicaRoutingDataSource.enterReplicaAllowed();
+            try {
+                return invocation.proceed();
+            } finally {
+                ReplicaRoutingDataSource.exitReplicaAllowed(entered);
+            }
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(ReadFromReplica.class), interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
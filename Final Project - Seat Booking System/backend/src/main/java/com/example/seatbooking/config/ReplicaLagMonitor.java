@@ -0,0 +1,107 @@
+package com.example.seatbooking.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.function.LongSupplier;
+
+// ✅ Replica lag, measured with a heartbeat row instead of SHOW REPLICA STATUS
+//
+// Every check stamps replica_heartbeat on the primary with our clock and reads the stamp the
+// replica has: now - that stamp is how far behind the replica is (to within one check interval).
+// Works against any replication setup, needs no REPLICATION CLIENT grant, and two plain
+// databases behave like a replica that stopped replicating. The replica is only used while the
+// last check succeeded and its lag was at most maxLagMillis — until the first check, never.
+//
+//   bookit.replica.lag       ms behind the primary (-1 = replica unreachable / no heartbeat yet)
+//   bookit.replica.usable    1 while readOnly transactions go to the replica
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    public static final String LAG = "bookit.replica.lag";
+    public static final String USABLE = "bookit.replica.usable";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+    private final LongSupplier clock;
+
+    private volatile long lagMillis = -1;
+    private volatile boolean usable;
+    private boolean tableReady;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMillis,
+                             MeterRegistry registry, LongSupplier clock) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMillis = maxLagMillis;
+        this.clock = clock;
+        Gauge.builder(LAG, this, ReplicaLagMonitor::lagMillis)
+                .description("How far the read replica is behind the primary")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder(USABLE, this, m -> m.usable ? 1 : 0)
+                .description("1 while readOnly transactions are sent to the read replica")
+                .register(registry);
+    }
+
+    public boolean replicaUsable() {
+        return usable;
+    }
+
+    public long lagMillis() {
+        return lagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${spring.datasource.replica.lag-check-ms:1000}")
+    public void check() {
+        long now = clock.getAsLong();
+        try {
+            beat(now);
+        } catch (DataAccessException e) {
+            // primary trouble is everybody's problem — the replica verdict stays as it was
+            log.warn("Replica heartbeat could not be written: {}", e.getMessage());
+            return;
+        }
+
+        long lag;
+        try {
+            Long stamp = replica.query("SELECT beat_at FROM replica_heartbeat WHERE id = 1",
+                    rs -> rs.next() ? rs.getLong(1) : null);
+            lag = stamp != null ? Math.max(0, now - stamp) : -1;
+        } catch (DataAccessException e) {
+            lag = -1;
+            if (usable) {
+                log.warn("Replica unreachable, reads go to the primary: {}", e.getMessage());
+            }
+        }
+
+        boolean nowUsable = lag >= 0 && lag <= maxLagMillis;
+        if (nowUsable != usable) {
+            if (nowUsable) {
+                log.info("Replica caught up ({} ms behind) — readOnly transactions go to the replica", lag);
+            } else if (lag >= 0) {
+                log.warn("Replica {} ms behind (max {} ms) — reads go to the primary", lag, maxLagMillis);
+            }
+        }
+        lagMillis = lag;
+        usable = nowUsable;
+    }
+
+    private void beat(long now) {
+        if (!tableReady) {
+            primary.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+            tableReady = true;
+        }
+        if (primary.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1", now) == 0) {
+            primary.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)", now);
+        }
+    }
+}
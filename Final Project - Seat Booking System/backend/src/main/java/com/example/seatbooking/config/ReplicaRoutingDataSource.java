@@ -0,0 +1,134 @@
+package com.example.seatbooking.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// ✅ Primary / replica routing, decided once per physical connection
+//
+//   readOnly transaction in a @ReadFromReplica method, replica caught up   → replica
+//   everything else                                                      → primary
+//     (writes, no transaction, plain readOnly transactions — Spring Data's repository methods
+//      included —, @ReadFromPrimary, replica lagging or unreachable)
+//
+// Sits behind a LazyConnectionDataSourceProxy, so the connection is only fetched at the first
+// statement — by then the transaction manager has published whether the transaction is readOnly.
+//
+//   bookit.datasource.route{pool, reason}    connections handed out per pool and why
+//     reason: read (replica), write, default (readOnly, not opted in), fresh (@ReadFromPrimary), lagging
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    public static final String ROUTE = "bookit.datasource.route";
+
+    // set while a @ReadFromPrimary / @ReadFromReplica method runs on this thread
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter toReplica;
+    private final Counter writes;
+    private final Counter notOptedIn;
+    private final Counter fresh;
+    private final Counter lagging;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica,
+                                    ReplicaLagMonitor lagMonitor, MeterRegistry registry) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.toReplica = route(registry, REPLICA, "read");
+        this.writes = route(registry, PRIMARY, "write");
+        this.notOptedIn = route(registry, PRIMARY, "default");
+        this.fresh = route(registry, PRIMARY, "fresh");
+        this.lagging = route(registry, PRIMARY, "lagging");
+    }
+
+    // Runs work with every connection it opens on the primary (what @ReadFromPrimary does)
+    public static <T> T onPrimary(Supplier<T> work) {
+        boolean entered = enterPrimaryOnly();
+        try {
+            return work.get();
+        } finally {
+            exitPrimaryOnly(entered);
+        }
+    }
+
+    // Runs work with its readOnly transactions allowed on the replica (what @ReadFromReplica does)
+    public static <T> T onReplica(Supplier<T> work) {
+        boolean entered = enterReplicaAllowed();
+        try {
+            return work.get();
+        } finally {
+            exitReplicaAllowed(entered);
+        }
+    }
+
+    // false = an outer @ReadFromPrimary already holds it; only that one clears it
+    static boolean enterPrimaryOnly() {
+        return enter(PRIMARY_ONLY);
+    }
+
+    static void exitPrimaryOnly(boolean entered) {
+        exit(PRIMARY_ONLY, entered);
+    }
+
+    static boolean enterReplicaAllowed() {
+        return enter(REPLICA_ALLOWED);
+    }
+
+    static void exitReplicaAllowed(boolean entered) {
+        exit(REPLICA_ALLOWED, entered);
+    }
+
+    private static boolean enter(ThreadLocal<Boolean> flag) {
+        if (flag.get() != null) {
+            return false;
+        }
+        flag.set(Boolean.TRUE);
+        return true;
+    }
+
+    private static void exit(ThreadLocal<Boolean> flag, boolean entered) {
+        if (entered) {
+            flag.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return PRIMARY;
+        }
+        if (PRIMARY_ONLY.get() != null) {
+            fresh.increment();
+            return PRIMARY;
+        }
+        if (REPLICA_ALLOWED.get() == null) {
+            notOptedIn.increment();
+            return PRIMARY;
+        }
+        if (!lagMonitor.replicaUsable()) {
+            lagging.increment();
+            return PRIMARY;
+        }
+        toReplica.increment();
+        return REPLICA;
+    }
+
+    private static Counter route(MeterRegistry registry, String pool, String reason) {
+        return Counter.builder(ROUTE)
+                .description("Connections handed out by the read/write router")
+                .tag("pool", pool)
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.seatbooking.config;
+
+import com.example.seatbooking.entity.Events;
+import com.example.seatbooking.entity.SeatLayout;
+import com.example.seatbooking.entity.Venue;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// ✅ Hibernate second-level + query cache for reference data (Venue, SeatLayout, Events)
+//
+// In-process Caffeine behind JCache. Entity regions are READ_WRITE — Hibernate keeps them in step
+// with what commits through JPA here, ReferenceDataCache evicts after the service writes. Every
+// region is bounded and expires after ttl-minutes, which is also how long another instance can
+// keep serving an entry this one changed. Hibernate's own update-timestamps region is created on
+// demand, unbounded: query results are only valid while it remembers every table write.
+//
+//   hibernate.second.level.cache.requests{region, result=hit|miss}
+//   hibernate.cache.query.requests{result=hit|miss}     (hibernate-micrometer, needs generate_statistics)
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final List<String> REGIONS = List.of(
+            Venue.CACHE_REGION, Venue.QUERY_REGION,
+            SeatLayout.CACHE_REGION, SeatLayout.QUERY_REGION,
+            Events.CACHE_REGION, Events.QUERY_REGION);
+
+    // one manager per application context — two contexts (cached test contexts) must not share regions
+    @Bean
+    public CacheManager secondLevelCacheManager(@Value("${cache.reference.ttl-minutes:10}") long ttlMinutes,
+                                                @Value("${cache.reference.max-entries:10000}") long maxEntries) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("seatbooking-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+            config.setMaximumSize(OptionalLong.of(maxEntries));
+            config.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(ttlMinutes)));
+            cacheManager.createCache(region, config);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            // default-update-timestamps-region / default-query-results-region
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create");
+        };
+    }
+}
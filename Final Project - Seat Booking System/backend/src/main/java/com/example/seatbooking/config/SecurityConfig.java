@@ -95,6 +95,9 @@ public class SecurityConfig {
                         .requestMatchers(org.springframework.http.HttpMethod.DELETE, "/api/seats/**").hasAnyRole("ADMIN", "ORGANIZER")
 
                         // ── Screening Seats — ADMIN + ORGANIZER ──
+                        // ✅ NEW — multi-seat hold / best-available are customer actions
+                        .requestMatchers(org.springframework.http.HttpMethod.POST,   "/api/screening-seats/screening/*/hold").hasAnyRole("ADMIN", "ORGANIZER", "USER")
+                        .requestMatchers(org.springframework.http.HttpMethod.POST,   "/api/screening-seats/screening/*/best-available").hasAnyRole("ADMIN", "ORGANIZER", "USER")
                         .requestMatchers(org.springframework.http.HttpMethod.POST,   "/api/screening-seats/**").hasAnyRole("ADMIN", "ORGANIZER")
                         .requestMatchers(org.springframework.http.HttpMethod.PUT,    "/api/screening-seats/**").hasAnyRole("ADMIN", "ORGANIZER")
                         .requestMatchers(org.springframework.http.HttpMethod.DELETE, "/api/screening-seats/**").hasAnyRole("ADMIN", "ORGANIZER")
@@ -106,6 +109,9 @@ public class SecurityConfig {
                         .requestMatchers(org.springframework.http.HttpMethod.PATCH,  "/api/bookings/**").hasAnyRole("ADMIN", "ORGANIZER", "USER")
                         .requestMatchers(org.springframework.http.HttpMethod.DELETE, "/api/bookings/**").hasAnyRole("ADMIN", "ORGANIZER")
 
+                        // ── Checkout (held seats → booking + payment) ──
+                        .requestMatchers(org.springframework.http.HttpMethod.POST,   "/api/checkout").hasAnyRole("ADMIN", "ORGANIZER", "USER")
+
                         // ── Payments ──
                         .requestMatchers(org.springframework.http.HttpMethod.GET,    "/api/payments/**").hasAnyRole("ADMIN", "ORGANIZER", "USER")
                         .requestMatchers(org.springframework.http.HttpMethod.POST,   "/api/payments/**").hasAnyRole("ADMIN", "ORGANIZER", "USER")
@@ -128,6 +134,13 @@ public class SecurityConfig {
                         .requestMatchers(org.springframework.http.HttpMethod.POST,   "/api/alerts/**").hasAnyRole("ADMIN", "ORGANIZER", "USER")
                         .requestMatchers(org.springframework.http.HttpMethod.PATCH,  "/api/alerts/**").hasAnyRole("ADMIN", "ORGANIZER", "USER")
 
+                        // ── Email outbox ──
+                        .requestMatchers("/api/email-outbox/**").hasRole("ADMIN")
+
+                        // ── Actuator — health is public, metrics (Prometheus included) need an admin token ──
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         .anyRequest().authenticated()
                 )
                 .formLogin(form -> form.disable())
@@ -0,0 +1,16 @@
+package com.example.seatbooking.config;
+
+import com.example.seatbooking.service.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SnowflakeConfig {
+
+    // ✅ ids.node-id must be unique per running instance — two nodes with the same id can mint the same code
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(@Value("${ids.node-id:0}") int nodeId) {
+        return SnowflakeIdGenerator.forNode(nodeId);
+    }
+}
@@ -1,19 +1,14 @@
 package com.example.seatbooking.controller;
 
 import com.example.seatbooking.entity.User;
+import com.example.seatbooking.service.JwtService;
 import com.example.seatbooking.service.UserService;
 import com.example.seatbooking.repository.UserRepository;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
 import jakarta.validation.Valid;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Key;
-import java.util.Date;
 import java.util.Map;
 
 @RestController
@@ -24,16 +19,16 @@ public class AuthController {
     private final UserService userService;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-
-    @Value("${jwt.secret:bookit-secret-key-change-in-production-min-256-bits}")
-    private String jwtSecret;
+    private final JwtService jwtService;
 
     public AuthController(UserService userService,
                           UserRepository userRepository,
-                          PasswordEncoder passwordEncoder) {
+                          PasswordEncoder passwordEncoder,
+                          JwtService jwtService) {
         this.userService = userService;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.jwtService = jwtService;
     }
 
     // ── Register ──────────────────────────────────────────────
@@ -92,17 +87,18 @@ public class AuthController {
         ));
     }
 
+    // ✅ NEW — Logout: the bearer token is revoked until its exp
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String header) {
+        if (header != null && header.startsWith("Bearer ")) {
+            jwtService.revoke(header.substring(7));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     // ── JWT ───────────────────────────────────────────────────
     private String generateToken(User user) {
-        Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        return Jwts.builder()
-                .setSubject(user.getEmail())
-                .claim("role",   user.getRole().name())
-                .claim("userId", user.getUserId())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 86_400_000L)) // 24h
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+        return jwtService.issue(user);  // 24h (jwt.expiration-ms)
     }
 
     // ── DTOs ──────────────────────────────────────────────────
@@ -0,0 +1,40 @@
+package com.example.seatbooking.controller;
+
+import com.example.seatbooking.dto.CheckoutDTO;
+import com.example.seatbooking.dto.CheckoutRequest;
+import com.example.seatbooking.service.CheckoutService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.Principal;
+
+@RestController
+@RequestMapping("/api/checkout")
+public class CheckoutController {
+
+    private final CheckoutService checkoutService;
+
+    public CheckoutController(CheckoutService checkoutService) {
+        this.checkoutService = checkoutService;
+    }
+
+    // ✅ Held seats → booking + items + PENDING payment in one call.
+    // The buyer is the authenticated caller, not a userId in the body.
+    // Same Idempotency-Key again → the first response, marked with Idempotent-Replayed: true
+    @PostMapping
+    public ResponseEntity<CheckoutDTO> checkout(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody CheckoutRequest request,
+            Principal principal) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Login required to check out");
+        }
+        CheckoutService.CheckoutResult result = checkoutService.checkout(idempotencyKey, principal.getName(), request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                .body(result.checkout());
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.seatbooking.controller;
+
+import com.example.seatbooking.service.EmailOutboxService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/email-outbox")
+public class EmailOutboxController {
+
+    private final EmailOutboxService emailOutboxService;
+
+    public EmailOutboxController(EmailOutboxService emailOutboxService) {
+        this.emailOutboxService = emailOutboxService;
+    }
+
+    // ✅ Queue depth + send latency of the mail dispatcher
+    @GetMapping("/stats")
+    public ResponseEntity<EmailOutboxService.Stats> getStats() {
+        return ResponseEntity.ok(emailOutboxService.stats());
+    }
+}
@@ -2,13 +2,26 @@ package com.example.seatbooking.controller;
 
 import com.example.seatbooking.dto.EventCreateDTO;
 import com.example.seatbooking.dto.EventResponseDTO;
+import com.example.seatbooking.entity.Events;
 import com.example.seatbooking.entity.Events.ShowStatus;
+import com.example.seatbooking.service.EventImageStore;
 import com.example.seatbooking.service.EventsService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -16,10 +29,18 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/events")
 public class EventsController {
 
+    // Tomcat sendfile request attributes (NIO connector) — the kernel copies file → socket
+    private static final String SENDFILE_SUPPORT  = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START    = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END      = "org.apache.tomcat.sendfile.end";
+
     private final EventsService eventsService;
+    private final EventImageStore eventImageStore;
 
-    public EventsController(EventsService eventsService) {
+    public EventsController(EventsService eventsService, EventImageStore eventImageStore) {
         this.eventsService = eventsService;
+        this.eventImageStore = eventImageStore;
     }
 
     // ✅ Create event
@@ -106,6 +127,95 @@ public class EventsController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // ✅ NEW — event image: ETag / If-None-Match, single Range, zero-copy body
+    @GetMapping("/{id:[0-9]+}/image")
+    public void getEventImage(@PathVariable Long id,
+                              HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        Events event = eventsService.getEventById(id)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Event not found with id: " + id));
+
+        if (event.getImageUrl() != null) {
+            // checked when saved; checked again for rows from before that (legacy migration)
+            if (!eventImageStore.isAllowedUrl(event.getImageUrl())) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Event has no image: " + id);
+            }
+            response.sendRedirect(event.getImageUrl());
+            return;
+        }
+        if (event.getImageHash() == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Event has no image: " + id);
+        }
+        Path file = eventImageStore.resolve(event.getImageHash());
+        if (!Files.isRegularFile(file)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Image file missing for event: " + id);
+        }
+
+        // content-addressed → the hash is a perfect strong ETag and the bytes never change
+        String etag = "\"" + event.getImageHash() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // never rendered as anything but the image type below (and never as a download prompt)
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline");
+
+        if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long length = Files.size(file);
+        long start = 0;
+        long end = length - 1;
+
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] parsed = parseRange(range, length);
+            if (parsed == null) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            if (parsed.length == 2) {
+                start = parsed[0];
+                end = parsed[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        String contentType = event.getImageContentType();
+        response.setContentType(EventImageStore.CONTENT_TYPES.contains(contentType) ? contentType : "application/octet-stream");
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        // no sendfile → FileChannel.transferTo, still no copy through a heap byte[] of the whole image
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long sent = channel.transferTo(position, end + 1 - position, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
     // ✅ Update event
     @PutMapping("/{id}")
     public ResponseEntity<EventResponseDTO> updateEvent(@PathVariable Long id,
@@ -119,4 +229,55 @@ public class EventsController {
         eventsService.deleteEvent(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // {start, end} for one satisfiable range, {} = ignore the header (serve everything), null = 416
+    private static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.contains(",")) {
+            return new long[0];   // unknown unit / multipart ranges → full body
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix == 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1
+                        ? length - 1
+                        : Math.min(Long.parseLong(spec.substring(dash + 1)), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
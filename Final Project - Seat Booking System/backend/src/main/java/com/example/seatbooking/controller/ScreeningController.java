@@ -1,24 +1,37 @@
 package com.example.seatbooking.controller;
 
+import com.example.seatbooking.dto.ScreeningScheduleRequest;
+import com.example.seatbooking.dto.SeatAvailabilityDTO;
+import com.example.seatbooking.dto.ScreeningWithSeatsRequest;
 import com.example.seatbooking.entity.Screening;
 import com.example.seatbooking.entity.Screening.Status;
+import com.example.seatbooking.service.ScreeningScheduler;
 import com.example.seatbooking.service.ScreeningService;
+import com.example.seatbooking.service.SeatAvailabilityService;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/screenings")
 public class ScreeningController {
 
     private final ScreeningService screeningService;
+    private final ScreeningScheduler screeningScheduler;
+    private final SeatAvailabilityService seatAvailabilityService;
 
-    public ScreeningController(ScreeningService screeningService) {
+    public ScreeningController(ScreeningService screeningService,
+                               ScreeningScheduler screeningScheduler,
+                               SeatAvailabilityService seatAvailabilityService) {
         this.screeningService = screeningService;
+        this.screeningScheduler = screeningScheduler;
+        this.seatAvailabilityService = seatAvailabilityService;
     }
 
     @PostMapping
@@ -27,6 +40,28 @@ public class ScreeningController {
                 .body(screeningService.createScreening(screening));
     }
 
+    // ✅ NEW — screening + all its seats from the venue layout in one request
+    @PostMapping("/with-seats")
+    public ResponseEntity<Screening> createScreeningWithSeats(@Valid @RequestBody ScreeningWithSeatsRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(screeningService.createScreening(request.getScreening(), request.getCategoryPrices()));
+    }
+
+    // ✅ NEW — recurring run: every day of the range × every start time, seats included
+    @PostMapping("/schedule")
+    public ResponseEntity<Map<String, Object>> schedule(@Valid @RequestBody ScreeningScheduleRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(screeningScheduler.schedule(request));
+    }
+
+    // ✅ NEW — generate the layout seats an existing screening is missing; body: category → price
+    @PostMapping("/{id}/seats")
+    public ResponseEntity<Map<String, Object>> generateSeats(
+            @PathVariable Long id,
+            @RequestBody(required = false) Map<String, BigDecimal> categoryPrices) {
+        int created = screeningService.generateSeats(id, categoryPrices);
+        return ResponseEntity.ok(Map.of("created", created, "status", "success"));
+    }
+
     @GetMapping
     public ResponseEntity<List<Screening>> getAllScreenings() {
         return ResponseEntity.ok(screeningService.getAllScreenings());
@@ -39,6 +74,18 @@ public class ScreeningController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // ✅ NEW — seats left for many screenings at once: ?ids=1,2,3
+    @GetMapping("/availability")
+    public ResponseEntity<List<SeatAvailabilityDTO>> getAvailability(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(seatAvailabilityService.forScreenings(ids));
+    }
+
+    // ✅ NEW — seats left per event over its active screenings: ?ids=4,5 → { "4": 120, "5": 0 }
+    @GetMapping("/availability/events")
+    public ResponseEntity<Map<Long, Integer>> getEventAvailability(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(seatAvailabilityService.forEvents(ids));
+    }
+
     @GetMapping("/event/{eventId}")
     public ResponseEntity<List<Screening>> getByEvent(@PathVariable Long eventId) {
         return ResponseEntity.ok(screeningService.getScreeningsByEvent(eventId));
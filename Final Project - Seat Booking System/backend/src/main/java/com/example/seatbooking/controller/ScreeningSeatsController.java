@@ -1,14 +1,26 @@
 package com.example.seatbooking.controller;
 
+import com.example.seatbooking.dto.BestAvailableRequest;
 import com.example.seatbooking.dto.ScreeningSeatDTO;
+import com.example.seatbooking.dto.SeatHoldRequest;
 import com.example.seatbooking.entity.ScreeningSeats;
 import com.example.seatbooking.entity.ScreeningSeats.Availability;
+import com.example.seatbooking.service.BestSeatAllocator;
 import com.example.seatbooking.service.ScreeningSeatsService;
+import com.example.seatbooking.service.SeatHoldService;
+import com.example.seatbooking.service.SeatMapBroadcaster;
+import com.example.seatbooking.service.SeatMapSnapshotCache;
+import com.example.seatbooking.service.UserService;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.security.Principal;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,9 +29,24 @@ import java.util.stream.Collectors;
 public class ScreeningSeatsController {
 
     private final ScreeningSeatsService screeningSeatsService;
-
-    public ScreeningSeatsController(ScreeningSeatsService screeningSeatsService) {
+    private final SeatHoldService seatHoldService;
+    private final SeatMapBroadcaster seatMapBroadcaster;
+    private final SeatMapSnapshotCache seatMapSnapshotCache;
+    private final BestSeatAllocator bestSeatAllocator;
+    private final UserService userService;
+
+    public ScreeningSeatsController(ScreeningSeatsService screeningSeatsService,
+                                    SeatHoldService seatHoldService,
+                                    SeatMapBroadcaster seatMapBroadcaster,
+                                    SeatMapSnapshotCache seatMapSnapshotCache,
+                                    BestSeatAllocator bestSeatAllocator,
+                                    UserService userService) {
         this.screeningSeatsService = screeningSeatsService;
+        this.seatHoldService = seatHoldService;
+        this.seatMapBroadcaster = seatMapBroadcaster;
+        this.seatMapSnapshotCache = seatMapSnapshotCache;
+        this.bestSeatAllocator = bestSeatAllocator;
+        this.userService = userService;
     }
 
     @PostMapping
@@ -49,43 +76,50 @@ public class ScreeningSeatsController {
     @GetMapping("/{id}")
     public ResponseEntity<ScreeningSeatDTO> getScreeningSeatById(@PathVariable Long id) {
         return screeningSeatsService.getScreeningSeatById(id)
-                .map(ss -> ResponseEntity.ok(ScreeningSeatDTO.from(ss)))
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // ✅ Cached JSON per seat-state version — If-None-Match → 304, otherwise the bytes as they are
     @GetMapping("/screening/{screeningId}")
-    public ResponseEntity<List<ScreeningSeatDTO>> getSeatsByScreening(
-            @PathVariable Long screeningId) {
-        return ResponseEntity.ok(
-                screeningSeatsService.getSeatsByScreening(screeningId)
-                        .stream().map(ScreeningSeatDTO::from).collect(Collectors.toList())
-        );
+    public ResponseEntity<byte[]> getSeatsByScreening(
+            @PathVariable Long screeningId,
+            WebRequest webRequest) {
+        SeatMapSnapshotCache.Snapshot snapshot = seatMapSnapshotCache.get(screeningId);
+        if (webRequest.checkNotModified(snapshot.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.etag()).build();
+        }
+        // no-cache = the browser keeps the body but revalidates every time → 304s instead of stale maps
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.json());
+    }
+
+    // ✅ NEW — live seat map: "snapshot" event with the full list, then "delta" events
+    // ({screeningSeatsId, seatId, availability}) batched every seat.stream.batch-ms
+    @GetMapping(value = "/screening/{screeningId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeatMap(@PathVariable Long screeningId) {
+        return seatMapBroadcaster.subscribe(screeningId);
     }
 
     @GetMapping("/screening/{screeningId}/available")
     public ResponseEntity<List<ScreeningSeatDTO>> getAvailableSeats(
             @PathVariable Long screeningId) {
-        return ResponseEntity.ok(
-                screeningSeatsService.getAvailableSeatsByScreening(screeningId)
-                        .stream().map(ScreeningSeatDTO::from).collect(Collectors.toList())
-        );
+        return ResponseEntity.ok(screeningSeatsService.getAvailableSeatsByScreening(screeningId));
     }
 
     @GetMapping("/held/user/{userId}")
     public ResponseEntity<List<ScreeningSeatDTO>> getHeldSeatsByUser(@PathVariable Long userId) {
-        return ResponseEntity.ok(
-                screeningSeatsService.getHeldSeatsByUser(userId)
-                        .stream().map(ScreeningSeatDTO::from).collect(Collectors.toList())
-        );
+        return ResponseEntity.ok(screeningSeatsService.getHeldSeatsByUser(userId));
     }
 
     @PatchMapping("/{id}/availability")
     public ResponseEntity<ScreeningSeatDTO> updateAvailability(
             @PathVariable Long id,
             @RequestParam Availability availability) {
-        return ResponseEntity.ok(
-                ScreeningSeatDTO.from(screeningSeatsService.updateAvailability(id, availability))
-        );
+        return ResponseEntity.ok(screeningSeatsService.updateAvailability(id, availability));
     }
 
     @PutMapping("/{id}")
@@ -107,8 +141,27 @@ public class ScreeningSeatsController {
     public ResponseEntity<ScreeningSeatDTO> holdSeat(
             @PathVariable Long id,
             @RequestParam Long userId) {
+        return ResponseEntity.ok(screeningSeatsService.holdSeat(id, userId));
+    }
+
+    // ✅ NEW — hold several seats of one screening in a single call (all or nothing), for the caller
+    @PostMapping("/screening/{screeningId}/hold")
+    public ResponseEntity<List<ScreeningSeatDTO>> holdSeats(
+            @PathVariable Long screeningId,
+            @Valid @RequestBody SeatHoldRequest request,
+            Principal principal) {
         return ResponseEntity.ok(
-                ScreeningSeatDTO.from(screeningSeatsService.holdSeat(id, userId))
+                seatHoldService.holdSeats(screeningId, userService.currentUserId(principal), request.getSeatIds())
         );
     }
-}
\ No newline at end of file
+
+    // ✅ NEW — "N best adjacent seats (in category X)": picked server-side and held for the caller in the same call
+    @PostMapping("/screening/{screeningId}/best-available")
+    public ResponseEntity<List<ScreeningSeatDTO>> holdBestAvailable(
+            @PathVariable Long screeningId,
+            @Valid @RequestBody BestAvailableRequest request,
+            Principal principal) {
+        return ResponseEntity.ok(bestSeatAllocator.holdBestAvailable(
+                screeningId, userService.currentUserId(principal), request.getCount(), request.getSeatCategory()));
+    }
+}
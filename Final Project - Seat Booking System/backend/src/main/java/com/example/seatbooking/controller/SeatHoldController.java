@@ -4,14 +4,13 @@ import com.example.seatbooking.entity.SeatHold;
 import com.example.seatbooking.repository.SeatHoldRepository;
 import com.example.seatbooking.service.SeatHoldService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/seat-holds")
-@CrossOrigin(origins = "*")
 public class SeatHoldController {
 
     private final SeatHoldRepository seatHoldRepository;
@@ -46,15 +45,12 @@ public class SeatHoldController {
     // ✅ POST create a new hold
     @PostMapping
     public ResponseEntity<SeatHold> createHold(@RequestBody SeatHold seatHold) {
-        seatHold.setStatus(SeatHold.HoldStatus.HELD);
-        seatHold.setHeldAt(LocalDateTime.now());
-        seatHold.setExpiresAt(LocalDateTime.now().plusMinutes(10));
-        SeatHold saved = seatHoldRepository.save(seatHold);
-        return ResponseEntity.ok(saved);
+        return ResponseEntity.ok(seatHoldService.createHold(seatHold));
     }
 
     // ✅ PATCH release hold manually
     @PatchMapping("/{id}/release")
+    @Transactional
     public ResponseEntity<SeatHold> releaseHold(@PathVariable Long id) {
         return seatHoldRepository.findById(id).map(hold -> {
             hold.setStatus(SeatHold.HoldStatus.RELEASED);
@@ -64,6 +60,7 @@ public class SeatHoldController {
 
     // ✅ PATCH confirm hold after booking
     @PatchMapping("/{id}/confirm")
+    @Transactional
     public ResponseEntity<SeatHold> confirmHold(@PathVariable Long id) {
         return seatHoldRepository.findById(id).map(hold -> {
             hold.setStatus(SeatHold.HoldStatus.CONFIRMED);
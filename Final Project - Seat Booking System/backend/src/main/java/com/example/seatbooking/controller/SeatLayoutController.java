@@ -5,9 +5,11 @@ import com.example.seatbooking.entity.SeatLayout;
 import com.example.seatbooking.service.SeatLayoutService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -102,11 +104,11 @@ public class SeatLayoutController {
         return ResponseEntity.noContent().build();
     }
 
-    // ✅ NEW — Bulk create screening seats in one shot
-    @PostMapping("/screening-seats/bulk")
-    public ResponseEntity<Map<String, Object>> bulkCreateScreeningSeats(
-            @RequestBody List<Map<String, Object>> payload) {
-        int created = seatLayoutService.bulkCreateScreeningSeats(payload);
+    // ✅ Bulk create screening seats — [{screeningId, seatId, price}, ...] streamed straight
+    // into batched INSERTs, never bound to a List first
+    @PostMapping(value = "/screening-seats/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> bulkCreateScreeningSeats(InputStream body) {
+        int created = seatLayoutService.bulkCreateScreeningSeats(body);
         return ResponseEntity.ok(Map.of("created", created, "status", "success"));
     }
 }
\ No newline at end of file
@@ -2,8 +2,10 @@ package com.example.seatbooking.controller;
 
 import com.example.seatbooking.entity.User;
 import com.example.seatbooking.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.Map;
@@ -39,13 +41,18 @@ public class UserController {
     // ── Forgot Password - Send OTP ──────────────────────────
     @PostMapping("/forgot-password")
     public ResponseEntity<Map<String, String>> forgotPassword(
-            @RequestBody Map<String, String> body) {
+            @RequestBody Map<String, String> body,
+            HttpServletRequest request) {
         try {
-            userService.sendForgotPasswordOtp(body.get("email"));
+            userService.sendForgotPasswordOtp(body.get("email"), request.getRemoteAddr());
             return ResponseEntity.ok(Map.of(
                     "message", "OTP sent to your email",
                     "email", body.get("email")
             ));
+        } catch (ResponseStatusException e) {
+            // ✅ 429 stays a 429 — clients back off instead of retrying a "bad request"
+            return ResponseEntity.status(e.getStatusCode())
+                    .body(Map.of("error", e.getReason()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
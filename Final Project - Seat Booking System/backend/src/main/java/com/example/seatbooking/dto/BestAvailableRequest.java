@@ -0,0 +1,21 @@
+package com.example.seatbooking.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class BestAvailableRequest {
+
+    // the holder is the caller (JWT principal) — never taken from the body
+    @NotNull(message = "Seat count is required")
+    @Min(value = 1, message = "At least one seat is required")
+    @Max(value = 10, message = "At most 10 seats per request")
+    private Integer count;
+
+    // optional — any category when missing (the seats then still sit next to each other)
+    private String seatCategory;
+}
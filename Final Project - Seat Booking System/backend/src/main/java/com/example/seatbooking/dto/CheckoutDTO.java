@@ -0,0 +1,21 @@
+package com.example.seatbooking.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.List;
+
+// ✅ What a checkout produced — also the body replayed for a repeated Idempotency-Key
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class CheckoutDTO {
+    private Long bookingId;
+    private String bookingRefCode;
+    private String bookingStatus;
+    private BigDecimal totalCost;
+    private BigDecimal discount;
+    // Payment fields flattened — no nested objects
+    private Long paymentId;
+    private String paymentReference;
+    private String paymentStatus;
+    private BigDecimal amount;
+    private List<ScreeningSeatDTO> seats;
+}
@@ -0,0 +1,19 @@
+package com.example.seatbooking.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class CheckoutRequest {
+
+    // the user is the caller (JWT principal) — never taken from the body
+    // every seat the user holds for this screening is booked
+    @NotNull(message = "Screening ID is required")
+    private Long screeningId;
+
+    @NotBlank(message = "Pay mode is required")
+    private String payMode;
+}
@@ -2,6 +2,9 @@ package com.example.seatbooking.dto;
 
 import com.example.seatbooking.entity.Events;
 import lombok.*;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
@@ -17,6 +20,7 @@ public class EventResponseDTO {
     private String language;
     private String tag;
     private String showStatus;
+    // ✅ CHANGED: only a URL now — GET /api/events/{id}/image (or the external URL)
     private String image;
     private Long organizerId;
     private String organizerName;
@@ -32,9 +36,26 @@ public class EventResponseDTO {
                 .language(e.getLanguage())
                 .tag(e.getTag())
                 .showStatus(e.getShowStatus() != null ? e.getShowStatus().name() : null)
-                .image(e.getImage())
+                .image(imageUrl(e))
                 .organizerId(e.getOrganizer() != null ? e.getOrganizer().getUserId() : null)
                 .organizerName(e.getOrganizer() != null ? e.getOrganizer().getName() : null)
                 .build();
     }
-}
\ No newline at end of file
+
+    // ?v= changes with the content, so browsers may cache the image forever
+    private static String imageUrl(Events e) {
+        if (e.getImageUrl() != null) {
+            return e.getImageUrl();
+        }
+        if (e.getImageHash() == null) {
+            return null;
+        }
+        UriComponentsBuilder builder = RequestContextHolder.getRequestAttributes() != null
+                ? ServletUriComponentsBuilder.fromCurrentContextPath()
+                : UriComponentsBuilder.newInstance();
+        return builder.path("/api/events/{id}/image")
+                .queryParam("v", e.getImageHash().substring(0, 16))
+                .buildAndExpand(e.getEventId())
+                .toUriString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.seatbooking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ScreeningScheduleRequest {
+
+    @NotNull(message = "Event ID is required")
+    private Long eventId;
+
+    @NotNull(message = "Venue ID is required")
+    private Long venueId;
+
+    // both inclusive
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+
+    // every day of the range gets one screening per start time
+    @NotEmpty(message = "At least one start time is required")
+    private List<@NotNull LocalTime> startTimes;
+
+    // defaults to the event's duration
+    @Positive(message = "Duration must be positive")
+    private Integer durationMinutes;
+
+    // seat category → price; categories not listed keep the layout's ticket price
+    private Map<String, BigDecimal> categoryPrices;
+}
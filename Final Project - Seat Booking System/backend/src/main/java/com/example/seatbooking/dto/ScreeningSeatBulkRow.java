@@ -0,0 +1,19 @@
+package com.example.seatbooking.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+// ✅ One element of POST /api/seats/screening-seats/bulk — read one at a time off the stream
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ScreeningSeatBulkRow {
+
+    private Long screeningId;
+
+    // physical seat (seats_layout)
+    private Long seatId;
+
+    private BigDecimal price;
+}
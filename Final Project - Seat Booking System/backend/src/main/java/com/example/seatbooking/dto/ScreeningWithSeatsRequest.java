@@ -0,0 +1,22 @@
+package com.example.seatbooking.dto;
+
+import com.example.seatbooking.entity.Screening;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ScreeningWithSeatsRequest {
+
+    @Valid
+    @NotNull(message = "Screening is required")
+    private Screening screening;
+
+    // seat category → price; categories not listed keep the layout's ticket price
+    private Map<String, BigDecimal> categoryPrices;
+}
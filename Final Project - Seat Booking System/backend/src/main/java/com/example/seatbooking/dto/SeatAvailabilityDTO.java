@@ -0,0 +1,18 @@
+package com.example.seatbooking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+// ✅ "Seats left" of one screening — counts only, no seat list
+@Data
+@NoArgsConstructor @AllArgsConstructor
+public class SeatAvailabilityDTO {
+
+    private Long screeningId;
+    private int totalSeats;
+    private int remainingSeats;
+    private Map<String, Integer> remainingByCategory;
+}
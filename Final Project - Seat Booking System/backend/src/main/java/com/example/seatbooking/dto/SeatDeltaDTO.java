@@ -0,0 +1,16 @@
+package com.example.seatbooking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// ✅ One seat's new state on the live seat-map stream — everything else the client already
+// has from the snapshot
+@Data
+@NoArgsConstructor @AllArgsConstructor
+public class SeatDeltaDTO {
+
+    private Long screeningSeatsId;
+    private Long seatId;
+    private String availability;
+}
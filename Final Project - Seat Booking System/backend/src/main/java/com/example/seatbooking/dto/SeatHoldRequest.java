@@ -0,0 +1,20 @@
+package com.example.seatbooking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class SeatHoldRequest {
+
+    // the holder is the caller (JWT principal) — never taken from the body
+    // physical seat ids (seats_layout) of the screening's venue
+    @NotEmpty(message = "At least one seat is required")
+    @Size(max = 10, message = "At most 10 seats per request")
+    private List<@NotNull Long> seatIds;
+}
@@ -7,6 +7,10 @@ import lombok.*;
 
 @Entity
 @Table(name = "alerts")
+@NamedEntityGraph(name = "Alerts.details", attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("booking")
+})
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -17,14 +21,14 @@ public class Alerts {
     @Column(name = "alert_id")
     private Long alertId;
 
-    // ✅ FIXED: LAZY → EAGER
-    @ManyToOne(fetch = FetchType.EAGER)
+    // ✅ LAZY — fetched by the Alerts.details graph
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnoreProperties({"password", "phoneNo", "createdAt"})
     private User user;
 
-    // ✅ FIXED: LAZY → EAGER
-    @ManyToOne(fetch = FetchType.EAGER)
+    // ✅ LAZY — fetched by the Alerts.details graph
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booking_id")
     @JsonIgnoreProperties({"user", "screening", "bookingItems", "payments"})
     private Booking booking;
@@ -9,6 +9,18 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "booking")
+@NamedEntityGraph(name = "Booking.details",
+        attributeNodes = {
+                @NamedAttributeNode("user"),
+                @NamedAttributeNode(value = "screening", subgraph = "screening")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "screening", attributeNodes = {
+                        @NamedAttributeNode(value = "event", subgraph = "event"),
+                        @NamedAttributeNode("venue")
+                }),
+                @NamedSubgraph(name = "event", attributeNodes = @NamedAttributeNode("organizer"))
+        })
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -19,14 +31,14 @@ public class Booking {
     @Column(name = "booking_id")
     private Long bookingId;
 
-    // ✅ EAGER + keep name, email, userId — only hide password, phoneNo
-    @ManyToOne(fetch = FetchType.EAGER)
+    // ✅ LAZY (Booking.details graph) — keep name, email, userId, only hide password, phoneNo
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnoreProperties({"password", "phoneNo", "hibernateLazyInitializer", "handler"})
     private User user;
 
-    // ✅ EAGER + keep event title via screening → only hide circular collections
-    @ManyToOne(fetch = FetchType.EAGER)
+    // ✅ LAZY (Booking.details graph) — keep event title via screening, only hide circular collections
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "screening_id", nullable = false)
     @JsonIgnoreProperties({"screeningSeats", "bookings", "hibernateLazyInitializer", "handler"})
     private Screening screening;
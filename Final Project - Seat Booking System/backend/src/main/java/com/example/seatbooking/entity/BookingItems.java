@@ -1,6 +1,8 @@
 package com.example.seatbooking.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -8,24 +10,33 @@ import java.math.BigDecimal;
 
 @Entity
 @Table(name = "booking_items")
+@NamedEntityGraph(name = "BookingItems.details",
+        attributeNodes = {
+                @NamedAttributeNode(value = "booking", subgraph = "booking"),
+                @NamedAttributeNode("seat")
+        },
+        subgraphs = @NamedSubgraph(name = "booking", attributeNodes = @NamedAttributeNode("user")))
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
 public class BookingItems {
 
+    // ✅ Snowflake id — a booking's items go out in one batched INSERT (IDENTITY can't batch).
+    // Sent as a string: the ids are far beyond what a JS number holds exactly.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
+    @JsonSerialize(using = ToStringSerializer.class)
     @Column(name = "booking_items_id")
     private Long bookingItemsId;
 
-    // ✅ FIXED: LAZY → EAGER
-    @ManyToOne(fetch = FetchType.EAGER)
+    // ✅ LAZY — booking + its user come from the BookingItems.details graph
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booking_id", nullable = false)
     @JsonIgnoreProperties({"password", "screening", "bookingItems"})
     private Booking booking;
 
-    // ✅ FIXED: LAZY → EAGER
-    @ManyToOne(fetch = FetchType.EAGER)
+    // ✅ LAZY — fetched by the BookingItems.details graph
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "seat_id", nullable = false)
     @JsonIgnoreProperties({"screeningSeats", "venue"})
     private SeatLayout seat;
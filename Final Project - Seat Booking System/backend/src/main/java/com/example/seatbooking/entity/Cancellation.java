@@ -10,6 +10,15 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "cancellation")
+@NamedEntityGraph(name = "Cancellation.details",
+        attributeNodes = {
+                @NamedAttributeNode("user"),
+                @NamedAttributeNode(value = "booking", subgraph = "booking")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "booking", attributeNodes = @NamedAttributeNode(value = "screening", subgraph = "screening")),
+                @NamedSubgraph(name = "screening", attributeNodes = @NamedAttributeNode("event"))
+        })
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -20,14 +29,14 @@ public class Cancellation {
     @Column(name = "cancellation_id")
     private Long cancellationId;
 
-    // ✅ EAGER + only hide sensitive/circular fields, keep name, email, userId
-    @ManyToOne(fetch = FetchType.EAGER)
+    // ✅ LAZY (Cancellation.details graph) — only hide sensitive/circular fields
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booking_id", nullable = false)
     @JsonIgnoreProperties({"screening", "bookingItems", "payments", "hibernateLazyInitializer", "handler"})
     private Booking booking;
 
-    // ✅ EAGER + keep name, email, userId — only hide password, phoneNo
-    @ManyToOne(fetch = FetchType.EAGER)
+    // ✅ LAZY (Cancellation.details graph) — keep name, email, userId, only hide password, phoneNo
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnoreProperties({"password", "phoneNo", "hibernateLazyInitializer", "handler"})
     private User user;
@@ -5,21 +5,30 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+// ✅ Second-level cached (SecondLevelCacheConfig) — the organizer (a User) is not, only its id
 @Entity
 @Table(name = "events")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Events.CACHE_REGION)
+@NamedEntityGraph(name = "Events.organizer", attributeNodes = @NamedAttributeNode("organizer"))
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
 public class Events {
 
+    public static final String CACHE_REGION = "events";
+    public static final String QUERY_REGION = "events.queries";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "event_id")
     private Long eventId;
 
-    // ✅ CHANGED: LAZY → EAGER so organizer is always loaded (fixes "could not initialize proxy" error)
-    @ManyToOne(fetch = FetchType.EAGER)
+    // ✅ LAZY — read paths fetch it with the Events.organizer graph
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "organizer_id", nullable = false)
     @JsonIgnoreProperties({"password", "createdAt", "role", "phoneNo", "email"})
     private User organizer;
@@ -50,9 +59,16 @@ public class Events {
     @Column(name = "show_status", nullable = false)
     private ShowStatus showStatus;
 
-    // Stores Base64 image string or image URL
-    @Column(name = "image", columnDefinition = "LONGTEXT")
-    private String image;
+    // ✅ CHANGED: no more base64 LONGTEXT in the row — uploaded images live in EventImageStore
+    // (content-addressed file) and the row only keeps the hash; external images keep their URL
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
+
+    @Column(name = "image_content_type", length = 100)
+    private String imageContentType;
+
+    @Column(name = "image_url", length = 1024)
+    private String imageUrl;
 
     public enum ShowStatus {
         UPCOMING, ONGOING, COMPLETED, CANCELLED
@@ -11,6 +11,9 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "payment")
+@NamedEntityGraph(name = "Payment.details",
+        attributeNodes = @NamedAttributeNode(value = "booking", subgraph = "booking"),
+        subgraphs = @NamedSubgraph(name = "booking", attributeNodes = @NamedAttributeNode("user")))
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -21,8 +24,8 @@ public class Payment {
     @Column(name = "payment_id")
     private Long paymentId;
 
-    // ✅ FIXED: LAZY → EAGER
-    @ManyToOne(fetch = FetchType.EAGER)
+    // ✅ LAZY — booking + its user come from the Payment.details graph
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booking_id", nullable = false)
     @JsonIgnoreProperties({"password", "screening", "bookingItems", "payments"})
     private Booking booking;
@@ -9,6 +9,12 @@ import java.time.LocalTime;
 
 @Entity
 @Table(name = "screening")
+@NamedEntityGraph(name = "Screening.details",
+        attributeNodes = {
+                @NamedAttributeNode(value = "event", subgraph = "event"),
+                @NamedAttributeNode("venue")
+        },
+        subgraphs = @NamedSubgraph(name = "event", attributeNodes = @NamedAttributeNode("organizer")))
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -19,14 +25,14 @@ public class Screening {
     @Column(name = "screening_id")
     private Long screeningId;
 
-    // ✅ FIXED: LAZY → EAGER so event always loads
-    @ManyToOne(fetch = FetchType.EAGER)
+    // ✅ LAZY — event (+ organizer) fetched by Screening.details / the JOIN FETCH queries
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id", nullable = false)
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "screenings"})
     private Events event;
 
-    // ✅ FIXED: LAZY → EAGER so venue always loads
-    @ManyToOne(fetch = FetchType.EAGER)
+    // ✅ LAZY — venue fetched by Screening.details / the JOIN FETCH queries
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "venue_id", nullable = false)
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "screenings"})
     private Venue venue;
@@ -0,0 +1,43 @@
+package com.example.seatbooking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// ✅ Bitmap storage mode — the whole seat state of ONE screening in one row
+// Seat ordinal i ↔ i-th id in seatIds (venue layout order at the time of writing)
+@Entity
+@Table(name = "screening_seat_maps")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ScreeningSeatMap {
+
+    @Id
+    @Column(name = "screening_id")
+    private Long screeningId;
+
+    @Column(name = "venue_id", nullable = false)
+    private Long venueId;
+
+    @Column(name = "seat_count", nullable = false)
+    private Integer seatCount;
+
+    // 8 bytes per seat — seats_layout ids, ordinal order
+    @Lob
+    @Column(name = "seat_ids", nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] seatIds;
+
+    // 2 bits per seat (Availability ordinal), 4 seats per byte
+    @Lob
+    @Column(name = "states", nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] states;
+
+    // HELD seats only — ordinal (4) + holder userId (8) + holdTill epoch millis (8)
+    @Lob
+    @Column(name = "holds", columnDefinition = "MEDIUMBLOB")
+    private byte[] holds;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
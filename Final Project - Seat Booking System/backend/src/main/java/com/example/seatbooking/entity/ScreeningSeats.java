@@ -8,22 +8,31 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "screening_seats")
+@NamedEntityGraph(name = "ScreeningSeats.seat", attributeNodes = @NamedAttributeNode("seat"))
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
 public class ScreeningSeats {
 
+    // ids handed out per round trip to id_generators — also the JDBC batch a bulk insert flushes in
+    public static final int ID_BLOCK = 1000;
+
+    // ✅ Pooled table generator instead of IDENTITY → ids are known before the INSERT,
+    // so Hibernate can batch (and with rewriteBatchedStatements, MySQL gets multi-row INSERTs)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "screening_seats_ids")
+    @TableGenerator(name = "screening_seats_ids", table = "id_generators",
+            pkColumnName = "name", valueColumnName = "next_val", pkColumnValue = "screening_seats",
+            allocationSize = ID_BLOCK)
     @Column(name = "screening_seats_id")
     private Long screeningSeatsId;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "screening_id", nullable = false)
     @JsonIgnoreProperties({"screeningSeats", "bookings", "venue", "event"})
     private Screening screening;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "seat_id", nullable = false)
     @JsonIgnoreProperties({"screeningSeats", "venue"})
     private SeatLayout seat;
@@ -35,7 +44,7 @@ public class ScreeningSeats {
     @Column(nullable = false)
     private Availability availability;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "hold_by")
     @JsonIgnoreProperties({"password", "createdAt", "phoneNo"})
     private User holdBy;
@@ -7,6 +7,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "seat_holds")
+@NamedEntityGraph(name = "SeatHold.seat", attributeNodes = @NamedAttributeNode("seat"))
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -16,7 +17,7 @@ public class SeatHold {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "seat_id", nullable = false)
     @JsonIgnoreProperties({"screeningSeats", "venue"})
     private SeatLayout seat;
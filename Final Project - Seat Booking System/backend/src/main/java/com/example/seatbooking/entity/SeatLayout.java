@@ -5,23 +5,32 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.util.List;
 
+// ✅ Second-level cached (SecondLevelCacheConfig) — the screeningSeats collection is not
 @Entity
 @Table(name = "seats_layout")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SeatLayout.CACHE_REGION)
+@NamedEntityGraph(name = "SeatLayout.venue", attributeNodes = @NamedAttributeNode("venue"))
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
 public class SeatLayout {
 
+    public static final String CACHE_REGION = "seatLayout";
+    public static final String QUERY_REGION = "seatLayout.queries";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "seat_id")
     private Long seatId;
 
-    // ✅ FIXED: LAZY → EAGER
-    @ManyToOne(fetch = FetchType.EAGER)
+    // ✅ LAZY — fetched by the SeatLayout.venue graph
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "venue_id", nullable = false)
     @JsonIgnoreProperties({"screenings", "seats"})
     private Venue venue;
@@ -0,0 +1,16 @@
+package com.example.seatbooking.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// ✅ Primary key from SnowflakeIdGenerator — assigned in memory before the INSERT, so unlike
+// IDENTITY the inserts of many rows go out as one JDBC batch
+@IdGeneratorType(SnowflakeIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SnowflakeId {
+}
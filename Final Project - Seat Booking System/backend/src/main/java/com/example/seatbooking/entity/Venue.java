@@ -4,14 +4,22 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+// ✅ Second-level cached (SecondLevelCacheConfig) — reference data, read far more often than written
 @Entity
 @Table(name = "venue")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Venue.CACHE_REGION)
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
 public class Venue {
 
+    public static final String CACHE_REGION = "venue";
+    public static final String QUERY_REGION = "venue.queries";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "venue_id")
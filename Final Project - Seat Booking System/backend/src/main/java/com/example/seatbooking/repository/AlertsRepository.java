@@ -1,16 +1,31 @@
 package com.example.seatbooking.repository;
 
 import com.example.seatbooking.entity.Alerts;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AlertsRepository extends JpaRepository<Alerts, Long> {
 
+    // ✅ alert JSON shows user + booking
+    @Override
+    @EntityGraph("Alerts.details")
+    List<Alerts> findAll();
+
+    @Override
+    @EntityGraph("Alerts.details")
+    Optional<Alerts> findById(Long id);
+
+    @EntityGraph("Alerts.details")
     List<Alerts> findByUser_UserId(Long userId);
+    @EntityGraph("Alerts.details")
     List<Alerts> findByBooking_BookingId(Long bookingId);
+    @EntityGraph("Alerts.details")
     List<Alerts> findByUser_UserIdAndIsRead(Long userId, Boolean isRead);
+    @EntityGraph("Alerts.details")
     List<Alerts> findByType(String type);
     long countByUser_UserIdAndIsRead(Long userId, Boolean isRead);
 }
\ No newline at end of file
@@ -2,16 +2,31 @@ package com.example.seatbooking.repository;
 
 import com.example.seatbooking.entity.BookingItems;
 import com.example.seatbooking.entity.BookingItems.Status;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingItemsRepository extends JpaRepository<BookingItems, Long> {
 
+    // ✅ item JSON shows booking.user and the seat
+    @Override
+    @EntityGraph("BookingItems.details")
+    List<BookingItems> findAll();
+
+    @Override
+    @EntityGraph("BookingItems.details")
+    Optional<BookingItems> findById(Long id);
+
+    @EntityGraph("BookingItems.details")
     List<BookingItems> findByBooking_BookingId(Long bookingId);
+    @EntityGraph("BookingItems.details")
     List<BookingItems> findBySeat_SeatId(Long seatId);
+    @EntityGraph("BookingItems.details")
     List<BookingItems> findByStatus(Status status);
+    @EntityGraph("BookingItems.details")
     List<BookingItems> findByBooking_BookingIdAndStatus(Long bookingId, Status status);
     boolean existsByBooking_BookingIdAndSeat_SeatId(Long bookingId, Long seatId);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.example.seatbooking.repository;
 
 import com.example.seatbooking.entity.Booking;
 import com.example.seatbooking.entity.Booking.BookingStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
@@ -10,10 +11,24 @@ import java.util.Optional;
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    // ✅ Booking JSON carries user + screening (event, organizer, venue) → one joined SELECT
+    @Override
+    @EntityGraph("Booking.details")
+    List<Booking> findAll();
+
+    @Override
+    @EntityGraph("Booking.details")
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph("Booking.details")
     List<Booking> findByUser_UserId(Long userId);
+    @EntityGraph("Booking.details")
     List<Booking> findByScreening_ScreeningId(Long screeningId);
+    @EntityGraph("Booking.details")
     List<Booking> findByBookingStatus(BookingStatus bookingStatus);
+    @EntityGraph("Booking.details")
     Optional<Booking> findByRefCode(String refCode);
     boolean existsByRefCode(String refCode);
+    @EntityGraph("Booking.details")
     List<Booking> findByUser_UserIdAndBookingStatus(Long userId, BookingStatus bookingStatus);
 }
\ No newline at end of file
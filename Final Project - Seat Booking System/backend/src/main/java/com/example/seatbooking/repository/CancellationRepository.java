@@ -2,6 +2,7 @@ package com.example.seatbooking.repository;
 
 import com.example.seatbooking.entity.Cancellation;
 import com.example.seatbooking.entity.Cancellation.Status;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,14 +14,27 @@ import java.util.Optional;
 @Repository
 public interface CancellationRepository extends JpaRepository<Cancellation, Long> {
 
+    // ✅ CancellationDTO reads user, booking ref and the event title
+    @Override
+    @EntityGraph("Cancellation.details")
+    List<Cancellation> findAll();
+
+    @Override
+    @EntityGraph("Cancellation.details")
+    Optional<Cancellation> findById(Long id);
+
     boolean existsByBooking_BookingId(Long bookingId);
 
+    @EntityGraph("Cancellation.details")
     List<Cancellation> findByUser_UserId(Long userId);
 
+    @EntityGraph("Cancellation.details")
     List<Cancellation> findByBooking_BookingId(Long bookingId);
 
+    @EntityGraph("Cancellation.details")
     List<Cancellation> findByStatus(Status status);
 
+    @EntityGraph("Cancellation.details")
     List<Cancellation> findByUser_UserIdAndStatus(Long userId, Status status);
 
     // ✅ NEW — duplicate check with status
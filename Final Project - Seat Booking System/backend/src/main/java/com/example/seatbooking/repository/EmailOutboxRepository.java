@@ -0,0 +1,51 @@
+package com.example.seatbooking.repository;
+
+import com.example.seatbooking.entity.EmailOutbox;
+import com.example.seatbooking.entity.EmailOutbox.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // ✅ Candidates for the next batch — oldest first, backoff run out, not leased by another dispatcher
+    @Query("SELECT o.emailOutboxId FROM EmailOutbox o WHERE o.status = 'PENDING' AND o.nextAttemptAt <= :now " +
+            "AND (o.claimedUntil IS NULL OR o.claimedUntil < :now) ORDER BY o.emailOutboxId")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable page);
+
+    // ✅ Lease the candidates — conditional, so of two dispatchers racing for a row only one gets it
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox o SET o.claimToken = :token, o.claimedUntil = :until " +
+            "WHERE o.emailOutboxId IN :ids AND o.status = 'PENDING' " +
+            "AND (o.claimedUntil IS NULL OR o.claimedUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token,
+              @Param("until") LocalDateTime until, @Param("now") LocalDateTime now);
+
+    // what a claim() actually won
+    @Query("SELECT o FROM EmailOutbox o WHERE o.claimToken = :token ORDER BY o.emailOutboxId")
+    List<EmailOutbox> findClaimed(@Param("token") String token);
+
+    long countByStatus(Status status);
+
+    // oldest mail still waiting → how far behind the dispatcher is
+    @Query("SELECT MIN(o.createdAt) FROM EmailOutbox o WHERE o.status = 'PENDING'")
+    LocalDateTime findOldestPendingCreatedAt();
+
+    // ✅ One UPDATE for every mail of a batch that went out
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox o SET o.status = 'SENT', o.sentAt = :sentAt, " +
+            "o.attempts = o.attempts + 1, o.lastError = NULL, o.claimToken = NULL, o.claimedUntil = NULL " +
+            "WHERE o.emailOutboxId IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+}
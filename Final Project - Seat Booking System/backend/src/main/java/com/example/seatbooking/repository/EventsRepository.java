@@ -2,17 +2,71 @@ package com.example.seatbooking.repository;
 
 import com.example.seatbooking.entity.Events;
 import com.example.seatbooking.entity.Events.ShowStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EventsRepository extends JpaRepository<Events, Long> {
 
+    // ✅ EventResponseDTO needs the organizer name
+    // listings come from the query cache (events.queries) — writes to events or users invalidate them
+    @Override
+    @EntityGraph("Events.organizer")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Events.QUERY_REGION)})
+    List<Events> findAll();
+
+    @Override
+    @EntityGraph("Events.organizer")
+    Optional<Events> findById(Long id);
+
+    @EntityGraph("Events.organizer")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Events.QUERY_REGION)})
     List<Events> findByCategory(String category);
+    @EntityGraph("Events.organizer")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Events.QUERY_REGION)})
     List<Events> findByGenre(String genre);
+    @EntityGraph("Events.organizer")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Events.QUERY_REGION)})
     List<Events> findByLanguage(String language);
+    @EntityGraph("Events.organizer")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Events.QUERY_REGION)})
     List<Events> findByShowStatus(ShowStatus showStatus);
+    @EntityGraph("Events.organizer")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Events.QUERY_REGION)})
     List<Events> findByOrganizer_UserId(Long organizerId);
     boolean existsByTitle(String title);
+
+    // ── One-off migration of the old events.image LONGTEXT column ──
+
+    @Query(value = "SELECT event_id FROM events WHERE image IS NOT NULL", nativeQuery = true)
+    List<Long> findIdsWithLegacyImage();
+
+    @Query(value = "SELECT image FROM events WHERE event_id = :id", nativeQuery = true)
+    String findLegacyImage(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "events"))
+    @Query(value = "UPDATE events SET image = NULL, image_hash = :hash, image_content_type = :contentType, " +
+            "image_url = :url WHERE event_id = :id", nativeQuery = true)
+    int moveLegacyImage(@Param("id") Long id,
+                        @Param("hash") String hash,
+                        @Param("contentType") String contentType,
+                        @Param("url") String url);
 }
\ No newline at end of file
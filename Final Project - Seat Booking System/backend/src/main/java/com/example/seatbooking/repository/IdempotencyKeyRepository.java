@@ -0,0 +1,39 @@
+package com.example.seatbooking.repository;
+
+import com.example.seatbooking.entity.IdempotencyKey;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, IdempotencyKey.Key> {
+
+    // ✅ Plain INSERT (save() would merge → SELECT first): a concurrent retry with the same key
+    // waits on the (user_id, idempotency_key) primary key here and fails once the first checkout commits
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, user_id, request_hash, created_at, expires_at) " +
+            "VALUES (:key, :userId, :requestHash, :createdAt, :expiresAt)", nativeQuery = true)
+    int claim(@Param("key") String key,
+              @Param("userId") Long userId,
+              @Param("requestHash") String requestHash,
+              @Param("createdAt") LocalDateTime createdAt,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.responseBody = :body WHERE k.userId = :userId AND k.idempotencyKey = :key")
+    int complete(@Param("userId") Long userId, @Param("key") String key, @Param("body") String body);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -2,6 +2,7 @@ package com.example.seatbooking.repository;
 
 import com.example.seatbooking.entity.Payment;
 import com.example.seatbooking.entity.Payment.Status;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
@@ -10,10 +11,24 @@ import java.util.Optional;
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
+    // ✅ payment JSON shows booking.user
+    @Override
+    @EntityGraph("Payment.details")
+    List<Payment> findAll();
+
+    @Override
+    @EntityGraph("Payment.details")
+    Optional<Payment> findById(Long id);
+
+    @EntityGraph("Payment.details")
     List<Payment> findByBooking_BookingId(Long bookingId);
+    @EntityGraph("Payment.details")
     List<Payment> findByStatus(Status status);
+    @EntityGraph("Payment.details")
     Optional<Payment> findByReferenceCode(String referenceCode);
+    @EntityGraph("Payment.details")
     List<Payment> findByPayMode(String payMode);
     boolean existsByReferenceCode(String referenceCode);
+    @EntityGraph("Payment.details")
     List<Payment> findByBooking_User_UserId(Long userId);
 }
\ No newline at end of file
@@ -2,32 +2,84 @@ package com.example.seatbooking.repository;
 
 import com.example.seatbooking.entity.Screening;
 import com.example.seatbooking.entity.Screening.Status;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ScreeningRepository extends JpaRepository<Screening, Long> {
 
+    // ✅ Screening JSON carries event (+ organizer) and venue
+    @Override
+    @EntityGraph("Screening.details")
+    List<Screening> findAll();
+
+    @Override
+    @EntityGraph("Screening.details")
+    Optional<Screening> findById(Long id);
+
     // ✅ NEW — JOIN FETCH so event & venue always load (fixes "—" in frontend)
-    @Query("SELECT s FROM Screening s JOIN FETCH s.event JOIN FETCH s.venue")
+    @Query("SELECT s FROM Screening s JOIN FETCH s.event e LEFT JOIN FETCH e.organizer JOIN FETCH s.venue")
     List<Screening> findAllWithEventAndVenue();
 
     // ✅ NEW — single screening with event & venue fetched
-    @Query("SELECT s FROM Screening s JOIN FETCH s.event JOIN FETCH s.venue WHERE s.screeningId = :id")
+    @Query("SELECT s FROM Screening s JOIN FETCH s.event e LEFT JOIN FETCH e.organizer JOIN FETCH s.venue WHERE s.screeningId = :id")
     Optional<Screening> findByIdWithEventAndVenue(Long id);
 
     // ✅ NEW — by event with JOIN FETCH
-    @Query("SELECT s FROM Screening s JOIN FETCH s.event JOIN FETCH s.venue WHERE s.event.eventId = :eventId")
+    @Query("SELECT s FROM Screening s JOIN FETCH s.event e LEFT JOIN FETCH e.organizer JOIN FETCH s.venue WHERE e.eventId = :eventId")
     List<Screening> findByEventIdWithDetails(Long eventId);
 
-    // existing methods — unchanged
+    // derived finders — same fetch plan as the JOIN FETCH queries above
     List<Screening> findByEvent_EventId(Long eventId);
+    @EntityGraph("Screening.details")
     List<Screening> findByVenue_VenueId(Long venueId);
+    @EntityGraph("Screening.details")
     List<Screening> findByScreenDate(LocalDate screenDate);
+    @EntityGraph("Screening.details")
     List<Screening> findByStatus(Status status);
+
+    // ✅ ids only — the seat engine does not need event / venue to load a screening
+    @Query("SELECT s.screeningId FROM Screening s WHERE s.status = :status")
+    List<Long> findIdsByStatus(@Param("status") Status status);
+
+    // ✅ NEW — screenings of a venue whose seat layout changed (seat engine eviction)
+    @Query("SELECT s.screeningId FROM Screening s WHERE s.venue.venueId = :venueId")
+    List<Long> findIdsByVenue(@Param("venueId") Long venueId);
+
+    // ✅ NEW — checked by the seat engine before it loads a screening into memory
+    @Query("SELECT s.status FROM Screening s WHERE s.screeningId = :id")
+    Optional<Status> findStatusById(@Param("id") Long id);
+
     List<Screening> findByEvent_EventIdAndScreenDate(Long eventId, LocalDate screenDate);
+
+    // ✅ NEW — what occupies a venue over a date range (the scheduler's conflict index)
+    @Query("SELECT s FROM Screening s WHERE s.venue.venueId = :venueId " +
+            "AND s.screenDate BETWEEN :from AND :to AND s.status <> 'CANCELLED'")
+    List<Screening> findActiveByVenueBetween(@Param("venueId") Long venueId,
+                                             @Param("from") LocalDate from,
+                                             @Param("to") LocalDate to);
+
+    // ✅ NEW — written by the seat engine's remaining-seat flush
+    @Modifying
+    @Transactional
+    @Query("UPDATE Screening s SET s.remainingSeats = :remaining WHERE s.screeningId = :screeningId")
+    int updateRemainingSeats(@Param("screeningId") Long screeningId, @Param("remaining") int remaining);
+
+    // ✅ NEW — [screeningId, eventId] of the active screenings of some events
+    @Query("SELECT s.screeningId, s.event.eventId FROM Screening s " +
+            "WHERE s.event.eventId IN :eventIds AND s.status = 'ACTIVE'")
+    List<Object[]> findActiveIdsByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    // ✅ NEW — [screeningId, venueId] of some screenings (bitmap seat counts)
+    @Query("SELECT s.screeningId, s.venue.venueId FROM Screening s WHERE s.screeningId IN :ids")
+    List<Object[]> findVenueIdsByIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
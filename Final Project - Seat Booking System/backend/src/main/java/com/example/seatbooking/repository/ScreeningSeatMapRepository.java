@@ -0,0 +1,20 @@
+package com.example.seatbooking.repository;
+
+import com.example.seatbooking.entity.ScreeningSeatMap;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ScreeningSeatMapRepository extends JpaRepository<ScreeningSeatMap, Long> {
+
+    // ✅ Multi-seat hold claims lock the screening's row until commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM ScreeningSeatMap m WHERE m.screeningId = :screeningId")
+    Optional<ScreeningSeatMap> findForUpdate(@Param("screeningId") Long screeningId);
+}
@@ -1,30 +1,105 @@
 package com.example.seatbooking.repository;
 
 import com.example.seatbooking.entity.ScreeningSeats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ScreeningSeatsRepository extends JpaRepository<ScreeningSeats, Long> {
 
+    // ✅ ScreeningSeatDTO / the seat engine read the seat layout of each row
+    @Override
+    @EntityGraph("ScreeningSeats.seat")
+    List<ScreeningSeats> findAll();
+
+    @Override
+    @EntityGraph("ScreeningSeats.seat")
+    Optional<ScreeningSeats> findById(Long id);
+
     boolean existsByScreening_ScreeningIdAndSeat_SeatId(Long screeningId, Long seatId);
 
+    @EntityGraph("ScreeningSeats.seat")
     List<ScreeningSeats> findByScreening_ScreeningId(Long screeningId);
 
     List<ScreeningSeats> findByScreening_ScreeningIdAndAvailability(Long screeningId, ScreeningSeats.Availability availability);
 
-    List<ScreeningSeats> findByHoldBy_UserId(Long userId);
-
     Optional<ScreeningSeats> findBySeat_SeatIdAndScreening_ScreeningIdAndAvailability(
             Long seatId,
             Long screeningId,
             ScreeningSeats.Availability availability
     );
 
-    @Query("SELECT ss FROM ScreeningSeats ss WHERE ss.holdTill < :now AND ss.availability = 'HELD' AND ss.holdBy IS NOT NULL")
-    List<ScreeningSeats> findExpiredHolds(@Param("now") LocalDateTime now);
-}
\ No newline at end of file
+    // ✅ NEW — [screeningId, seatCategory, availability, count] for screenings the engine has not loaded
+    @Query("SELECT ss.screening.screeningId, ss.seat.seatCategory, ss.availability, COUNT(ss) " +
+            "FROM ScreeningSeats ss WHERE ss.screening.screeningId IN :screeningIds " +
+            "GROUP BY ss.screening.screeningId, ss.seat.seatCategory, ss.availability")
+    List<Object[]> countByCategoryAndAvailability(@Param("screeningIds") Collection<Long> screeningIds);
+
+    // ✅ Write-behind flush — one set-based UPDATE per (availability, holder, holdTill) group
+    // Native writes name the table they touch: without it Hibernate assumes any table and empties
+    // the whole second-level cache (venues, layouts, events) every flush
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "screening_seats"))
+    @Query(value = "UPDATE screening_seats SET availability = :availability, hold_by = :userId, hold_till = :holdTill " +
+            "WHERE screening_seats_id IN (:ids)", nativeQuery = true)
+    int updateState(@Param("ids") Collection<Long> ids,
+                    @Param("availability") String availability,
+                    @Param("userId") Long userId,
+                    @Param("holdTill") LocalDateTime holdTill);
+
+    // ✅ NEW — all-or-nothing hold: only rows still AVAILABLE are claimed, caller checks the count
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "screening_seats"))
+    @Query(value = "UPDATE screening_seats SET availability = 'HELD', hold_by = :userId, hold_till = :holdTill " +
+            "WHERE screening_id = :screeningId AND seat_id IN (:seatIds) AND availability = 'AVAILABLE'",
+            nativeQuery = true)
+    int holdIfAvailable(@Param("screeningId") Long screeningId,
+                        @Param("seatIds") Collection<Long> seatIds,
+                        @Param("userId") Long userId,
+                        @Param("holdTill") LocalDateTime holdTill);
+
+    // ✅ id_generators must start above every id the old AUTO_INCREMENT column handed out —
+    // the row is created if missing and moved forward if it is behind MAX(id)
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "id_generators"))
+    @Query(value = "INSERT INTO id_generators (name, next_val) " +
+            "SELECT 'screening_seats', m.next_val " +
+            "FROM (SELECT COALESCE(MAX(screening_seats_id), 0) + :gap AS next_val FROM screening_seats) m " +
+            "WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE name = 'screening_seats')", nativeQuery = true)
+    int insertIdBlockRow(@Param("gap") long gap);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "id_generators"))
+    @Query(value = "UPDATE id_generators " +
+            "SET next_val = (SELECT COALESCE(MAX(screening_seats_id), 0) FROM screening_seats) + :gap " +
+            "WHERE name = 'screening_seats' " +
+            "AND next_val < (SELECT COALESCE(MAX(screening_seats_id), 0) FROM screening_seats) + :gap", nativeQuery = true)
+    int moveIdBlockPastMax(@Param("gap") long gap);
+
+    // ✅ NEW — id range for set-based inserts: lock the generator row, then push it past every
+    // layout seat of the screenings' venues. next_val holds the last id handed out, so the next pooled block
+    // is (next_val + 1 - ID_BLOCK, next_val + 1] — the caller takes the first seat-count ids of it
+    @Query(value = "SELECT next_val FROM id_generators WHERE name = 'screening_seats' FOR UPDATE", nativeQuery = true)
+    long lockIdBlock();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "id_generators"))
+    @Query(value = "UPDATE id_generators " +
+            "SET next_val = next_val + (SELECT COUNT(*) FROM screening s " +
+            "JOIN seats_layout sl ON sl.venue_id = s.venue_id WHERE s.screening_id IN (:screeningIds)) " +
+            "WHERE name = 'screening_seats'", nativeQuery = true)
+    int reserveIdsForScreenings(@Param("screeningIds") Collection<Long> screeningIds);
+}
@@ -1,29 +1,52 @@
 package com.example.seatbooking.repository;
 
 import com.example.seatbooking.entity.SeatHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SeatHoldRepository extends JpaRepository<SeatHold, Long> {
 
-    // ✅ Find expired holds
-    @Query("SELECT s FROM SeatHold s WHERE s.status = 'HELD' AND s.expiresAt < :now")
+    // ✅ hold JSON includes the seat
+    @Override
+    @EntityGraph("SeatHold.seat")
+    List<SeatHold> findAll();
+
+    @Override
+    @EntityGraph("SeatHold.seat")
+    Optional<SeatHold> findById(Long id);
+
+    // ✅ Find expired holds — locked, so checkout can't confirm one while it is being released
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SeatHold s WHERE s.status = 'HELD' AND s.expiresAt < :now ORDER BY s.id")
     List<SeatHold> findExpiredHolds(@Param("now") LocalDateTime now);
 
+    // ✅ NEW — the wheel's due holds that are still HELD and expired, locked like findExpiredHolds
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SeatHold s WHERE s.id IN :ids AND s.status = 'HELD' AND s.expiresAt <= :now ORDER BY s.id")
+    List<SeatHold> findExpiredForUpdate(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
     // ✅ Find hold by seat id and status
     Optional<SeatHold> findBySeat_SeatIdAndStatus(Long seatId, SeatHold.HoldStatus status);
 
     // ✅ Find all holds by user
+    @EntityGraph("SeatHold.seat")
     List<SeatHold> findByUserId(Long userId);
 
     // ✅ Find all holds by seat id
+    @EntityGraph("SeatHold.seat")
     List<SeatHold> findBySeat_SeatId(Long seatId);
 
     // ✅ Find holds by user and status (all screenings)
@@ -35,4 +58,19 @@ public interface SeatHoldRepository extends JpaRepository<SeatHold, Long> {
             Long screeningId,
             SeatHold.HoldStatus status
     );
-}
\ No newline at end of file
+
+    // ✅ NEW — checkout: the user's running holds, locked so two checkouts can't both book them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SeatHold s WHERE s.userId = :userId AND s.screeningId = :screeningId " +
+            "AND s.status = 'HELD' ORDER BY s.id")
+    List<SeatHold> findHeldForUpdate(@Param("userId") Long userId, @Param("screeningId") Long screeningId);
+
+    // ✅ NEW — active holds, put back on the expiry wheel at startup
+    List<SeatHold> findByStatus(SeatHold.HoldStatus status);
+
+    // ✅ NEW — one set-based status change for a whole batch of holds; only rows still HELD move
+    @Modifying
+    @Transactional
+    @Query("UPDATE SeatHold s SET s.status = :status WHERE s.id IN :ids AND s.status = 'HELD'")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") SeatHold.HoldStatus status);
+}
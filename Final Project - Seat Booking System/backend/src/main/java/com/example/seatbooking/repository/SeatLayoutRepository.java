@@ -1,7 +1,11 @@
 package com.example.seatbooking.repository;
 
 import com.example.seatbooking.entity.SeatLayout;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -9,11 +13,35 @@ import java.util.Optional;
 @Repository
 public interface SeatLayoutRepository extends JpaRepository<SeatLayout, Long> {
 
+    // ✅ SeatLayoutDTO shows the venue name
+    @Override
+    @EntityGraph("SeatLayout.venue")
+    List<SeatLayout> findAll();
+
+    @Override
+    @EntityGraph("SeatLayout.venue")
+    Optional<SeatLayout> findById(Long id);
+
+    // ✅ Query cache (seatLayout.queries) — a venue's layout is re-read on every seat map load
+    @EntityGraph("SeatLayout.venue")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SeatLayout.QUERY_REGION)})
     List<SeatLayout> findByVenue_VenueId(Long venueId);
+    @EntityGraph("SeatLayout.venue")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SeatLayout.QUERY_REGION)})
     List<SeatLayout> findBySeatCategory(String seatCategory);
+    @EntityGraph("SeatLayout.venue")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SeatLayout.QUERY_REGION)})
     List<SeatLayout> findByVenue_VenueIdAndSeatCategory(Long venueId, String seatCategory);
     boolean existsBySeatNoAndVenue_VenueId(String seatNo, Long venueId);
 
     // ✅ NEW: duplicate skip பண்ண இது வேணும்
     Optional<SeatLayout> findBySeatNoAndVenue_VenueId(String seatNo, Long venueId);
+
+    // ✅ NEW — remaining seats of a generated screening
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SeatLayout.QUERY_REGION)})
+    long countByVenue_VenueId(Long venueId);
 }
\ No newline at end of file
@@ -1,14 +1,37 @@
 package com.example.seatbooking.repository;
 
 import com.example.seatbooking.entity.Venue;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface VenueRepository extends JpaRepository<Venue, Long> {
 
+    // ✅ Lookups served from the query cache (venue.queries) — any write to venue invalidates them
+    @Override
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Venue.QUERY_REGION)})
+    List<Venue> findAll();
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Venue.QUERY_REGION)})
     List<Venue> findByDistrict(String district);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Venue.QUERY_REGION)})
     List<Venue> findByRegion(String region);
     boolean existsByVenueName(String venueName);
+
+    // ✅ NEW — serializes schedulers of the same venue: conflict check + inserts under this lock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Venue v WHERE v.venueId = :venueId")
+    Optional<Venue> findForUpdate(@Param("venueId") Long venueId);
 }
\ No newline at end of file
@@ -0,0 +1,194 @@
+package com.example.seatbooking.service;
+
+import com.example.seatbooking.dto.ScreeningSeatDTO;
+import com.example.seatbooking.entity.ScreeningSeats.Availability;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// ✅ "N best adjacent seats" — picked from live seat state and held in the same call
+//
+// Rows come from seatRow, seat order inside a row from the number in seatNo; a jump in the
+// numbering (aisle) breaks adjacency. Each try builds one BitSet of free seats per row, scores
+// every contiguous run of N (central rows and the middle of the row win) and holds the best
+// through the regular all-or-nothing hold. Lost the race for it → pick again from fresh state.
+@Service
+public class BestSeatAllocator implements SeatStateEngine.SeatChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(BestSeatAllocator.class);
+
+    static final int MAX_ATTEMPTS = 3;
+
+    // the sweet spot sits a little behind the middle of the house
+    private static final double PREFERRED_ROW = 0.6;
+
+    private static final Pattern SEAT_NUMBER = Pattern.compile("(\\d+)\\D*$");
+
+    // one physical row: ordinals in seat-number order; breakBefore marks an aisle before a position
+    private record Row(String label, int[] ordinals, BitSet breakBefore) {
+    }
+
+    // rows of one loaded screening, front to back — static while the screening stays loaded
+    private record RowIndex(ScreeningSeatState state, List<Row> rows) {
+    }
+
+    private record Candidate(int row, int start, double score) {
+    }
+
+    private final SeatStateEngine seatStateEngine;
+    private final SeatHoldService seatHoldService;
+
+    private final Map<Long, RowIndex> indexes = new ConcurrentHashMap<>();
+
+    public BestSeatAllocator(SeatStateEngine seatStateEngine, SeatHoldService seatHoldService) {
+        this.seatStateEngine = seatStateEngine;
+        this.seatHoldService = seatHoldService;
+        seatStateEngine.addListener(this);
+    }
+
+    public List<ScreeningSeatDTO> holdBestAvailable(Long screeningId, Long userId, int count, String category) {
+        for (int attempt = 1; ; attempt++) {
+            RowIndex index = index(screeningId);
+            List<Long> seatIds = pick(index, count, category);
+            if (seatIds == null) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "No " + count + " adjacent seats available"
+                        + (category != null ? " in category " + category : ""));
+            }
+            try {
+                return seatHoldService.holdSeats(screeningId, userId, seatIds);
+            } catch (ResponseStatusException e) {
+                // someone took one of them between the pick and the hold
+                if (e.getStatusCode() != HttpStatus.CONFLICT || attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Best available: seats {} of screening {} taken meanwhile, picking again", seatIds, screeningId);
+            }
+        }
+    }
+
+    // ── Picking ─────────────────────────────────────────────
+
+    // seat ids of the best run, or null if no row has count adjacent free seats
+    private static List<Long> pick(RowIndex index, int count, String category) {
+        ScreeningSeatState state = index.state();
+        List<Row> rows = index.rows();
+        double preferredRow = (rows.size() - 1) * PREFERRED_ROW;
+
+        Candidate best = null;
+        for (int r = 0; r < rows.size(); r++) {
+            Row row = rows.get(r);
+            int[] ordinals = row.ordinals();
+
+            BitSet free = new BitSet(ordinals.length);
+            for (int i = 0; i < ordinals.length; i++) {
+                if (state.availability(ordinals[i]) == Availability.AVAILABLE
+                        && (category == null || category.equalsIgnoreCase(state.seat(ordinals[i]).seatCategory()))) {
+                    free.set(i);
+                }
+            }
+
+            double rowPenalty = rows.size() > 1 ? Math.abs(r - preferredRow) / (rows.size() - 1) : 0.0;
+            double rowCenter = (ordinals.length - 1) / 2.0;
+            for (int from = free.nextSetBit(0); from >= 0; ) {
+                int to = free.nextClearBit(from);
+                // an aisle splits the free stretch into separate runs
+                int aisle = row.breakBefore().nextSetBit(from + 1);
+                if (aisle >= 0 && aisle < to) {
+                    to = aisle;
+                }
+                for (int start = from; start + count <= to; start++) {
+                    double offCenter = Math.abs(start + (count - 1) / 2.0 - rowCenter) / Math.max(1, ordinals.length);
+                    double score = rowPenalty + offCenter;
+                    if (best == null || score < best.score()) {
+                        best = new Candidate(r, start, score);
+                    }
+                }
+                from = to < ordinals.length && free.get(to) ? to : free.nextSetBit(to);
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+
+        int[] ordinals = rows.get(best.row()).ordinals();
+        List<Long> seatIds = new ArrayList<>(count);
+        for (int i = best.start(); i < best.start() + count; i++) {
+            seatIds.add(state.seat(ordinals[i]).seatId());
+        }
+        return seatIds;
+    }
+
+    // ── Row index ───────────────────────────────────────────
+
+    private RowIndex index(Long screeningId) {
+        ScreeningSeatState state = seatStateEngine.state(screeningId);
+        RowIndex cached = indexes.get(screeningId);
+        if (cached != null && cached.state() == state) {
+            return cached;
+        }
+        RowIndex built = build(state);
+        indexes.put(screeningId, built);
+        return built;
+    }
+
+    private static RowIndex build(ScreeningSeatState state) {
+        // natural row order: "B" < "AA", "R2" < "R10"
+        Map<String, List<Integer>> byRow = new TreeMap<>(
+                Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+        for (int i = 0; i < state.size(); i++) {
+            String label = state.seat(i).seatRow() != null ? state.seat(i).seatRow() : "";
+            byRow.computeIfAbsent(label, l -> new ArrayList<>()).add(i);
+        }
+
+        List<Row> rows = new ArrayList<>(byRow.size());
+        byRow.forEach((label, members) -> {
+            members.sort(Comparator.comparingInt((Integer ordinal) -> seatNumber(state, ordinal))
+                    .thenComparing(ordinal -> state.seat(ordinal).seatNo()));
+            int[] ordinals = members.stream().mapToInt(Integer::intValue).toArray();
+            BitSet breakBefore = new BitSet(ordinals.length);
+            for (int i = 1; i < ordinals.length; i++) {
+                int previous = seatNumber(state, ordinals[i - 1]);
+                int current = seatNumber(state, ordinals[i]);
+                if (previous >= 0 && current >= 0 && current != previous + 1) {
+                    breakBefore.set(i);
+                }
+            }
+            rows.add(new Row(label, ordinals, breakBefore));
+        });
+        return new RowIndex(state, rows);
+    }
+
+    // trailing number of seatNo ("A12" → 12, "R0-3" → 3), -1 if it has none
+    private static int seatNumber(ScreeningSeatState state, int ordinal) {
+        String seatNo = state.seat(ordinal).seatNo();
+        if (seatNo == null) {
+            return -1;
+        }
+        Matcher matcher = SEAT_NUMBER.matcher(seatNo);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    // ── Engine callbacks ────────────────────────────────────
+
+    @Override
+    public void seatChanged(ScreeningSeatState state, int ordinal) {
+        // availability is read live on every pick — nothing cached to update
+    }
+
+    @Override
+    public void screeningEvicted(Long screeningId) {
+        indexes.remove(screeningId);
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.seatbooking.service;
+
+import com.example.seatbooking.config.ReadFromPrimary;
+import com.example.seatbooking.entity.ScreeningSeatMap;
+import com.example.seatbooking.entity.ScreeningSeats.Availability;
+import com.example.seatbooking.entity.SeatLayout;
+import com.example.seatbooking.repository.ScreeningRepository;
+import com.example.seatbooking.repository.ScreeningSeatMapRepository;
+import com.example.seatbooking.repository.SeatLayoutRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// ✅ Bitmap storage — one screening_seat_maps row per screening instead of one row per seat
+//
+// Seat info (no, row, category) and price come from the venue's seats_layout (price = the
+// seat's category tier, ticketPrice), cached per venue. Loading a screening is then a
+// single row fetch. No screening_seats rows are needed — a screening without a map row
+// simply starts with every seat AVAILABLE.
+//
+// API seat ids are synthetic: screeningSeatsId = screeningId << 24 | seatId
+// (stays below 2^53, so the frontend can keep them as plain JS numbers).
+@Service
+@ConditionalOnProperty(name = "seat.storage.mode", havingValue = "bitmap")
+public class BitmapSeatStateStore implements SeatStateStore {
+
+    private static final Availability[] AVAILABILITIES = Availability.values();
+
+    private static final int  ID_SHIFT           = 24;
+    private static final long SEAT_ID_LIMIT      = 1L << ID_SHIFT;
+    private static final long SCREENING_ID_LIMIT = 1L << (53 - ID_SHIFT);
+
+    private static final int HOLD_ENTRY_BYTES = 4 + 8 + 8;
+
+    private final ScreeningSeatMapRepository seatMapRepository;
+    private final ScreeningRepository screeningRepository;
+    private final SeatLayoutRepository seatLayoutRepository;
+
+    // venueId → layout sorted by seatId
+    private final Map<Long, List<SeatLayout>> layouts = new ConcurrentHashMap<>();
+
+    public BitmapSeatStateStore(ScreeningSeatMapRepository seatMapRepository,
+                                ScreeningRepository screeningRepository,
+                                SeatLayoutRepository seatLayoutRepository) {
+        this.seatMapRepository = seatMapRepository;
+        this.screeningRepository = screeningRepository;
+        this.seatLayoutRepository = seatLayoutRepository;
+    }
+
+    // the engine decides holds from this copy — never from a lagging replica
+    @Override
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
+    public ScreeningSeatState load(Long screeningId) {
+        ScreeningSeatMap map = seatMapRepository.findById(screeningId).orElse(null);
+        Long venueId = map != null ? map.getVenueId() : venueOf(screeningId);
+
+        ScreeningSeatState state = emptyState(screeningId, venueId);
+        if (map != null) {
+            decode(map, state);
+        }
+        return state;
+    }
+
+    // ✅ The whole screening is one row → write every seat, not just the dirty ones
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void persist(ScreeningSeatState state, List<Integer> ordinals) {
+        Long screeningId = state.getScreeningId();
+        ScreeningSeatMap map = seatMapRepository.findById(screeningId)
+                .orElseGet(() -> ScreeningSeatMap.builder()
+                        .screeningId(screeningId)
+                        .venueId(venueOf(screeningId))
+                        .build());
+        encode(state, map);
+        seatMapRepository.save(map);
+    }
+
+    // ✅ Claim under a row lock: a seat counts if it is AVAILABLE, or already written
+    // as HELD by this very hold (a write-behind flush of the engine got there first)
+    @Override
+    public int claimForHold(Long screeningId, Collection<Long> seatIds, Long userId, LocalDateTime holdTill) {
+        ScreeningSeatMap map = seatMapRepository.findForUpdate(screeningId)
+                .orElseGet(() -> ScreeningSeatMap.builder()
+                        .screeningId(screeningId)
+                        .venueId(venueOf(screeningId))
+                        .build());
+
+        ScreeningSeatState state = emptyState(screeningId, map.getVenueId());
+        if (map.getStates() != null) {
+            decode(map, state);
+        }
+
+        long tillMillis = SeatStateStore.toMillis(holdTill);
+        int claimed = 0;
+        for (Long seatId : seatIds) {
+            Integer ordinal = state.ordinalOfSeat(seatId);
+            if (ordinal == null) {
+                continue;
+            }
+            Availability current = state.availability(ordinal);
+            if (current == Availability.AVAILABLE) {
+                state.load(ordinal, Availability.HELD, userId, tillMillis);
+                claimed++;
+            } else if (current == Availability.HELD
+                    && state.holder(ordinal) == userId
+                    && state.holdTill(ordinal) == tillMillis) {
+                claimed++;
+            }
+        }
+
+        if (claimed == seatIds.size()) {
+            encode(state, map);
+            seatMapRepository.save(map);
+        }
+        return claimed;
+    }
+
+    // ✅ Decoded from the map rows — one query for the maps, one for the venues of the rest
+    @Override
+    @Transactional(readOnly = true)
+    public List<Object[]> countByCategoryAndAvailability(Collection<Long> screeningIds) {
+        Map<Long, ScreeningSeatMap> maps = new HashMap<>();
+        for (ScreeningSeatMap map : seatMapRepository.findAllById(screeningIds)) {
+            maps.put(map.getScreeningId(), map);
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Object[] screening : screeningRepository.findVenueIdsByIds(screeningIds)) {
+            Long screeningId = (Long) screening[0];
+            ScreeningSeatMap map = maps.get(screeningId);
+            ScreeningSeatState state = emptyState(screeningId, map != null ? map.getVenueId() : (Long) screening[1]);
+            if (map != null) {
+                decode(map, state);
+            }
+
+            // category → count per Availability ordinal
+            Map<String, long[]> counts = new LinkedHashMap<>();
+            for (int i = 0; i < state.size(); i++) {
+                counts.computeIfAbsent(state.seat(i).seatCategory(), c -> new long[AVAILABILITIES.length])
+                        [state.availability(i).ordinal()]++;
+            }
+            counts.forEach((category, byAvailability) -> {
+                for (int a = 0; a < byAvailability.length; a++) {
+                    if (byAvailability[a] > 0) {
+                        rows.add(new Object[]{screeningId, category, AVAILABILITIES[a], byAvailability[a]});
+                    }
+                }
+            });
+        }
+        return rows;
+    }
+
+    @Override
+    public Long screeningOf(Long screeningSeatsId) {
+        long screeningId = screeningSeatsId >>> ID_SHIFT;
+        return screeningId > 0 ? screeningId : null;
+    }
+
+    @Override
+    public void layoutChanged(Long venueId) {
+        layouts.remove(venueId);
+    }
+
+    // ── Helpers ─────────────────────────────────────────────
+
+    private Long venueOf(Long screeningId) {
+        return screeningRepository.findById(screeningId)
+                .orElseThrow(() -> new RuntimeException("Screening not found: " + screeningId))
+                .getVenue().getVenueId();
+    }
+
+    private List<SeatLayout> layout(Long venueId) {
+        return layouts.computeIfAbsent(venueId, id -> {
+            List<SeatLayout> seats = new ArrayList<>(seatLayoutRepository.findByVenue_VenueId(id));
+            seats.sort(Comparator.comparing(SeatLayout::getSeatId));
+            return List.copyOf(seats);
+        });
+    }
+
+    // every seat of the current layout, all AVAILABLE
+    private ScreeningSeatState emptyState(Long screeningId, Long venueId) {
+        if (screeningId >= SCREENING_ID_LIMIT) {
+            throw new IllegalStateException("Screening id too large for bitmap seat ids: " + screeningId);
+        }
+        List<SeatLayout> seats = layout(venueId);
+        List<ScreeningSeatState.SeatInfo> infos = new ArrayList<>(seats.size());
+        for (SeatLayout seat : seats) {
+            if (seat.getSeatId() >= SEAT_ID_LIMIT) {
+                throw new IllegalStateException("Seat id too large for bitmap seat ids: " + seat.getSeatId());
+            }
+            infos.add(new ScreeningSeatState.SeatInfo(
+                    (screeningId << ID_SHIFT) | seat.getSeatId(),
+                    seat.getSeatId(),
+                    seat.getSeatNo(),
+                    seat.getSeatRow(),
+                    seat.getSeatCategory(),
+                    seat.getTicketPrice()));
+        }
+        return new ScreeningSeatState(screeningId, infos);
+    }
+
+    // Stored ordinals are mapped back through the stored seat ids, so seats added to or
+    // removed from the layout since the row was written do not shift anything
+    private static void decode(ScreeningSeatMap map, ScreeningSeatState state) {
+        ByteBuffer ids = ByteBuffer.wrap(map.getSeatIds());
+        int count = map.getSeatCount();
+        int[] ordinals = new int[count];
+
+        byte[] states = map.getStates();
+        for (int i = 0; i < count; i++) {
+            Integer ordinal = state.ordinalOfSeat(ids.getLong());
+            ordinals[i] = ordinal != null ? ordinal : -1;
+            if (ordinal != null) {
+                int bits = (states[i >> 2] >> ((i & 3) * 2)) & 0b11;
+                state.load(ordinal, AVAILABILITIES[bits], null, 0L);
+            }
+        }
+
+        if (map.getHolds() == null) {
+            return;
+        }
+        ByteBuffer holds = ByteBuffer.wrap(map.getHolds());
+        while (holds.remaining() >= HOLD_ENTRY_BYTES) {
+            int stored = holds.getInt();
+            long userId = holds.getLong();
+            long till = holds.getLong();
+            if (stored < count && ordinals[stored] >= 0) {
+                state.load(ordinals[stored], Availability.HELD, userId != 0L ? userId : null, till);
+            }
+        }
+    }
+
+    private static void encode(ScreeningSeatState state, ScreeningSeatMap map) {
+        int count = state.size();
+        ByteBuffer ids = ByteBuffer.allocate(count * 8);
+        byte[] states = new byte[(count + 3) / 4];
+        ByteBuffer holds = ByteBuffer.allocate(count * HOLD_ENTRY_BYTES);
+
+        for (int i = 0; i < count; i++) {
+            ids.putLong(state.seat(i).seatId());
+            Availability availability = state.availability(i);
+            states[i >> 2] |= (byte) (availability.ordinal() << ((i & 3) * 2));
+            if (availability == Availability.HELD) {
+                holds.putInt(i).putLong(state.holder(i)).putLong(state.holdTill(i));
+            }
+        }
+
+        byte[] packedHolds = new byte[holds.position()];
+        holds.flip().get(packedHolds);
+
+        map.setSeatCount(count);
+        map.setSeatIds(ids.array());
+        map.setStates(states);
+        map.setHolds(packedHolds);
+        map.setUpdatedAt(LocalDateTime.now());
+    }
+}
@@ -4,6 +4,7 @@ import com.example.seatbooking.entity.BookingItems;
 import com.example.seatbooking.entity.BookingItems.Status;
 import com.example.seatbooking.repository.BookingItemsRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
@@ -49,6 +50,7 @@ public class BookingItemsService {
         return bookingItemsRepository.findByBooking_BookingIdAndStatus(bookingId, status);
     }
 
+    @Transactional
     public BookingItems updateStatus(Long id, Status status) {
         BookingItems existing = bookingItemsRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("BookingItem not found with id: " + id));
@@ -56,6 +58,7 @@ public class BookingItemsService {
         return bookingItemsRepository.save(existing);
     }
 
+    @Transactional
     public BookingItems updateBookingItem(Long id, BookingItems updatedItem) {
         BookingItems existing = bookingItemsRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("BookingItem not found with id: " + id));
@@ -0,0 +1,143 @@
+package com.example.seatbooking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// ✅ Micrometer meters of the booking hot paths — scraped from /actuator/prometheus
+//
+//   bookit.flow{flow, outcome}            hold / release / booking / payment_status / cancellation…
+//   bookit.seat.hold.failed               holds that lost the race for a seat (409) — which
+//                                         screening is logged, not tagged (unbounded ids)
+//   bookit.hold.expiry.lag{source}        how late an expired hold was released (wheel or sweep)
+//   bookit.mail.send{outcome}             one SMTP batch
+//   bookit.mail.delivery.delay            outbox row created → mail sent
+//
+// A flow run inside a transaction is stopped when that transaction completes, so the time
+// includes the flush + commit (where the inserts and row locks really happen).
+@Component
+public class BookingMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingMetrics.class);
+
+    public static final String HOLD = "hold";
+    public static final String RELEASE = "release";
+    public static final String BOOKING = "booking";
+    public static final String PAYMENT_STATUS = "payment_status";
+    public static final String CANCELLATION = "cancellation";
+    public static final String CANCELLATION_DECISION = "cancellation_decision";
+
+    public static final String FLOW_TIMER = "bookit.flow";
+    public static final String HOLD_FAILED = "bookit.seat.hold.failed";
+    public static final String EXPIRY_LAG = "bookit.hold.expiry.lag";
+    public static final String MAIL_SEND = "bookit.mail.send";
+    public static final String MAIL_DELIVERY = "bookit.mail.delivery.delay";
+
+    private final MeterRegistry registry;
+    private final Timer mailDeliveryDelay;
+    private final Counter holdFailed;
+
+    public BookingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.holdFailed = Counter.builder(HOLD_FAILED)
+                .description("Seat holds rejected because a seat was no longer available")
+                .register(registry);
+        this.mailDeliveryDelay = histogram(Timer.builder(MAIL_DELIVERY)
+                .description("Time from queueing a mail to handing it to the SMTP server"));
+    }
+
+    // Runs one flow and times it — outcome success, rollback, conflict, not_found, rejected or error
+    public <T> T record(String flow, Supplier<T> work) {
+        Timer.Sample sample = Timer.start(registry);
+        T result;
+        try {
+            result = work.get();
+        } catch (RuntimeException e) {
+            sample.stop(flowTimer(flow, outcomeOf(e)));
+            throw e;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    sample.stop(flowTimer(flow, status == STATUS_COMMITTED ? "success" : "rollback"));
+                }
+            });
+        } else {
+            sample.stop(flowTimer(flow, "success"));
+        }
+        return result;
+    }
+
+    public void record(String flow, Runnable work) {
+        record(flow, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // ── Seat contention ─────────────────────────────────────
+
+    // one series for every screening — a per-screening tag would grow with every screening ever sold
+    public void holdFailed(Long screeningId) {
+        holdFailed.increment();
+        log.info("Seat hold lost the race for a seat of screening {}", screeningId);
+    }
+
+    // ── Hold expiry ─────────────────────────────────────────
+
+    // source = wheel (the per-tick expiry) or sweep (the safety net)
+    public void holdExpiryLag(String source, long lagMillis) {
+        histogram(Timer.builder(EXPIRY_LAG)
+                .description("Delay between a hold's expiresAt and its release")
+                .tag("source", source))
+                .record(Duration.ofMillis(Math.max(0, lagMillis)));
+    }
+
+    // ── Mail ────────────────────────────────────────────────
+
+    public void mailBatchSent(int sent, int failed, long elapsedNanos) {
+        String outcome = failed == 0 ? "sent" : sent == 0 ? "failed" : "partial";
+        histogram(Timer.builder(MAIL_SEND)
+                .description("One SMTP batch send")
+                .tag("outcome", outcome))
+                .record(Duration.ofNanos(elapsedNanos));
+    }
+
+    public void mailDelivered(Duration delay) {
+        mailDeliveryDelay.record(delay);
+    }
+
+    // ────────────────────────────────────────────────────────
+
+    private Timer flowTimer(String flow, String outcome) {
+        return histogram(Timer.builder(FLOW_TIMER)
+                .description("Booking hot-path latency, commit included")
+                .tag("flow", flow)
+                .tag("outcome", outcome));
+    }
+
+    private Timer histogram(Timer.Builder builder) {
+        return builder.publishPercentileHistogram().register(registry);
+    }
+
+    private static String outcomeOf(RuntimeException e) {
+        if (e instanceof ResponseStatusException rse) {
+            HttpStatusCode status = rse.getStatusCode();
+            if (status.value() == 409) return "conflict";
+            if (status.value() == 404) return "not_found";
+            if (status.is4xxClientError()) return "rejected";
+        }
+        return "error";
+    }
+}
@@ -1,36 +1,50 @@
 package com.example.seatbooking.service;
 
+import com.example.seatbooking.config.ReadFromReplica;
 import com.example.seatbooking.entity.Booking;
 import com.example.seatbooking.entity.Booking.BookingStatus;
 import com.example.seatbooking.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 public class BookingService {
 
+    private static final Logger log = LoggerFactory.getLogger(BookingService.class);
+
     private final BookingRepository bookingRepository;
     private final EmailService emailService;
+    private final SnowflakeIdGenerator snowflakeIdGenerator;
+    private final BookingMetrics metrics;
 
-    public BookingService(BookingRepository bookingRepository, EmailService emailService) {
+    public BookingService(BookingRepository bookingRepository,
+                          EmailService emailService,
+                          SnowflakeIdGenerator snowflakeIdGenerator,
+                          BookingMetrics metrics) {
         this.bookingRepository = bookingRepository;
         this.emailService = emailService;
+        this.snowflakeIdGenerator = snowflakeIdGenerator;
+        this.metrics = metrics;
     }
 
     // ✅ createBooking — PENDING only, NO mail here
     // Mail will be sent after payment SUCCESS via updateBookingStatus()
+    // refCode is time-ordered and unique per node (BK- + 13 chars) — no clash left for the unique index to catch
     @Transactional
     public Booking createBooking(Booking booking) {
-        booking.setRefCode("BK-" + UUID.randomUUID().toString()
-                .substring(0, 8).toUpperCase());
-        booking.setBookingStatus(BookingStatus.PENDING); // Stay PENDING until payment
-        return bookingRepository.save(booking);
+        return metrics.record(BookingMetrics.BOOKING, () -> {
+            booking.setRefCode(snowflakeIdGenerator.nextCode("BK-"));
+            booking.setBookingStatus(BookingStatus.PENDING); // Stay PENDING until payment
+            return bookingRepository.save(booking);
+        });
     }
 
+    @ReadFromReplica
     @Transactional(readOnly = true)
     public List<Booking> getAllBookings() {
         return bookingRepository.findAll();
@@ -56,6 +70,7 @@ public class BookingService {
         return bookingRepository.findByScreening_ScreeningId(screeningId);
     }
 
+    @ReadFromReplica
     @Transactional(readOnly = true)
     public List<Booking> getBookingsByStatus(BookingStatus status) {
         return bookingRepository.findByBookingStatus(status);
@@ -66,19 +81,11 @@ public class BookingService {
         return bookingRepository.findByUser_UserIdAndBookingStatus(userId, status);
     }
 
-    // ✅ FIXED: fetchBookingWithRelations — force-load all lazy fields inside transaction
+    // ✅ findById uses the Booking.details graph → user, screening, event, venue in one SELECT
     @Transactional(readOnly = true)
     public Booking fetchBookingWithRelations(Long id) {
-        Booking b = bookingRepository.findById(id)
+        return bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Booking not found: " + id));
-        // Force-initialize all lazy relations needed for email
-        b.getUser().getEmail();
-        b.getUser().getName();
-        b.getScreening().getScreenDate();
-        b.getScreening().getStartTime();
-        b.getScreening().getEvent().getTitle();
-        b.getScreening().getVenue().getVenueName();
-        return b;
     }
 
     @Transactional
@@ -88,20 +95,18 @@ public class BookingService {
         existing.setBookingStatus(status);
         Booking saved = bookingRepository.save(existing);
 
-        // ✅ Fetch with all relations before sending mail
+        // ✅ Fetch with all relations before queueing the mail (outbox row commits with this transaction)
         try {
             Booking fullBooking = fetchBookingWithRelations(saved.getBookingId());
 
             if (status == BookingStatus.CONFIRMED) {
                 emailService.sendBookingConfirmation(fullBooking);
-                System.out.println("✅ Confirmation mail sent to: "
-                        + fullBooking.getUser().getEmail());
+                log.debug("Confirmation mail queued for booking {}", fullBooking.getBookingId());
             }
 
             if (status == BookingStatus.CANCELLED) {
                 emailService.sendCancellationMail(fullBooking, "Cancelled by user");
-                System.out.println("✅ Cancellation mail sent to: "
-                        + fullBooking.getUser().getEmail());
+                log.debug("Cancellation mail queued for booking {}", fullBooking.getBookingId());
             }
 
         } catch (Exception e) {
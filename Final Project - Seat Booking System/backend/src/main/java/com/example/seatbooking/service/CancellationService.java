@@ -1,10 +1,18 @@
 package com.example.seatbooking.service;
 
+import com.example.seatbooking.config.ReadFromReplica;
+import com.example.seatbooking.entity.Booking;
+import com.example.seatbooking.entity.BookingItems;
 import com.example.seatbooking.entity.Cancellation;
 import com.example.seatbooking.entity.Cancellation.Status;
+import com.example.seatbooking.repository.BookingItemsRepository;
 import com.example.seatbooking.repository.CancellationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,17 +20,32 @@ import java.util.Optional;
 @Service
 public class CancellationService {
 
+    private static final Logger log = LoggerFactory.getLogger(CancellationService.class);
+
     private final CancellationRepository cancellationRepository;
     private final EmailService emailService;
+    private final BookingMetrics metrics;
+    private final BookingItemsRepository bookingItemsRepository;
+    private final SeatStateEngine seatStateEngine;
 
     public CancellationService(CancellationRepository cancellationRepository,
-                               EmailService emailService) {
+                               EmailService emailService,
+                               BookingMetrics metrics,
+                               BookingItemsRepository bookingItemsRepository,
+                               SeatStateEngine seatStateEngine) {
         this.cancellationRepository = cancellationRepository;
         this.emailService = emailService;
+        this.metrics = metrics;
+        this.bookingItemsRepository = bookingItemsRepository;
+        this.seatStateEngine = seatStateEngine;
     }
 
     @Transactional
     public Cancellation createCancellation(Cancellation cancellation) {
+        return metrics.record(BookingMetrics.CANCELLATION, () -> request(cancellation));
+    }
+
+    private Cancellation request(Cancellation cancellation) {
         Optional<Cancellation> existing = cancellationRepository
                 .findByBooking_BookingIdAndStatus(
                         cancellation.getBooking().getBookingId(), Status.PENDING);
@@ -51,6 +74,7 @@ public class CancellationService {
         return toSave;
     }
 
+    @ReadFromReplica
     @Transactional(readOnly = true)
     public List<Cancellation> getAllCancellations() {
         return cancellationRepository.findAll();
@@ -71,6 +95,7 @@ public class CancellationService {
         return cancellationRepository.findByBooking_BookingId(bookingId);
     }
 
+    @ReadFromReplica
     @Transactional(readOnly = true)
     public List<Cancellation> getCancellationsByStatus(Status status) {
         return cancellationRepository.findByStatus(status);
@@ -83,10 +108,18 @@ public class CancellationService {
 
     @Transactional
     public Cancellation updateStatus(Long id, Status status) {
+        return metrics.record(BookingMetrics.CANCELLATION_DECISION, () -> decide(id, status));
+    }
+
+    private Cancellation decide(Long id, Status status) {
         Cancellation existing = cancellationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Cancellation not found with id: " + id));
+        boolean approving = status == Status.APPROVED && existing.getStatus() != Status.APPROVED;
         existing.setStatus(status);
         Cancellation saved = cancellationRepository.save(existing);
+        if (approving) {
+            cancelBooking(existing.getBooking());
+        }
 
         // ✅ Send approved or rejected mail to user
         try {
@@ -96,10 +129,10 @@ public class CancellationService {
 
             if (status == Status.APPROVED) {
                 emailService.sendCancellationApprovedMail(fresh.getBooking(), fresh.getAmount().doubleValue());
-                System.out.println("✅ Approved mail sent to: " + fresh.getBooking().getUser().getEmail());
+                log.debug("Approved mail queued for cancellation {}", fresh.getCancellationId());
             } else if (status == Status.REJECTED) {
                 emailService.sendCancellationRejectedMail(fresh.getBooking(), fresh.getReason());
-                System.out.println("✅ Rejected mail sent to: " + fresh.getBooking().getUser().getEmail());
+                log.debug("Rejected mail queued for cancellation {}", fresh.getCancellationId());
             }
         } catch (Exception e) {
             System.err.println("⚠️ Status update email skipped: " + e.getMessage());
@@ -108,14 +141,39 @@ public class CancellationService {
         return saved;
     }
 
+    // ✅ Approved → booking and its items CANCELLED, seats back on sale once that is committed
+    private void cancelBooking(Booking booking) {
+        List<BookingItems> items = bookingItemsRepository
+                .findByBooking_BookingIdAndStatus(booking.getBookingId(), BookingItems.Status.ACTIVE);
+        items.forEach(item -> item.setStatus(BookingItems.Status.CANCELLED));
+        booking.setBookingStatus(Booking.BookingStatus.CANCELLED);
+
+        Long screeningId = booking.getScreening().getScreeningId();
+        List<Long> seatIds = items.stream().map(item -> item.getSeat().getSeatId()).toList();
+        if (seatIds.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                seatStateEngine.releaseBooked(screeningId, seatIds);
+            }
+        });
+    }
+
     @Transactional
     public Cancellation updateCancellation(Long id, Cancellation updatedCancellation) {
         Cancellation existing = cancellationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Cancellation not found with id: " + id));
+        boolean approving = updatedCancellation.getStatus() == Status.APPROVED && existing.getStatus() != Status.APPROVED;
         existing.setReason(updatedCancellation.getReason());
         existing.setAmount(updatedCancellation.getAmount());
         existing.setStatus(updatedCancellation.getStatus());
-        return cancellationRepository.save(existing);
+        Cancellation saved = cancellationRepository.save(existing);
+        if (approving) {
+            cancelBooking(existing.getBooking());
+        }
+        return saved;
     }
 
     @Transactional
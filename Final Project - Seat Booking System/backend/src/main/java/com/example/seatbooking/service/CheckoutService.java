@@ -0,0 +1,273 @@
+package com.example.seatbooking.service;
+
+import com.example.seatbooking.dto.CheckoutDTO;
+import com.example.seatbooking.dto.CheckoutRequest;
+import com.example.seatbooking.dto.ScreeningSeatDTO;
+import com.example.seatbooking.entity.Booking;
+import com.example.seatbooking.entity.BookingItems;
+import com.example.seatbooking.entity.IdempotencyKey;
+import com.example.seatbooking.entity.Payment;
+import com.example.seatbooking.entity.SeatHold;
+import com.example.seatbooking.repository.BookingItemsRepository;
+import com.example.seatbooking.repository.IdempotencyKeyRepository;
+import com.example.seatbooking.repository.ScreeningRepository;
+import com.example.seatbooking.repository.SeatHoldRepository;
+import com.example.seatbooking.repository.SeatLayoutRepository;
+import com.example.seatbooking.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+// ✅ Checkout in one call — the user's held seats become a PENDING booking, its items and a
+// PENDING payment in ONE transaction (seats BOOKED, holds CONFIRMED with it)
+//
+// With an Idempotency-Key the key row is inserted first in that same transaction: a retry after
+// the commit gets the stored response back, a retry racing the first call waits on the key's
+// primary key and then gets it too. A checkout that fails leaves no key behind → safe to retry.
+//
+// The buyer is the caller's email from the JWT and the price is what the seats cost — nothing
+// in the request body decides who pays or how much.
+@Service
+public class CheckoutService {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckoutService.class);
+
+    static final int MAX_KEY_LENGTH = 100;
+
+    // outcome of one call; replayed = the response was stored by an earlier call with the same key
+    public record CheckoutResult(CheckoutDTO checkout, boolean replayed) {
+    }
+
+    // another request with the same key got its row in first
+    private static final class KeyTaken extends RuntimeException {
+        KeyTaken(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    private final SeatHoldRepository seatHoldRepository;
+    private final BookingItemsRepository bookingItemsRepository;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final UserRepository userRepository;
+    private final ScreeningRepository screeningRepository;
+    private final SeatLayoutRepository seatLayoutRepository;
+    private final BookingService bookingService;
+    private final PaymentService paymentService;
+    private final SeatStateEngine seatStateEngine;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${checkout.idempotency.ttl-hours:24}")
+    private long keyTtlHours;
+
+    public CheckoutService(SeatHoldRepository seatHoldRepository,
+                           BookingItemsRepository bookingItemsRepository,
+                           IdempotencyKeyRepository idempotencyKeyRepository,
+                           UserRepository userRepository,
+                           ScreeningRepository screeningRepository,
+                           SeatLayoutRepository seatLayoutRepository,
+                           BookingService bookingService,
+                           PaymentService paymentService,
+                           SeatStateEngine seatStateEngine,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager) {
+        this.seatHoldRepository = seatHoldRepository;
+        this.bookingItemsRepository = bookingItemsRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.userRepository = userRepository;
+        this.screeningRepository = screeningRepository;
+        this.seatLayoutRepository = seatLayoutRepository;
+        this.bookingService = bookingService;
+        this.paymentService = paymentService;
+        this.seatStateEngine = seatStateEngine;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public CheckoutResult checkout(String key, String email, CheckoutRequest request) {
+        Long userId = userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unknown user: " + email))
+                .getUserId();
+        if (key == null || key.isBlank()) {
+            return new CheckoutResult(transactionTemplate.execute(status -> book(userId, request)), false);
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String requestHash = hash(request);
+        IdempotencyKey.Key id = new IdempotencyKey.Key(userId, key);
+        Optional<IdempotencyKey> seen = idempotencyKeyRepository.findById(id);
+        if (seen.isPresent()) {
+            return replay(seen.get(), requestHash);
+        }
+
+        try {
+            CheckoutDTO checkout = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                try {
+                    idempotencyKeyRepository.claim(key, userId, requestHash, now, now.plusHours(keyTtlHours));
+                } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+                    throw new KeyTaken(e);
+                }
+                CheckoutDTO done = book(userId, request);
+                idempotencyKeyRepository.complete(userId, key, write(done));
+                return done;
+            });
+            return new CheckoutResult(checkout, false);
+        } catch (KeyTaken e) {
+            // the other request committed → its response; still running → nothing to replay yet
+            IdempotencyKey winner = idempotencyKeyRepository.findById(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT,
+                            "A checkout with this Idempotency-Key is still in progress"));
+            return replay(winner, requestHash);
+        }
+    }
+
+    // ── The checkout itself (caller's transaction) ──────────
+
+    private CheckoutDTO book(Long userId, CheckoutRequest request) {
+        Long screeningId = request.getScreeningId();
+
+        List<SeatHold> holds = seatHoldRepository.findHeldForUpdate(userId, screeningId);
+        if (holds.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "No held seats to check out for user " + userId + " and screening " + screeningId);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime holdTill = holds.get(0).getExpiresAt();
+        List<Long> seatIds = new ArrayList<>(holds.size());
+        List<Long> holdIds = new ArrayList<>(holds.size());
+        for (SeatHold hold : holds) {
+            if (!hold.getExpiresAt().isAfter(now)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Seat hold has expired, please select your seats again");
+            }
+            if (hold.getExpiresAt().isBefore(holdTill)) {
+                holdTill = hold.getExpiresAt();
+            }
+            seatIds.add(hold.getSeat().getSeatId());
+            holdIds.add(hold.getId());
+        }
+
+        long tillMillis = SeatStateStore.toMillis(holdTill);
+        List<ScreeningSeatDTO> seats = seatStateEngine.bookHeld(screeningId, seatIds, userId, tillMillis);
+        // rollback → the seats are the user's held seats again, not booked
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    seatStateEngine.unbookAll(screeningId, seatIds, userId, tillMillis);
+                }
+            }
+        });
+
+        // no promotions yet — a discount would be worked out here, never read from the request
+        BigDecimal discount = BigDecimal.ZERO;
+        BigDecimal amount = seats.stream().map(ScreeningSeatDTO::getPrice).reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        Booking booking = bookingService.createBooking(Booking.builder()
+                .user(userRepository.getReferenceById(userId))
+                .screening(screeningRepository.getReferenceById(screeningId))
+                .totalCost(amount)
+                .discounts(discount)
+                .build());
+
+        List<BookingItems> items = new ArrayList<>(seats.size());
+        for (ScreeningSeatDTO seat : seats) {
+            items.add(BookingItems.builder()
+                    .booking(booking)
+                    .seat(seatLayoutRepository.getReferenceById(seat.getSeatId()))
+                    .price(seat.getPrice())
+                    .status(BookingItems.Status.ACTIVE)
+                    .build());
+        }
+        bookingItemsRepository.saveAll(items);
+        seatHoldRepository.updateStatus(holdIds, SeatHold.HoldStatus.CONFIRMED);
+
+        Payment payment = paymentService.createPayment(Payment.builder()
+                .booking(booking)
+                .payMode(request.getPayMode())
+                .amount(amount)
+                .discount(discount)
+                .build());
+
+        log.info("Checkout: user {} booked {} seat(s) of screening {} → booking {}, payment {}",
+                userId, seats.size(), screeningId, booking.getRefCode(), payment.getReferenceCode());
+        return CheckoutDTO.builder()
+                .bookingId(booking.getBookingId())
+                .bookingRefCode(booking.getRefCode())
+                .bookingStatus(booking.getBookingStatus().name())
+                .totalCost(amount)
+                .discount(discount)
+                .paymentId(payment.getPaymentId())
+                .paymentReference(payment.getReferenceCode())
+                .paymentStatus(payment.getStatus().name())
+                .amount(amount)
+                .seats(seats)
+                .build();
+    }
+
+    // ── Idempotency keys ────────────────────────────────────
+
+    // the key is already this user's — only the request body can differ
+    private CheckoutResult replay(IdempotencyKey seen, String requestHash) {
+        if (!seen.getRequestHash().equals(requestHash)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different checkout");
+        }
+        try {
+            return new CheckoutResult(objectMapper.readValue(seen.getResponseBody(), CheckoutDTO.class), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored checkout response is unreadable", e);
+        }
+    }
+
+    // ✅ Keys are only needed while clients may still retry
+    @Scheduled(fixedDelayString = "${checkout.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        int purged = idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency key(s)", purged);
+        }
+    }
+
+    private String write(CheckoutDTO checkout) {
+        try {
+            return objectMapper.writeValueAsString(checkout);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Checkout response could not be stored", e);
+        }
+    }
+
+    private String hash(CheckoutRequest request) {
+        try {
+            byte[] body = objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Checkout request could not be hashed", e);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.seatbooking.service;
+
+import com.example.seatbooking.entity.EmailOutbox;
+import com.example.seatbooking.entity.EmailOutbox.Status;
+import com.example.seatbooking.repository.EmailOutboxRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// ✅ Email outbox — enqueue() in the business transaction, dispatch() in the background
+//
+// Each dispatch round takes a batch of due mails and hands them to ONE
+// JavaMailSender.send(MimeMessage...) call, which connects once and sends the whole batch
+// over that connection. Mails that fail are retried with exponential backoff and give up
+// (FAILED) after max-attempts.
+//
+// Several instances dispatch the same table: a batch is leased first (claim token + claimed_until,
+// one conditional UPDATE) and only the rows that lease won are sent. A dispatcher that dies
+// mid-batch leaves its lease to run out — those mails go out again then (at-least-once).
+@Service
+public class EmailOutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    // What GET /api/email-outbox/stats returns
+    public record Stats(long pending,
+                        long failed,
+                        long oldestPendingAgeMs,
+                        long sent,
+                        long failedAttempts,
+                        long batches,
+                        long lastBatchSize,
+                        long lastBatchMillis,
+                        double avgSendMillisPerMail,
+                        double avgDeliveryDelayMillis) {
+    }
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final BookingMetrics metrics;
+
+    @Value("${spring.mail.username:}")
+    private String from;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.backoff-base-ms:30000}")
+    private long backoffBaseMillis;
+
+    @Value("${mail.outbox.backoff-max-ms:3600000}")
+    private long backoffMaxMillis;
+
+    @Value("${mail.outbox.lease-ms:300000}")
+    private long leaseMillis;
+
+    // one dispatcher per instance at a time (the lease keeps instances apart)
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+
+    private final LongAdder sentTotal = new LongAdder();
+    private final LongAdder failedAttemptsTotal = new LongAdder();
+    private final LongAdder batchesTotal = new LongAdder();
+    private final LongAdder sendNanosTotal = new LongAdder();
+    private final LongAdder deliveryDelayMillisTotal = new LongAdder();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong lastBatchMillis = new AtomicLong();
+
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository,
+                              JavaMailSender mailSender,
+                              BookingMetrics metrics) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+        this.metrics = metrics;
+    }
+
+    // ── Enqueue ─────────────────────────────────────────────
+
+    // Joins the caller's transaction → the mail exists only if that transaction commits
+    @Transactional
+    public EmailOutbox enqueue(String recipient, String subject, String htmlBody) {
+        EmailOutbox mail = emailOutboxRepository.save(EmailOutbox.builder()
+                .recipient(recipient)
+                .subject(subject)
+                .htmlBody(htmlBody)
+                .status(Status.PENDING)
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+        log.info("Mail queued for {}: {}", recipient, subject);
+        return mail;
+    }
+
+    // ── Dispatch ────────────────────────────────────────────
+
+    // Drains everything that is due, batch by batch; returns how many mails went out
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-ms:1000}")
+    public int dispatch() {
+        if (!dispatchLock.tryLock()) {
+            return 0;
+        }
+        try {
+            int sent = 0;
+            while (true) {
+                List<EmailOutbox> batch = claimBatch();
+                if (batch.isEmpty()) {
+                    return sent;
+                }
+                int delivered = sendBatch(batch);
+                sent += delivered;
+                // a partly failed or short batch → the rest waits for its backoff / the next poll
+                if (delivered < batch.size() || batch.size() < batchSize) {
+                    return sent;
+                }
+            }
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    // due rows → leased to this round; rows another instance leased first are simply not in it
+    private List<EmailOutbox> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> due = emailOutboxRepository.findDueIds(now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        String token = UUID.randomUUID().toString();
+        if (emailOutboxRepository.claim(due, token, now.plus(Duration.ofMillis(leaseMillis)), now) == 0) {
+            return List.of();
+        }
+        return emailOutboxRepository.findClaimed(token);
+    }
+
+    private int sendBatch(List<EmailOutbox> batch) {
+        // insertion order = send order, oldest mail first
+        Map<MimeMessage, EmailOutbox> byMessage = new LinkedHashMap<>();
+        Map<EmailOutbox, Exception> failures = new IdentityHashMap<>();
+
+        for (EmailOutbox mail : batch) {
+            try {
+                byMessage.put(toMessage(mail), mail);
+            } catch (MessagingException e) {
+                failures.put(mail, e);
+            }
+        }
+
+        long started = System.nanoTime();
+        if (!byMessage.isEmpty()) {
+            try {
+                mailSender.send(byMessage.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                // per-message failures — everything not listed here was delivered
+                e.getFailedMessages().forEach((message, cause) -> {
+                    EmailOutbox mail = byMessage.get(message);
+                    if (mail != null) {
+                        failures.put(mail, cause);
+                    }
+                });
+                if (e.getFailedMessages().isEmpty()) {
+                    byMessage.values().forEach(mail -> failures.put(mail, e));
+                }
+            } catch (MailException e) {
+                // could not even log in → nothing of this batch went out
+                byMessage.values().forEach(mail -> failures.put(mail, e));
+            }
+        }
+        long elapsedNanos = System.nanoTime() - started;
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sentIds = new ArrayList<>();
+        List<EmailOutbox> retry = new ArrayList<>();
+        for (EmailOutbox mail : batch) {
+            Exception failure = failures.get(mail);
+            if (failure == null) {
+                sentIds.add(mail.getEmailOutboxId());
+                if (mail.getCreatedAt() != null) {
+                    Duration delay = Duration.between(mail.getCreatedAt(), now);
+                    deliveryDelayMillisTotal.add(delay.toMillis());
+                    metrics.mailDelivered(delay);
+                }
+            } else {
+                scheduleRetry(mail, failure, now);
+                retry.add(mail);
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            emailOutboxRepository.markSent(sentIds, now);
+        }
+        if (!retry.isEmpty()) {
+            emailOutboxRepository.saveAll(retry);
+        }
+
+        sentTotal.add(sentIds.size());
+        failedAttemptsTotal.add(retry.size());
+        batchesTotal.increment();
+        sendNanosTotal.add(elapsedNanos);
+        lastBatchSize.set(batch.size());
+        lastBatchMillis.set(elapsedNanos / 1_000_000);
+        metrics.mailBatchSent(sentIds.size(), retry.size(), elapsedNanos);
+
+        log.info("Mail outbox: batch of {} → {} sent, {} failed in {} ms",
+                batch.size(), sentIds.size(), retry.size(), elapsedNanos / 1_000_000);
+        return sentIds.size();
+    }
+
+    private MimeMessage toMessage(EmailOutbox mail) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        if (from != null && !from.isBlank()) {
+            helper.setFrom(from);
+        }
+        helper.setTo(mail.getRecipient());
+        helper.setSubject(mail.getSubject());
+        helper.setText(mail.getHtmlBody(), true);
+        return message;
+    }
+
+    // 1st retry after backoff-base, then doubling, capped at backoff-max
+    private void scheduleRetry(EmailOutbox mail, Exception failure, LocalDateTime now) {
+        mail.setClaimToken(null);
+        mail.setClaimedUntil(null);
+        int attempts = mail.getAttempts() + 1;
+        mail.setAttempts(attempts);
+        String error = failure.getMessage() != null ? failure.getMessage() : failure.getClass().getSimpleName();
+        mail.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+
+        if (attempts >= maxAttempts) {
+            mail.setStatus(Status.FAILED);
+            log.error("Mail {} to {} gave up after {} attempts: {}",
+                    mail.getEmailOutboxId(), mail.getRecipient(), attempts, error);
+            return;
+        }
+        long delay = Math.min(backoffMaxMillis, backoffBaseMillis << Math.min(attempts - 1, 30));
+        mail.setNextAttemptAt(now.plusNanos(delay * 1_000_000));
+        log.warn("Mail {} to {} failed (attempt {}), retry in {} ms: {}",
+                mail.getEmailOutboxId(), mail.getRecipient(), attempts, delay, error);
+    }
+
+    // ── Stats ───────────────────────────────────────────────
+
+    public Stats stats() {
+        LocalDateTime oldest = emailOutboxRepository.findOldestPendingCreatedAt();
+        long sent = sentTotal.sum();
+        long batches = batchesTotal.sum();
+        long attempted = sent + failedAttemptsTotal.sum();
+        return new Stats(
+                emailOutboxRepository.countByStatus(Status.PENDING),
+                emailOutboxRepository.countByStatus(Status.FAILED),
+                oldest != null ? Duration.between(oldest, LocalDateTime.now()).toMillis() : 0L,
+                sent,
+                failedAttemptsTotal.sum(),
+                batches,
+                lastBatchSize.get(),
+                lastBatchMillis.get(),
+                attempted > 0 ? sendNanosTotal.sum() / 1_000_000.0 / attempted : 0.0,
+                sent > 0 ? (double) deliveryDelayMillisTotal.sum() / sent : 0.0);
+    }
+}
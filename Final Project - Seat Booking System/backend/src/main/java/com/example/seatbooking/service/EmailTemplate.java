@@ -0,0 +1,138 @@
+package com.example.seatbooking.service;
+
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// ✅ A mail body compiled once — static text segments with {{slot}} holes between them
+//
+// compile() does all the parsing: the source is cut into segments, every hole is resolved to
+// the index of its slot, and nothing of that is repeated per mail. render() only copies the
+// segments and the HTML-escaped slot values into a buffer sized up front for this mail.
+//
+// Cost per render: that one buffer (static text + values, ~2 bytes a char) plus the finished
+// String copied out of it — no regrowth unless escaping adds more than the headroom. The
+// buffer is not cached per thread: on virtual threads (spring.threads.virtual.enabled) a
+// ThreadLocal would be filled once and dropped with its thread, costing more than it saves.
+public final class EmailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    private final String[] slotNames;
+    private final String[] segments;    // always holes.length + 1 entries, may be ""
+    private final int[] holes;          // hole i → index into render()'s values
+    private final int staticLength;
+
+    private EmailTemplate(String name, String[] slotNames, String[] segments, int[] holes) {
+        this.name = name;
+        this.slotNames = slotNames;
+        this.segments = segments;
+        this.holes = holes;
+        int length = 0;
+        for (String segment : segments) {
+            length += segment.length();
+        }
+        this.staticLength = length;
+    }
+
+    // ── Compile ─────────────────────────────────────────────
+
+    // Loads templates/email/<name>.html from the classpath
+    public static EmailTemplate load(String name, String... slotNames) {
+        try {
+            String source = new ClassPathResource("templates/email/" + name + ".html")
+                    .getContentAsString(StandardCharsets.UTF_8);
+            return compile(name, source, slotNames);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Email template not found: " + name, e);
+        }
+    }
+
+    // slotNames fixes the order of render()'s values; every slot must be used, every hole declared
+    public static EmailTemplate compile(String name, String source, String... slotNames) {
+        List<String> declared = List.of(slotNames);
+        Set<String> used = new HashSet<>();
+        List<String> segments = new ArrayList<>();
+        List<Integer> holes = new ArrayList<>();
+
+        int from = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, from)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalStateException("Template " + name + ": unclosed " + OPEN + " at " + open);
+            }
+            String slot = source.substring(open + OPEN.length(), close).trim();
+            int index = declared.indexOf(slot);
+            if (index < 0) {
+                throw new IllegalStateException("Template " + name + ": unknown slot {{" + slot + "}}");
+            }
+            segments.add(source.substring(from, open));
+            holes.add(index);
+            used.add(slot);
+            from = close + CLOSE.length();
+        }
+        segments.add(source.substring(from));
+
+        for (String slot : slotNames) {
+            if (!used.contains(slot)) {
+                throw new IllegalStateException("Template " + name + ": slot {{" + slot + "}} is never used");
+            }
+        }
+        return new EmailTemplate(name, slotNames.clone(),
+                segments.toArray(new String[0]),
+                holes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    // ── Render ──────────────────────────────────────────────
+
+    // values in the order of the slotNames given to compile(); null renders as ""
+    public String render(String... values) {
+        if (values.length != slotNames.length) {
+            throw new IllegalArgumentException("Template " + name + " expects " + slotNames.length
+                    + " values, got " + values.length);
+        }
+        // static text + the raw values + a little for escapes → one allocation on the common path
+        int capacity = staticLength;
+        for (int hole : holes) {
+            capacity += values[hole] != null ? values[hole].length() + 16 : 0;
+        }
+        StringBuilder out = new StringBuilder(capacity);
+        for (int i = 0; i < holes.length; i++) {
+            out.append(segments[i]);
+            appendEscaped(out, values[holes[i]]);
+        }
+        out.append(segments[holes.length]);
+        return out.toString();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // user-entered text (names, cancellation reasons) must not become markup in the mail
+    private static void appendEscaped(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
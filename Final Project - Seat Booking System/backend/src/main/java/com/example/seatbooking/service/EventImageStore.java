@@ -0,0 +1,171 @@
+package com.example.seatbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// ✅ Content-addressed event images on local disk
+//
+//   <app.images.dir>/<first 2 hex chars>/<sha-256 hex>
+//
+// Same bytes → same file, so re-uploading a poster (or two events sharing one) stores it once.
+// A file is never changed after it is written, which is what makes the image URLs cacheable forever.
+//
+// Only raster formats recognised by their magic bytes are stored (no SVG, no HTML that calls itself
+// an image) — the type served later is the sniffed one, never what the client declared. External
+// image URLs must be https on one of app.images.allowed-hosts; the image endpoint redirects to them.
+@Service
+public class EventImageStore {
+
+    private static final Logger log = LoggerFactory.getLogger(EventImageStore.class);
+
+    // What an event keeps instead of the image itself
+    public record StoredImage(String hash, String contentType, long size) {
+    }
+
+    public static final Set<String> CONTENT_TYPES = Set.of("image/png", "image/jpeg", "image/gif", "image/webp");
+
+    private final Path root;
+    private final Set<String> allowedHosts;
+
+    public EventImageStore(@Value("${app.images.dir:./data/images}") String dir,
+                           @Value("${app.images.allowed-hosts:}") String allowedHosts) {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+        this.allowedHosts = Arrays.stream(allowedHosts.split(","))
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    // Accepts a data URL ("data:image/png;base64,...") or plain base64
+    public StoredImage storeBase64(String input) {
+        String declared = null;
+        String base64 = input.trim();
+        if (base64.startsWith("data:")) {
+            int comma = base64.indexOf(',');
+            if (comma < 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid image data URL");
+            }
+            String meta = base64.substring(5, comma);
+            int semicolon = meta.indexOf(';');
+            declared = semicolon >= 0 ? meta.substring(0, semicolon) : meta;
+            base64 = base64.substring(comma + 1);
+        }
+        if (declared != null && !declared.isBlank() && !declared.toLowerCase(Locale.ROOT).startsWith("image/")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Not an image: " + declared);
+        }
+
+        byte[] bytes;
+        try {
+            bytes = Base64.getMimeDecoder().decode(base64);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Image is neither a URL nor valid base64");
+        }
+        return store(bytes, sniff(bytes));
+    }
+
+    public StoredImage store(byte[] bytes, String contentType) {
+        if (!CONTENT_TYPES.contains(contentType)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Only PNG, JPEG, GIF and WebP images are accepted");
+        }
+        String hash = sha256(bytes);
+        Path target = resolve(hash);
+        try {
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                // write next to the target, then rename — readers never see a half-written file
+                Path tmp = Files.createTempFile(target.getParent(), hash, ".tmp");
+                Files.write(tmp, bytes);
+                try {
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    Files.deleteIfExists(tmp);
+                    if (!Files.exists(target)) {
+                        throw e;
+                    }
+                }
+                log.info("Stored event image {} ({} bytes)", hash, bytes.length);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store event image", e);
+        }
+        return new StoredImage(hash, contentType, bytes.length);
+    }
+
+    public Path resolve(String hash) {
+        if (hash == null || !hash.matches("[0-9a-f]{64}")) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Image not found");
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    // ✅ External image URL → accepted only as https on an allowed host (the image endpoint
+    // redirects there, so anything else would make it an open redirect)
+    public String checkUrl(String url) {
+        if (!isAllowedUrl(url)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Image URLs must be https on one of: " + (allowedHosts.isEmpty() ? "(none configured)" : allowedHosts));
+        }
+        return url;
+    }
+
+    public boolean isAllowedUrl(String url) {
+        try {
+            URI uri = new URI(url);
+            String host = uri.getHost();
+            return "https".equalsIgnoreCase(uri.getScheme()) && host != null && uri.getUserInfo() == null
+                    && allowedHosts.contains(host.toLowerCase(Locale.ROOT));
+        } catch (URISyntaxException e) {
+            return false;
+        }
+    }
+
+    // ── Helpers ─────────────────────────────────────────────
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // the usual poster formats, recognised by their magic bytes (whatever the client declared)
+    private static String sniff(byte[] b) {
+        if (b.length >= 8 && (b[0] & 0xFF) == 0x89 && b[1] == 'P' && b[2] == 'N' && b[3] == 'G') {
+            return "image/png";
+        }
+        if (b.length >= 3 && (b[0] & 0xFF) == 0xFF && (b[1] & 0xFF) == 0xD8 && (b[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (b.length >= 6 && b[0] == 'G' && b[1] == 'I' && b[2] == 'F') {
+            return "image/gif";
+        }
+        if (b.length >= 12 && b[0] == 'R' && b[1] == 'I' && b[2] == 'F' && b[3] == 'F'
+                && b[8] == 'W' && b[9] == 'E' && b[10] == 'B' && b[11] == 'P') {
+            return "image/webp";
+        }
+        return "application/octet-stream";
+    }
+}
@@ -1,28 +1,48 @@
 package com.example.seatbooking.service;
 
+import com.example.seatbooking.config.ReadFromReplica;
 import com.example.seatbooking.dto.EventCreateDTO;
 import com.example.seatbooking.entity.Events;
 import com.example.seatbooking.entity.Events.ShowStatus;
 import com.example.seatbooking.entity.User;
 import com.example.seatbooking.repository.EventsRepository;
 import com.example.seatbooking.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class EventsService {
 
+    private static final Logger log = LoggerFactory.getLogger(EventsService.class);
+
     private final EventsRepository eventsRepository;
     private final UserRepository userRepository;
+    private final EventImageStore eventImageStore;
+    private final ReferenceDataCache referenceDataCache;
+    private final DataSource dataSource;
 
-    public EventsService(EventsRepository eventsRepository, UserRepository userRepository) {
+    public EventsService(EventsRepository eventsRepository, UserRepository userRepository,
+                         EventImageStore eventImageStore, ReferenceDataCache referenceDataCache,
+                         DataSource dataSource) {
         this.eventsRepository = eventsRepository;
         this.userRepository = userRepository;
+        this.eventImageStore = eventImageStore;
+        this.referenceDataCache = referenceDataCache;
+        this.dataSource = dataSource;
     }
 
     @Transactional
@@ -41,13 +61,16 @@ public class EventsService {
                 .language(dto.getLanguage())
                 .tag(dto.getTag())
                 .showStatus(ShowStatus.valueOf(dto.getShowStatus()))
-                .image(dto.getImage())
                 .build();
+        applyImage(event, dto.getImage());
 
-        return eventsRepository.save(event);
+        Events saved = eventsRepository.save(event);
+        referenceDataCache.eventChanged(saved.getEventId());
+        return saved;
     }
 
     // ✅ @Transactional ensures lazy-loaded organizer is accessible during serialization
+    @ReadFromReplica
     @Transactional(readOnly = true)
     public List<Events> getAllEvents() {
         return eventsRepository.findAll();
@@ -58,21 +81,25 @@ public class EventsService {
         return eventsRepository.findById(id);
     }
 
+    @ReadFromReplica
     @Transactional(readOnly = true)
     public List<Events> getEventsByCategory(String category) {
         return eventsRepository.findByCategory(category);
     }
 
+    @ReadFromReplica
     @Transactional(readOnly = true)
     public List<Events> getEventsByGenre(String genre) {
         return eventsRepository.findByGenre(genre);
     }
 
+    @ReadFromReplica
     @Transactional(readOnly = true)
     public List<Events> getEventsByLanguage(String language) {
         return eventsRepository.findByLanguage(language);
     }
 
+    @ReadFromReplica
     @Transactional(readOnly = true)
     public List<Events> getEventsByStatus(ShowStatus status) {
         return eventsRepository.findByShowStatus(status);
@@ -102,9 +129,11 @@ public class EventsService {
         existing.setLanguage(dto.getLanguage());
         existing.setTag(dto.getTag());
         existing.setShowStatus(ShowStatus.valueOf(dto.getShowStatus()));
-        existing.setImage(dto.getImage());
+        applyImage(existing, dto.getImage());
 
-        return eventsRepository.save(existing);
+        Events saved = eventsRepository.save(existing);
+        referenceDataCache.eventChanged(id);
+        return saved;
     }
 
     @Transactional
@@ -113,5 +142,80 @@ public class EventsService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found with id: " + id);
         }
         eventsRepository.deleteById(id);
+        referenceDataCache.eventChanged(id);
+    }
+
+    // ✅ Image → content-addressed file on disk; the row keeps only the hash (or an external URL)
+    private void applyImage(Events event, String image) {
+        if (image == null || image.isBlank()) {
+            event.setImageHash(null);
+            event.setImageContentType(null);
+            event.setImageUrl(null);
+            return;
+        }
+        // the edit form sends back the URL it got from us → image unchanged
+        if (event.getEventId() != null && image.contains("/api/events/" + event.getEventId() + "/image")) {
+            return;
+        }
+        if (image.startsWith("http://") || image.startsWith("https://")) {
+            event.setImageHash(null);
+            event.setImageContentType(null);
+            event.setImageUrl(eventImageStore.checkUrl(image));
+            return;
+        }
+        EventImageStore.StoredImage stored = eventImageStore.storeBase64(image);
+        event.setImageHash(stored.hash());
+        event.setImageContentType(stored.contentType());
+        event.setImageUrl(null);
+    }
+
+    // ✅ One-off: base64 images still in the old events.image column move to disk, one row at a time
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyImages() {
+        if (!hasLegacyImageColumn()) {
+            log.debug("No legacy events.image column — nothing to migrate");
+            return;
+        }
+        List<Long> ids = eventsRepository.findIdsWithLegacyImage();
+
+        for (Long id : ids) {
+            String legacy = eventsRepository.findLegacyImage(id);
+            if (legacy == null || legacy.isBlank()) {
+                eventsRepository.moveLegacyImage(id, null, null, null);
+            } else if (legacy.startsWith("http://") || legacy.startsWith("https://")) {
+                eventsRepository.moveLegacyImage(id, null, null, legacy);
+            } else {
+                try {
+                    EventImageStore.StoredImage stored = eventImageStore.storeBase64(legacy);
+                    eventsRepository.moveLegacyImage(id, stored.hash(), stored.contentType(), null);
+                } catch (RuntimeException e) {
+                    log.warn("Could not migrate image of event {}: {}", id, e.getMessage());
+                }
+            }
+        }
+        if (!ids.isEmpty()) {
+            log.info("Moved {} legacy event image(s) out of the events table", ids.size());
+        }
+    }
+
+    // asked of the schema, not by running a query that fails (and logs SQL errors) when it is gone
+    private boolean hasLegacyImageColumn() {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData meta = connection.getMetaData();
+            // identifier case depends on the database (MySQL lower, H2 upper unless told otherwise)
+            for (String table : List.of("events", "EVENTS")) {
+                try (ResultSet columns = meta.getColumns(connection.getCatalog(), null, table, null)) {
+                    while (columns.next()) {
+                        if ("image".equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            log.warn("Could not read the events table's columns: {}", e.getMessage());
+            return false;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+package com.example.seatbooking.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// ✅ Hashed timing wheel for hold expiry
+//
+// schedule() is O(1): the deadline is rounded UP to a tick and dropped into slot (tick % slots).
+// advance() only walks the slots of the ticks that passed since the last call, so nothing is
+// scanned when nothing expires. Deadlines further away than one lap simply stay in their slot
+// until their tick comes round again.
+public class HoldExpiryWheel<T> {
+
+    private record Entry<T>(T item, long deadlineTick) {
+    }
+
+    private final long tickMillis;
+    private final List<Entry<T>>[] slots;
+    private final int mask;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long currentTick;   // last tick already processed
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HoldExpiryWheel(long tickMillis, int slotCount, long nowMillis) {
+        if (tickMillis <= 0 || Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("tickMillis must be > 0 and slotCount a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = new List[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ArrayList<>();
+        }
+        this.mask = slotCount - 1;
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    public void schedule(T item, long deadlineMillis) {
+        long tick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        lock.lock();
+        try {
+            // already due → fires on the next tick
+            if (tick <= currentTick) {
+                tick = currentTick + 1;
+            }
+            slots[(int) (tick & mask)].add(new Entry<>(item, tick));
+            size++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Everything whose deadline is <= now, removed from the wheel
+    public List<T> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+
+        lock.lock();
+        try {
+            if (target <= currentTick) {
+                return expired;
+            }
+            // after a long pause one full lap already covers every slot
+            long from = Math.max(currentTick + 1, target - slots.length + 1);
+            for (long tick = from; tick <= target; tick++) {
+                Iterator<Entry<T>> it = slots[(int) (tick & mask)].iterator();
+                while (it.hasNext()) {
+                    Entry<T> entry = it.next();
+                    if (entry.deadlineTick() <= target) {
+                        expired.add(entry.item());
+                        it.remove();
+                    }
+                }
+            }
+            currentTick = target;
+            size -= expired.size();
+        } finally {
+            lock.unlock();
+        }
+        return expired;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.seatbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// ✅ OTPs in memory — expired codes are swept, and the map never holds more than maxEntries
+//
+// Every put also goes on a FIFO queue; with one TTL for all codes that is expiry order, so the
+// sweep and the size cap both just pop from the head (entries replaced since are skipped).
+@Component
+public class InMemoryOtpStore implements OtpStore {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryOtpStore.class);
+
+    private static final class Entry {
+        final String email;
+        final byte[] otp;
+        final long expiresAt;
+        final AtomicInteger wrongAttempts = new AtomicInteger();
+
+        Entry(String email, byte[] otp, long expiresAt) {
+            this.email = email;
+            this.otp = otp;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> byAge = new ConcurrentLinkedQueue<>();
+
+    private final int maxEntries;
+    private final int maxAttempts;
+    private final LongSupplier clock;
+
+    @Autowired
+    public InMemoryOtpStore(@Value("${otp.max-entries:10000}") int maxEntries,
+                            @Value("${otp.max-attempts:5}") int maxAttempts) {
+        this(maxEntries, maxAttempts, System::currentTimeMillis);
+    }
+
+    public InMemoryOtpStore(int maxEntries, int maxAttempts, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.maxAttempts = maxAttempts;
+        this.clock = clock;
+    }
+
+    @Override
+    public void put(String email, String otp, Duration ttl) {
+        long now = clock.getAsLong();
+        Entry entry = new Entry(email, otp.getBytes(StandardCharsets.UTF_8), now + ttl.toMillis());
+        entries.put(email, entry);
+        byAge.add(entry);
+
+        // full → drop expired codes first, then the oldest running ones
+        if (entries.size() > maxEntries) {
+            sweep(now);
+            int evicted = 0;
+            while (entries.size() > maxEntries) {
+                Entry oldest = byAge.poll();
+                if (oldest == null) {
+                    break;
+                }
+                if (entries.remove(oldest.email, oldest)) {
+                    evicted++;
+                }
+            }
+            if (evicted > 0) {
+                log.warn("OTP store full ({} codes) — evicted the {} oldest", maxEntries, evicted);
+            }
+        }
+    }
+
+    @Override
+    public Result check(String email, String otp) {
+        Entry entry = entries.get(email);
+        if (entry == null) {
+            return Result.MISSING;
+        }
+        if (clock.getAsLong() >= entry.expiresAt) {
+            entries.remove(email, entry);
+            return Result.EXPIRED;
+        }
+        byte[] given = otp != null ? otp.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (MessageDigest.isEqual(entry.otp, given)) {
+            return Result.VALID;
+        }
+        if (entry.wrongAttempts.incrementAndGet() >= maxAttempts) {
+            entries.remove(email, entry);
+            return Result.LOCKED;
+        }
+        return Result.INVALID;
+    }
+
+    @Override
+    public void remove(String email) {
+        entries.remove(email);
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelayString = "${otp.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        int swept = sweep(clock.getAsLong());
+        if (swept > 0) {
+            log.info("OTP store: {} expired code(s) removed", swept);
+        }
+    }
+
+    // Pop from the head while it is expired or stale (replaced / removed since)
+    private int sweep(long now) {
+        int swept = 0;
+        Entry head;
+        while ((head = byAge.peek()) != null) {
+            boolean current = entries.get(head.email) == head;
+            if (current && head.expiresAt > now) {
+                break;
+            }
+            byAge.remove(head);
+            if (current && entries.remove(head.email, head)) {
+                swept++;
+            }
+        }
+        return swept;
+    }
+}
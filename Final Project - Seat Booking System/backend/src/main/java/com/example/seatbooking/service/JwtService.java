@@ -0,0 +1,247 @@
+package com.example.seatbooking.service;
+
+import com.example.seatbooking.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+
+// ✅ JWTs — signing key and parser built once, verified tokens cached until their exp
+//
+// A token seen before is found by its SHA-256 (no base64, no JSON, no HMAC) and costs one small
+// key object; the cache never holds more than maxEntries tokens (oldest first out when full).
+// Logged-out tokens go on a revocation list until they would have expired anyway.
+@Service
+public class JwtService {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtService.class);
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    // who a valid token belongs to — authorities built once per token, not per request
+    public record Verified(String email, String role, long expiresAt, List<GrantedAuthority> authorities) {
+    }
+
+    // SHA-256 of the compact token
+    private record TokenHash(long a, long b, long c, long d) {
+    }
+
+    // digest and buffers, borrowed from HASHERS for one hash → a warm pool allocates nothing but the TokenHash
+    private static final class Hasher {
+        final MessageDigest sha256;
+        final byte[] out = new byte[32];
+        byte[] in = new byte[512];
+
+        Hasher() {
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    // A small shared pool, not a ThreadLocal: with spring.threads.virtual.enabled every request
+    // is a new thread, so a per-thread cache would be built and thrown away on every call. Empty → a fresh Hasher;
+    // full → the spare one is dropped. Sized for the carrier threads that can hash at once.
+    private static final int MAX_IDLE_HASHERS = 2 * Runtime.getRuntime().availableProcessors();
+    private static final int MAX_POOLED_INPUT = 4096;
+    private static final BlockingQueue<Hasher> HASHERS = new ArrayBlockingQueue<>(MAX_IDLE_HASHERS);
+
+    private final Key key;
+    private final JwtParser parser;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    private final Map<TokenHash, Verified> verified = new ConcurrentHashMap<>();
+    private final Queue<TokenHash> byAge = new ConcurrentLinkedQueue<>();
+    private final Map<TokenHash, Long> revoked = new ConcurrentHashMap<>();
+
+    @Autowired
+    public JwtService(@Value("${jwt.secret:bookit-secret-key-change-in-production-min-256-bits}") String secret,
+                      @Value("${jwt.expiration-ms:86400000}") long ttlMillis,
+                      @Value("${jwt.cache.max-entries:10000}") int maxEntries) {
+        this(secret, ttlMillis, maxEntries, System::currentTimeMillis);
+    }
+
+    public JwtService(String secret, long ttlMillis, int maxEntries, LongSupplier clock) {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .setClock(() -> new Date(clock.getAsLong()))
+                .build();
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    public String issue(User user) {
+        long now = clock.getAsLong();
+        return Jwts.builder()
+                .setSubject(user.getEmail())
+                .claim("role",   user.getRole().name())
+                .claim("userId", user.getUserId())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ttlMillis))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    // null → bad signature, malformed, expired, revoked or without email / role
+    public Verified verify(String token) {
+        TokenHash hash = hash(token);
+        if (revoked.containsKey(hash)) {
+            return null;
+        }
+        Verified cached = verified.get(hash);
+        if (cached != null) {
+            if (clock.getAsLong() < cached.expiresAt()) {
+                return cached;
+            }
+            verified.remove(hash, cached);
+            return null;
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("JWT rejected: {}", e.getMessage());
+            return null;
+        }
+        String email = claims.getSubject();
+        String role = claims.get("role", String.class);
+        if (email == null || role == null) {
+            log.debug("JWT without subject / role claim: {}", claims);
+            return null;
+        }
+        Date exp = claims.getExpiration();
+        Verified fresh = new Verified(email, role, exp != null ? exp.getTime() : Long.MAX_VALUE,
+                List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+        // no exp → valid, but never cached: nothing would ever take it out again
+        if (exp != null && verified.putIfAbsent(hash, fresh) == null) {
+            byAge.add(hash);
+            if (verified.size() > maxEntries) {
+                evictOldest();
+            }
+        }
+        return fresh;
+    }
+
+    // ✅ Logout — the token stops working now instead of at its exp
+    public boolean revoke(String token) {
+        Verified valid = verify(token);
+        if (valid == null) {
+            return false;
+        }
+        TokenHash hash = hash(token);
+        revoked.put(hash, valid.expiresAt());
+        verified.remove(hash);
+        return true;
+    }
+
+    public int cachedTokens() {
+        return verified.size();
+    }
+
+    public int revokedTokens() {
+        return revoked.size();
+    }
+
+    // Expired tokens fail parsing on their own → neither map needs them any more
+    @Scheduled(fixedDelayString = "${jwt.cache.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        long now = clock.getAsLong();
+        int before = verified.size() + revoked.size();
+        verified.values().removeIf(v -> v.expiresAt() <= now);
+        revoked.values().removeIf(exp -> exp <= now);
+        byAge.removeIf(hash -> !verified.containsKey(hash));
+        int swept = before - verified.size() - revoked.size();
+        if (swept > 0) {
+            log.info("JWT cache: {} expired token(s) removed", swept);
+        }
+    }
+
+    private void evictOldest() {
+        int evicted = 0;
+        while (verified.size() > maxEntries) {
+            TokenHash oldest = byAge.poll();
+            if (oldest == null) {
+                break;
+            }
+            if (verified.remove(oldest) != null) {
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("JWT cache full ({} tokens) — evicted the {} oldest", maxEntries, evicted);
+        }
+    }
+
+    private static TokenHash hash(String token) {
+        Hasher hasher = HASHERS.poll();
+        if (hasher == null) {
+            hasher = new Hasher();
+        }
+        try {
+            return hash(token, hasher);
+        } finally {
+            // an oversized token's buffer is not worth keeping around
+            if (hasher.in.length <= MAX_POOLED_INPUT) {
+                HASHERS.offer(hasher);
+            }
+        }
+    }
+
+    private static TokenHash hash(String token, Hasher hasher) {
+        int length = token.length();
+        if (hasher.in.length < length) {
+            hasher.in = new byte[Math.max(length, hasher.in.length * 2)];
+        }
+        byte[] in = hasher.in;
+        // compact JWTs are base64url + dots → one byte per char (anything else is mangled alike
+        // and then fails the signature check)
+        for (int i = 0; i < length; i++) {
+            in[i] = (byte) token.charAt(i);
+        }
+        hasher.sha256.update(in, 0, length);
+        try {
+            hasher.sha256.digest(hasher.out, 0, hasher.out.length);
+        } catch (DigestException e) {
+            hasher.sha256.reset();
+            throw new IllegalStateException(e);
+        }
+        byte[] out = hasher.out;
+        return new TokenHash((long) LONGS.get(out, 0), (long) LONGS.get(out, 8),
+                (long) LONGS.get(out, 16), (long) LONGS.get(out, 24));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.seatbooking.service;
+
+import java.time.Duration;
+
+// ✅ Where one-time passwords live between "send" and "reset"
+//
+// InMemoryOtpStore is the single-node default; a clustered store (Redis, a DB table, ...) only
+// has to implement this interface and be the OtpStore bean instead.
+public interface OtpStore {
+
+    enum Result {
+        VALID,
+        INVALID,
+        EXPIRED,
+        MISSING,
+        // too many wrong tries — the code is gone, a new one has to be requested
+        LOCKED
+    }
+
+    // Replaces any code the email still had
+    void put(String email, String otp, Duration ttl);
+
+    // Constant-time comparison; every INVALID counts against the code's attempts
+    Result check(String email, String otp);
+
+    void remove(String email);
+
+    int size();
+}
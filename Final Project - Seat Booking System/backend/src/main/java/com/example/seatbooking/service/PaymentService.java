@@ -10,7 +10,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 public class PaymentService {
@@ -18,17 +17,24 @@ public class PaymentService {
     private final PaymentRepository paymentRepository;
     private final BookingRepository bookingRepository;
     private final BookingService bookingService;
+    private final SnowflakeIdGenerator snowflakeIdGenerator;
+    private final BookingMetrics metrics;
 
     public PaymentService(PaymentRepository paymentRepository,
                           BookingRepository bookingRepository,
-                          BookingService bookingService) {
-        this.paymentRepository = paymentRepository;
-        this.bookingRepository = bookingRepository;
-        this.bookingService    = bookingService;
+                          BookingService bookingService,
+                          SnowflakeIdGenerator snowflakeIdGenerator,
+                          BookingMetrics metrics) {
+        this.paymentRepository    = paymentRepository;
+        this.bookingRepository    = bookingRepository;
+        this.bookingService       = bookingService;
+        this.snowflakeIdGenerator = snowflakeIdGenerator;
+        this.metrics              = metrics;
     }
 
+    // ✅ referenceCode — PAY- + 13-char time-ordered code, no SecureRandom
     public Payment createPayment(Payment payment) {
-        payment.setReferenceCode("PAY-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        payment.setReferenceCode(snowflakeIdGenerator.nextCode("PAY-"));
         payment.setStatus(Status.PENDING);
         return paymentRepository.save(payment);
     }
@@ -64,6 +70,10 @@ public class PaymentService {
     // ✅ Payment SUCCESS → Booking CONFIRMED → Mail trigger!
     @Transactional
     public Payment updatePaymentStatus(Long id, Status status) {
+        return metrics.record(BookingMetrics.PAYMENT_STATUS, () -> applyStatus(id, status));
+    }
+
+    private Payment applyStatus(Long id, Status status) {
         Payment existing = paymentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment not found with id: " + id));
         existing.setStatus(status);
@@ -78,6 +88,7 @@ public class PaymentService {
         return saved;
     }
 
+    @Transactional
     public Payment updatePayment(Long id, Payment updatedPayment) {
         Payment existing = paymentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment not found with id: " + id));
@@ -0,0 +1,70 @@
+package com.example.seatbooking.service;
+
+import com.example.seatbooking.entity.Events;
+import com.example.seatbooking.entity.SeatLayout;
+import com.example.seatbooking.entity.Venue;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// ✅ Explicit invalidation of the reference-data cache, called by the services that write it
+//
+// READ_WRITE regions already follow single-entity changes made through JPA; this also drops what
+// they can't see row by row — cached lookup results (a seat list carries its venue), bulk deletes.
+// Inside a transaction the eviction waits for the commit, so a reader in between can't put the
+// old row back; a rollback leaves the cache alone.
+@Service
+public class ReferenceDataCache {
+
+    private final Cache cache;
+
+    public ReferenceDataCache(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    public void venueChanged(Long venueId) {
+        afterCommit(() -> {
+            cache.evictEntityData(Venue.class, venueId);
+            cache.evictQueryRegion(Venue.QUERY_REGION);
+            cache.evictQueryRegion(SeatLayout.QUERY_REGION);
+        });
+    }
+
+    public void seatChanged(Long seatId) {
+        afterCommit(() -> {
+            cache.evictEntityData(SeatLayout.class, seatId);
+            cache.evictQueryRegion(SeatLayout.QUERY_REGION);
+        });
+    }
+
+    // bulk delete of a venue's layout — every cached seat goes
+    public void seatsChanged() {
+        afterCommit(() -> {
+            cache.evictEntityData(SeatLayout.class);
+            cache.evictQueryRegion(SeatLayout.QUERY_REGION);
+        });
+    }
+
+    public void eventChanged(Long eventId) {
+        afterCommit(() -> {
+            cache.evictEntityData(Events.class, eventId);
+            cache.evictQueryRegion(Events.QUERY_REGION);
+        });
+    }
+
+    private void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
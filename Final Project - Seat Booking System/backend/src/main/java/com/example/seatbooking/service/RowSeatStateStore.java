@@ -0,0 +1,102 @@
+package com.example.seatbooking.service;
+
+import com.example.seatbooking.config.ReadFromPrimary;
+import com.example.seatbooking.entity.ScreeningSeats;
+import com.example.seatbooking.entity.ScreeningSeats.Availability;
+import com.example.seatbooking.repository.ScreeningSeatsRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// ✅ Default storage — the seat state engine against the screening_seats table
+@Service
+@ConditionalOnProperty(name = "seat.storage.mode", havingValue = "rows", matchIfMissing = true)
+public class RowSeatStateStore implements SeatStateStore {
+
+    // Seats that ended up in the same state share one UPDATE
+    private record GroupKey(Availability availability, Long userId, LocalDateTime holdTill) {
+    }
+
+    private final ScreeningSeatsRepository screeningSeatsRepository;
+
+    public RowSeatStateStore(ScreeningSeatsRepository screeningSeatsRepository) {
+        this.screeningSeatsRepository = screeningSeatsRepository;
+    }
+
+    // the engine decides holds from this copy — never from a lagging replica
+    @Override
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
+    public ScreeningSeatState load(Long screeningId) {
+        List<ScreeningSeats> rows = screeningSeatsRepository.findByScreening_ScreeningId(screeningId);
+
+        List<ScreeningSeatState.SeatInfo> infos = new ArrayList<>(rows.size());
+        for (ScreeningSeats row : rows) {
+            infos.add(new ScreeningSeatState.SeatInfo(
+                    row.getScreeningSeatsId(),
+                    row.getSeat().getSeatId(),
+                    row.getSeat().getSeatNo(),
+                    row.getSeat().getSeatRow(),
+                    row.getSeat().getSeatCategory(),
+                    row.getPrice()));
+        }
+
+        ScreeningSeatState state = new ScreeningSeatState(screeningId, infos);
+        for (int i = 0; i < rows.size(); i++) {
+            ScreeningSeats row = rows.get(i);
+            state.load(i,
+                    row.getAvailability(),
+                    row.getHoldBy() != null ? row.getHoldBy().getUserId() : null,
+                    SeatStateStore.toMillis(row.getHoldTill()));
+        }
+        return state;
+    }
+
+    // ✅ Seats that ended up in the same state share ONE UPDATE ... WHERE id IN (...)
+    // Own transaction — a flush triggered from inside a caller's transaction must not roll back with it
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void persist(ScreeningSeatState state, List<Integer> ordinals) {
+        Map<GroupKey, List<Long>> groups = new LinkedHashMap<>();
+        for (int ordinal : ordinals) {
+            long holder = state.holder(ordinal);
+            groups.computeIfAbsent(
+                    new GroupKey(state.availability(ordinal),
+                            holder != 0L ? holder : null,
+                            SeatStateStore.fromMillis(state.holdTill(ordinal))),
+                    k -> new ArrayList<>()
+            ).add(state.seat(ordinal).screeningSeatsId());
+        }
+
+        groups.forEach((key, ids) -> screeningSeatsRepository.updateState(
+                ids, key.availability().name(), key.userId(), key.holdTill()));
+    }
+
+    @Override
+    public int claimForHold(Long screeningId, Collection<Long> seatIds, Long userId, LocalDateTime holdTill) {
+        return screeningSeatsRepository.holdIfAvailable(screeningId, seatIds, userId, holdTill);
+    }
+
+    // one grouped query over every screening — counts for listing pages may come from a replica
+    @Override
+    @Transactional(readOnly = true)
+    public List<Object[]> countByCategoryAndAvailability(Collection<Long> screeningIds) {
+        return screeningSeatsRepository.countByCategoryAndAvailability(screeningIds);
+    }
+
+    @Override
+    @ReadFromPrimary
+    public Long screeningOf(Long screeningSeatsId) {
+        return screeningSeatsRepository.findById(screeningSeatsId)
+                .map(row -> row.getScreening().getScreeningId())
+                .orElse(null);
+    }
+}
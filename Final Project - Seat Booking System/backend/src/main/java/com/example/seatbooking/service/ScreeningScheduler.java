@@ -0,0 +1,191 @@
+package com.example.seatbooking.service;
+
+import com.example.seatbooking.dto.ScreeningScheduleRequest;
+import com.example.seatbooking.entity.Events;
+import com.example.seatbooking.entity.Screening;
+import com.example.seatbooking.entity.Venue;
+import com.example.seatbooking.repository.EventsRepository;
+import com.example.seatbooking.repository.ScreeningRepository;
+import com.example.seatbooking.repository.SeatLayoutRepository;
+import com.example.seatbooking.repository.VenueRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// ✅ Recurring screenings — one screening per (day, start time) over a date range, seats included
+//
+// One transaction for the whole run: the venue row is locked, every slot is checked against the
+// venue's screenings (and the run itself), then the screenings go in a week at a time — screenings
+// + ONE INSERT ... SELECT for all their seats. Manual creates and updates take the same lock for
+// the same check, so nothing can double-book the hall, and a clash leaves nothing behind.
+@Service
+public class ScreeningScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ScreeningScheduler.class);
+
+    static final int MAX_DAYS = 92;
+    static final int CHUNK_DAYS = 7;
+
+    private static final DateTimeFormatter SLOT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    // one requested screening; a show past midnight ends on the next day
+    record Slot(LocalDate date, LocalTime startTime, LocalTime endTime) {
+
+        LocalDateTime from() {
+            return date.atTime(startTime);
+        }
+
+        LocalDateTime to() {
+            LocalDateTime to = date.atTime(endTime);
+            return to.isAfter(from()) ? to : to.plusDays(1);
+        }
+
+        @Override
+        public String toString() {
+            return from().format(SLOT_FORMAT) + "–" + endTime;
+        }
+    }
+
+    // busy intervals of one venue, merged so they never overlap → one lowerEntry per check.
+    // Intervals are half-open: a show may start the minute the previous one ends.
+    static final class VenueTimeline {
+
+        private final TreeMap<LocalDateTime, LocalDateTime> busy = new TreeMap<>();
+
+        boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            Map.Entry<LocalDateTime, LocalDateTime> last = busy.lowerEntry(to);
+            return last != null && last.getValue().isAfter(from);
+        }
+
+        void add(LocalDateTime from, LocalDateTime to) {
+            Map.Entry<LocalDateTime, LocalDateTime> before = busy.lowerEntry(from);
+            if (before != null && before.getValue().isAfter(from)) {
+                from = before.getKey();
+            }
+            Iterator<Map.Entry<LocalDateTime, LocalDateTime>> swallowed =
+                    busy.subMap(from, true, to, false).entrySet().iterator();
+            while (swallowed.hasNext()) {
+                LocalDateTime end = swallowed.next().getValue();
+                if (end.isAfter(to)) {
+                    to = end;
+                }
+                swallowed.remove();
+            }
+            busy.put(from, to);
+        }
+    }
+
+    private final ScreeningRepository screeningRepository;
+    private final EventsRepository eventsRepository;
+    private final VenueRepository venueRepository;
+    private final SeatLayoutRepository seatLayoutRepository;
+    private final ScreeningService screeningService;
+    private final TransactionTemplate transactionTemplate;
+
+    public ScreeningScheduler(ScreeningRepository screeningRepository,
+                              EventsRepository eventsRepository,
+                              VenueRepository venueRepository,
+                              SeatLayoutRepository seatLayoutRepository,
+                              ScreeningService screeningService,
+                              PlatformTransactionManager transactionManager) {
+        this.screeningRepository = screeningRepository;
+        this.eventsRepository = eventsRepository;
+        this.venueRepository = venueRepository;
+        this.seatLayoutRepository = seatLayoutRepository;
+        this.screeningService = screeningService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Map<String, Object> schedule(ScreeningScheduleRequest request) {
+        Events event = eventsRepository.findById(request.getEventId())
+                .orElseThrow(() -> new RuntimeException("Event not found with id: " + request.getEventId()));
+        Venue venue = venueRepository.findById(request.getVenueId())
+                .orElseThrow(() -> new RuntimeException("Venue not found with id: " + request.getVenueId()));
+
+        List<Slot> slots = expand(request, event);
+        int seatsPerScreening = Math.toIntExact(seatLayoutRepository.countByVenue_VenueId(venue.getVenueId()));
+        Map<Long, List<Slot>> weeks = slots.stream().collect(Collectors.groupingBy(
+                slot -> ChronoUnit.DAYS.between(request.getStartDate(), slot.date()) / CHUNK_DAYS,
+                TreeMap::new, Collectors.toList()));
+
+        List<Long> screeningIds = new ArrayList<>();
+        int seats = transactionTemplate.execute(status -> {
+            List<Slot> conflicts = screeningService.lockVenueAndFindConflicts(venue.getVenueId(), slots, null);
+            if (!conflicts.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Venue is already booked for " + describe(conflicts));
+            }
+            // a week per statement batch — still one transaction, all or nothing
+            int created = 0;
+            for (List<Slot> week : weeks.values()) {
+                List<Long> ids = screeningRepository.saveAll(week.stream()
+                        .map(slot -> Screening.builder()
+                                .event(event).venue(venue)
+                                .screenDate(slot.date()).startTime(slot.startTime()).endTime(slot.endTime())
+                                .remainingSeats(seatsPerScreening)
+                                .status(Screening.Status.ACTIVE)
+                                .build())
+                        .toList()).stream().map(Screening::getScreeningId).toList();
+                screeningIds.addAll(ids);
+                created += screeningService.materializeSeats(ids, request.getCategoryPrices());
+            }
+            return created;
+        });
+
+        log.info("Scheduled {} screenings ({} seats) of event {} at venue {}, {} → {}", screeningIds.size(), seats,
+                event.getEventId(), venue.getVenueId(), request.getStartDate(), request.getEndDate());
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("created", screeningIds.size());
+        result.put("seats", seats);
+        result.put("screeningIds", screeningIds);
+        return result;
+    }
+
+    // ── Slots & conflicts ───────────────────────────────────
+
+    private static List<Slot> expand(ScreeningScheduleRequest request, Events event) {
+        LocalDate start = request.getStartDate();
+        LocalDate end = request.getEndDate();
+        if (end.isBefore(start)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+            throw new RuntimeException("A schedule can cover at most " + MAX_DAYS + " days");
+        }
+        Integer minutes = request.getDurationMinutes() != null ? request.getDurationMinutes() : event.getDuration();
+        if (minutes == null || minutes <= 0 || minutes >= 24 * 60) {
+            throw new RuntimeException("Invalid screening duration: " + minutes);
+        }
+
+        TreeSet<LocalTime> times = new TreeSet<>(request.getStartTimes());
+        List<Slot> slots = new ArrayList<>();
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            for (LocalTime time : times) {
+                slots.add(new Slot(date, time, time.plusMinutes(minutes)));
+            }
+        }
+        return slots;
+    }
+
+    static String describe(List<Slot> conflicts) {
+        String shown = conflicts.stream().limit(10).map(Slot::toString).collect(Collectors.joining(", "));
+        return conflicts.size() > 10 ? shown + " and " + (conflicts.size() - 10) + " more" : shown;
+    }
+}
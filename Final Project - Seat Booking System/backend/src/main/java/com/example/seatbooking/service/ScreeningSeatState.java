@@ -0,0 +1,529 @@
+package com.example.seatbooking.service;
+
+import com.example.seatbooking.dto.ScreeningSeatDTO;
+import com.example.seatbooking.entity.ScreeningSeats.Availability;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+// ✅ In-memory seat state of ONE screening — every seat is a single CAS-updated long
+//
+//   bits  0-1  → Availability ordinal (AVAILABLE / HELD / BOOKED)
+//   bits  2-33 → holder userId (0 = nobody)
+//   bits 34-63 → stamp, bumped on every transition so a stale CAS can never win (no ABA)
+public class ScreeningSeatState {
+
+    private static final Availability[] AVAILABILITIES = Availability.values();
+
+    // every loaded instance gets its own generation → (generation, version) never repeats,
+    // not even after the screening was evicted and loaded again
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+
+    private static final long STATE_MASK  = 0b11L;
+    private static final int  USER_SHIFT  = 2;
+    private static final long USER_MASK   = 0xFFFF_FFFFL;
+    private static final int  STAMP_SHIFT = 34;
+
+    // Static seat info — never changes while the screening is loaded
+    public record SeatInfo(Long screeningSeatsId,
+                           Long seatId,
+                           String seatNo,
+                           String seatRow,
+                           String seatCategory,
+                           BigDecimal price) {
+    }
+
+    private final Long screeningId;
+    private final SeatInfo[] seats;
+    private final Map<Long, Integer> ordinalBySeatId = new HashMap<>();
+
+    private final AtomicLongArray words;
+    private final AtomicLongArray holdTill;          // epoch millis, 0 = no expiry; written BEFORE the HELD word
+
+    // write-behind bookkeeping — a seat sits in the queue at most once
+    private final AtomicIntegerArray dirtyFlags;
+    private final ConcurrentLinkedQueue<Integer> dirtyQueue = new ConcurrentLinkedQueue<>();
+
+    // ✅ NEW — told about every transition that won its CAS (live seat-map push)
+    private volatile IntConsumer changeListener;
+
+    // ✅ NEW — bumped on every transition (seat-map snapshot cache / ETag)
+    private final long generation = GENERATIONS.incrementAndGet();
+    private final AtomicLong version = new AtomicLong();
+
+    // ✅ NEW — AVAILABLE seats per category, moved by every transition (remaining-seat badges).
+    // LongAdder: the booking threads of a busy screening each bump their own cell, no shared CAS
+    private final String[] categories;
+    private final int[] categoryOfSeat;
+    private final LongAdder[] availableByCategory;
+    private volatile long remainingFlushedVersion = -1L;
+
+    // ✅ Retirement (SeatStateEngine.evict): once closed, no transition starts, and close() waits for
+    // the ones already past the check — everything they marked dirty is in the final flush.
+    // inFlight is one more shared counter per screening, next to version.
+    private volatile boolean closed;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // last lookup through the engine (idle eviction)
+    private volatile long lastUsed = System.currentTimeMillis();
+
+    public ScreeningSeatState(Long screeningId, List<SeatInfo> seatInfos) {
+        this.screeningId = screeningId;
+        this.seats = seatInfos.toArray(new SeatInfo[0]);
+        this.words = new AtomicLongArray(seats.length);
+        this.holdTill = new AtomicLongArray(seats.length);
+        this.dirtyFlags = new AtomicIntegerArray(seats.length);
+        for (int i = 0; i < seats.length; i++) {
+            ordinalBySeatId.put(seats[i].seatId(), i);
+        }
+
+        // every word starts as AVAILABLE (0) → every seat starts counted; load() corrects it
+        Map<String, Integer> categoryIndex = new LinkedHashMap<>();
+        this.categoryOfSeat = new int[seats.length];
+        for (int i = 0; i < seats.length; i++) {
+            String category = seats[i].seatCategory() != null ? seats[i].seatCategory() : "";
+            categoryOfSeat[i] = categoryIndex.computeIfAbsent(category, c -> categoryIndex.size());
+        }
+        this.categories = categoryIndex.keySet().toArray(new String[0]);
+        this.availableByCategory = new LongAdder[categories.length];
+        for (int c = 0; c < categories.length; c++) {
+            availableByCategory[c] = new LongAdder();
+        }
+        for (int i = 0; i < seats.length; i++) {
+            availableByCategory[categoryOfSeat[i]].increment();
+        }
+    }
+
+    // ── Loading (no dirty marking — state already matches the DB) ──
+
+    void load(int ordinal, Availability availability, Long userId, long tillMillis) {
+        Availability before = availabilityOf(words.get(ordinal));
+        holdTill.set(ordinal, tillMillis);
+        words.set(ordinal, pack(availability, userId != null ? checkedUser(userId) : 0L, 0L));
+        count(ordinal, before, availability);
+    }
+
+    // ── Transitions ─────────────────────────────────────────
+
+    // AVAILABLE → HELD, only if nobody got there first
+    public boolean tryHold(int ordinal, long userId, long tillMillis) {
+        return tryHold(ordinal, userId, tillMillis, true);
+    }
+
+    // writeBehind = false → the caller writes this seat to the DB itself (multi-seat hold)
+    boolean tryHold(int ordinal, long userId, long tillMillis, boolean writeBehind) {
+        checkedUser(userId);
+        if (!enter()) {
+            return false;
+        }
+        try {
+            long current = words.get(ordinal);
+            if (availabilityOf(current) != Availability.AVAILABLE) {
+                return false;
+            }
+            // deadline first: whoever sees the HELD word sees its deadline too (never a 0 or the
+            // last hold's). A racing loser may overwrite it with its own now + hold time — same value
+            holdTill.set(ordinal, tillMillis);
+            if (!words.compareAndSet(ordinal, current, next(current, Availability.HELD, userId))) {
+                return false;
+            }
+            if (writeBehind) {
+                markDirty(ordinal);
+            }
+            count(ordinal, Availability.AVAILABLE, Availability.HELD);
+            changed(ordinal);
+            return true;
+        } finally {
+            exit();
+        }
+    }
+
+    // HELD → AVAILABLE (any holder)
+    public boolean releaseHeld(int ordinal) {
+        return releaseHeld(ordinal, true);
+    }
+
+    // writeBehind=false: undoing a hold that was never written (rolled-back claim)
+    boolean releaseHeld(int ordinal, boolean writeBehind) {
+        if (!enter()) {
+            return false;
+        }
+        try {
+            while (true) {
+                long current = words.get(ordinal);
+                if (availabilityOf(current) != Availability.HELD) {
+                    return false;
+                }
+                if (words.compareAndSet(ordinal, current, next(current, Availability.AVAILABLE, 0L))) {
+                    if (writeBehind) {
+                        markDirty(ordinal);
+                    }
+                    count(ordinal, Availability.HELD, Availability.AVAILABLE);
+                    changed(ordinal);
+                    return true;
+                }
+            }
+        } finally {
+            exit();
+        }
+    }
+
+    // HELD by this user → AVAILABLE (the user lets go) — someone else's hold on the seat stays
+    public boolean releaseHeldBy(int ordinal, long userId) {
+        if (!enter()) {
+            return false;
+        }
+        try {
+            while (true) {
+                long current = words.get(ordinal);
+                if (availabilityOf(current) != Availability.HELD || holderOf(current) != userId) {
+                    return false;
+                }
+                if (words.compareAndSet(ordinal, current, next(current, Availability.AVAILABLE, 0L))) {
+                    markDirty(ordinal);
+                    count(ordinal, Availability.HELD, Availability.AVAILABLE);
+                    changed(ordinal);
+                    return true;
+                }
+            }
+        } finally {
+            exit();
+        }
+    }
+
+    // BOOKED → AVAILABLE (approved cancellation)
+    public boolean releaseBooked(int ordinal) {
+        if (!enter()) {
+            return false;
+        }
+        try {
+            while (true) {
+                long current = words.get(ordinal);
+                if (availabilityOf(current) != Availability.BOOKED) {
+                    return false;
+                }
+                if (words.compareAndSet(ordinal, current, next(current, Availability.AVAILABLE, 0L))) {
+                    markDirty(ordinal);
+                    count(ordinal, Availability.BOOKED, Availability.AVAILABLE);
+                    changed(ordinal);
+                    return true;
+                }
+            }
+        } finally {
+            exit();
+        }
+    }
+
+    // HELD → AVAILABLE, but only if the hold has really run out
+    public boolean releaseIfExpired(int ordinal, long nowMillis) {
+        if (!enter()) {
+            return false;
+        }
+        try {
+            long current = words.get(ordinal);
+            long till = holdTill.get(ordinal);
+            if (availabilityOf(current) != Availability.HELD || till == 0L || till > nowMillis) {
+                return false;
+            }
+            if (!words.compareAndSet(ordinal, current, next(current, Availability.AVAILABLE, 0L))) {
+                return false;
+            }
+            markDirty(ordinal);
+            count(ordinal, Availability.HELD, Availability.AVAILABLE);
+            changed(ordinal);
+            return true;
+        } finally {
+            exit();
+        }
+    }
+
+    // HELD → AVAILABLE when a seat hold row runs out — skipped if the seat was re-held with a later deadline
+    public boolean releaseIfNotExtended(int ordinal, long nowMillis) {
+        if (!enter()) {
+            return false;
+        }
+        try {
+            while (true) {
+                long current = words.get(ordinal);
+                long till = holdTill.get(ordinal);
+                if (availabilityOf(current) != Availability.HELD || till > nowMillis) {
+                    return false;
+                }
+                if (words.compareAndSet(ordinal, current, next(current, Availability.AVAILABLE, 0L))) {
+                    markDirty(ordinal);
+                    count(ordinal, Availability.HELD, Availability.AVAILABLE);
+                    changed(ordinal);
+                    return true;
+                }
+            }
+        } finally {
+            exit();
+        }
+    }
+
+    // ✅ NEW — HELD by this user → BOOKED (checkout); the holder stays on the seat
+    public boolean tryBook(int ordinal, long userId) {
+        if (!enter()) {
+            return false;
+        }
+        try {
+            while (true) {
+                long current = words.get(ordinal);
+                if (availabilityOf(current) != Availability.HELD || holderOf(current) != userId) {
+                    return false;
+                }
+                if (words.compareAndSet(ordinal, current, next(current, Availability.BOOKED, userId))) {
+                    markDirty(ordinal);
+                    changed(ordinal);
+                    return true;
+                }
+            }
+        } finally {
+            exit();
+        }
+    }
+
+    // BOOKED by this user → HELD again until tillMillis (checkout rolled back)
+    public boolean unbook(int ordinal, long userId, long tillMillis) {
+        if (!enter()) {
+            return false;
+        }
+        try {
+            while (true) {
+                long current = words.get(ordinal);
+                if (availabilityOf(current) != Availability.BOOKED || holderOf(current) != userId) {
+                    return false;
+                }
+                holdTill.set(ordinal, tillMillis);
+                if (words.compareAndSet(ordinal, current, next(current, Availability.HELD, userId))) {
+                    markDirty(ordinal);
+                    changed(ordinal);
+                    return true;
+                }
+            }
+        } finally {
+            exit();
+        }
+    }
+
+    // Unconditional set — admin / PATCH availability path (false only once closed)
+    public boolean set(int ordinal, Availability availability) {
+        if (!enter()) {
+            return false;
+        }
+        try {
+            while (true) {
+                long current = words.get(ordinal);
+                long holder = availability == Availability.AVAILABLE ? 0L : holderOf(current);
+                // forced to HELD → no deadline, not whatever an earlier hold left behind
+                if (availability == Availability.HELD && availabilityOf(current) != Availability.HELD) {
+                    holdTill.set(ordinal, 0L);
+                }
+                if (words.compareAndSet(ordinal, current, next(current, availability, holder))) {
+                    markDirty(ordinal);
+                    count(ordinal, availabilityOf(current), availability);
+                    changed(ordinal);
+                    return true;
+                }
+            }
+        } finally {
+            exit();
+        }
+    }
+
+    // ── Retirement ──────────────────────────────────────────
+
+    private boolean enter() {
+        inFlight.incrementAndGet();
+        // both sides are volatile: either close() sees this transition running, or it sees closed
+        if (closed) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private void exit() {
+        inFlight.decrementAndGet();
+    }
+
+    // no transition succeeds after this returns; a failed one on a closed state means "retry on the reload"
+    void close() {
+        closed = true;
+        while (inFlight.get() != 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    long lastUsed() {
+        return lastUsed;
+    }
+
+    // one volatile write per second at most — lookups of a hot screening don't all hit the same line
+    void touch(long nowMillis) {
+        if (nowMillis - lastUsed > 1000L) {
+            lastUsed = nowMillis;
+        }
+    }
+
+    // nothing running out on the expiry wheel (idle eviction keeps those loaded)
+    boolean hasHolds() {
+        for (int i = 0; i < seats.length; i++) {
+            if (availabilityOf(words.get(i)) == Availability.HELD) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ── Reads ───────────────────────────────────────────────
+
+    public Long getScreeningId()                 { return screeningId; }
+    public int size()                            { return seats.length; }
+    public SeatInfo seat(int ordinal)            { return seats[ordinal]; }
+    public Integer ordinalOfSeat(Long seatId)    { return ordinalBySeatId.get(seatId); }
+    public Availability availability(int ordinal){ return availabilityOf(words.get(ordinal)); }
+    public long holder(int ordinal)              { return holderOf(words.get(ordinal)); }
+    // a deadline only means something while the seat is HELD — transitions away from HELD leave it behind
+    public long holdTill(int ordinal) {
+        return availabilityOf(words.get(ordinal)) == Availability.HELD ? holdTill.get(ordinal) : 0L;
+    }
+    public long generation()                     { return generation; }
+    public long version()                        { return version.get(); }
+
+    // ✅ NEW — seats still AVAILABLE, in total and per seat category
+    public int available() {
+        long total = 0;
+        for (LongAdder adder : availableByCategory) {
+            total += adder.sum();
+        }
+        return (int) total;
+    }
+
+    public Map<String, Integer> availableByCategory() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int c = 0; c < categories.length; c++) {
+            result.put(categories[c], (int) availableByCategory[c].sum());
+        }
+        return result;
+    }
+
+    public ScreeningSeatDTO toDto(int ordinal) {
+        SeatInfo info = seats[ordinal];
+        ScreeningSeatDTO dto = new ScreeningSeatDTO();
+        dto.setScreeningSeatsId(info.screeningSeatsId());
+        dto.setPrice(info.price());
+        dto.setAvailability(availability(ordinal).name());
+        dto.setSeatId(info.seatId());
+        dto.setSeatNo(info.seatNo());
+        dto.setSeatRow(info.seatRow());
+        dto.setSeatCategory(info.seatCategory());
+        dto.setScreeningId(screeningId);
+        return dto;
+    }
+
+    public List<ScreeningSeatDTO> snapshot() {
+        List<ScreeningSeatDTO> result = new ArrayList<>(seats.length);
+        for (int i = 0; i < seats.length; i++) {
+            result.add(toDto(i));
+        }
+        return result;
+    }
+
+    // ── Write-behind ────────────────────────────────────────
+
+    void markDirty(int ordinal) {
+        if (dirtyFlags.compareAndSet(ordinal, 0, 1)) {
+            dirtyQueue.add(ordinal);
+        }
+    }
+
+    boolean hasDirty() {
+        return !dirtyQueue.isEmpty();
+    }
+
+    // Flag is cleared BEFORE reading, so a transition racing with the drain re-queues the seat
+    List<Integer> drainDirty() {
+        List<Integer> drained = new ArrayList<>();
+        Integer ordinal;
+        while ((ordinal = dirtyQueue.poll()) != null) {
+            dirtyFlags.set(ordinal, 0);
+            drained.add(ordinal);
+        }
+        return drained;
+    }
+
+    // ── Remaining-seat counters ─────────────────────────────
+
+    private void count(int ordinal, Availability from, Availability to) {
+        if (from == to) {
+            return;
+        }
+        if (from == Availability.AVAILABLE) {
+            availableByCategory[categoryOfSeat[ordinal]].decrement();
+        } else if (to == Availability.AVAILABLE) {
+            availableByCategory[categoryOfSeat[ordinal]].increment();
+        }
+    }
+
+    // version the remaining count was last written to screening.remaining_seats at (-1 = never)
+    long remainingFlushedVersion()               { return remainingFlushedVersion; }
+    void remainingFlushed(long flushedVersion)   { this.remainingFlushedVersion = flushedVersion; }
+
+    // ── Change listener ─────────────────────────────────────
+
+    void onChange(IntConsumer listener) {
+        this.changeListener = listener;
+    }
+
+    private void changed(int ordinal) {
+        version.incrementAndGet();
+        IntConsumer listener = changeListener;
+        if (listener != null) {
+            listener.accept(ordinal);
+        }
+    }
+
+    // ── Packing helpers ─────────────────────────────────────
+
+    static Availability availabilityOf(long word) {
+        return AVAILABILITIES[(int) (word & STATE_MASK)];
+    }
+
+    // the word has 32 bits for the holder — a larger id would silently become another user
+    static long checkedUser(long userId) {
+        if (userId < 0 || userId > USER_MASK) {
+            throw new IllegalArgumentException("User id " + userId + " does not fit the seat state (32 bits)");
+        }
+        return userId;
+    }
+
+    static long holderOf(long word) {
+        return (word >>> USER_SHIFT) & USER_MASK;
+    }
+
+    private static long pack(Availability availability, long userId, long stamp) {
+        return (stamp << STAMP_SHIFT)
+                | ((userId & USER_MASK) << USER_SHIFT)
+                | availability.ordinal();
+    }
+
+    private static long next(long current, Availability availability, long userId) {
+        return pack(availability, userId, (current >>> STAMP_SHIFT) + 1);
+    }
+}
@@ -1,18 +1,23 @@
 package com.example.seatbooking.service;
 
+import com.example.seatbooking.dto.ScreeningSeatDTO;
 import com.example.seatbooking.entity.ScreeningSeats;
 import com.example.seatbooking.entity.ScreeningSeats.Availability;
-import com.example.seatbooking.entity.User;
+import com.example.seatbooking.entity.SeatHold;
 import com.example.seatbooking.repository.ScreeningSeatsRepository;
+import com.example.seatbooking.repository.SeatHoldRepository;
+import com.example.seatbooking.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class ScreeningSeatsService {
@@ -20,9 +25,24 @@ public class ScreeningSeatsService {
     private static final Logger log = LoggerFactory.getLogger(ScreeningSeatsService.class);
 
     private final ScreeningSeatsRepository screeningSeatsRepository;
-
-    public ScreeningSeatsService(ScreeningSeatsRepository screeningSeatsRepository) {
+    private final UserRepository userRepository;
+    private final SeatHoldRepository seatHoldRepository;
+    private final SeatStateEngine seatStateEngine;
+    private final BookingMetrics metrics;
+
+    // users already checked against the DB — holds reference them via the hold_by FK
+    private final Set<Long> knownUsers = ConcurrentHashMap.newKeySet();
+
+    public ScreeningSeatsService(ScreeningSeatsRepository screeningSeatsRepository,
+                                 UserRepository userRepository,
+                                 SeatHoldRepository seatHoldRepository,
+                                 SeatStateEngine seatStateEngine,
+                                 BookingMetrics metrics) {
         this.screeningSeatsRepository = screeningSeatsRepository;
+        this.userRepository = userRepository;
+        this.seatHoldRepository = seatHoldRepository;
+        this.seatStateEngine = seatStateEngine;
+        this.metrics = metrics;
     }
 
     public ScreeningSeats createScreeningSeat(ScreeningSeats screeningSeats) {
@@ -31,101 +51,100 @@ public class ScreeningSeatsService {
                 screeningSeats.getSeat().getSeatId())) {
             throw new RuntimeException("Seat already exists for this screening!");
         }
-        return screeningSeatsRepository.save(screeningSeats);
+        ScreeningSeats saved = screeningSeatsRepository.save(screeningSeats);
+        seatStateEngine.evict(saved.getScreening().getScreeningId());
+        return saved;
     }
 
     // ✅ FIXED: Bulk create method added
+    // Evicted once the rows are committed — a reload before that would not see them
     @Transactional
     public List<ScreeningSeats> createBulk(List<ScreeningSeats> seatsList) {
-        return screeningSeatsRepository.saveAll(seatsList);
+        List<ScreeningSeats> saved = screeningSeatsRepository.saveAll(seatsList);
+        List<Long> screeningIds = saved.stream()
+                .map(ss -> ss.getScreening().getScreeningId())
+                .distinct()
+                .toList();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                screeningIds.forEach(seatStateEngine::evict);
+            }
+        });
+        return saved;
     }
 
     public List<ScreeningSeats> getAllScreeningSeats() {
         return screeningSeatsRepository.findAll();
     }
 
-    public Optional<ScreeningSeats> getScreeningSeatById(Long id) {
-        return screeningSeatsRepository.findById(id);
+    // ✅ From the seat engine — in bitmap mode there is no screening_seats row to read
+    public Optional<ScreeningSeatDTO> getScreeningSeatById(Long id) {
+        return Optional.ofNullable(seatStateEngine.seat(id));
     }
 
     public List<ScreeningSeats> getSeatsByScreening(Long screeningId) {
         return screeningSeatsRepository.findByScreening_ScreeningId(screeningId);
     }
 
-    public List<ScreeningSeats> getAvailableSeatsByScreening(Long screeningId) {
-        return screeningSeatsRepository
-                .findByScreening_ScreeningIdAndAvailability(screeningId, Availability.AVAILABLE);
+    // ✅ Seat map straight from the seat engine — always the live state, no DB round trip
+    public List<ScreeningSeatDTO> getSeatMap(Long screeningId) {
+        return seatStateEngine.snapshot(screeningId);
     }
 
-    public List<ScreeningSeats> getHeldSeatsByUser(Long userId) {
-        return screeningSeatsRepository.findByHoldBy_UserId(userId);
+    // ✅ Also from the engine — works for both seat storage modes
+    public List<ScreeningSeatDTO> getAvailableSeatsByScreening(Long screeningId) {
+        return seatStateEngine.snapshot(screeningId).stream()
+                .filter(seat -> Availability.AVAILABLE.name().equals(seat.getAvailability()))
+                .toList();
     }
 
-    public ScreeningSeats updateAvailability(Long id, Availability availability) {
-        ScreeningSeats existing = screeningSeatsRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("ScreeningSeat not found with id: " + id));
-        existing.setAvailability(availability);
-        return screeningSeatsRepository.save(existing);
+    // ✅ From the seat engine as well — works for both seat storage modes
+    public List<ScreeningSeatDTO> getHeldSeatsByUser(Long userId) {
+        List<Long> screeningIds = seatHoldRepository
+                .findByUserIdAndStatus(userId, SeatHold.HoldStatus.HELD).stream()
+                .map(SeatHold::getScreeningId)
+                .distinct()
+                .toList();
+        return seatStateEngine.heldBy(userId, screeningIds);
+    }
+
+    public ScreeningSeatDTO updateAvailability(Long id, Availability availability) {
+        return seatStateEngine.setAvailability(id, availability);
     }
 
     public ScreeningSeats updateScreeningSeat(Long id, ScreeningSeats updatedSeat) {
         ScreeningSeats existing = screeningSeatsRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("ScreeningSeat not found with id: " + id));
+        // push pending engine writes first so they cannot overwrite this update later
+        seatStateEngine.evict(existing.getScreening().getScreeningId());
         existing.setScreening(updatedSeat.getScreening());
         existing.setSeat(updatedSeat.getSeat());
         existing.setPrice(updatedSeat.getPrice());
         existing.setAvailability(updatedSeat.getAvailability());
         existing.setHoldBy(updatedSeat.getHoldBy());
         existing.setHoldTill(updatedSeat.getHoldTill());
-        return screeningSeatsRepository.save(existing);
+        ScreeningSeats saved = screeningSeatsRepository.save(existing);
+        seatStateEngine.evict(saved.getScreening().getScreeningId());
+        // save() merged into a new session → re-read so the seat is fetched for the DTO
+        return screeningSeatsRepository.findById(saved.getScreeningSeatsId()).orElse(saved);
     }
 
     public void deleteScreeningSeat(Long id) {
-        if (!screeningSeatsRepository.existsById(id)) {
-            throw new RuntimeException("ScreeningSeat not found with id: " + id);
-        }
+        ScreeningSeats existing = screeningSeatsRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("ScreeningSeat not found with id: " + id));
         screeningSeatsRepository.deleteById(id);
+        seatStateEngine.evict(existing.getScreening().getScreeningId());
     }
 
-    @Transactional
-    public ScreeningSeats holdSeat(Long screeningSeatId, Long userId) {
-        ScreeningSeats seat = screeningSeatsRepository.findById(screeningSeatId)
-                .orElseThrow(() -> new RuntimeException("Seat not found: " + screeningSeatId));
-
-        if (seat.getAvailability() == Availability.HELD ||
-                seat.getAvailability() == Availability.BOOKED) {
-            throw new RuntimeException("Seat is not available!");
-        }
-
-        User user = new User();
-        user.setUserId(userId);
-
-        seat.setAvailability(Availability.HELD);
-        seat.setHoldBy(user);
-        seat.setHoldTill(LocalDateTime.now().plusMinutes(10));
-
-        log.info("Seat {} held by user {} until {}", screeningSeatId, userId, seat.getHoldTill());
-        return screeningSeatsRepository.save(seat);
-    }
-
-    @Scheduled(fixedRate = 60000)
-    @Transactional
-    public void releaseExpiredHolds() {
-        List<ScreeningSeats> expired = screeningSeatsRepository
-                .findExpiredHolds(LocalDateTime.now());
-
-        if (expired.isEmpty()) {
-            log.debug("Scheduler: No expired holds.");
-            return;
-        }
-
-        log.info("Scheduler: Releasing {} expired hold(s)...", expired.size());
-        for (ScreeningSeats seat : expired) {
-            seat.setAvailability(Availability.AVAILABLE);
-            seat.setHoldBy(null);
-            seat.setHoldTill(null);
-            screeningSeatsRepository.save(seat);
-            log.info("Scheduler: Released seat id {}", seat.getScreeningSeatsId());
+    // ✅ Decided in memory by the seat engine (CAS) — the DB row is written behind in a batch
+    public ScreeningSeatDTO holdSeat(Long screeningSeatId, Long userId) {
+        if (!knownUsers.contains(userId)) {
+            if (!userRepository.existsById(userId)) {
+                throw new RuntimeException("User not found: " + userId);
+            }
+            knownUsers.add(userId);
         }
+        return metrics.record(BookingMetrics.HOLD, () -> seatStateEngine.hold(screeningSeatId, userId));
     }
-}
\ No newline at end of file
+}
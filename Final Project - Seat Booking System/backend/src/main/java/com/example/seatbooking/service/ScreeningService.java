@@ -5,10 +5,25 @@ import com.example.seatbooking.entity.Screening.Status;
 import com.example.seatbooking.entity.ScreeningSeats;
 import com.example.seatbooking.repository.ScreeningRepository;
 import com.example.seatbooking.repository.ScreeningSeatsRepository;
+import com.example.seatbooking.repository.VenueRepository;
+import com.example.seatbooking.service.ScreeningScheduler.Slot;
+import com.example.seatbooking.service.ScreeningScheduler.VenueTimeline;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -16,17 +31,156 @@ public class ScreeningService {
 
     private final ScreeningRepository screeningRepository;
     private final ScreeningSeatsRepository screeningSeatsRepository; // ✅ ADD THIS
+    private final SeatStateEngine seatStateEngine;
+    private final VenueRepository venueRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public ScreeningService(ScreeningRepository screeningRepository,
-                            ScreeningSeatsRepository screeningSeatsRepository) { // ✅ ADD THIS
+                            ScreeningSeatsRepository screeningSeatsRepository, // ✅ ADD THIS
+                            SeatStateEngine seatStateEngine,
+                            VenueRepository venueRepository) {
         this.screeningRepository = screeningRepository;
         this.screeningSeatsRepository = screeningSeatsRepository; // ✅ ADD THIS
+        this.seatStateEngine = seatStateEngine;
+        this.venueRepository = venueRepository;
     }
 
+    @Transactional
     public Screening createScreening(Screening screening) {
+        claimVenueSlot(screening, null);
         return screeningRepository.save(screening);
     }
 
+    // ✅ NEW — screening + one screening seat per layout seat of its venue, no per-seat payload
+    @Transactional
+    public Screening createScreening(Screening screening, Map<String, BigDecimal> categoryPrices) {
+        claimVenueSlot(screening, null);
+        Screening saved = screeningRepository.save(screening);
+        int created = materializeSeats(List.of(saved.getScreeningId()), categoryPrices);
+        if (saved.getRemainingSeats() == null) {
+            saved.setRemainingSeats(created);
+        }
+        return saved;
+    }
+
+    // ✅ NEW — fills in the layout seats a screening is still missing (existing rows are kept)
+    @Transactional
+    public int generateSeats(Long screeningId, Map<String, BigDecimal> categoryPrices) {
+        Screening screening = screeningRepository.findById(screeningId)
+                .orElseThrow(() -> new RuntimeException("Screening not found with id: " + screeningId));
+        return materializeSeats(List.of(screening.getScreeningId()), categoryPrices);
+    }
+
+    // ── Venue calendar ──────────────────────────────────────
+
+    // ✅ NEW — locks the venue row (until commit) and returns the slots that overlap a
+    // non-cancelled screening of the venue, or an earlier slot of the list. Every write that puts a
+    // screening into a venue's calendar checks here, so they serialize per venue. Caller provides
+    // the transaction.
+    List<Slot> lockVenueAndFindConflicts(Long venueId, List<Slot> slots, Long ignoredScreeningId) {
+        venueRepository.findForUpdate(venueId)
+                .orElseThrow(() -> new RuntimeException("Venue not found with id: " + venueId));
+        LocalDate from = slots.get(0).date();
+        LocalDate to = slots.get(slots.size() - 1).date();
+
+        VenueTimeline timeline = new VenueTimeline();
+        // a day either side — late shows run past midnight
+        for (Screening existing : screeningRepository.findActiveByVenueBetween(venueId, from.minusDays(1), to.plusDays(1))) {
+            if (existing.getScreeningId().equals(ignoredScreeningId)) {
+                continue;
+            }
+            Slot busy = new Slot(existing.getScreenDate(), existing.getStartTime(), existing.getEndTime());
+            timeline.add(busy.from(), busy.to());
+        }
+
+        List<Slot> conflicts = new ArrayList<>();
+        for (Slot slot : slots) {
+            if (timeline.overlaps(slot.from(), slot.to())) {
+                conflicts.add(slot);
+            } else {
+                timeline.add(slot.from(), slot.to());
+            }
+        }
+        return conflicts;
+    }
+
+    // a single screening about to be written — cancelled ones occupy nothing
+    private void claimVenueSlot(Screening screening, Long screeningId) {
+        if (screening.getStatus() == Status.CANCELLED) {
+            return;
+        }
+        if (screening.getVenue() == null || screening.getVenue().getVenueId() == null) {
+            throw new RuntimeException("Venue is required");
+        }
+        Slot slot = new Slot(screening.getScreenDate(), screening.getStartTime(), screening.getEndTime());
+        if (!lockVenueAndFindConflicts(screening.getVenue().getVenueId(), List.of(slot), screeningId).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Venue is already booked for " + slot);
+        }
+    }
+
+    // ── Seat generation ─────────────────────────────────────
+
+    // One INSERT ... SELECT from seats_layout for all the given screenings (any venue). The rows
+    // bypass Hibernate, so their ids come from a range reserved in id_generators — the same
+    // counter the pooled generator draws from. Caller provides the transaction.
+    int materializeSeats(Collection<Long> screeningIds, Map<String, BigDecimal> categoryPrices) {
+        Map<String, BigDecimal> prices = categoryPrices != null ? categoryPrices : Map.of();
+        prices.forEach((category, price) -> {
+            if (price == null || price.signum() < 0) {
+                throw new RuntimeException("Invalid price for seat category " + category + ": " + price);
+            }
+        });
+        if (screeningIds.isEmpty()) {
+            return 0;
+        }
+
+        long lastUsedId = screeningSeatsRepository.lockIdBlock() + 1 - ScreeningSeats.ID_BLOCK;
+        screeningSeatsRepository.reserveIdsForScreenings(screeningIds);
+
+        // categories without an override keep seats_layout.ticket_price
+        List<Map.Entry<String, BigDecimal>> overrides = new ArrayList<>(prices.entrySet());
+        StringBuilder price = new StringBuilder();
+        if (overrides.isEmpty()) {
+            price.append("sl.ticket_price");
+        } else {
+            price.append("CASE sl.seat_category");
+            for (int i = 0; i < overrides.size(); i++) {
+                price.append(" WHEN :category").append(i).append(" THEN :price").append(i);
+            }
+            price.append(" ELSE sl.ticket_price END");
+        }
+
+        Query insert = entityManager.createNativeQuery(
+                "INSERT INTO screening_seats (screening_seats_id, screening_id, seat_id, price, availability) " +
+                "SELECT :lastUsedId + ROW_NUMBER() OVER (ORDER BY s.screening_id, sl.seat_id), " +
+                "s.screening_id, sl.seat_id, " + price + ", 'AVAILABLE' " +
+                "FROM screening s JOIN seats_layout sl ON sl.venue_id = s.venue_id " +
+                "WHERE s.screening_id IN (:screeningIds) " +
+                "AND NOT EXISTS (SELECT 1 FROM screening_seats ss " +
+                "WHERE ss.screening_id = s.screening_id AND ss.seat_id = sl.seat_id)")
+                .setParameter("lastUsedId", lastUsedId)
+                .setParameter("screeningIds", screeningIds)
+                // only screening_seats changes — the cached venues / layouts / events stay
+                .setHint(HibernateHints.HINT_NATIVE_SPACES, "screening_seats");
+        for (int i = 0; i < overrides.size(); i++) {
+            insert.setParameter("category" + i, overrides.get(i).getKey())
+                    .setParameter("price" + i, overrides.get(i).getValue());
+        }
+        int created = insert.executeUpdate();
+
+        // seat maps already loaded for these screenings are rebuilt once the rows are committed
+        List<Long> evict = List.copyOf(screeningIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.forEach(seatStateEngine::evict);
+            }
+        });
+        return created;
+    }
+
     public List<Screening> getAllScreenings() {
         return screeningRepository.findAllWithEventAndVenue();
     }
@@ -51,6 +205,7 @@ public class ScreeningService {
         return screeningRepository.findByStatus(status);
     }
 
+    @Transactional
     public Screening updateScreening(Long id, Screening updatedScreening) {
         Screening existing = screeningRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Screening not found with id: " + id));
@@ -61,6 +216,7 @@ public class ScreeningService {
         existing.setEndTime(updatedScreening.getEndTime());
         existing.setRemainingSeats(updatedScreening.getRemainingSeats());
         existing.setStatus(updatedScreening.getStatus());
+        claimVenueSlot(existing, id);
         return screeningRepository.save(existing);
     }
 
@@ -71,7 +227,8 @@ public class ScreeningService {
             throw new RuntimeException("Screening not found with id: " + id);
         }
 
-        // ✅ Step 1: Delete all screening seats for this screening
+        // ✅ Step 1: Drop the in-memory seat state, then delete all screening seats for this screening
+        seatStateEngine.evict(id);
         List<ScreeningSeats> seats = screeningSeatsRepository
                 .findByScreening_ScreeningId(id);
         screeningSeatsRepository.deleteAll(seats);
@@ -0,0 +1,114 @@
+package com.example.seatbooking.service;
+
+import com.example.seatbooking.dto.SeatAvailabilityDTO;
+import com.example.seatbooking.entity.ScreeningSeats.Availability;
+import com.example.seatbooking.repository.ScreeningRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// ✅ Remaining seats for many screenings / events in one call (listing pages, "seats left" badges)
+//
+// Loaded screenings answer from the engine's live counters without touching the DB; the rest
+// (not active, or not loaded yet) are counted together by the seat store — ONE grouped query in
+// rows mode, their map rows in bitmap mode.
+@Service
+public class SeatAvailabilityService {
+
+    static final int MAX_IDS = 200;
+
+    private final SeatStateEngine seatStateEngine;
+    private final ScreeningRepository screeningRepository;
+    private final SeatStateStore seatStateStore;
+
+    public SeatAvailabilityService(SeatStateEngine seatStateEngine,
+                                   ScreeningRepository screeningRepository,
+                                   SeatStateStore seatStateStore) {
+        this.seatStateEngine = seatStateEngine;
+        this.screeningRepository = screeningRepository;
+        this.seatStateStore = seatStateStore;
+    }
+
+    public List<SeatAvailabilityDTO> forScreenings(Collection<Long> screeningIds) {
+        Set<Long> ids = limited(screeningIds);
+        Map<Long, SeatAvailabilityDTO> result = new LinkedHashMap<>();
+        List<Long> cold = new ArrayList<>();
+        for (Long id : ids) {
+            ScreeningSeatState state = seatStateEngine.peek(id);
+            if (state != null) {
+                result.put(id, new SeatAvailabilityDTO(id, state.size(), state.available(), state.availableByCategory()));
+            } else {
+                result.put(id, new SeatAvailabilityDTO(id, 0, 0, new LinkedHashMap<>()));
+                cold.add(id);
+            }
+        }
+
+        if (!cold.isEmpty()) {
+            for (Object[] row : seatStateStore.countByCategoryAndAvailability(cold)) {
+                SeatAvailabilityDTO dto = result.get((Long) row[0]);
+                String category = (String) row[1];
+                int count = ((Number) row[3]).intValue();
+                dto.setTotalSeats(dto.getTotalSeats() + count);
+                dto.getRemainingByCategory().putIfAbsent(category, 0);
+                if (row[2] == Availability.AVAILABLE) {
+                    dto.setRemainingSeats(dto.getRemainingSeats() + count);
+                    dto.getRemainingByCategory().merge(category, count, Integer::sum);
+                }
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    // eventId → remaining seats over its ACTIVE screenings (events without any → 0)
+    public Map<Long, Integer> forEvents(Collection<Long> eventIds) {
+        Set<Long> ids = limited(eventIds);
+        Map<Long, Integer> result = new LinkedHashMap<>();
+        ids.forEach(id -> result.put(id, 0));
+
+        Map<Long, Long> eventOfScreening = new LinkedHashMap<>();
+        for (Object[] row : screeningRepository.findActiveIdsByEventIds(ids)) {
+            eventOfScreening.put((Long) row[0], (Long) row[1]);
+        }
+        if (eventOfScreening.isEmpty()) {
+            return result;
+        }
+        for (SeatAvailabilityDTO screening : forScreeningsUnlimited(eventOfScreening.keySet())) {
+            result.merge(eventOfScreening.get(screening.getScreeningId()), screening.getRemainingSeats(), Integer::sum);
+        }
+        return result;
+    }
+
+    // an event may have more screenings than the request limit allows ids
+    private List<SeatAvailabilityDTO> forScreeningsUnlimited(Collection<Long> screeningIds) {
+        List<SeatAvailabilityDTO> result = new ArrayList<>(screeningIds.size());
+        List<Long> chunk = new ArrayList<>(MAX_IDS);
+        for (Long id : screeningIds) {
+            chunk.add(id);
+            if (chunk.size() == MAX_IDS) {
+                result.addAll(forScreenings(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            result.addAll(forScreenings(chunk));
+        }
+        return result;
+    }
+
+    private static Set<Long> limited(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new RuntimeException("At least one id is required");
+        }
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        if (unique.size() > MAX_IDS) {
+            throw new RuntimeException("At most " + MAX_IDS + " ids per request");
+        }
+        return unique;
+    }
+}
@@ -1,18 +1,30 @@
 package com.example.seatbooking.service;
 
+import com.example.seatbooking.dto.ScreeningSeatDTO;
 import com.example.seatbooking.entity.SeatHold;
-import com.example.seatbooking.entity.ScreeningSeats;
 import com.example.seatbooking.repository.SeatHoldRepository;
-import com.example.seatbooking.repository.ScreeningSeatsRepository;
+import com.example.seatbooking.repository.SeatLayoutRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class SeatHoldService {
@@ -20,32 +32,180 @@ public class SeatHoldService {
     private static final Logger log = LoggerFactory.getLogger(SeatHoldService.class);
 
     private final SeatHoldRepository seatHoldRepository;
-    private final ScreeningSeatsRepository screeningSeatsRepository;
+    private final SeatLayoutRepository seatLayoutRepository;
+    private final SeatStateEngine seatStateEngine;
+    private final SeatStateStore seatStateStore;
+    private final BookingMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+
+    // seat_holds ids by expiresAt
+    private final HoldExpiryWheel<Long> expiryWheel;
+
+    @Value("${seat.hold.minutes:10}")
+    private long holdMinutes;
 
     public SeatHoldService(SeatHoldRepository seatHoldRepository,
-                           ScreeningSeatsRepository screeningSeatsRepository) {
+                           SeatLayoutRepository seatLayoutRepository,
+                           SeatStateEngine seatStateEngine,
+                           SeatStateStore seatStateStore,
+                           BookingMetrics metrics,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${seat.hold.wheel.tick-ms:1000}") long wheelTickMillis) {
         this.seatHoldRepository = seatHoldRepository;
-        this.screeningSeatsRepository = screeningSeatsRepository;
+        this.seatLayoutRepository = seatLayoutRepository;
+        this.seatStateEngine = seatStateEngine;
+        this.seatStateStore = seatStateStore;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.expiryWheel = new HoldExpiryWheel<>(wheelTickMillis, 512, System.currentTimeMillis());
+    }
+
+    // ✅ NEW — hold N seats of one screening, all or nothing
+    // Memory decides first (CAS), then the store claims them in ONE conditional write;
+    // the affected-row count must match, otherwise everything rolls back.
+    // Pending writes go out BEFORE the transaction opens, so the conditional write sees what
+    // memory sees — flushing inside it would want a second pooled connection (the flush has its
+    // own transaction) while holding the first, and a burst of holds starves the pool.
+    public List<ScreeningSeatDTO> holdSeats(Long screeningId, Long userId, List<Long> seatIds) {
+        seatStateEngine.flush(screeningId);
+        return transactionTemplate.execute(status ->
+                metrics.record(BookingMetrics.HOLD, () -> hold(screeningId, userId, seatIds)));
+    }
+
+    private List<ScreeningSeatDTO> hold(Long screeningId, Long userId, List<Long> seatIds) {
+        Set<Long> unique = new LinkedHashSet<>(seatIds);
+        LocalDateTime heldAt = LocalDateTime.now();
+        LocalDateTime expiresAt = heldAt.plusMinutes(holdMinutes);
+
+        List<ScreeningSeatDTO> held = seatStateEngine.holdAll(
+                screeningId, unique, userId, SeatStateStore.toMillis(expiresAt));
+
+        // rollback (count mismatch, FK failure, ...) → give the seats back in memory as well
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    seatStateEngine.revertHolds(screeningId, unique, userId);
+                } else {
+                    seatStateEngine.holdsCommitted(screeningId, unique, userId);
+                }
+            }
+        });
+
+        int claimed = seatStateStore.claimForHold(screeningId, unique, userId, expiresAt);
+        if (claimed != unique.size()) {
+            // memory said AVAILABLE, the rows did not (written by another instance / directly) → reload
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    seatStateEngine.evict(screeningId);
+                }
+            });
+            metrics.holdFailed(screeningId);
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Only " + claimed + " of " + unique.size() + " seats are still available!");
+        }
+
+        List<SeatHold> holds = new ArrayList<>(unique.size());
+        for (Long seatId : unique) {
+            holds.add(SeatHold.builder()
+                    .seat(seatLayoutRepository.getReferenceById(seatId))
+                    .userId(userId)
+                    .screeningId(screeningId)
+                    .status(SeatHold.HoldStatus.HELD)
+                    .heldAt(heldAt)
+                    .expiresAt(expiresAt)
+                    .build());
+        }
+        seatHoldRepository.saveAll(holds);
+        holds.forEach(this::schedule);
+
+        log.info("User {} held {} seat(s) for screening {}", userId, holds.size(), screeningId);
+        return held;
     }
 
-    // ✅ Runs every 30 seconds - releases expired holds
-    @Scheduled(fixedRate = 30000)
+    // ✅ Standalone hold (POST /api/seat-holds) — goes on the expiry wheel like the others
     @Transactional
-    public void releaseExpiredHolds() {
-        List<SeatHold> expiredHolds = seatHoldRepository.findExpiredHolds(LocalDateTime.now());
+    public SeatHold createHold(SeatHold seatHold) {
+        LocalDateTime now = LocalDateTime.now();
+        seatHold.setStatus(SeatHold.HoldStatus.HELD);
+        seatHold.setHeldAt(now);
+        seatHold.setExpiresAt(now.plusMinutes(holdMinutes));
+        SeatHold saved = seatHoldRepository.save(seatHold);
+        schedule(saved);
+        return saved;
+    }
 
-        if (expiredHolds.isEmpty()) return;
+    // ── Expiry ──────────────────────────────────────────────
 
-        log.info("Releasing {} expired seat holds...", expiredHolds.size());
+    // ✅ After a restart every running hold goes back on the wheel
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleActiveHolds() {
+        List<SeatHold> active = seatHoldRepository.findByStatus(SeatHold.HoldStatus.HELD);
+        active.forEach(this::schedule);
+        log.info("Seat holds: {} active hold(s) on the expiry wheel", active.size());
+    }
 
-        for (SeatHold hold : expiredHolds) {
-            releaseSingleHold(hold);
+    // ✅ Every tick — only holds whose expiresAt just passed, released with ONE update
+    // (the transaction only opens when something is due: an idle tick must not even borrow a connection)
+    @Scheduled(fixedDelayString = "${seat.hold.wheel.tick-ms:1000}")
+    public void expireHolds() {
+        List<Long> due = expiryWheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) return;
+
+        // read + release in one transaction, rows locked: a hold confirmed by checkout
+        // in the meantime is no longer HELD here and keeps its seat
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            releaseExpired(seatHoldRepository.findExpiredForUpdate(due, now), now, "wheel");
+        });
+    }
+
+    // ✅ Safety net — low-frequency DB sweep (also runs once at startup)
+    @Scheduled(fixedDelayString = "${seat.hold.sweep-interval-ms:600000}")
+    @Transactional
+    public void releaseExpiredHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        releaseExpired(seatHoldRepository.findExpiredHolds(now), now, "sweep");
+
+        int seats = seatStateEngine.releaseExpired();
+        if (seats > 0) {
+            log.info("Sweep: released {} expired seat(s) missed by the wheel", seats);
         }
     }
 
+    private void schedule(SeatHold hold) {
+        expiryWheel.schedule(hold.getId(), SeatStateStore.toMillis(hold.getExpiresAt()));
+    }
+
+    // Runs inside a transaction, the holds locked — every one of them is updated; their seats
+    // are freed only once that commits
+    private void releaseExpired(List<SeatHold> expired, LocalDateTime now, String source) {
+        if (expired.isEmpty()) return;
+
+        List<Long> ids = expired.stream().map(SeatHold::getId).toList();
+        int released = seatHoldRepository.updateStatus(ids, SeatHold.HoldStatus.RELEASED);
+
+        long nowMillis = SeatStateStore.toMillis(now);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (SeatHold hold : expired) {
+                    seatStateEngine.releaseExpiredHold(hold.getScreeningId(), hold.getSeat().getSeatId(), nowMillis);
+                    metrics.holdExpiryLag(source, Duration.between(hold.getExpiresAt(), now).toMillis());
+                }
+            }
+        });
+        log.info("Released {} expired seat hold(s)", released);
+    }
+
     // ✅ Release all HELD holds for a user for a specific screening
     @Transactional
     public void releaseHoldsForUser(Long userId, Long screeningId) {
+        metrics.record(BookingMetrics.RELEASE, () -> releaseAll(userId, screeningId));
+    }
+
+    private void releaseAll(Long userId, Long screeningId) {
         List<SeatHold> userHolds = seatHoldRepository
                 .findByUserIdAndScreeningIdAndStatus(userId, screeningId, SeatHold.HoldStatus.HELD);
 
@@ -78,26 +238,17 @@ public class SeatHoldService {
         log.info("Confirmed {} holds for userId: {} screeningId: {}", userHolds.size(), userId, screeningId);
     }
 
-    // ✅ Release a single hold and mark the seat as AVAILABLE
+    // ✅ Release a single hold and mark the seat as AVAILABLE (through the seat engine)
     private void releaseSingleHold(SeatHold hold) {
         hold.setStatus(SeatHold.HoldStatus.RELEASED);
         seatHoldRepository.save(hold);
 
-        Optional<ScreeningSeats> screeningSeatOpt = screeningSeatsRepository
-                .findBySeat_SeatIdAndScreening_ScreeningIdAndAvailability(
-                        hold.getSeat().getSeatId(),
-                        hold.getScreeningId(),
-                        ScreeningSeats.Availability.HELD
-                );
-
-        screeningSeatOpt.ifPresentOrElse(ss -> {
-            ss.setAvailability(ScreeningSeats.Availability.AVAILABLE);
-            screeningSeatsRepository.save(ss);
-            log.info("Seat released → AVAILABLE: seatId={}, screeningId={}",
-                    hold.getSeat().getSeatId(), hold.getScreeningId());
-        }, () -> {
-            log.warn("ScreeningSeat not found or not HELD: seatId={}, screeningId={}",
-                    hold.getSeat().getSeatId(), hold.getScreeningId());
-        });
+        Long seatId = hold.getSeat().getSeatId();
+        if (seatStateEngine.releaseHeld(hold.getScreeningId(), seatId, hold.getUserId())) {
+            log.info("Seat released → AVAILABLE: seatId={}, screeningId={}", seatId, hold.getScreeningId());
+        } else {
+            log.warn("ScreeningSeat not found or not HELD by user {}: seatId={}, screeningId={}",
+                    hold.getUserId(), seatId, hold.getScreeningId());
+        }
     }
 }
\ No newline at end of file
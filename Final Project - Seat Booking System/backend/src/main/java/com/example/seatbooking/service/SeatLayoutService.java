@@ -1,19 +1,31 @@
 package com.example.seatbooking.service;
 
+import com.example.seatbooking.dto.ScreeningSeatBulkRow;
 import com.example.seatbooking.entity.BookingItems;
+import com.example.seatbooking.entity.Screening;
 import com.example.seatbooking.entity.ScreeningSeats;
 import com.example.seatbooking.entity.SeatLayout;
 import com.example.seatbooking.repository.BookingItemsRepository;
-import com.example.seatbooking.repository.ScreeningSeatsRepository;
 import com.example.seatbooking.repository.ScreeningRepository;
 import com.example.seatbooking.repository.SeatLayoutRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.math.BigDecimal;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,17 +33,26 @@ public class SeatLayoutService {
 
     private final SeatLayoutRepository seatLayoutRepository;
     private final BookingItemsRepository bookingItemsRepository;
-    private final ScreeningSeatsRepository screeningSeatsRepository;
     private final ScreeningRepository screeningRepository;
+    private final SeatStateEngine seatStateEngine;
+    private final ReferenceDataCache referenceDataCache;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public SeatLayoutService(SeatLayoutRepository seatLayoutRepository,
                              BookingItemsRepository bookingItemsRepository,
-                             ScreeningSeatsRepository screeningSeatsRepository,
-                             ScreeningRepository screeningRepository) {
+                             ScreeningRepository screeningRepository,
+                             SeatStateEngine seatStateEngine,
+                             ReferenceDataCache referenceDataCache,
+                             ObjectMapper objectMapper) {
         this.seatLayoutRepository       = seatLayoutRepository;
         this.bookingItemsRepository     = bookingItemsRepository;
-        this.screeningSeatsRepository   = screeningSeatsRepository;
         this.screeningRepository        = screeningRepository;
+        this.seatStateEngine            = seatStateEngine;
+        this.referenceDataCache         = referenceDataCache;
+        this.objectMapper               = objectMapper;
     }
 
     public SeatLayout createSeat(SeatLayout seatLayout) {
@@ -40,7 +61,10 @@ public class SeatLayoutService {
                 seatLayout.getVenue().getVenueId())) {
             throw new RuntimeException("Seat " + seatLayout.getSeatNo() + " already exists for this venue!");
         }
-        return seatLayoutRepository.save(seatLayout);
+        SeatLayout saved = seatLayoutRepository.save(seatLayout);
+        referenceDataCache.seatChanged(saved.getSeatId());
+        seatStateEngine.layoutChanged(saved.getVenue().getVenueId());
+        return saved;
     }
 
     public List<SeatLayout> getAllSeats() {
@@ -70,18 +94,28 @@ public class SeatLayoutService {
         existing.setSeatRow(updatedSeat.getSeatRow());
         existing.setSeatCategory(updatedSeat.getSeatCategory());
         existing.setTicketPrice(updatedSeat.getTicketPrice());
+        Long previousVenueId = existing.getVenue().getVenueId();
         existing.setVenue(updatedSeat.getVenue());
-        return seatLayoutRepository.save(existing);
+        SeatLayout saved = seatLayoutRepository.save(existing);
+        referenceDataCache.seatChanged(id);
+        seatStateEngine.layoutChanged(previousVenueId);
+        if (!previousVenueId.equals(saved.getVenue().getVenueId())) {
+            seatStateEngine.layoutChanged(saved.getVenue().getVenueId());
+        }
+        // no transaction here (the engine must see the committed layout) → re-read with the venue
+        return seatLayoutRepository.findById(saved.getSeatId()).orElse(saved);
     }
 
     @Transactional
     public void deleteSeat(Long id) {
-        if (!seatLayoutRepository.existsById(id)) {
-            throw new RuntimeException("Seat not found with id: " + id);
-        }
+        SeatLayout seat = seatLayoutRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Seat not found with id: " + id));
         List<BookingItems> bookingItems = bookingItemsRepository.findBySeat_SeatId(id);
         bookingItemsRepository.deleteAll(bookingItems);
         seatLayoutRepository.deleteById(id);
+        referenceDataCache.seatChanged(id);
+        // screening seats of this layout seat are cascaded away — reloaded after the commit
+        seatStateEngine.layoutChanged(seat.getVenue().getVenueId());
     }
 
     @Transactional
@@ -92,6 +126,8 @@ public class SeatLayoutService {
             bookingItemsRepository.deleteAll(items);
         }
         seatLayoutRepository.deleteAll(seats);
+        referenceDataCache.seatsChanged();
+        seatStateEngine.layoutChanged(venueId);
     }
 
     public Map<String, List<SeatLayout>> getSeatsByCategoryGrouped(Long venueId) {
@@ -100,22 +136,53 @@ public class SeatLayoutService {
                 .collect(Collectors.groupingBy(SeatLayout::getSeatCategory));
     }
 
-    // ✅ NEW — Bulk insert all screening seats in one DB call
+    // ✅ Bulk insert of screening seats, streamed
+    // The JSON array is read one row at a time; every ID_BLOCK rows go out as one JDBC batch
+    // (ids come from the pooled generator, no INSERT waits for its own id) and are dropped from
+    // the persistence context, so a 2,000-seat screening is a couple of statements, not 2,000.
     @Transactional
-    public int bulkCreateScreeningSeats(List<Map<String, Object>> payload) {
-        List<ScreeningSeats> toSave = payload.stream().map(item -> {
-            ScreeningSeats ss = new ScreeningSeats();
-            Long screeningId = Long.valueOf(item.get("screeningId").toString());
-            Long seatId      = Long.valueOf(item.get("seatId").toString());
-            Double price     = Double.valueOf(item.get("price").toString());
-            ss.setScreening(screeningRepository.getReferenceById(screeningId));
-            ss.setSeat(seatLayoutRepository.getReferenceById(seatId));
-            ss.setPrice(BigDecimal.valueOf(price));
-            ss.setAvailability(ScreeningSeats.Availability.AVAILABLE);
-            return ss;
-        }).collect(Collectors.toList());
-
-        screeningSeatsRepository.saveAll(toSave); // ✅ ONE single DB call
-        return toSave.size();
+    public int bulkCreateScreeningSeats(InputStream body) {
+        Set<Long> screeningIds = new HashSet<>();
+        Map<Long, Screening> screenings = new HashMap<>();
+        int created = 0;
+
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("Bulk screening seats: expected a JSON array");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                ScreeningSeatBulkRow row = objectMapper.readValue(parser, ScreeningSeatBulkRow.class);
+                if (row.getScreeningId() == null || row.getSeatId() == null || row.getPrice() == null) {
+                    throw new RuntimeException("Bulk screening seats: row " + created
+                            + " needs screeningId, seatId and price");
+                }
+
+                ScreeningSeats ss = new ScreeningSeats();
+                ss.setScreening(screenings.computeIfAbsent(row.getScreeningId(), screeningRepository::getReferenceById));
+                ss.setSeat(seatLayoutRepository.getReferenceById(row.getSeatId()));
+                ss.setPrice(row.getPrice());
+                ss.setAvailability(ScreeningSeats.Availability.AVAILABLE);
+                entityManager.persist(ss);
+                screeningIds.add(row.getScreeningId());
+
+                if (++created % ScreeningSeats.ID_BLOCK == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    screenings.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Bulk screening seats: unreadable payload — " + e.getMessage(), e);
+        }
+        entityManager.flush();
+
+        // the engine reloads these screenings lazily — only once the rows are committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                screeningIds.forEach(seatStateEngine::evict);
+            }
+        });
+        return created;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,375 @@
+package com.example.seatbooking.service;
+
+import com.example.seatbooking.dto.SeatDeltaDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// ✅ Live seat map per screening over SSE — one snapshot, then availability deltas
+//
+// Seat transitions only mark the seat as changed (no I/O on the booking thread). Every
+// batch-ms the pusher drains the changed seats of each watched screening, reads their CURRENT
+// state (a seat that flipped several times in the window is sent once), serializes the delta
+// ONCE and writes that same string to every watcher. A screening nobody watches costs nothing.
+//
+// Deltas carry absolute state, so a delta that races a snapshot is harmless: a seat that changed
+// after the snapshot was taken is marked again and goes out in the next batch.
+//
+// Nothing here writes to a socket on the pusher thread: every watcher has its own bounded queue,
+// drained by a small sender pool, one task per watcher at a time. A slow client only backs up its
+// own queue. Once that queue is full the client is dropped, and EventSource reconnects to a fresh
+// snapshot. The stream is anonymous, so watchers are capped per screening and in total.
+@Service
+public class SeatMapBroadcaster implements SeatStateEngine.SeatChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatMapBroadcaster.class);
+
+    // seats of one loaded screening that changed since the last push — each seat queued at most once
+    private static final class PendingChanges {
+
+        private final ScreeningSeatState state;
+        private final AtomicIntegerArray flags;
+        private final ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<>();
+
+        PendingChanges(ScreeningSeatState state) {
+            this.state = state;
+            this.flags = new AtomicIntegerArray(state.size());
+        }
+
+        void add(int ordinal) {
+            if (flags.compareAndSet(ordinal, 0, 1)) {
+                queue.add(ordinal);
+            }
+        }
+
+        // flag cleared before the state is read → a change racing the drain is queued again
+        List<SeatDeltaDTO> drain() {
+            List<SeatDeltaDTO> deltas = new ArrayList<>();
+            Integer ordinal;
+            while ((ordinal = queue.poll()) != null) {
+                flags.set(ordinal, 0);
+                ScreeningSeatState.SeatInfo seat = state.seat(ordinal);
+                deltas.add(new SeatDeltaDTO(seat.screeningSeatsId(), seat.seatId(),
+                        state.availability(ordinal).name()));
+            }
+            return deltas;
+        }
+    }
+
+    // one SSE event; no name = keep-alive comment
+    private record Event(String name, String data) {
+    }
+
+    // one open stream — events queue here and a sender thread writes them out in order
+    private final class Watcher {
+
+        private final Long screeningId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Watcher(Long screeningId, SseEmitter emitter) {
+            this.screeningId = screeningId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        // never blocks — a full queue means the client stopped reading
+        void offer(Event event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                log.debug("Seat map stream: dropping a slow watcher of screening {}", screeningId);
+                close(true);
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Event event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    if (!send(emitter, event)) {
+                        close(false);
+                    }
+                }
+            } finally {
+                draining.set(false);
+            }
+            // an offer that raced the end of the loop
+            if (!closed.get() && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        boolean idle() {
+            return queue.isEmpty();
+        }
+
+        // complete() waits for a send stuck on the same emitter → never on the caller's thread
+        void close(boolean complete) {
+            if (closed.compareAndSet(false, true)) {
+                queue.clear();
+                unsubscribe(this);
+                if (complete) {
+                    sender.execute(emitter::complete);
+                }
+            }
+        }
+    }
+
+    private final SeatStateEngine seatStateEngine;
+    private final SeatMapSnapshotCache seatMapSnapshotCache;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final int queueSize;
+    private final int maxPerScreening;
+    private final int maxWatchers;
+
+    private final Map<Long, Set<Watcher>> watchers = new ConcurrentHashMap<>();
+    private final AtomicInteger watching = new AtomicInteger();
+    private final Map<Long, PendingChanges> pending = new ConcurrentHashMap<>();
+    private final Set<Long> resync = ConcurrentHashMap.newKeySet();
+
+    // batching + heartbeat only — it queues, it never writes
+    private final ScheduledExecutorService pusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "seat-map-push");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // platform threads on purpose: SseEmitter.send is synchronized and would pin a virtual thread.
+    // A write stuck on a dead socket holds one of these until the container's write timeout.
+    private final ExecutorService sender;
+
+    public SeatMapBroadcaster(SeatStateEngine seatStateEngine,
+                              SeatMapSnapshotCache seatMapSnapshotCache,
+                              ObjectMapper objectMapper,
+                              @Value("${seat.stream.batch-ms:100}") long batchMillis,
+                              @Value("${seat.stream.heartbeat-ms:15000}") long heartbeatMillis,
+                              @Value("${seat.stream.timeout-ms:1800000}") long timeoutMillis,
+                              @Value("${seat.stream.queue-size:64}") int queueSize,
+                              @Value("${seat.stream.max-per-screening:1000}") int maxPerScreening,
+                              @Value("${seat.stream.max-watchers:10000}") int maxWatchers,
+                              @Value("${seat.stream.send-threads:8}") int sendThreads) {
+        this.seatStateEngine = seatStateEngine;
+        this.seatMapSnapshotCache = seatMapSnapshotCache;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeoutMillis;
+        this.queueSize = queueSize;
+        this.maxPerScreening = maxPerScreening;
+        this.maxWatchers = maxWatchers;
+        AtomicInteger threadNo = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(sendThreads, r -> {
+            Thread thread = new Thread(r, "seat-map-send-" + threadNo.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        seatStateEngine.addListener(this);
+        pusher.scheduleWithFixedDelay(this::pushSafely, batchMillis, batchMillis, TimeUnit.MILLISECONDS);
+        pusher.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pusher.shutdownNow();
+        sender.shutdownNow();
+        watchers.values().forEach(set -> set.forEach(watcher -> watcher.emitter.complete()));
+        watchers.clear();
+    }
+
+    // ── Subscribe ───────────────────────────────────────────
+
+    // 503 once the screening or the whole instance has as many streams open as it allows
+    public SseEmitter subscribe(Long screeningId) {
+        if (watching.incrementAndGet() > maxWatchers) {
+            watching.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live seat-map streams");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Watcher watcher = new Watcher(screeningId, emitter);
+        // registered before the snapshot is read → no change can fall between the two
+        Set<Watcher> set;
+        try {
+            set = watchers.compute(screeningId, (id, current) -> {
+                Set<Watcher> joined = current != null ? current : ConcurrentHashMap.<Watcher>newKeySet();
+                if (joined.size() >= maxPerScreening) {
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Too many live streams for this screening");
+                }
+                joined.add(watcher);
+                return joined;
+            });
+        } catch (ResponseStatusException e) {
+            watching.decrementAndGet();
+            throw e;
+        }
+
+        emitter.onCompletion(() -> watcher.close(false));
+        emitter.onTimeout(() -> watcher.close(false));
+        emitter.onError(e -> watcher.close(false));
+
+        // unknown (404) or no longer ACTIVE (409) screening → Spring never gets the emitter, so its
+        // callbacks never fire: the watcher has to leave here or it holds a slot forever
+        String snapshot;
+        try {
+            // live streams only for screenings that can still change (ACTIVE, loaded)
+            seatStateEngine.state(screeningId);
+            snapshot = snapshotJson(screeningId);
+        } catch (RuntimeException e) {
+            unsubscribe(watcher);
+            throw e;
+        }
+        watcher.offer(new Event("snapshot", snapshot));
+        log.debug("Seat map stream: watcher joined screening {} ({} watching)", screeningId, set.size());
+        return emitter;
+    }
+
+    private void unsubscribe(Watcher watcher) {
+        watchers.computeIfPresent(watcher.screeningId, (id, set) -> {
+            if (set.remove(watcher)) {
+                watching.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    public int watcherCount(Long screeningId) {
+        Set<Watcher> set = watchers.get(screeningId);
+        return set != null ? set.size() : 0;
+    }
+
+    // streams open on this instance, all screenings
+    public int watcherCount() {
+        return watching.get();
+    }
+
+    // ── Engine callbacks (caller's thread — mark only) ──────
+
+    @Override
+    public void seatChanged(ScreeningSeatState state, int ordinal) {
+        Long screeningId = state.getScreeningId();
+        if (!watchers.containsKey(screeningId)) {
+            return;
+        }
+        PendingChanges changes = pending.compute(screeningId,
+                (id, current) -> current != null && current.state == state ? current : new PendingChanges(state));
+        changes.add(ordinal);
+    }
+
+    @Override
+    public void screeningEvicted(Long screeningId) {
+        pending.remove(screeningId);
+        if (watchers.containsKey(screeningId)) {
+            resync.add(screeningId);
+        }
+    }
+
+    // ── Push ────────────────────────────────────────────────
+
+    private void pushSafely() {
+        try {
+            push();
+        } catch (RuntimeException e) {
+            // an exception would cancel the fixed-delay task for good
+            log.error("Seat map stream: push failed: {}", e.getMessage(), e);
+        }
+    }
+
+    void push() {
+        // reloaded screenings → a fresh snapshot replaces whatever deltas were pending
+        for (Long screeningId : resync) {
+            resync.remove(screeningId);
+            if (watchers.containsKey(screeningId)) {
+                broadcast(screeningId, "snapshot", snapshotJson(screeningId));
+            }
+        }
+
+        for (Map.Entry<Long, PendingChanges> entry : pending.entrySet()) {
+            Long screeningId = entry.getKey();
+            List<SeatDeltaDTO> deltas = entry.getValue().drain();
+            if (!watchers.containsKey(screeningId)) {
+                pending.remove(screeningId, entry.getValue());
+                continue;
+            }
+            if (!deltas.isEmpty()) {
+                try {
+                    broadcast(screeningId, "delta", objectMapper.writeValueAsString(deltas));
+                } catch (JsonProcessingException e) {
+                    log.error("Seat map stream: could not serialize deltas for screening {}", screeningId, e);
+                }
+            }
+        }
+    }
+
+    // one serialized payload, queued for every watcher of the screening
+    private void broadcast(Long screeningId, String eventName, String json) {
+        Set<Watcher> set = watchers.get(screeningId);
+        if (set == null) {
+            return;
+        }
+        Event event = new Event(eventName, json);
+        for (Watcher watcher : set) {
+            watcher.offer(event);
+        }
+    }
+
+    // same bytes GET /screening/{id} serves — built once per version, shared by every watcher
+    private String snapshotJson(Long screeningId) {
+        return new String(seatMapSnapshotCache.get(screeningId).json(), StandardCharsets.UTF_8);
+    }
+
+    // keeps proxies from closing idle streams and finds clients that went away silently —
+    // streams with events still queued don't need one
+    private void heartbeat() {
+        Event keepAlive = new Event(null, null);
+        watchers.values().forEach(set -> set.stream().filter(Watcher::idle).forEach(w -> w.offer(keepAlive)));
+    }
+
+    private static boolean send(SseEmitter emitter, Event event) {
+        try {
+            emitter.send(event.name() == null
+                    ? SseEmitter.event().comment("keep-alive")
+                    : SseEmitter.event().name(event.name()).data(event.data()));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // client gone / emitter already completed — the container finishes the request itself
+            return false;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.seatbooking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// ✅ Seat map JSON per screening, serialized once per seat-state version
+//
+// Every transition bumps the screening's version (ScreeningSeatState.changed), so a cached
+// snapshot is valid exactly as long as the version it was built from. A read of an unchanged
+// seat map costs one map lookup and a long compare — no entity, no DTO, no Jackson.
+@Service
+public class SeatMapSnapshotCache implements SeatStateEngine.SeatChangeListener {
+
+    // what the controller writes: the ETag and the bytes of the JSON array
+    public record Snapshot(String etag, byte[] json) {
+    }
+
+    private record Entry(ScreeningSeatState state, long version, Snapshot snapshot) {
+    }
+
+    private final SeatStateEngine seatStateEngine;
+    private final ObjectMapper objectMapper;
+
+    // generations restart at 1 with the JVM → the boot time keeps old ETags from matching
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public SeatMapSnapshotCache(SeatStateEngine seatStateEngine, ObjectMapper objectMapper) {
+        this.seatStateEngine = seatStateEngine;
+        this.objectMapper = objectMapper;
+        seatStateEngine.addListener(this);
+    }
+
+    public Snapshot get(Long screeningId) {
+        ScreeningSeatState state = seatStateEngine.view(screeningId);
+        // read BEFORE the snapshot: a change racing the build gives newer bytes under an older
+        // version, which only means the next read rebuilds — never stale bytes under a new version
+        long version = state.version();
+
+        Entry cached = entries.get(screeningId);
+        if (cached != null && cached.state() == state && cached.version() == version) {
+            return cached.snapshot();
+        }
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(state.snapshot());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Seat map of screening " + screeningId + " not serializable", e);
+        }
+        String etag = "\"" + bootId + "-" + state.generation() + "-" + version + "\"";
+        Entry built = new Entry(state, version, new Snapshot(etag, json));
+        // a non-ACTIVE screening's one-off read → not kept (it would never be read again)
+        if (seatStateEngine.peek(screeningId) != state) {
+            return built.snapshot();
+        }
+
+        // two readers rebuilding at once → keep the newer one
+        entries.merge(screeningId, built, (old, fresh) ->
+                old.state() == fresh.state() && old.version() > fresh.version() ? old : fresh);
+        return built.snapshot();
+    }
+
+    // ── Engine callbacks ────────────────────────────────────
+
+    @Override
+    public void seatChanged(ScreeningSeatState state, int ordinal) {
+        // nothing to do — the version bump already invalidated the entry
+    }
+
+    @Override
+    public void screeningEvicted(Long screeningId) {
+        entries.remove(screeningId);
+    }
+}
@@ -0,0 +1,680 @@
+package com.example.seatbooking.service;
+
+import com.example.seatbooking.config.ReadFromPrimary;
+import com.example.seatbooking.dto.ScreeningSeatDTO;
+import com.example.seatbooking.entity.Screening;
+import com.example.seatbooking.entity.ScreeningSeats.Availability;
+import com.example.seatbooking.repository.ScreeningRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+// ✅ Per-screening seat state engine
+// Holds / bookings are decided lock-free in memory (CAS per seat) and
+// written back to screening_seats in batches by flush().
+@Service
+public class SeatStateEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatStateEngine.class);
+
+    // screeningSeatsId → where that seat lives in memory
+    private record SeatRef(Long screeningId, int ordinal) {
+    }
+
+    // a hold deadline on the expiry wheel — bound to the loaded state it was taken in
+    private record SeatTimeout(ScreeningSeatState state, int ordinal) {
+    }
+
+    // ✅ NEW — anyone who wants to see seat transitions as they happen (live seat-map push)
+    public interface SeatChangeListener {
+
+        // called on the thread that made the transition — must not block
+        void seatChanged(ScreeningSeatState state, int ordinal);
+
+        // the screening was dropped from memory; its seats may differ on the next load
+        void screeningEvicted(Long screeningId);
+    }
+
+    private final SeatStateStore seatStateStore;
+    private final ScreeningRepository screeningRepository;
+    private final BookingMetrics metrics;
+    private final List<SeatChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final Map<Long, ScreeningSeatState> screenings = new ConcurrentHashMap<>();
+    private final Map<Long, SeatRef> seatIndex = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyScreenings = ConcurrentHashMap.newKeySet();
+
+    private final HoldExpiryWheel<SeatTimeout> expiryWheel;
+
+    // only one flush talks to the DB at a time, so writes for a seat never overtake each other
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // one screening loads at a time; evict() takes it too, so a load that read the DB before a
+    // change committed can't be published after that change's eviction
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    // retired by evict() while their last flush failed — flush() keeps retrying them
+    private final Set<ScreeningSeatState> unflushed = ConcurrentHashMap.newKeySet();
+
+    @Value("${seat.hold.minutes:10}")
+    private long holdMinutes;
+
+    @Value("${seat.engine.idle-evict-minutes:30}")
+    private long idleEvictMinutes;
+
+    public SeatStateEngine(SeatStateStore seatStateStore,
+                           ScreeningRepository screeningRepository,
+                           BookingMetrics metrics,
+                           @Value("${seat.hold.wheel.tick-ms:1000}") long wheelTickMillis) {
+        this.seatStateStore = seatStateStore;
+        this.screeningRepository = screeningRepository;
+        this.metrics = metrics;
+        this.expiryWheel = new HoldExpiryWheel<>(wheelTickMillis, 512, System.currentTimeMillis());
+    }
+
+    // ✅ Rebuild from the DB on startup — every ACTIVE screening is loaded up front
+    @EventListener(ApplicationReadyEvent.class)
+    @ReadFromPrimary
+    public void rebuild() {
+        for (Long screeningId : screeningRepository.findIdsByStatus(Screening.Status.ACTIVE)) {
+            load(screeningId, false);
+        }
+        log.info("Seat engine: loaded {} screening(s), {} seat(s)", screenings.size(), seatIndex.size());
+    }
+
+    public void addListener(SeatChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    // ── Lookups ─────────────────────────────────────────────
+
+    // Loads on first use — only screenings that exist and are ACTIVE (404 / 409 otherwise)
+    public ScreeningSeatState state(Long screeningId) {
+        ScreeningSeatState state = screenings.get(screeningId);
+        if (state != null) {
+            state.touch(System.currentTimeMillis());
+            return state;
+        }
+        return load(screeningId, true);
+    }
+
+    // ✅ Read-only views (seat map GETs): ACTIVE screenings as state() serves them; CANCELLED /
+    // COMPLETED ones are read from the store on every call and never loaded — their seats can no
+    // longer change here, but the admin seat pages still show them (404 for unknown screenings)
+    public ScreeningSeatState view(Long screeningId) {
+        ScreeningSeatState state = screenings.get(screeningId);
+        if (state != null) {
+            state.touch(System.currentTimeMillis());
+            return state;
+        }
+        Screening.Status status = screeningRepository.findStatusById(screeningId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Screening not found: " + screeningId));
+        return status == Screening.Status.ACTIVE ? load(screeningId, true) : seatStateStore.load(screeningId);
+    }
+
+    // Internal paths that finish work already started on a screening (hold expiry / release)
+    // load it whatever its status
+    private ScreeningSeatState loaded(Long screeningId) {
+        ScreeningSeatState state = screenings.get(screeningId);
+        return state != null ? state : load(screeningId, false);
+    }
+
+    // not computeIfAbsent — the DB reads stay out of the map's bin locks
+    private ScreeningSeatState load(Long screeningId, boolean activeOnly) {
+        loadLock.lock();
+        try {
+            ScreeningSeatState state = screenings.get(screeningId);
+            if (state != null) {
+                return state;
+            }
+            if (activeOnly) {
+                Screening.Status status = screeningRepository.findStatusById(screeningId)
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                                "Screening not found: " + screeningId));
+                if (status != Screening.Status.ACTIVE) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "Screening " + screeningId + " is " + status);
+                }
+            }
+            ScreeningSeatState loaded = seatStateStore.load(screeningId);
+            loaded.onChange(ordinal -> {
+                for (SeatChangeListener listener : listeners) {
+                    listener.seatChanged(loaded, ordinal);
+                }
+            });
+            for (int i = 0; i < loaded.size(); i++) {
+                seatIndex.put(loaded.seat(i).screeningSeatsId(), new SeatRef(screeningId, i));
+                // holds that were running before the (re)load go back on the wheel
+                if (loaded.availability(i) == Availability.HELD && loaded.holdTill(i) != 0L) {
+                    expiryWheel.schedule(new SeatTimeout(loaded, i), loaded.holdTill(i));
+                }
+            }
+            screenings.put(screeningId, loaded);
+            return loaded;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    // A transition failed on a state evict() had retired → wait for the eviction to finish
+    // (its flush included), so the caller's retry loads what it wrote
+    private boolean retired(ScreeningSeatState state) {
+        if (!state.isClosed()) {
+            return false;
+        }
+        flushLock.lock();
+        flushLock.unlock();
+        return true;
+    }
+
+    public List<ScreeningSeatDTO> snapshot(Long screeningId) {
+        return view(screeningId).snapshot();
+    }
+
+    // ✅ NEW — one seat as the seat map shows it, or null if there is no such seat
+    public ScreeningSeatDTO seat(Long screeningSeatsId) {
+        Long screeningId = seatStateStore.screeningOf(screeningSeatsId);
+        if (screeningId == null) {
+            return null;
+        }
+        ScreeningSeatState state = view(screeningId);
+        for (int i = 0; i < state.size(); i++) {
+            if (screeningSeatsId.equals(state.seat(i).screeningSeatsId())) {
+                return state.toDto(i);
+            }
+        }
+        return null;
+    }
+
+    // ✅ NEW — seats a user holds right now, over every loaded screening plus the given ones
+    // (the screenings of the user's seat_holds rows — not necessarily loaded after a restart)
+    public List<ScreeningSeatDTO> heldBy(Long userId, Collection<Long> screeningIds) {
+        List<ScreeningSeatState> states = new ArrayList<>(screenings.values());
+        for (Long screeningId : screeningIds) {
+            if (!screenings.containsKey(screeningId)) {
+                states.add(view(screeningId));
+            }
+        }
+
+        List<ScreeningSeatDTO> result = new ArrayList<>();
+        for (ScreeningSeatState state : states) {
+            for (int i = 0; i < state.size(); i++) {
+                if (state.availability(i) == Availability.HELD && state.holder(i) == userId) {
+                    result.add(state.toDto(i));
+                }
+            }
+        }
+        return result;
+    }
+
+    // ✅ NEW — the loaded state, or null; never loads (availability summaries of cold screenings)
+    public ScreeningSeatState peek(Long screeningId) {
+        return screenings.get(screeningId);
+    }
+
+    private SeatRef locate(Long screeningSeatsId) {
+        SeatRef ref = seatIndex.get(screeningSeatsId);
+        if (ref != null) {
+            return ref;
+        }
+        // first touch of a screening that is not loaded yet (or a new seat) → ask the store, then memory
+        Long screeningId = seatStateStore.screeningOf(screeningSeatsId);
+        if (screeningId == null) {
+            throw new RuntimeException("Seat not found: " + screeningSeatsId);
+        }
+        if (screenings.containsKey(screeningId)) {
+            evict(screeningId);
+        }
+        state(screeningId);
+        ref = seatIndex.get(screeningSeatsId);
+        if (ref == null) {
+            throw new RuntimeException("Seat not found: " + screeningSeatsId);
+        }
+        return ref;
+    }
+
+    // ── Transitions ─────────────────────────────────────────
+
+    public ScreeningSeatDTO hold(Long screeningSeatsId, Long userId) {
+        SeatRef ref;
+        ScreeningSeatState state;
+        long till;
+        do {
+            ref = locate(screeningSeatsId);
+            state = state(ref.screeningId());
+            till = System.currentTimeMillis() + holdMinutes * 60_000L;
+            if (state.tryHold(ref.ordinal(), userId, till)) {
+                break;
+            }
+            if (!retired(state)) {
+                metrics.holdFailed(ref.screeningId());
+                throw new RuntimeException("Seat is not available!");
+            }
+        } while (true);
+        dirtyScreenings.add(ref.screeningId());
+        expiryWheel.schedule(new SeatTimeout(state, ref.ordinal()), till);
+
+        log.info("Seat {} held by user {} until {}", screeningSeatsId, userId, SeatStateStore.fromMillis(till));
+        return state.toDto(ref.ordinal());
+    }
+
+    public ScreeningSeatDTO setAvailability(Long screeningSeatsId, Availability availability) {
+        SeatRef ref;
+        ScreeningSeatState state;
+        do {
+            ref = locate(screeningSeatsId);
+            state = state(ref.screeningId());
+        } while (!state.set(ref.ordinal(), availability));
+        dirtyScreenings.add(ref.screeningId());
+        return state.toDto(ref.ordinal());
+    }
+
+    // ✅ NEW — all-or-nothing hold of several physical seats of one screening
+    // Decided in memory only; the caller flushes the screening first (outside its transaction),
+    // claims the rows with one conditional UPDATE and calls revertHolds() if that transaction does not commit.
+    public List<ScreeningSeatDTO> holdAll(Long screeningId, Collection<Long> seatIds, Long userId, long tillMillis) {
+        ScreeningSeatState state;
+        int[] ordinals;
+        attempt:
+        while (true) {
+            state = state(screeningId);
+            ordinals = new int[seatIds.size()];
+            int n = 0;
+            for (Long seatId : seatIds) {
+                Integer ordinal = state.ordinalOfSeat(seatId);
+                if (ordinal == null) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                            "Seat " + seatId + " is not part of screening " + screeningId);
+                }
+                ordinals[n++] = ordinal;
+            }
+
+            for (int i = 0; i < ordinals.length; i++) {
+                if (!state.tryHold(ordinals[i], userId, tillMillis, false)) {
+                    for (int j = 0; j < i; j++) {
+                        state.releaseHeld(ordinals[j], false);
+                    }
+                    // these holds were never written behind — the retired copy takes them along
+                    if (retired(state)) {
+                        continue attempt;
+                    }
+                    metrics.holdFailed(screeningId);
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "Seat " + state.seat(ordinals[i]).seatNo() + " is not available!");
+                }
+            }
+            break;
+        }
+
+        List<ScreeningSeatDTO> held = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            expiryWheel.schedule(new SeatTimeout(state, ordinal), tillMillis);
+            held.add(state.toDto(ordinal));
+        }
+        log.info("{} seat(s) of screening {} held by user {} until {}",
+                ordinals.length, screeningId, userId, SeatStateStore.fromMillis(tillMillis));
+        return held;
+    }
+
+    // Undo holdAll() after a rollback — memory only: the claim was rolled back, so the rows are
+    // whatever they were before it (possibly claimed by someone else — nothing to write over).
+    // A retired copy took the holds along; its reload read the rolled-back rows.
+    public void revertHolds(Long screeningId, Collection<Long> seatIds, Long userId) {
+        ScreeningSeatState state = screenings.get(screeningId);
+        if (state == null) {
+            return;
+        }
+        for (Long seatId : seatIds) {
+            Integer ordinal = state.ordinalOfSeat(seatId);
+            if (ordinal != null && state.availability(ordinal) == Availability.HELD && state.holder(ordinal) == userId) {
+                state.releaseHeld(ordinal, false);
+            }
+        }
+    }
+
+    // ✅ After the hold claim committed: if the state was retired and reloaded between holdAll()
+    // and the commit, the reload read the rows before the claim — load them again
+    public void holdsCommitted(Long screeningId, Collection<Long> seatIds, Long userId) {
+        ScreeningSeatState state = screenings.get(screeningId);
+        if (state == null) {
+            return;
+        }
+        for (Long seatId : seatIds) {
+            Integer ordinal = state.ordinalOfSeat(seatId);
+            if (ordinal == null || state.availability(ordinal) != Availability.HELD || state.holder(ordinal) != userId) {
+                evict(screeningId);
+                return;
+            }
+        }
+    }
+
+    // ✅ NEW — checkout: the user's held seats → BOOKED, all or nothing.
+    // Written behind like any other transition; the caller calls unbookAll() with the same
+    // hold deadline if its transaction does not commit.
+    public List<ScreeningSeatDTO> bookHeld(Long screeningId, Collection<Long> seatIds, Long userId, long tillMillis) {
+        ScreeningSeatState state;
+        List<Integer> booked = new ArrayList<>(seatIds.size());
+        attempt:
+        while (true) {
+            state = state(screeningId);
+            booked.clear();
+            List<Long> bookedSeatIds = new ArrayList<>(seatIds.size());
+            for (Long seatId : seatIds) {
+                Integer ordinal = state.ordinalOfSeat(seatId);
+                if (ordinal == null || !state.tryBook(ordinal, userId)) {
+                    if (ordinal != null && retired(state)) {
+                        // the bookings made so far went out with the retired copy's last flush
+                        loaded(screeningId);
+                        unbookAll(screeningId, bookedSeatIds, userId, tillMillis);
+                        continue attempt;
+                    }
+                    for (int done : booked) {
+                        if (state.unbook(done, userId, tillMillis)) {
+                            expiryWheel.schedule(new SeatTimeout(state, done), tillMillis);
+                        }
+                    }
+                    dirtyScreenings.add(screeningId);
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Hold on seat "
+                            + (ordinal != null ? state.seat(ordinal).seatNo() : seatId) + " has expired!");
+                }
+                booked.add(ordinal);
+                bookedSeatIds.add(seatId);
+            }
+            break;
+        }
+        dirtyScreenings.add(screeningId);
+
+        List<ScreeningSeatDTO> result = new ArrayList<>(booked.size());
+        for (int ordinal : booked) {
+            result.add(state.toDto(ordinal));
+        }
+        return result;
+    }
+
+    // Undo bookHeld() — the seats are held again until tillMillis (and expire from there)
+    public void unbookAll(Long screeningId, Collection<Long> seatIds, Long userId, long tillMillis) {
+        ScreeningSeatState state = screenings.get(screeningId);
+        while (state != null) {
+            for (Long seatId : seatIds) {
+                Integer ordinal = state.ordinalOfSeat(seatId);
+                if (ordinal != null && state.unbook(ordinal, userId, tillMillis)) {
+                    expiryWheel.schedule(new SeatTimeout(state, ordinal), tillMillis);
+                }
+            }
+            dirtyScreenings.add(screeningId);
+            // retired meanwhile → its flush wrote BOOKED, undo that on whatever is loaded now
+            state = retired(state) ? loaded(screeningId) : null;
+        }
+    }
+
+    // HELD by userId → AVAILABLE for a physical seat of a screening (seat-hold release path).
+    // The hold row may be stale — its hold already expired here and the seat went to someone
+    // else — so the seat is only freed while this user still holds it.
+    public boolean releaseHeld(Long screeningId, Long seatId, Long userId) {
+        while (true) {
+            ScreeningSeatState state = loaded(screeningId);
+            Integer ordinal = state.ordinalOfSeat(seatId);
+            if (ordinal == null) {
+                return false;
+            }
+            if (state.releaseHeldBy(ordinal, userId)) {
+                dirtyScreenings.add(screeningId);
+                return true;
+            }
+            if (!retired(state)) {
+                return false;
+            }
+        }
+    }
+
+    // ✅ Approved cancellation → the booking's seats are for sale again (written behind, counted live)
+    public int releaseBooked(Long screeningId, Collection<Long> seatIds) {
+        int released = 0;
+        ScreeningSeatState state = loaded(screeningId);
+        while (state != null) {
+            for (Long seatId : seatIds) {
+                Integer ordinal = state.ordinalOfSeat(seatId);
+                if (ordinal != null && state.releaseBooked(ordinal)) {
+                    released++;
+                }
+            }
+            dirtyScreenings.add(screeningId);
+            // retired meanwhile → the reload may still read BOOKED for the seats not released yet
+            state = retired(state) ? loaded(screeningId) : null;
+        }
+        return released;
+    }
+
+    // ✅ A seat hold row ran out → free its seat, unless it was re-held with a later deadline
+    public boolean releaseExpiredHold(Long screeningId, Long seatId, long nowMillis) {
+        while (true) {
+            ScreeningSeatState state = loaded(screeningId);
+            Integer ordinal = state.ordinalOfSeat(seatId);
+            if (ordinal == null) {
+                return false;
+            }
+            if (state.releaseIfNotExtended(ordinal, nowMillis)) {
+                dirtyScreenings.add(screeningId);
+                return true;
+            }
+            if (!retired(state)) {
+                return false;
+            }
+        }
+    }
+
+    // ── Hold expiry ─────────────────────────────────────────
+
+    // ✅ Every tick: only the holds whose deadline just passed are touched,
+    // and they leave in one write-behind flush (one UPDATE per state group)
+    @Scheduled(fixedDelayString = "${seat.hold.wheel.tick-ms:1000}")
+    public void expireHolds() {
+        long now = System.currentTimeMillis();
+        List<SeatTimeout> due = expiryWheel.advance(now);
+        if (due.isEmpty()) {
+            return;
+        }
+
+        int released = 0;
+        for (SeatTimeout timeout : due) {
+            ScreeningSeatState state = timeout.state();
+            // evicted / reloaded since → the reload put its own deadlines on the wheel
+            if (screenings.get(state.getScreeningId()) != state) {
+                continue;
+            }
+            // re-held later with a new deadline → CAS check on holdTill keeps it
+            if (state.releaseIfExpired(timeout.ordinal(), now)) {
+                dirtyScreenings.add(state.getScreeningId());
+                released++;
+            }
+        }
+
+        if (released > 0) {
+            log.info("Seat engine: {} hold(s) expired", released);
+            flush();
+        }
+    }
+
+    // Safety net only — full in-memory scan, no DB poll
+    public int releaseExpired() {
+        long now = System.currentTimeMillis();
+        int released = 0;
+        for (ScreeningSeatState state : screenings.values()) {
+            for (int i = 0; i < state.size(); i++) {
+                if (state.releaseIfExpired(i, now)) {
+                    released++;
+                    dirtyScreenings.add(state.getScreeningId());
+                }
+            }
+        }
+        return released;
+    }
+
+    // ── Write-behind ────────────────────────────────────────
+
+    @Scheduled(fixedDelayString = "${seat.engine.flush-interval-ms:250}")
+    public void flush() {
+        for (Long screeningId : dirtyScreenings) {
+            dirtyScreenings.remove(screeningId);
+            flush(screeningId);
+        }
+        for (ScreeningSeatState state : unflushed) {
+            flush(state);
+            if (!state.hasDirty()) {
+                unflushed.remove(state);
+            }
+        }
+    }
+
+    public void flush(Long screeningId) {
+        ScreeningSeatState state = screenings.get(screeningId);
+        if (state != null) {
+            flush(state);
+        }
+    }
+
+    private void flush(ScreeningSeatState state) {
+        if (!state.hasDirty()) {
+            return;
+        }
+        Long screeningId = state.getScreeningId();
+
+        flushLock.lock();
+        try {
+            List<Integer> ordinals = state.drainDirty();
+            if (ordinals.isEmpty()) {
+                return;
+            }
+            try {
+                seatStateStore.persist(state, ordinals);
+                log.debug("Seat engine: flushed {} seat(s) of screening {}", ordinals.size(), screeningId);
+            } catch (RuntimeException e) {
+                // keep them dirty — the next flush retries with whatever the latest state is by then
+                ordinals.forEach(state::markDirty);
+                dirtyScreenings.add(screeningId);
+                log.error("Seat engine: flush failed for screening {}: {}", screeningId, e.getMessage());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // ✅ NEW — live remaining-seat counts → screening.remaining_seats, only for screenings whose
+    // seats moved since the last write (the first pass after a load corrects whatever the DB had)
+    @Scheduled(fixedDelayString = "${seat.engine.remaining-flush-ms:5000}")
+    public void flushRemaining() {
+        int written = 0;
+        // idle screenings are evicted (evictIdle), so this walks what is actually in use
+        for (ScreeningSeatState state : screenings.values()) {
+            // read before the count — a change racing this write just goes out next time
+            long version = state.version();
+            if (version == state.remainingFlushedVersion()) {
+                continue;
+            }
+            try {
+                screeningRepository.updateRemainingSeats(state.getScreeningId(), state.available());
+                state.remainingFlushed(version);
+                written++;
+            } catch (RuntimeException e) {
+                log.error("Seat engine: remaining seats of screening {} not written: {}",
+                        state.getScreeningId(), e.getMessage());
+            }
+        }
+        if (written > 0) {
+            log.debug("Seat engine: remaining seats written for {} screening(s)", written);
+        }
+    }
+
+    // ✅ Seats of a screening were created / changed / deleted directly in the DB → reload lazily
+    // Retired in place first: closed (no transition lands after this), its last writes flushed,
+    // and only then unpublished — a reload can never read the DB before those writes.
+    public void evict(Long screeningId) {
+        ScreeningSeatState retired;
+        loadLock.lock();
+        flushLock.lock();
+        try {
+            retired = screenings.get(screeningId);
+            if (retired == null) {
+                return;
+            }
+            retired.close();
+            flush(retired);
+            if (retired.hasDirty()) {
+                unflushed.add(retired);
+            }
+            for (int i = 0; i < retired.size(); i++) {
+                seatIndex.remove(retired.seat(i).screeningSeatsId(), new SeatRef(screeningId, i));
+            }
+            screenings.remove(screeningId, retired);
+        } finally {
+            flushLock.unlock();
+            loadLock.unlock();
+        }
+        for (SeatChangeListener listener : listeners) {
+            listener.screeningEvicted(screeningId);
+        }
+    }
+
+
+    // ✅ NEW — drop screenings nobody looked at for idle-evict-minutes (unless a hold is running out
+    // on them) and those that stopped being ACTIVE; the next request loads them again
+    @Scheduled(fixedDelayString = "${seat.engine.idle-sweep-ms:60000}")
+    public int evictIdle() {
+        long idleBefore = System.currentTimeMillis() - idleEvictMinutes * 60_000L;
+        Set<Long> active = Set.copyOf(screeningRepository.findIdsByStatus(Screening.Status.ACTIVE));
+        int evicted = 0;
+        for (ScreeningSeatState state : List.copyOf(screenings.values())) {
+            Long screeningId = state.getScreeningId();
+            boolean idle = state.lastUsed() < idleBefore && !state.hasHolds();
+            if (idle || !active.contains(screeningId)) {
+                evict(screeningId);
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.info("Seat engine: evicted {} idle / inactive screening(s), {} loaded", evicted, screenings.size());
+        }
+        return evicted;
+    }
+
+    // ✅ A venue's seat layout was added to / changed / removed → its screenings reload.
+    // The screening ids are read now (inside the caller's transaction), the eviction waits for the
+    // commit — a reload before it would read the old layout; a rollback changes nothing.
+    public void layoutChanged(Long venueId) {
+        List<Long> screeningIds = screeningRepository.findIdsByVenue(venueId);
+        Runnable eviction = () -> {
+            seatStateStore.layoutChanged(venueId);
+            for (Long screeningId : screeningIds) {
+                evict(screeningId);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.seatbooking.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+
+// ✅ Where the seat state engine keeps its state between restarts
+//
+//   seat.storage.mode=rows   → RowSeatStateStore    (one screening_seats row per seat, default)
+//   seat.storage.mode=bitmap → BitmapSeatStateStore (one screening_seat_maps row per screening)
+public interface SeatStateStore {
+
+    // Full seat state of one screening
+    ScreeningSeatState load(Long screeningId);
+
+    // Write the current state of the given (dirty) seats
+    void persist(ScreeningSeatState state, List<Integer> ordinals);
+
+    // All-or-nothing claim for a multi-seat hold, inside the caller's transaction.
+    // Returns how many of the seats were claimed — anything less than seatIds.size() means roll back.
+    int claimForHold(Long screeningId, Collection<Long> seatIds, Long userId, LocalDateTime holdTill);
+
+    // Screening a seat id from the API belongs to, or null if unknown
+    Long screeningOf(Long screeningSeatsId);
+
+    // [screeningId, seatCategory, availability, count] of screenings the engine has not loaded
+    // (unknown screening ids are left out)
+    List<Object[]> countByCategoryAndAvailability(Collection<Long> screeningIds);
+
+    // A venue's seat layout changed — drop anything cached from it
+    default void layoutChanged(Long venueId) {
+    }
+
+    static long toMillis(LocalDateTime time) {
+        return time == null ? 0L : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    static LocalDateTime fromMillis(long millis) {
+        return millis == 0L ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.seatbooking.service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ✅ Time-ordered 64-bit ids — no DB round trip, no SecureRandom, unique per node by construction
+//
+//   bits 22-62 → milliseconds since 2024-01-01 (good until 2093)
+//   bits 12-21 → node id (ids.node-id, 0-1023 — must differ between running instances)
+//   bits  0-11 → sequence inside the millisecond (4096 per ms per node)
+//
+// Codes are the id in Crockford base32, always 13 characters → they sort like the ids do.
+public final class SnowflakeIdGenerator {
+
+    public static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    static final int CODE_LENGTH = 13;
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    // one generator per node in the JVM — Spring beans and the Hibernate id generator share it
+    private static final Map<Integer, SnowflakeIdGenerator> NODES = new ConcurrentHashMap<>();
+
+    private final long node;
+
+    // (millis since EPOCH << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong last = new AtomicLong();
+
+    private SnowflakeIdGenerator(int node) {
+        this.node = node;
+    }
+
+    public static SnowflakeIdGenerator forNode(int node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Snowflake node id must be between 0 and " + MAX_NODE + ": " + node);
+        }
+        return NODES.computeIfAbsent(node, SnowflakeIdGenerator::new);
+    }
+
+    public long nextId() {
+        while (true) {
+            long now = System.currentTimeMillis() - EPOCH;
+            long previous = last.get();
+            // same millisecond (or the clock went back) → count on from the last id; a full
+            // sequence carries into the next millisecond, so ids never repeat nor go backwards
+            long next = now > previous >>> SEQUENCE_BITS ? now << SEQUENCE_BITS : previous + 1;
+            if (last.compareAndSet(previous, next)) {
+                return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)
+                        | node << SEQUENCE_BITS
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    // e.g. "BK-" → BK-0NZ3YH7P8A00K
+    public String nextCode(String prefix) {
+        return prefix + encode(nextId());
+    }
+
+    // ── Crockford base32 ────────────────────────────────────
+
+    public static String encode(long id) {
+        char[] code = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            code[i] = CROCKFORD[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(code);
+    }
+
+    public static long decode(String code) {
+        if (code.length() != CODE_LENGTH) {
+            throw new IllegalArgumentException("Not a " + CODE_LENGTH + "-character code: " + code);
+        }
+        long id = 0;
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            int digit = digit(code.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Not a Crockford base32 code: " + code);
+            }
+            id = id << 5 | digit;
+        }
+        return id;
+    }
+
+    // when the id was generated (epoch millis)
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    public static int nodeOf(long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_NODE;
+    }
+
+    // Crockford: case-insensitive, O → 0, I / L → 1
+    private static int digit(char c) {
+        char upper = Character.toUpperCase(c);
+        switch (upper) {
+            case 'O': return 0;
+            case 'I':
+            case 'L': return 1;
+            default:
+                for (int d = 0; d < CROCKFORD.length; d++) {
+                    if (CROCKFORD[d] == upper) {
+                        return d;
+                    }
+                }
+                return -1;
+        }
+    }
+}
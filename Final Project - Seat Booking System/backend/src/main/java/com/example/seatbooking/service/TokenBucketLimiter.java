@@ -0,0 +1,111 @@
+package com.example.seatbooking.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// ✅ Token bucket per key (email, client IP, ...)
+//
+// A key starts with `capacity` tokens and gets one back every `refillMillis`; each call takes
+// one or is refused. Buckets that have refilled completely carry no information any more, so
+// sweep() drops them — the map only holds keys that were busy recently, and never more than
+// maxKeys of those (a new key beyond that is refused rather than let the map grow).
+public class TokenBucketLimiter {
+
+    // tokens scaled by refillMillis, so refilling is plain long arithmetic
+    // (a lock, not synchronized — a virtual thread waiting on a monitor pins its carrier)
+    private static final class Bucket extends ReentrantLock {
+        long scaledTokens;
+        long updatedAt;
+    }
+
+    private final long capacity;
+    private final long refillMillis;
+    private final int maxKeys;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketLimiter(long capacity, long refillMillis, int maxKeys) {
+        if (capacity <= 0 || refillMillis <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("capacity, refillMillis and maxKeys must be > 0");
+        }
+        this.capacity = capacity;
+        this.refillMillis = refillMillis;
+        this.maxKeys = maxKeys;
+    }
+
+    public boolean tryAcquire(String key, long nowMillis) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                sweep(nowMillis);
+                if (buckets.size() >= maxKeys) {
+                    return false;
+                }
+            }
+            bucket = buckets.computeIfAbsent(key, k -> {
+                Bucket created = new Bucket();
+                created.scaledTokens = capacity * refillMillis;
+                created.updatedAt = nowMillis;
+                return created;
+            });
+        }
+        bucket.lock();
+        try {
+            refill(bucket, nowMillis);
+            if (bucket.scaledTokens < refillMillis) {
+                return false;
+            }
+            bucket.scaledTokens -= refillMillis;
+            return true;
+        } finally {
+            bucket.unlock();
+        }
+    }
+
+    // millis until the key gets its next token (0 = it has one now)
+    public long retryAfterMillis(String key, long nowMillis) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            return 0L;
+        }
+        bucket.lock();
+        try {
+            refill(bucket, nowMillis);
+            return Math.max(0L, refillMillis - bucket.scaledTokens);
+        } finally {
+            bucket.unlock();
+        }
+    }
+
+    // Drop every bucket that is full again
+    public int sweep(long nowMillis) {
+        int[] dropped = {0};
+        buckets.entrySet().removeIf(entry -> {
+            Bucket bucket = entry.getValue();
+            bucket.lock();
+            try {
+                refill(bucket, nowMillis);
+                boolean full = bucket.scaledTokens >= capacity * refillMillis;
+                if (full) {
+                    dropped[0]++;
+                }
+                return full;
+            } finally {
+                bucket.unlock();
+            }
+        });
+        return dropped[0];
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private void refill(Bucket bucket, long nowMillis) {
+        long elapsed = nowMillis - bucket.updatedAt;
+        if (elapsed > 0) {
+            bucket.scaledTokens = Math.min(capacity * refillMillis, bucket.scaledTokens + elapsed);
+            bucket.updatedAt = nowMillis;
+        }
+    }
+}
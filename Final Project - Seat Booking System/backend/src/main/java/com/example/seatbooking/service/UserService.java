@@ -2,29 +2,56 @@ package com.example.seatbooking.service;
 
 import com.example.seatbooking.entity.User;
 import com.example.seatbooking.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import java.time.LocalDateTime;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.Principal;
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
+    private static final SecureRandom OTP_RANDOM = new SecureRandom();
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
 
-    // OTP store - email → {otp, expiry}
-    private final Map<String, String> otpStore = new ConcurrentHashMap<>();
-    private final Map<String, LocalDateTime> otpExpiry = new ConcurrentHashMap<>();
+    // ✅ OTPs live in the OtpStore (TTL, size cap, attempt limit) — no more unbounded maps here
+    private final OtpStore otpStore;
+    private final Duration otpTtl;
+
+    // ✅ forgot-password sends are rate limited per email AND per client IP (each one mails)
+    private final TokenBucketLimiter otpEmailLimiter;
+    private final TokenBucketLimiter otpIpLimiter;
 
     public UserService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
-                       EmailService emailService) {
+                       EmailService emailService,
+                       OtpStore otpStore,
+                       @Value("${otp.ttl-minutes:5}") long otpTtlMinutes,
+                       @Value("${otp.rate.email.capacity:3}") long emailCapacity,
+                       @Value("${otp.rate.email.refill-minutes:10}") long emailRefillMinutes,
+                       @Value("${otp.rate.ip.capacity:10}") long ipCapacity,
+                       @Value("${otp.rate.ip.refill-minutes:1}") long ipRefillMinutes,
+                       @Value("${otp.rate.max-keys:100000}") int maxKeys) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
+        this.otpStore = otpStore;
+        this.otpTtl = Duration.ofMinutes(otpTtlMinutes);
+        this.otpEmailLimiter = new TokenBucketLimiter(emailCapacity, emailRefillMinutes * 60_000L, maxKeys);
+        this.otpIpLimiter = new TokenBucketLimiter(ipCapacity, ipRefillMinutes * 60_000L, maxKeys);
     }
 
     public User registerUser(User user) {
@@ -39,6 +66,16 @@ public class UserService {
         return userRepository.findById(id);
     }
 
+    // ✅ The caller of a customer action — its JWT email, never a userId from the request body
+    public Long currentUserId(Principal principal) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Login required");
+        }
+        return userRepository.findByEmail(principal.getName())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unknown user: " + principal.getName()))
+                .getUserId();
+    }
+
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -51,37 +88,43 @@ public class UserService {
     }
 
     // ── Forgot Password - Send OTP ─────────────────────────
-    public void sendForgotPasswordOtp(String email) {
+    // ✅ Limits are checked before the user lookup, so probing for accounts is throttled as well
+    public void sendForgotPasswordOtp(String email, String clientIp) {
+        if (email == null || email.isBlank()) {
+            throw new RuntimeException("Email is required");
+        }
+        long now = System.currentTimeMillis();
+        if (!otpIpLimiter.tryAcquire(clientIp, now)) {
+            throw tooManyRequests(otpIpLimiter.retryAfterMillis(clientIp, now));
+        }
+        // "A@x.com" and "a@x.com " share one bucket
+        String emailKey = email.trim().toLowerCase(Locale.ROOT);
+        if (!otpEmailLimiter.tryAcquire(emailKey, now)) {
+            throw tooManyRequests(otpEmailLimiter.retryAfterMillis(emailKey, now));
+        }
+
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("No account found with email: " + email));
 
         // Generate 6 digit OTP
-        String otp = String.valueOf(100000 + new Random().nextInt(900000));
+        String otp = String.valueOf(100000 + OTP_RANDOM.nextInt(900000));
 
-        // Store OTP with 5 min expiry
-        otpStore.put(email, otp);
-        otpExpiry.put(email, LocalDateTime.now().plusMinutes(5));
+        // Store OTP with otp.ttl-minutes expiry
+        otpStore.put(email, otp, otpTtl);
 
         // Send mail
         emailService.sendForgotPasswordOtp(user.getName(), email, otp);
-        System.out.println("✅ OTP sent to: " + email);
+        log.debug("OTP mail queued for user {}", user.getUserId());
     }
 
     // ── Verify OTP ─────────────────────────────────────────
     public void verifyOtp(String email, String otp) {
-        String storedOtp = otpStore.get(email);
-        LocalDateTime expiry = otpExpiry.get(email);
-
-        if (storedOtp == null || expiry == null) {
-            throw new RuntimeException("OTP not found. Please request again.");
-        }
-        if (LocalDateTime.now().isAfter(expiry)) {
-            otpStore.remove(email);
-            otpExpiry.remove(email);
-            throw new RuntimeException("OTP expired. Please request again.");
-        }
-        if (!storedOtp.equals(otp)) {
-            throw new RuntimeException("Invalid OTP. Please try again.");
+        switch (otpStore.check(email, otp)) {
+            case VALID -> { }
+            case MISSING -> throw new RuntimeException("OTP not found. Please request again.");
+            case EXPIRED -> throw new RuntimeException("OTP expired. Please request again.");
+            case LOCKED -> throw new RuntimeException("Too many wrong attempts. Please request a new OTP.");
+            case INVALID -> throw new RuntimeException("Invalid OTP. Please try again.");
         }
     }
 
@@ -98,8 +141,23 @@ public class UserService {
 
         // Cleanup OTP
         otpStore.remove(email);
-        otpExpiry.remove(email);
 
         System.out.println("✅ Password reset successful for: " + email);
     }
-}
\ No newline at end of file
+
+    // ── Rate limiting ───────────────────────────────────────
+
+    private static ResponseStatusException tooManyRequests(long retryAfterMillis) {
+        long seconds = Math.max(1, (retryAfterMillis + 999) / 1000);
+        return new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                "Too many OTP requests. Please try again in " + seconds + " seconds.");
+    }
+
+    // idle limiter buckets (refilled completely) carry no state worth keeping
+    @Scheduled(fixedDelayString = "${otp.sweep-interval-ms:60000}")
+    public void sweepOtpLimiters() {
+        long now = System.currentTimeMillis();
+        otpEmailLimiter.sweep(now);
+        otpIpLimiter.sweep(now);
+    }
+}
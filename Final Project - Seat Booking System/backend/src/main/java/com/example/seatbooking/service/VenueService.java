@@ -10,16 +10,20 @@ import java.util.Optional;
 public class VenueService {
 
     private final VenueRepository venueRepository;
+    private final ReferenceDataCache referenceDataCache;
 
-    public VenueService(VenueRepository venueRepository) {
+    public VenueService(VenueRepository venueRepository, ReferenceDataCache referenceDataCache) {
         this.venueRepository = venueRepository;
+        this.referenceDataCache = referenceDataCache;
     }
 
     public Venue createVenue(Venue venue) {
         if (venueRepository.existsByVenueName(venue.getVenueName())) {
             throw new RuntimeException("Venue already exists: " + venue.getVenueName());
         }
-        return venueRepository.save(venue);
+        Venue saved = venueRepository.save(venue);
+        referenceDataCache.venueChanged(saved.getVenueId());
+        return saved;
     }
 
     public List<Venue> getAllVenues() {
@@ -42,7 +46,9 @@ public class VenueService {
         existing.setDistrict(updatedVenue.getDistrict());
         existing.setRegion(updatedVenue.getRegion());
         existing.setCapacity(updatedVenue.getCapacity());
-        return venueRepository.save(existing);
+        Venue saved = venueRepository.save(existing);
+        referenceDataCache.venueChanged(id);
+        return saved;
     }
 
     public void deleteVenue(Long id) {
@@ -50,5 +56,6 @@ public class VenueService {
             throw new RuntimeException("Venue not found with id: " + id);
         }
         venueRepository.deleteById(id);
+        referenceDataCache.venueChanged(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,177 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.dto.ScreeningSeatDTO;
+import com.example.seatbooking.entity.*;
+import com.example.seatbooking.repository.*;
+import com.example.seatbooking.service.BestSeatAllocator;
+import com.example.seatbooking.service.SeatStateEngine;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ✅ Best available — central adjacent runs, aisles respected, held in the same call,
+// and no seat ever handed to two groups racing for the same screening
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BestAvailableTest {
+
+    // 5 rows A–E, seats 1–5 | aisle | 7–11; A–B SILVER, C–E GOLD
+    private static final String ROWS = "ABCDE";
+
+    @Autowired private MockMvc mockMvc;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private VenueRepository venueRepository;
+    @Autowired private EventsRepository eventsRepository;
+    @Autowired private ScreeningRepository screeningRepository;
+    @Autowired private SeatLayoutRepository seatLayoutRepository;
+    @Autowired private ScreeningSeatsRepository screeningSeatsRepository;
+
+    @Autowired private BestSeatAllocator bestSeatAllocator;
+    @Autowired private SeatStateEngine seatStateEngine;
+
+    private Events event;
+    private Venue venue;
+    private final List<User> users = new ArrayList<>();
+    private final List<SeatLayout> seats = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        for (int u = 0; u < 6; u++) {
+            users.add(userRepository.save(User.builder()
+                    .name("Group " + u).email("group" + u + "@test.com").password("secret").role(User.Role.USER).build()));
+        }
+        venue = venueRepository.save(Venue.builder()
+                .venueName("Best Hall").address("Main St").district("Colombo").region("West")
+                .capacity(50).build());
+        event = eventsRepository.save(Events.builder()
+                .organizer(users.get(0)).title("Premiere").category("Movie").genre("Drama")
+                .duration(120).language("English").showStatus(Events.ShowStatus.UPCOMING).build());
+
+        for (int r = 0; r < ROWS.length(); r++) {
+            String row = String.valueOf(ROWS.charAt(r));
+            for (int n = 1; n <= 11; n++) {
+                if (n == 6) {
+                    continue;
+                }
+                seats.add(seatLayoutRepository.save(SeatLayout.builder()
+                        .venue(venue).seatNo(row + n).seatRow(row).seatCategory(r < 2 ? "SILVER" : "GOLD")
+                        .ticketPrice(BigDecimal.TEN).build()));
+            }
+        }
+    }
+
+    @Test
+    void centralRunInThePreferredRow() throws Exception {
+        Long screeningId = screening(10);
+        mockMvc.perform(post("/api/screening-seats/screening/" + screeningId + "/best-available")
+                        .principal(users.get(0)::getEmail)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body(4, "GOLD")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].seatNo").value("C2"))
+                .andExpect(jsonPath("$[3].seatNo").value("C5"))
+                .andExpect(jsonPath("$[0].availability").value("HELD"));
+
+        // C2–C5 gone: the other half of row C, never across the aisle
+        mockMvc.perform(post("/api/screening-seats/screening/" + screeningId + "/best-available")
+                        .principal(users.get(1)::getEmail)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body(4, "GOLD")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].seatNo").value("C7"))
+                .andExpect(jsonPath("$[3].seatNo").value("C10"));
+    }
+
+    @Test
+    void noRunLongEnough() throws Exception {
+        Long screeningId = screening(14);
+        // SILVER rows have 5 seats between aisle and wall
+        mockMvc.perform(post("/api/screening-seats/screening/" + screeningId + "/best-available")
+                        .principal(users.get(0)::getEmail)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body(6, "SILVER")))
+                .andExpect(status().isConflict());
+        assertEquals(50, seatStateEngine.state(screeningId).available());
+    }
+
+    @Test
+    void racingGroupsNeverShareASeat() throws Exception {
+        Long screeningId = screening(18);
+        ExecutorService pool = Executors.newFixedThreadPool(users.size());
+        CountDownLatch go = new CountDownLatch(1);
+        ConcurrentLinkedQueue<List<ScreeningSeatDTO>> won = new ConcurrentLinkedQueue<>();
+        for (User user : users) {
+            pool.submit(() -> {
+                go.await();
+                try {
+                    won.add(bestSeatAllocator.holdBestAvailable(screeningId, user.getUserId(), 3, "GOLD"));
+                } catch (ResponseStatusException lostEveryRetry) {
+                    // allowed — only double allocation is not
+                }
+                return null;
+            });
+        }
+        go.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertFalse(won.isEmpty());
+        Set<Long> taken = new HashSet<>();
+        for (List<ScreeningSeatDTO> group : won) {
+            assertEquals(3, group.size());
+            String row = group.get(0).getSeatRow();
+            for (ScreeningSeatDTO seat : group) {
+                assertEquals(row, seat.getSeatRow());
+                assertTrue(taken.add(seat.getSeatId()), "seat " + seat.getSeatNo() + " allocated twice");
+            }
+        }
+        assertEquals(50 - 3 * won.size(), seatStateEngine.state(screeningId).available());
+    }
+
+    private Long screening(int hour) {
+        Screening screening = screeningRepository.save(Screening.builder()
+                .event(event).venue(venue).screenDate(LocalDate.now().plusDays(3))
+                .startTime(LocalTime.of(hour, 0)).endTime(LocalTime.of(hour + 2, 0))
+                .remainingSeats(seats.size()).status(Screening.Status.ACTIVE).build());
+        for (SeatLayout seat : seats) {
+            screeningSeatsRepository.save(ScreeningSeats.builder()
+                    .screening(screening).seat(seat).price(BigDecimal.TEN)
+                    .availability(ScreeningSeats.Availability.AVAILABLE).build());
+        }
+        return screening.getScreeningId();
+    }
+
+    // the holder is the principal, not part of the body
+    private static String body(int count, String category) {
+        return "{\"count\":" + count + ",\"seatCategory\":\"" + category + "\"}";
+    }
+}
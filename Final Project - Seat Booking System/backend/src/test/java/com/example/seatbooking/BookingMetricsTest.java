@@ -0,0 +1,120 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.entity.*;
+import com.example.seatbooking.repository.*;
+import com.example.seatbooking.service.BookingMetrics;
+import com.example.seatbooking.service.SeatHoldService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ✅ Hot-path metrics — hold latency by outcome and lost seat races (one series, not one per screening),
+// scraped in Prometheus format next to Hikari's connection wait
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@AutoConfigureObservability
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingMetricsTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private WebApplicationContext context;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private VenueRepository venueRepository;
+    @Autowired private EventsRepository eventsRepository;
+    @Autowired private ScreeningRepository screeningRepository;
+    @Autowired private SeatLayoutRepository seatLayoutRepository;
+    @Autowired private ScreeningSeatsRepository screeningSeatsRepository;
+
+    @Autowired private SeatHoldService seatHoldService;
+
+    private Long screeningId;
+    private final List<User> users = new ArrayList<>();
+    private final List<Long> seatIds = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        for (int u = 0; u < 2; u++) {
+            users.add(userRepository.save(User.builder()
+                    .name("Fan " + u).email("fan" + u + "@metrics.test").password("secret").role(User.Role.USER).build()));
+        }
+        Venue venue = venueRepository.save(Venue.builder()
+                .venueName("Metrics Hall").address("Main St").district("Colombo").region("West")
+                .capacity(4).build());
+        Events event = eventsRepository.save(Events.builder()
+                .organizer(users.get(0)).title("Opening Night").category("Movie").genre("Drama")
+                .duration(120).language("English").showStatus(Events.ShowStatus.UPCOMING).build());
+        Screening screening = screeningRepository.save(Screening.builder()
+                .event(event).venue(venue).screenDate(LocalDate.now().plusDays(3))
+                .startTime(LocalTime.of(18, 0)).endTime(LocalTime.of(20, 0))
+                .remainingSeats(4).status(Screening.Status.ACTIVE).build());
+        for (int s = 0; s < 4; s++) {
+            SeatLayout seat = seatLayoutRepository.save(SeatLayout.builder()
+                    .venue(venue).seatNo("M" + s).seatRow("M").seatCategory("GOLD")
+                    .ticketPrice(BigDecimal.TEN).build());
+            seatIds.add(seat.getSeatId());
+            screeningSeatsRepository.save(ScreeningSeats.builder()
+                    .screening(screening).seat(seat).price(BigDecimal.TEN)
+                    .availability(ScreeningSeats.Availability.AVAILABLE).build());
+        }
+        screeningId = screening.getScreeningId();
+    }
+
+    @Test
+    void holdsAreTimedAndLostRacesCounted() throws Exception {
+        seatHoldService.holdSeats(screeningId, users.get(0).getUserId(), seatIds.subList(0, 2));
+        assertThrows(ResponseStatusException.class,
+                () -> seatHoldService.holdSeats(screeningId, users.get(1).getUserId(), seatIds.subList(1, 3)));
+
+        // the successful hold is stopped at commit, the lost one when it threw
+        assertEquals(1, meterRegistry.get(BookingMetrics.FLOW_TIMER)
+                .tags("flow", "hold", "outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get(BookingMetrics.FLOW_TIMER)
+                .tags("flow", "hold", "outcome", "conflict").timer().count());
+        assertEquals(1.0, meterRegistry.get(BookingMetrics.HOLD_FAILED).counter().count());
+        assertEquals(1, meterRegistry.find(BookingMetrics.HOLD_FAILED).counters().size());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "bookit_flow_seconds_bucket{application=\"seatbooking\",flow=\"hold\",outcome=\"success\"")))
+                .andExpect(content().string(containsString(
+                        "bookit_seat_hold_failed_total{application=\"seatbooking\",} 1.0")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket")));
+    }
+
+    @Test
+    void scrapingNeedsAToken() throws Exception {
+        // this class's MockMvc skips the filters — run the request through the real security chain
+        MockMvc secured = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+        secured.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.config.IdGeneratorInitializer;
+import com.example.seatbooking.entity.*;
+import com.example.seatbooking.repository.*;
+import com.example.seatbooking.service.SeatStateEngine;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ✅ Bulk screening-seat generation — batched INSERTs with pooled ids, a handful of statements;
+// seats materialized from the venue layout in a single INSERT ... SELECT
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BulkScreeningSeatsTest {
+
+    private static final int SEATS = 2_000;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private VenueRepository venueRepository;
+    @Autowired private EventsRepository eventsRepository;
+    @Autowired private ScreeningRepository screeningRepository;
+    @Autowired private SeatLayoutRepository seatLayoutRepository;
+    @Autowired private ScreeningSeatsRepository screeningSeatsRepository;
+
+    @Autowired private IdGeneratorInitializer idGeneratorInitializer;
+    @Autowired private SeatStateEngine seatStateEngine;
+
+    private Events event;
+    private Venue venue;
+    private Screening screening;
+    private final List<SeatLayout> seats = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        User organizer = userRepository.save(User.builder()
+                .name("Organizer").email("bulk@test.com").password("secret").role(User.Role.ORGANIZER).build());
+        venue = venueRepository.save(Venue.builder()
+                .venueName("Arena").address("Main St").district("Colombo").region("West")
+                .capacity(SEATS).build());
+        event = eventsRepository.save(Events.builder()
+                .organizer(organizer).title("Final").category("Sports").genre("Cricket")
+                .duration(480).language("English").showStatus(Events.ShowStatus.UPCOMING).build());
+        screening = screeningRepository.save(Screening.builder()
+                .event(event).venue(venue).screenDate(LocalDate.now().plusDays(3))
+                .startTime(LocalTime.of(9, 0)).endTime(LocalTime.of(17, 0))
+                .remainingSeats(SEATS).status(Screening.Status.ACTIVE).build());
+
+        List<SeatLayout> layout = new ArrayList<>();
+        for (int i = 0; i < SEATS; i++) {
+            layout.add(SeatLayout.builder().venue(venue)
+                    .seatNo("R" + (i / 50) + "-" + (i % 50)).seatRow("R" + (i / 50)).seatCategory(i % 10 == 0 ? "SILVER" : "GOLD")
+                    .ticketPrice(BigDecimal.TEN).build());
+        }
+        seats.addAll(seatLayoutRepository.saveAll(layout));
+    }
+
+    @Test
+    void twoThousandSeatsInAFewStatements() throws Exception {
+        // a row the old AUTO_INCREMENT column handed out, above where the generator would start
+        long generatorAt = jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_generators WHERE name = 'screening_seats'", Long.class);
+        long legacyId = generatorAt + 5L * ScreeningSeats.ID_BLOCK;
+        jdbcTemplate.update("INSERT INTO screening_seats (screening_seats_id, screening_id, seat_id, price, availability) "
+                + "VALUES (?, ?, ?, 10, 'AVAILABLE')", legacyId, screening.getScreeningId(), seats.get(0).getSeatId());
+        idGeneratorInitializer.alignScreeningSeatIds();
+
+        StringJoiner body = new StringJoiner(",", "[", "]");
+        for (int i = 1; i < SEATS; i++) {
+            body.add("{\"screeningId\":" + screening.getScreeningId()
+                    + ",\"seatId\":" + seats.get(i).getSeatId() + ",\"price\":12.50}");
+        }
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(post("/api/seats/screening-seats/bulk")
+                        .contentType(MediaType.APPLICATION_JSON).content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(SEATS - 1));
+        int statements = SqlStatementCounter.count();
+
+        // 2 batched INSERTs of 1,000 rows (+ the id-block round trips, if counted)
+        assertTrue(statements <= 8, "bulk insert used " + statements + " statements");
+        assertEquals(SEATS, screeningSeatsRepository.findByScreening_ScreeningId(screening.getScreeningId()).size());
+        assertEquals(SEATS, seatStateEngine.snapshot(screening.getScreeningId()).size());
+        // ids already in memory are used up first, then the generator jumps past the legacy row
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM screening_seats WHERE screening_id = ? " +
+                "AND screening_seats_id > ? AND screening_seats_id < ?",
+                Integer.class, screening.getScreeningId(), generatorAt, legacyId));
+    }
+
+    @Test
+    void screeningWithSeatsInOneInsert() throws Exception {
+        String body = "{\"screening\":{\"event\":{\"eventId\":" + event.getEventId() + "}"
+                + ",\"venue\":{\"venueId\":" + venue.getVenueId() + "}"
+                + ",\"screenDate\":\"" + LocalDate.now().plusDays(4) + "\""
+                + ",\"startTime\":\"09:00:00\",\"endTime\":\"17:00:00\",\"status\":\"ACTIVE\"}"
+                + ",\"categoryPrices\":{\"GOLD\":99.00}}";
+
+        SqlStatementCounter.reset();
+        String json = mockMvc.perform(post("/api/screenings/with-seats")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.remainingSeats").value(SEATS))
+                .andReturn().getResponse().getContentAsString();
+        int statements = SqlStatementCounter.count();
+
+        // venue lock + overlap check + screening INSERT + id range (lock, reserve)
+        // + the seat INSERT ... SELECT + remaining seats
+        assertTrue(statements <= 8, "screening with seats used " + statements + " statements");
+        Long screeningId = Long.valueOf(json.replaceAll(".*\"screeningId\":(\\d+).*", "$1"));
+        assertEquals(SEATS / 10, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM screening_seats WHERE screening_id = ? AND price = 10", Integer.class, screeningId));
+        assertEquals(SEATS - SEATS / 10, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM screening_seats WHERE screening_id = ? AND price = 99", Integer.class, screeningId));
+
+        // nothing missing → nothing generated; pooled ids still clear of the reserved range
+        mockMvc.perform(post("/api/screenings/" + screeningId + "/seats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(0));
+        Screening other = screeningRepository.save(Screening.builder()
+                .event(event).venue(venue).screenDate(LocalDate.now().plusDays(5))
+                .startTime(LocalTime.of(9, 0)).endTime(LocalTime.of(17, 0))
+                .remainingSeats(SEATS).status(Screening.Status.ACTIVE).build());
+        ScreeningSeats pooled = screeningSeatsRepository.save(ScreeningSeats.builder()
+                .screening(other).seat(seats.get(0)).price(BigDecimal.ONE)
+                .availability(ScreeningSeats.Availability.AVAILABLE).build());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM screening_seats WHERE screening_seats_id = ? AND screening_id <> ?",
+                Integer.class, pooled.getScreeningSeatsId(), other.getScreeningId()));
+    }
+
+    @Test
+    void rowWithoutPriceIsRejected() throws Exception {
+        mockMvc.perform(post("/api/seats/screening-seats/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"screeningId\":" + screening.getScreeningId() + ",\"seatId\":1}]"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.dto.CheckoutRequest;
+import com.example.seatbooking.entity.*;
+import com.example.seatbooking.repository.*;
+import com.example.seatbooking.service.CancellationService;
+import com.example.seatbooking.service.CheckoutService;
+import com.example.seatbooking.service.ScreeningSeatState;
+import com.example.seatbooking.service.SeatHoldService;
+import com.example.seatbooking.service.SeatStateEngine;
+import com.example.seatbooking.service.SnowflakeIdGenerator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ✅ Checkout — held seats become booking + items + PENDING payment in one call,
+// and a repeated (or racing) Idempotency-Key never produces a second booking
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CheckoutTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private VenueRepository venueRepository;
+    @Autowired private EventsRepository eventsRepository;
+    @Autowired private ScreeningRepository screeningRepository;
+    @Autowired private SeatLayoutRepository seatLayoutRepository;
+    @Autowired private ScreeningSeatsRepository screeningSeatsRepository;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private BookingItemsRepository bookingItemsRepository;
+    @Autowired private PaymentRepository paymentRepository;
+    @Autowired private SeatHoldRepository seatHoldRepository;
+
+    @Autowired private CheckoutService checkoutService;
+    @Autowired private SeatHoldService seatHoldService;
+    @Autowired private CancellationService cancellationService;
+    @Autowired private SeatStateEngine seatStateEngine;
+
+    private Long screeningId;
+    private final List<User> users = new ArrayList<>();
+    private final List<SeatLayout> seats = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        for (int u = 0; u < 4; u++) {
+            users.add(userRepository.save(User.builder()
+                    .name("Buyer " + u).email("buyer" + u + "@test.com").password("secret").role(User.Role.USER).build()));
+        }
+        Venue venue = venueRepository.save(Venue.builder()
+                .venueName("Checkout Hall").address("Main St").district("Colombo").region("West")
+                .capacity(8).build());
+        Events event = eventsRepository.save(Events.builder()
+                .organizer(users.get(0)).title("Sold Out").category("Movie").genre("Drama")
+                .duration(120).language("English").showStatus(Events.ShowStatus.UPCOMING).build());
+        Screening screening = screeningRepository.save(Screening.builder()
+                .event(event).venue(venue).screenDate(LocalDate.now().plusDays(4))
+                .startTime(LocalTime.of(19, 0)).endTime(LocalTime.of(21, 0))
+                .remainingSeats(8).status(Screening.Status.ACTIVE).build());
+        for (int s = 0; s < 8; s++) {
+            SeatLayout seat = seatLayoutRepository.save(SeatLayout.builder()
+                    .venue(venue).seatNo("D" + s).seatRow("D").seatCategory("GOLD")
+                    .ticketPrice(BigDecimal.TEN).build());
+            seats.add(seat);
+            screeningSeatsRepository.save(ScreeningSeats.builder()
+                    .screening(screening).seat(seat).price(BigDecimal.TEN)
+                    .availability(ScreeningSeats.Availability.AVAILABLE).build());
+        }
+        screeningId = screening.getScreeningId();
+    }
+
+    @Test
+    void retryReplaysTheFirstCheckout() throws Exception {
+        User user = users.get(0);
+        hold(user, 0, 1);
+
+        String first = mockMvc.perform(post("/api/checkout")
+                        .header("Idempotency-Key", "retry-1")
+                        .principal(user::getEmail)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("UPI")))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andExpect(jsonPath("$.bookingStatus").value("PENDING"))
+                .andExpect(jsonPath("$.bookingRefCode").value(matchesPattern("BK-[0-9A-Z]{13}")))
+                .andExpect(jsonPath("$.paymentReference").value(matchesPattern("PAY-[0-9A-Z]{13}")))
+                .andExpect(jsonPath("$.paymentStatus").value("PENDING"))
+                .andExpect(jsonPath("$.amount").value(20.0))
+                .andExpect(jsonPath("$.discount").value(0))
+                .andExpect(jsonPath("$.seats.length()").value(2))
+                .andExpect(jsonPath("$.seats[0].availability").value("BOOKED"))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(post("/api/checkout")
+                        .header("Idempotency-Key", "retry-1")
+                        .principal(user::getEmail)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("UPI")))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(result -> assertEquals(first, result.getResponse().getContentAsString()));
+
+        List<Booking> bookings = bookingRepository.findByUser_UserId(user.getUserId());
+        assertEquals(1, bookings.size());
+        List<BookingItems> items = bookingItemsRepository.findByBooking_BookingId(bookings.get(0).getBookingId());
+        assertEquals(2, items.size());
+        // @SnowflakeId keys, assigned before the (batched) INSERT
+        assertTrue(SnowflakeIdGenerator.timestampOf(items.get(0).getBookingItemsId()) > SnowflakeIdGenerator.EPOCH);
+        assertEquals(1, paymentRepository.findByBooking_BookingId(bookings.get(0).getBookingId()).size());
+        assertTrue(seatHoldRepository.findByUserIdAndScreeningIdAndStatus(
+                user.getUserId(), screeningId, SeatHold.HoldStatus.HELD).isEmpty());
+
+        // same key, different checkout
+        mockMvc.perform(post("/api/checkout")
+                        .header("Idempotency-Key", "retry-1")
+                        .principal(user::getEmail)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("CARD")))
+                .andExpect(status().isUnprocessableEntity());
+        // same key, someone else → that user's own checkout, not a replay of this one
+        // (they hold nothing right now, so there is nothing to book)
+        mockMvc.perform(post("/api/checkout")
+                        .header("Idempotency-Key", "retry-1")
+                        .principal(users.get(1)::getEmail)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("UPI")))
+                .andExpect(status().isConflict());
+        // a key longer than the column
+        mockMvc.perform(post("/api/checkout")
+                        .header("Idempotency-Key", "k".repeat(101))
+                        .principal(user::getEmail)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("UPI")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void nothingHeldNothingBooked() throws Exception {
+        User user = users.get(1);
+        hold(user, 2, 3);
+        mockMvc.perform(post("/api/checkout")
+                        .principal(user::getEmail)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("UPI")))
+                .andExpect(status().isCreated());
+
+        // without a key a second call is a new checkout — and there is nothing left to book
+        mockMvc.perform(post("/api/checkout")
+                        .principal(user::getEmail)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("UPI")))
+                .andExpect(status().isConflict());
+        assertEquals(1, bookingRepository.findByUser_UserId(user.getUserId()).size());
+    }
+
+    @Test
+    void racingRetriesShareOneBooking() throws Exception {
+        User user = users.get(2);
+        hold(user, 4, 5);
+        CheckoutRequest request = CheckoutRequest.builder()
+                .screeningId(screeningId).payMode("CARD").build();
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch go = new CountDownLatch(1);
+        Set<Long> bookingIds = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 4; i++) {
+            pool.submit(() -> {
+                go.await();
+                try {
+                    bookingIds.add(checkoutService.checkout("race-1", user.getEmail(), request).checkout().getBookingId());
+                } catch (ResponseStatusException stillInProgress) {
+                    // a retry may be told to come back later — never to book again
+                }
+                return null;
+            });
+        }
+        go.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(1, bookingIds.size());
+        assertEquals(1, bookingRepository.findByUser_UserId(user.getUserId()).size());
+        assertEquals(bookingIds.iterator().next(), checkoutService.checkout("race-1", user.getEmail(), request).checkout().getBookingId());
+    }
+
+    @Test
+    void approvedCancellationPutsTheSeatsBackOnSale() throws Exception {
+        User user = users.get(3);
+        hold(user, 6, 7);
+        mockMvc.perform(post("/api/checkout")
+                        .principal(user::getEmail)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("UPI")))
+                .andExpect(status().isCreated());
+        Booking booking = bookingRepository.findByUser_UserId(user.getUserId()).get(0);
+        int available = seatStateEngine.state(screeningId).available();
+
+        Cancellation cancellation = cancellationService.createCancellation(Cancellation.builder()
+                .booking(booking).user(user).reason("Cannot make it").amount(BigDecimal.TEN).build());
+        cancellationService.updateStatus(cancellation.getCancellationId(), Cancellation.Status.APPROVED);
+
+        ScreeningSeatState state = seatStateEngine.state(screeningId);
+        assertEquals(available + 2, state.available());
+        assertEquals(ScreeningSeats.Availability.AVAILABLE, state.availability(state.ordinalOfSeat(seats.get(6).getSeatId())));
+        seatStateEngine.flush();
+        assertEquals(ScreeningSeats.Availability.AVAILABLE, screeningSeatsRepository.findAll().stream()
+                .filter(seat -> seat.getSeat().getSeatId().equals(seats.get(7).getSeatId()))
+                .findFirst().orElseThrow().getAvailability());
+        assertEquals(Booking.BookingStatus.CANCELLED,
+                bookingRepository.findById(booking.getBookingId()).orElseThrow().getBookingStatus());
+        assertTrue(bookingItemsRepository.findByBooking_BookingId(booking.getBookingId()).stream()
+                .allMatch(item -> item.getStatus() == BookingItems.Status.CANCELLED));
+    }
+
+    private void hold(User user, int... seatIndexes) {
+        List<Long> seatIds = new ArrayList<>();
+        for (int index : seatIndexes) {
+            seatIds.add(seats.get(index).getSeatId());
+        }
+        seatHoldService.holdSeats(screeningId, user.getUserId(), seatIds);
+    }
+
+    // the buyer comes from the principal; a userId or discount in the body would be ignored
+    private String body(String payMode) {
+        return "{\"screeningId\":" + screeningId + ",\"payMode\":\"" + payMode + "\"}";
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.entity.EmailOutbox;
+import com.example.seatbooking.repository.EmailOutboxRepository;
+import com.example.seatbooking.service.EmailOutboxService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EmailOutboxTest {
+
+    private static final FakeSmtpServer SMTP = start();
+
+    @DynamicPropertySource
+    static void mailProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", SMTP::getPort);
+        registry.add("spring.mail.username", () -> "bookit@test.local");
+        registry.add("spring.mail.password", () -> "secret");
+        // dispatch() is driven by the tests; the scheduler only fires once at startup
+        registry.add("mail.outbox.poll-ms", () -> "3600000");
+        registry.add("mail.outbox.batch-size", () -> "10");
+        registry.add("mail.outbox.backoff-base-ms", () -> "60000");
+    }
+
+    @Autowired private EmailOutboxService emailOutboxService;
+    @Autowired private EmailOutboxRepository emailOutboxRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void clean() {
+        emailOutboxRepository.deleteAll();
+        SMTP.reset();
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        SMTP.close();
+    }
+
+    @Test
+    void batchGoesOutOverOneConnection() {
+        for (int i = 0; i < 5; i++) {
+            emailOutboxService.enqueue("user" + i + "@test.com", "Subject " + i, "<p>Hello " + i + "</p>");
+        }
+        assertEquals(5, emailOutboxService.stats().pending());
+
+        assertEquals(5, emailOutboxService.dispatch());
+
+        assertEquals(1, SMTP.connections());
+        assertEquals(5, SMTP.received().size());
+        assertTrue(SMTP.received().get(0).data().contains("Subject 0"));
+        assertTrue(emailOutboxRepository.findAll().stream()
+                .allMatch(m -> m.getStatus() == EmailOutbox.Status.SENT && m.getSentAt() != null));
+
+        EmailOutboxService.Stats stats = emailOutboxService.stats();
+        assertEquals(0, stats.pending());
+        assertTrue(stats.sent() >= 5);
+    }
+
+    @Test
+    void moreThanOneBatchIsDrainedInOneRound() {
+        for (int i = 0; i < 25; i++) {
+            emailOutboxService.enqueue("bulk" + i + "@test.com", "Bulk " + i, "<p>" + i + "</p>");
+        }
+
+        assertEquals(25, emailOutboxService.dispatch());
+
+        // batch-size 10 → 3 batches, one connection each
+        assertEquals(3, SMTP.connections());
+        assertEquals(25, SMTP.received().size());
+    }
+
+    @Test
+    void failedMailIsRetriedWithBackoff() {
+        SMTP.reject("bounce@test.com");
+        emailOutboxService.enqueue("ok1@test.com", "One", "<p>1</p>");
+        EmailOutbox bounce = emailOutboxService.enqueue("bounce@test.com", "Two", "<p>2</p>");
+        emailOutboxService.enqueue("ok2@test.com", "Three", "<p>3</p>");
+
+        assertEquals(2, emailOutboxService.dispatch());
+
+        EmailOutbox retried = emailOutboxRepository.findById(bounce.getEmailOutboxId()).orElseThrow();
+        assertEquals(EmailOutbox.Status.PENDING, retried.getStatus());
+        assertEquals(1, retried.getAttempts());
+        assertNotNull(retried.getLastError());
+        assertTrue(retried.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(50)));
+
+        // still backing off → nothing to send
+        assertEquals(0, emailOutboxService.dispatch());
+        assertEquals(1, emailOutboxService.stats().pending());
+    }
+
+    @Test
+    void mailLeasedByAnotherInstanceIsLeftAloneUntilTheLeaseRunsOut() {
+        EmailOutbox leased = emailOutboxService.enqueue("leased@test.com", "Leased", "<p>leased</p>");
+        emailOutboxService.enqueue("free@test.com", "Free", "<p>free</p>");
+        LocalDateTime now = LocalDateTime.now();
+        // another dispatcher holds a live lease on the first mail
+        assertEquals(1, emailOutboxRepository.claim(List.of(leased.getEmailOutboxId()), "other-instance",
+                now.plusMinutes(5), now));
+
+        assertEquals(1, emailOutboxService.dispatch());
+        assertEquals(1, SMTP.received().size());
+        assertTrue(SMTP.received().get(0).data().contains("Free"));
+        // a live lease cannot be taken over
+        assertEquals(0, emailOutboxRepository.claim(List.of(leased.getEmailOutboxId()), "third-instance",
+                now.plusMinutes(5), now));
+
+        // that dispatcher died — once its lease has run out the mail goes out here
+        emailOutboxRepository.claim(List.of(leased.getEmailOutboxId()), "other-instance",
+                now.minusSeconds(1), now.plusMinutes(10));
+        assertEquals(1, emailOutboxService.dispatch());
+        EmailOutbox sent = emailOutboxRepository.findById(leased.getEmailOutboxId()).orElseThrow();
+        assertEquals(EmailOutbox.Status.SENT, sent.getStatus());
+        assertNull(sent.getClaimToken());
+    }
+
+    @Test
+    void rolledBackTransactionQueuesNothing() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            emailOutboxService.enqueue("ghost@test.com", "Never", "<p>never</p>");
+            tx.setRollbackOnly();
+        });
+
+        assertEquals(0, emailOutboxRepository.count());
+        assertEquals(0, emailOutboxService.dispatch());
+        assertEquals(0, SMTP.connections());
+    }
+
+    private static FakeSmtpServer start() {
+        try {
+            return new FakeSmtpServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
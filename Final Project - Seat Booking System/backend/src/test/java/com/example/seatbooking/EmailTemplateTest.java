@@ -0,0 +1,49 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.service.EmailService;
+import com.example.seatbooking.service.EmailTemplate;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTemplateTest {
+
+    @Test
+    void slotsAreFilledInOrderAndRepeated() {
+        EmailTemplate template = EmailTemplate.compile("t",
+                "<h2>Hi {{userName}}!</h2><p>{{eventName}}</p><td>{{ eventName }}</td><b>100%</b>",
+                "userName", "eventName");
+
+        assertEquals("<h2>Hi Asha!</h2><p>Dune</p><td>Dune</td><b>100%</b>",
+                template.render("Asha", "Dune"));
+        // renders are independent — nothing of the previous one leaks into the next
+        assertEquals("<h2>Hi B!</h2><p>X</p><td>X</td><b>100%</b>", template.render("B", "X"));
+    }
+
+    @Test
+    void valuesAreHtmlEscaped() {
+        EmailTemplate template = EmailTemplate.compile("t", "<p>{{reason}}</p>", "reason");
+
+        assertEquals("<p>&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; &quot;more&quot;</p>",
+                template.render("<script>alert('x')</script> & \"more\""));
+        assertEquals("<p></p>", template.render((String) null));
+    }
+
+    @Test
+    void brokenTemplatesFailAtCompileTime() {
+        assertThrows(IllegalStateException.class,
+                () -> EmailTemplate.compile("t", "Hi {{nmae}}", "name"));
+        assertThrows(IllegalStateException.class,
+                () -> EmailTemplate.compile("t", "Hi {{name}}", "name", "otp"));
+        assertThrows(IllegalStateException.class,
+                () -> EmailTemplate.compile("t", "Hi {{name", "name"));
+        assertThrows(IllegalArgumentException.class,
+                () -> EmailTemplate.compile("t", "Hi {{name}}", "name").render("a", "b"));
+    }
+
+    @Test
+    void allMailTemplatesCompile() {
+        // EmailService compiles every template file in its constructor
+        assertDoesNotThrow(() -> new EmailService(null));
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.dto.EventCreateDTO;
+import com.example.seatbooking.entity.User;
+import com.example.seatbooking.repository.UserRepository;
+import com.example.seatbooking.service.EventsService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ✅ Event images — only real raster images are stored, served with ETag / If-None-Match and
+// single byte ranges; external URLs only for allowed https hosts
+@SpringBootTest(properties = {
+        "app.images.dir=target/test-images",
+        "app.images.allowed-hosts=cdn.bookit.test"})
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EventImageTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EventsService eventsService;
+
+    private final byte[] png = new byte[100];
+    private Long organizerId;
+    private String imagePath;
+    private String etag;
+
+    @BeforeAll
+    void seed() {
+        byte[] signature = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+        for (int i = 0; i < png.length; i++) {
+            png[i] = i < signature.length ? signature[i] : (byte) i;
+        }
+        organizerId = userRepository.save(User.builder()
+                .name("Poster Org").email("poster-org@test.com").password("secret").role(User.Role.ORGANIZER).build())
+                .getUserId();
+        Long eventId = eventsService.createEvent(event(
+                "data:image/png;base64," + Base64.getEncoder().encodeToString(png))).getEventId();
+        imagePath = "/api/events/" + eventId + "/image";
+        etag = "\"" + eventsService.getEventById(eventId).orElseThrow().getImageHash() + "\"";
+    }
+
+    @Test
+    void servedAsTheSniffedTypeWithAValidator() throws Exception {
+        mockMvc.perform(get(imagePath))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(png))
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                .andExpect(header().string("Content-Disposition", "inline"));
+    }
+
+    @Test
+    void ifNoneMatchAnswersNotModified() throws Exception {
+        for (String ifNoneMatch : new String[]{etag, "W/" + etag, "\"other\", " + etag, "*"}) {
+            mockMvc.perform(get(imagePath).header("If-None-Match", ifNoneMatch))
+                    .andExpect(status().isNotModified());
+        }
+        mockMvc.perform(get(imagePath).header("If-None-Match", "\"other\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void singleRangesAreServedPartially() throws Exception {
+        mockMvc.perform(get(imagePath).header("Range", "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 10-19/100"))
+                .andExpect(content().bytes(Arrays.copyOfRange(png, 10, 20)));
+        // open-ended, suffix, end past the file
+        mockMvc.perform(get(imagePath).header("Range", "bytes=95-"))
+                .andExpect(header().string("Content-Range", "bytes 95-99/100"));
+        mockMvc.perform(get(imagePath).header("Range", "bytes=-5"))
+                .andExpect(content().bytes(Arrays.copyOfRange(png, 95, 100)));
+        mockMvc.perform(get(imagePath).header("Range", "bytes=90-500"))
+                .andExpect(header().string("Content-Range", "bytes 90-99/100"));
+
+        mockMvc.perform(get(imagePath).header("Range", "bytes=500-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */100"));
+        mockMvc.perform(get(imagePath).header("Range", "bytes=-0"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+    }
+
+    @Test
+    void unusableRangesServeTheWholeImage() throws Exception {
+        for (String range : new String[]{"bytes=0-1,5-6", "items=0-5", "bytes=abc-"}) {
+            mockMvc.perform(get(imagePath).header("Range", range))
+                    .andExpect(status().isOk())
+                    .andExpect(content().bytes(png));
+        }
+        // If-Range for another version → the whole (current) image
+        mockMvc.perform(get(imagePath).header("Range", "bytes=0-9").header("If-Range", "\"old\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void onlyRasterImagesAreStored() {
+        String html = Base64.getEncoder().encodeToString("<script>alert(1)</script>".getBytes());
+        String svg = Base64.getEncoder().encodeToString("<svg xmlns=\"http://www.w3.org/2000/svg\"/>".getBytes());
+
+        for (String image : new String[]{"data:text/html;base64," + html, "data:image/png;base64," + html,
+                "data:image/svg+xml;base64," + svg, html}) {
+            ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+                    () -> eventsService.createEvent(event(image)));
+            assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        }
+    }
+
+    @Test
+    void externalImagesOnlyRedirectToAllowedHosts() throws Exception {
+        Long eventId = eventsService.createEvent(event("https://cdn.bookit.test/posters/1.png")).getEventId();
+        mockMvc.perform(get("/api/events/" + eventId + "/image"))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", "https://cdn.bookit.test/posters/1.png"));
+
+        for (String url : new String[]{"http://cdn.bookit.test/1.png", "https://evil.test/1.png",
+                "https://cdn.bookit.test@evil.test/1.png"}) {
+            ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+                    () -> eventsService.createEvent(event(url)));
+            assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        }
+    }
+
+    private EventCreateDTO event(String image) {
+        return EventCreateDTO.builder()
+                .organizerId(organizerId).title("Poster").category("Movie").genre("Drama")
+                .duration(120).language("English").showStatus("UPCOMING").image(image).build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.entity.User;
+import com.example.seatbooking.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ✅ Forgot password — sends are rate limited per email (429), wrong codes run out
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ForgotPasswordTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+
+    @BeforeAll
+    void seed() {
+        userRepository.save(User.builder()
+                .name("Forgetful").email("forgetful@test.com").password("secret").role(User.Role.USER).build());
+    }
+
+    @Test
+    void fourthSendWithinTheWindowIsRefused() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/users/forgot-password")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"email\":\"forgetful@test.com\"}"))
+                    .andExpect(status().isOk());
+        }
+        // same mailbox, different spelling — same bucket
+        mockMvc.perform(post("/api/users/forgot-password")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"Forgetful@Test.com\"}"))
+                .andExpect(status().isTooManyRequests());
+
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(post("/api/users/verify-otp")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"email\":\"forgetful@test.com\",\"otp\":\"abc\"}"))
+                    .andExpect(jsonPath("$.error").value("Invalid OTP. Please try again."));
+        }
+        mockMvc.perform(post("/api/users/verify-otp")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"forgetful@test.com\",\"otp\":\"abc\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Too many wrong attempts. Please request a new OTP."));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.service.HoldExpiryWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoldExpiryWheelTest {
+
+    @Test
+    void deadlinesRoundUpToTheNextTickAndNeverFireEarly() {
+        HoldExpiryWheel<String> wheel = new HoldExpiryWheel<>(1000, 8, 10_000);
+        wheel.schedule("mid-tick", 11_500);
+        wheel.schedule("on-tick", 12_000);
+
+        assertEquals(List.of(), wheel.advance(11_999));
+        // 11 500 rounds up to tick 12 — both fire at 12 000, neither before
+        assertEquals(List.of("mid-tick", "on-tick"), List.copyOf(wheel.advance(12_000)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextTick() {
+        HoldExpiryWheel<String> wheel = new HoldExpiryWheel<>(1000, 8, 10_000);
+        wheel.schedule("late", 3_000);
+
+        assertEquals(List.of(), wheel.advance(10_999));
+        assertEquals(List.of("late"), wheel.advance(11_000));
+    }
+
+    @Test
+    void deadlinesMoreThanOneLapAwayWaitForTheirOwnTick() {
+        HoldExpiryWheel<String> wheel = new HoldExpiryWheel<>(1000, 8, 10_000);
+        // tick 20 shares slot 4 with tick 12
+        wheel.schedule("next-lap", 20_000);
+
+        assertEquals(List.of(), wheel.advance(12_000));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("next-lap"), wheel.advance(20_000));
+    }
+
+    @Test
+    void aLongPauseCatchesUpInOnePass() {
+        HoldExpiryWheel<String> wheel = new HoldExpiryWheel<>(1000, 8, 10_000);
+        wheel.schedule("a", 12_000);
+        wheel.schedule("b", 17_300);
+        wheel.schedule("c", 40_000);
+
+        // 50 ticks later — more than six laps, every slot walked once
+        assertEquals(List.of("a", "b", "c"), wheel.advance(60_000).stream().sorted().toList());
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.entity.User;
+import com.example.seatbooking.service.JwtService;
+import com.example.seatbooking.service.JwtService.Verified;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "bookit-secret-key-change-in-production-min-256-bits";
+    private static final long TTL = Duration.ofHours(24).toMillis();
+
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+
+    @Test
+    void verifiedTokensAreCachedUntilTheirExp() {
+        JwtService jwt = new JwtService(SECRET, TTL, 100, now::get);
+        String token = jwt.issue(user(1, "a@test.com", User.Role.ORGANIZER));
+
+        Verified first = jwt.verify(token);
+        assertEquals("a@test.com", first.email());
+        assertEquals("ROLE_ORGANIZER", first.authorities().get(0).getAuthority());
+        // the second request is a cache hit — same instance, no parsing
+        assertSame(first, jwt.verify(token));
+        assertEquals(1, jwt.cachedTokens());
+
+        now.addAndGet(TTL);
+        assertNull(jwt.verify(token));
+        assertEquals(0, jwt.cachedTokens());
+    }
+
+    @Test
+    void forgedAndRevokedTokensAreRejected() {
+        JwtService jwt = new JwtService(SECRET, TTL, 100, now::get);
+        String token = jwt.issue(user(1, "a@test.com", User.Role.USER));
+        assertNotNull(jwt.verify(token));
+
+        JwtService other = new JwtService(SECRET.replace('b', 'x'), TTL, 100, now::get);
+        assertNull(jwt.verify(other.issue(user(1, "a@test.com", User.Role.ADMIN))));
+        assertNull(jwt.verify(token.substring(0, token.length() - 2) + "xx"));
+        assertNull(jwt.verify("not-a-jwt"));
+
+        assertTrue(jwt.revoke(token));
+        assertNull(jwt.verify(token));
+        assertFalse(jwt.revoke("not-a-jwt"));
+        assertEquals(1, jwt.revokedTokens());
+
+        // once the token would have expired anyway the revocation is dropped
+        now.addAndGet(TTL);
+        jwt.sweepExpired();
+        assertEquals(0, jwt.revokedTokens());
+    }
+
+    @Test
+    void cacheNeverHoldsMoreThanMaxEntries() {
+        JwtService jwt = new JwtService(SECRET, TTL, 10, now::get);
+        String[] tokens = new String[50];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = jwt.issue(user(i, "u" + i + "@test.com", User.Role.USER));
+            assertNotNull(jwt.verify(tokens[i]));
+        }
+        assertEquals(10, jwt.cachedTokens());
+        // evicted tokens are still valid — they are just verified again
+        assertEquals("u0@test.com", jwt.verify(tokens[0]).email());
+        assertEquals(10, jwt.cachedTokens());
+    }
+
+    private static User user(long id, String email, User.Role role) {
+        return User.builder().userId(id).email(email).role(role).build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.service.InMemoryOtpStore;
+import com.example.seatbooking.service.OtpStore.Result;
+import com.example.seatbooking.service.TokenBucketLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OtpStoreTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    @Test
+    void codesExpireAndAreSweptAway() {
+        InMemoryOtpStore store = new InMemoryOtpStore(100, 5, now::get);
+        store.put("a@test.com", "123456", Duration.ofMinutes(5));
+        store.put("b@test.com", "654321", Duration.ofMinutes(5));
+
+        assertEquals(Result.VALID, store.check("a@test.com", "123456"));
+        assertEquals(Result.MISSING, store.check("c@test.com", "123456"));
+
+        now.addAndGet(Duration.ofMinutes(5).toMillis());
+        assertEquals(Result.EXPIRED, store.check("a@test.com", "123456"));
+        // nobody asked for b again — the sweep still drops it
+        store.sweepExpired();
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void wrongGuessesLockTheCode() {
+        InMemoryOtpStore store = new InMemoryOtpStore(100, 3, now::get);
+        store.put("a@test.com", "123456", Duration.ofMinutes(5));
+
+        assertEquals(Result.INVALID, store.check("a@test.com", "000000"));
+        assertEquals(Result.INVALID, store.check("a@test.com", null));
+        assertEquals(Result.LOCKED, store.check("a@test.com", "111111"));
+        // even the right code is gone now
+        assertEquals(Result.MISSING, store.check("a@test.com", "123456"));
+
+        // a new code starts with fresh attempts
+        store.put("a@test.com", "222222", Duration.ofMinutes(5));
+        assertEquals(Result.INVALID, store.check("a@test.com", "123456"));
+        assertEquals(Result.VALID, store.check("a@test.com", "222222"));
+    }
+
+    @Test
+    void sizeIsCappedOldestFirst() {
+        InMemoryOtpStore store = new InMemoryOtpStore(3, 5, now::get);
+        for (int i = 0; i < 5; i++) {
+            store.put("user" + i + "@test.com", "10000" + i, Duration.ofMinutes(5));
+            now.incrementAndGet();
+        }
+        // re-issuing a code doesn't let its old queue entry evict the new one
+        store.put("user3@test.com", "999999", Duration.ofMinutes(5));
+
+        assertEquals(3, store.size());
+        assertEquals(Result.MISSING, store.check("user0@test.com", "100000"));
+        assertEquals(Result.MISSING, store.check("user1@test.com", "100001"));
+        assertEquals(Result.VALID, store.check("user2@test.com", "100002"));
+        assertEquals(Result.VALID, store.check("user3@test.com", "999999"));
+        assertEquals(Result.VALID, store.check("user4@test.com", "100004"));
+    }
+
+    @Test
+    void bucketsRefillAndIdleOnesAreDropped() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 60_000, 2);
+        long t = now.get();
+
+        assertTrue(limiter.tryAcquire("a", t));
+        assertTrue(limiter.tryAcquire("a", t));
+        assertFalse(limiter.tryAcquire("a", t));
+        assertEquals(60_000, limiter.retryAfterMillis("a", t));
+        assertTrue(limiter.tryAcquire("a", t + 60_000));
+
+        // key limit reached, nothing idle to drop → a new key is refused
+        assertTrue(limiter.tryAcquire("b", t));
+        assertFalse(limiter.tryAcquire("c", t));
+        // two minutes later both are full again → swept, "c" gets in
+        assertTrue(limiter.tryAcquire("c", t + 180_000));
+        assertEquals(1, limiter.size());
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.entity.*;
+import com.example.seatbooking.repository.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ✅ SQL statement budget per endpoint
+// Every list below is seeded with several rows pointing at different users / screenings,
+// so an association that is not part of the endpoint's fetch plan shows up as extra SELECTs
+// (or as a LazyInitializationException while the response is written).
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private VenueRepository venueRepository;
+    @Autowired private EventsRepository eventsRepository;
+    @Autowired private ScreeningRepository screeningRepository;
+    @Autowired private SeatLayoutRepository seatLayoutRepository;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private BookingItemsRepository bookingItemsRepository;
+    @Autowired private AlertsRepository alertsRepository;
+    @Autowired private PaymentRepository paymentRepository;
+    @Autowired private CancellationRepository cancellationRepository;
+    @Autowired private SeatHoldRepository seatHoldRepository;
+
+    private Long userId;
+    private Long bookingId;
+
+    @BeforeAll
+    void seed() {
+        List<User> users = new ArrayList<>();
+        List<Screening> screenings = new ArrayList<>();
+        List<SeatLayout> seats = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            users.add(userRepository.save(User.builder()
+                    .name("User " + i).email("user" + i + "@test.com").password("secret")
+                    .role(User.Role.USER).build()));
+        }
+        for (int i = 0; i < 2; i++) {
+            Venue venue = venueRepository.save(Venue.builder()
+                    .venueName("Venue " + i).address("Main St").district("Colombo").region("West")
+                    .capacity(100).build());
+            Events event = eventsRepository.save(Events.builder()
+                    .organizer(users.get(i)).title("Event " + i).category("Movie").genre("Drama")
+                    .duration(120).language("English").showStatus(Events.ShowStatus.UPCOMING).build());
+            screenings.add(screeningRepository.save(Screening.builder()
+                    .event(event).venue(venue).screenDate(LocalDate.now().plusDays(1))
+                    .startTime(LocalTime.of(18, 0)).endTime(LocalTime.of(20, 0))
+                    .remainingSeats(100).status(Screening.Status.ACTIVE).build()));
+            for (int s = 1; s <= 2; s++) {
+                seats.add(seatLayoutRepository.save(SeatLayout.builder()
+                        .venue(venue).seatNo("A" + s).seatRow("A").seatCategory("GOLD")
+                        .ticketPrice(BigDecimal.TEN).build()));
+            }
+        }
+
+        for (int i = 0; i < 6; i++) {
+            User user = users.get(i % users.size());
+            Screening screening = screenings.get(i % screenings.size());
+            SeatLayout seat = seats.get(i % seats.size());
+
+            Booking booking = bookingRepository.save(Booking.builder()
+                    .user(user).screening(screening).refCode("REF" + i)
+                    .totalCost(BigDecimal.TEN).bookingStatus(Booking.BookingStatus.CONFIRMED).build());
+            bookingItemsRepository.save(BookingItems.builder()
+                    .booking(booking).seat(seat).price(BigDecimal.TEN)
+                    .status(BookingItems.Status.ACTIVE).build());
+            alertsRepository.save(Alerts.builder()
+                    .user(user).booking(booking).message("Booked").type("BOOKING").isRead(false).build());
+            paymentRepository.save(Payment.builder()
+                    .booking(booking).payMode("CARD").amount(BigDecimal.TEN)
+                    .status(Payment.Status.SUCCESS).referenceCode("PAY" + i).build());
+            cancellationRepository.save(Cancellation.builder()
+                    .booking(booking).user(user).reason("Changed plans").amount(BigDecimal.ONE)
+                    .status(Cancellation.Status.PENDING).build());
+            seatHoldRepository.save(SeatHold.builder()
+                    .seat(seat).userId(user.getUserId()).screeningId(screening.getScreeningId())
+                    .status(SeatHold.HoldStatus.CONFIRMED).heldAt(LocalDateTime.now())
+                    .expiresAt(LocalDateTime.now().plusMinutes(10)).build());
+
+            userId = user.getUserId();
+            bookingId = booking.getBookingId();
+        }
+    }
+
+    // ── Lists ───────────────────────────────────────────────
+
+    @Test
+    void bookings() throws Exception {
+        expectStatements("/api/bookings", 1)
+                .andExpect(jsonPath("$[0].user.name").exists())
+                .andExpect(jsonPath("$[0].screening.event.title").exists())
+                .andExpect(jsonPath("$[0].screening.venue.venueName").exists());
+        expectStatements("/api/bookings/user/" + userId, 1);
+        expectStatements("/api/bookings/" + bookingId, 1);
+    }
+
+    @Test
+    void bookingItems() throws Exception {
+        expectStatements("/api/booking-items", 1)
+                .andExpect(jsonPath("$[0].booking.user.name").exists())
+                .andExpect(jsonPath("$[0].seat.seatNo").exists());
+    }
+
+    @Test
+    void alerts() throws Exception {
+        expectStatements("/api/alerts", 1)
+                .andExpect(jsonPath("$[0].user.name").exists())
+                .andExpect(jsonPath("$[0].booking.refCode").exists());
+        expectStatements("/api/alerts/user/" + userId, 1);
+    }
+
+    @Test
+    void payments() throws Exception {
+        expectStatements("/api/payments", 1)
+                .andExpect(jsonPath("$[0].booking.user.name").exists());
+        expectStatements("/api/payments/user/" + userId, 1);
+    }
+
+    @Test
+    void cancellations() throws Exception {
+        expectStatements("/api/cancellations", 1)
+                .andExpect(jsonPath("$[0].userName").exists())
+                .andExpect(jsonPath("$[0].eventTitle").exists());
+    }
+
+    @Test
+    void screenings() throws Exception {
+        expectStatements("/api/screenings", 1)
+                .andExpect(jsonPath("$[0].event.organizer.name").exists())
+                .andExpect(jsonPath("$[0].venue.venueName").exists());
+        expectStatements("/api/screenings/status/ACTIVE", 1);
+    }
+
+    @Test
+    void eventsSeatsAndHolds() throws Exception {
+        expectStatements("/api/events", 1)
+                .andExpect(jsonPath("$[0].organizerName").exists());
+        expectStatements("/api/seats", 1)
+                .andExpect(jsonPath("$[0].venueName").exists());
+        expectStatements("/api/seat-holds", 1)
+                .andExpect(jsonPath("$[0].seat.seatNo").exists());
+    }
+
+    // ── Helpers ─────────────────────────────────────────────
+
+    private ResultActions expectStatements(String url, int budget) throws Exception {
+        SqlStatementCounter.reset();
+        ResultActions result = mockMvc.perform(get(url)).andExpect(status().isOk());
+        int used = SqlStatementCounter.count();
+        assertTrue(used <= budget,
+                "GET " + url + " issued " + used + " SQL statement(s), budget is " + budget);
+        return result;
+    }
+}
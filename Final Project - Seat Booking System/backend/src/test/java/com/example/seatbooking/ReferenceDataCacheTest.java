@@ -0,0 +1,191 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.dto.EventCreateDTO;
+import com.example.seatbooking.entity.*;
+import com.example.seatbooking.repository.*;
+import com.example.seatbooking.service.EventsService;
+import com.example.seatbooking.service.SeatLayoutService;
+import com.example.seatbooking.service.SeatStateEngine;
+import com.example.seatbooking.service.VenueService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ✅ Venue / SeatLayout / Events second-level + query cache: hits, explicit eviction, and the
+// native seat-state writes that must not wipe it
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReferenceDataCacheTest {
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private VenueRepository venueRepository;
+    @Autowired private EventsRepository eventsRepository;
+    @Autowired private ScreeningRepository screeningRepository;
+    @Autowired private SeatLayoutRepository seatLayoutRepository;
+    @Autowired private ScreeningSeatsRepository screeningSeatsRepository;
+
+    @Autowired private VenueService venueService;
+    @Autowired private SeatLayoutService seatLayoutService;
+    @Autowired private EventsService eventsService;
+    @Autowired private SeatStateEngine seatStateEngine;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private MeterRegistry meterRegistry;
+
+    private Long organizerId;
+    private Long venueId;
+    private Long eventId;
+    private Long screeningId;
+    private Long otherScreeningId;
+    private final List<Long> seatIds = new ArrayList<>();
+    private final List<Long> screeningSeatIds = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        User organizer = userRepository.save(User.builder()
+                .name("Cache Org").email("cache-org@test.com").password("secret").role(User.Role.ORGANIZER).build());
+        Venue venue = venueRepository.save(Venue.builder()
+                .venueName("Cache Hall").address("Main St").district("Colombo").region("West")
+                .capacity(2).build());
+        Events event = eventsRepository.save(Events.builder()
+                .organizer(organizer).title("Cached").category("Movie").genre("Drama")
+                .duration(120).language("English").showStatus(Events.ShowStatus.UPCOMING).build());
+        Screening screening = screeningRepository.save(Screening.builder()
+                .event(event).venue(venue).screenDate(LocalDate.now().plusDays(2))
+                .startTime(LocalTime.of(18, 0)).endTime(LocalTime.of(20, 0))
+                .remainingSeats(2).status(Screening.Status.ACTIVE).build());
+        for (int s = 0; s < 2; s++) {
+            SeatLayout seat = seatLayoutRepository.save(SeatLayout.builder()
+                    .venue(venue).seatNo("C" + s).seatRow("C").seatCategory("GOLD")
+                    .ticketPrice(BigDecimal.TEN).build());
+            seatIds.add(seat.getSeatId());
+            screeningSeatIds.add(screeningSeatsRepository.save(ScreeningSeats.builder()
+                    .screening(screening).seat(seat).price(BigDecimal.TEN)
+                    .availability(ScreeningSeats.Availability.AVAILABLE).build()).getScreeningSeatsId());
+        }
+        Venue otherVenue = venueRepository.save(Venue.builder()
+                .venueName("Other Hall").address("Main St").district("Colombo").region("West")
+                .capacity(0).build());
+        Screening other = screeningRepository.save(Screening.builder()
+                .event(event).venue(otherVenue).screenDate(LocalDate.now().plusDays(2))
+                .startTime(LocalTime.of(18, 0)).endTime(LocalTime.of(20, 0))
+                .remainingSeats(0).status(Screening.Status.ACTIVE).build());
+        organizerId = organizer.getUserId();
+        venueId = venue.getVenueId();
+        eventId = event.getEventId();
+        screeningId = screening.getScreeningId();
+        otherScreeningId = other.getScreeningId();
+    }
+
+    @Test
+    void repeatedReferenceReadsIssueNoSql() {
+        venueRepository.findById(venueId);
+        seatLayoutRepository.findByVenue_VenueId(venueId);
+        seatLayoutRepository.countByVenue_VenueId(venueId);
+        eventsRepository.findByCategory("Movie");
+        double venueHits = requests("hibernate.second.level.cache.requests", "hit");
+        double queryHits = requests("hibernate.cache.query.requests", "hit");
+
+        SqlStatementCounter.reset();
+        assertTrue(venueRepository.findById(venueId).isPresent());
+        assertEquals(2, seatLayoutRepository.findByVenue_VenueId(venueId).size());
+        assertEquals(2, seatLayoutRepository.countByVenue_VenueId(venueId));
+        assertFalse(eventsRepository.findByCategory("Movie").isEmpty());
+
+        assertEquals(0, SqlStatementCounter.count());
+        assertTrue(requests("hibernate.second.level.cache.requests", "hit") > venueHits);
+        assertTrue(requests("hibernate.cache.query.requests", "hit") >= queryHits + 3);
+    }
+
+    @Test
+    void serviceWritesEvictAndTheNextReadSeesThem() {
+        Cache cache = entityManagerFactory.getCache();
+        venueRepository.findById(venueId);
+        seatLayoutRepository.findByVenue_VenueId(venueId);
+        assertTrue(cache.contains(Venue.class, venueId));
+
+        Venue renamed = venueRepository.findById(venueId).orElseThrow();
+        renamed.setVenueName("Cache Hall Renamed");
+        venueService.updateVenue(venueId, renamed);
+        assertFalse(cache.contains(Venue.class, venueId));
+        assertEquals("Cache Hall Renamed", venueRepository.findById(venueId).orElseThrow().getVenueName());
+        // cached seat lists carry their venue — they were dropped with it
+        assertTrue(seatLayoutRepository.findByVenue_VenueId(venueId).stream()
+                .allMatch(seat -> seat.getVenue().getVenueName().equals("Cache Hall Renamed")));
+
+        Long seatId = seatIds.get(0);
+        SeatLayout seat = seatLayoutRepository.findById(seatId).orElseThrow();
+        seat.setTicketPrice(new BigDecimal("25.00"));
+        seatLayoutService.updateSeat(seatId, seat);
+        assertEquals(0, new BigDecimal("25.00").compareTo(seatLayoutRepository.findByVenue_VenueId(venueId).stream()
+                .filter(s -> s.getSeatId().equals(seatId)).findFirst().orElseThrow().getTicketPrice()));
+
+        eventsRepository.findByCategory("Movie");
+        eventsService.updateEvent(eventId, EventCreateDTO.builder()
+                .organizerId(organizerId).title("Cached").category("Concert").genre("Drama")
+                .duration(90).language("English").showStatus("UPCOMING").build());
+        assertTrue(eventsRepository.findByCategory("Movie").stream().noneMatch(e -> e.getEventId().equals(eventId)));
+        assertEquals(90, eventsRepository.findById(eventId).orElseThrow().getDuration());
+    }
+
+    @Test
+    void seatStateWritesLeaveTheReferenceCacheAlone() {
+        Cache cache = entityManagerFactory.getCache();
+        venueRepository.findById(venueId);
+        seatLayoutRepository.findById(seatIds.get(1));
+        assertTrue(cache.contains(Venue.class, venueId));
+        assertTrue(cache.contains(SeatLayout.class, seatIds.get(1)));
+
+        // the engine's write-behind flush: a native UPDATE on screening_seats only
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                screeningSeatsRepository.updateState(screeningSeatIds, "AVAILABLE", null, null));
+
+        assertTrue(cache.contains(Venue.class, venueId));
+        assertTrue(cache.contains(SeatLayout.class, seatIds.get(1)));
+    }
+
+    @Test
+    void layoutWritesReloadOnlyThatVenuesScreeningsAfterCommit() {
+        seatStateEngine.state(screeningId);
+        seatStateEngine.state(otherScreeningId);
+
+        SeatLayout added = seatLayoutService.createSeat(SeatLayout.builder()
+                .venue(venueRepository.getReferenceById(venueId)).seatNo("C9").seatRow("C").seatCategory("GOLD")
+                .ticketPrice(BigDecimal.TEN).build());
+        assertNull(seatStateEngine.peek(screeningId));
+        assertNotNull(seatStateEngine.peek(otherScreeningId));
+
+        seatStateEngine.state(screeningId);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            seatLayoutService.deleteSeat(added.getSeatId());
+            // not committed yet — a reload now would still read the seat
+            assertNotNull(seatStateEngine.peek(screeningId));
+        });
+        assertNull(seatStateEngine.peek(screeningId));
+        assertNotNull(seatStateEngine.peek(otherScreeningId));
+    }
+
+    // hibernate-micrometer publishes these as function counters, per region for the second-level cache
+    private double requests(String name, String result) {
+        return meterRegistry.find(name).tag("result", result).functionCounters().stream()
+                .mapToDouble(FunctionCounter::count).sum();
+    }
+}
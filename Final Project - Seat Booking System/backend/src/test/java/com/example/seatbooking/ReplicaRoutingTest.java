@@ -0,0 +1,187 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.config.ReplicaLagMonitor;
+import com.example.seatbooking.config.ReplicaRoutingDataSource;
+import com.example.seatbooking.entity.*;
+import com.example.seatbooking.repository.*;
+import com.example.seatbooking.service.EventsService;
+import com.example.seatbooking.service.SeatStateStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ✅ Two H2 databases, primary + "replica" — replication is a SCRIPT / RUNSCRIPT snapshot taken by
+// the test, so everything written after it is exactly what a lagging replica would not have yet
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReplicaRoutingTest {
+
+    private static final String REPLICA_URL =
+            "jdbc:h2:mem:replica-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.replica.url", () -> REPLICA_URL);
+        registry.add("spring.datasource.replica.max-lag-ms", () -> "60000");
+        // the test runs the checks itself
+        registry.add("spring.datasource.replica.lag-check-ms", () -> "3600000");
+    }
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private VenueRepository venueRepository;
+    @Autowired private EventsRepository eventsRepository;
+    @Autowired private ScreeningRepository screeningRepository;
+    @Autowired private SeatLayoutRepository seatLayoutRepository;
+    @Autowired private ScreeningSeatsRepository screeningSeatsRepository;
+
+    @Autowired private EventsService eventsService;
+    @Autowired private SeatStateStore seatStateStore;
+    @Autowired private ReplicaLagMonitor replicaLagMonitor;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired @Qualifier("primaryDataSource") private DataSource primaryDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private Path snapshot;
+
+    private User organizer;
+    private Events event;
+    private Venue venue;
+
+    @BeforeAll
+    void seed() throws IOException {
+        primary = new JdbcTemplate(primaryDataSource);
+        // admin connection of its own — the app's replica pool is read-only
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        snapshot = Files.createTempFile("replica-", ".sql");
+
+        organizer = userRepository.save(User.builder()
+                .name("Replica Org").email("replica-org@test.com").password("secret").role(User.Role.ORGANIZER).build());
+        venue = venueRepository.save(Venue.builder()
+                .venueName("Replica Hall").address("Main St").district("Colombo").region("West")
+                .capacity(3).build());
+        event = event("Replicated");
+    }
+
+    @AfterAll
+    void cleanUp() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Test
+    void onlyOptedInReadsUseTheReplica() {
+        replicate();
+        long usersAtSnapshot = userRepository.count();
+
+        userRepository.save(User.builder()
+                .name("Late").email("late-" + UUID.randomUUID() + "@test.com").password("secret").role(User.Role.USER).build());
+        Long lateEvent = event("Late Show").getEventId();
+        Screening screening = screeningWithSeats(19);
+        replicaLagMonitor.check();
+        assertTrue(replicaLagMonitor.replicaUsable());
+
+        // @ReadFromReplica listing → replica, which has not seen the new event
+        double replicaReads = routed(ReplicaRoutingDataSource.REPLICA, "read");
+        assertTrue(eventsService.getAllEvents().stream().noneMatch(e -> e.getEventId().equals(lateEvent)));
+        assertTrue(routed(ReplicaRoutingDataSource.REPLICA, "read") > replicaReads);
+
+        // a bare repository call runs in Spring Data's own readOnly transaction → still the primary
+        double notOptedIn = routed(ReplicaRoutingDataSource.PRIMARY, "default");
+        assertEquals(usersAtSnapshot + 1, userRepository.count());
+        assertTrue(routed(ReplicaRoutingDataSource.PRIMARY, "default") > notOptedIn);
+
+        // same read inside a read-write transaction → primary
+        Long onPrimary = new TransactionTemplate(transactionManager).execute(status -> userRepository.count());
+        assertEquals(usersAtSnapshot + 1, onPrimary);
+
+        // @ReadFromPrimary wins inside an opted-in call: the replica has no seats for this screening yet, the primary has 3
+        assertEquals(0, replica.queryForObject(
+                "SELECT COUNT(*) FROM screening_seats WHERE screening_id = ?", Integer.class, screening.getScreeningId()));
+        double fresh = routed(ReplicaRoutingDataSource.PRIMARY, "fresh");
+        assertEquals(3, ReplicaRoutingDataSource.onReplica(() -> seatStateStore.load(screening.getScreeningId())).size());
+        assertTrue(routed(ReplicaRoutingDataSource.PRIMARY, "fresh") > fresh);
+    }
+
+    @Test
+    void laggingReplicaSendsReadsBackToThePrimary() {
+        replicate();
+        Long laterEvent = event("Later Show").getEventId();
+
+        // replication stalled 10 minutes ago
+        replica.update("UPDATE replica_heartbeat SET beat_at = ?", System.currentTimeMillis() - 600_000);
+        replicaLagMonitor.check();
+
+        assertFalse(replicaLagMonitor.replicaUsable());
+        assertTrue(replicaLagMonitor.lagMillis() >= 600_000);
+        double lagging = routed(ReplicaRoutingDataSource.PRIMARY, "lagging");
+        assertTrue(eventsService.getAllEvents().stream().anyMatch(e -> e.getEventId().equals(laterEvent)));
+        assertTrue(routed(ReplicaRoutingDataSource.PRIMARY, "lagging") > lagging);
+
+        // caught up again → back to the replica
+        replicate();
+        replicaLagMonitor.check();
+        assertTrue(replicaLagMonitor.replicaUsable());
+    }
+
+    // ── Helpers ─────────────────────────────────────────────
+
+    // "replication": heartbeat stamped, then the whole primary copied over the replica
+    private void replicate() {
+        replicaLagMonitor.check();
+        primary.execute("SCRIPT TO '" + snapshot + "'");
+        replica.execute("DROP ALL OBJECTS");
+        replica.execute("RUNSCRIPT FROM '" + snapshot + "'");
+    }
+
+    private Events event(String title) {
+        return eventsRepository.save(Events.builder()
+                .organizer(organizer).title(title).category("Movie").genre("Drama")
+                .duration(120).language("English").showStatus(Events.ShowStatus.UPCOMING).build());
+    }
+
+    private Screening screeningWithSeats(int hour) {
+        Screening screening = screeningRepository.save(Screening.builder()
+                .event(event).venue(venue).screenDate(LocalDate.now().plusDays(3))
+                .startTime(LocalTime.of(hour, 0)).endTime(LocalTime.of(hour, 59))
+                .remainingSeats(3).status(Screening.Status.ACTIVE).build());
+        for (int s = 0; s < 3; s++) {
+            SeatLayout seat = seatLayoutRepository.save(SeatLayout.builder()
+                    .venue(venue).seatNo("R" + hour + "-" + s).seatRow("R").seatCategory("GOLD")
+                    .ticketPrice(BigDecimal.TEN).build());
+            screeningSeatsRepository.save(ScreeningSeats.builder()
+                    .screening(screening).seat(seat).price(seat.getTicketPrice())
+                    .availability(ScreeningSeats.Availability.AVAILABLE).build());
+        }
+        return screening;
+    }
+
+    private double routed(String pool, String reason) {
+        return meterRegistry.get(ReplicaRoutingDataSource.ROUTE).tag("pool", pool).tag("reason", reason)
+                .counter().count();
+    }
+}
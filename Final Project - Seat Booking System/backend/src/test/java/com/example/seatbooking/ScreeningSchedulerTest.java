@@ -0,0 +1,163 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.entity.*;
+import com.example.seatbooking.repository.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ✅ Recurring scheduler — a four-week run of 5 shows a day in one transaction, slots checked
+// against the venue's screenings (and each other) before anything is written; manual creates
+// take the same check
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ScreeningSchedulerTest {
+
+    private static final int SEATS = 100;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private VenueRepository venueRepository;
+    @Autowired private EventsRepository eventsRepository;
+    @Autowired private ScreeningRepository screeningRepository;
+    @Autowired private SeatLayoutRepository seatLayoutRepository;
+
+    private Events event;
+    private Venue venue;
+    private final LocalDate start = LocalDate.now().plusDays(10);
+
+    @BeforeAll
+    void seed() {
+        User organizer = userRepository.save(User.builder()
+                .name("Organizer").email("schedule@test.com").password("secret").role(User.Role.ORGANIZER).build());
+        venue = venueRepository.save(Venue.builder()
+                .venueName("Multiplex").address("Main St").district("Colombo").region("West")
+                .capacity(SEATS).build());
+        event = eventsRepository.save(Events.builder()
+                .organizer(organizer).title("Long Run").category("Movie").genre("Drama")
+                .duration(120).language("English").showStatus(Events.ShowStatus.UPCOMING).build());
+
+        List<SeatLayout> layout = new ArrayList<>();
+        for (int i = 0; i < SEATS; i++) {
+            layout.add(SeatLayout.builder().venue(venue)
+                    .seatNo("A" + i).seatRow("A").seatCategory("GOLD").ticketPrice(BigDecimal.TEN).build());
+        }
+        seatLayoutRepository.saveAll(layout);
+
+        // a private screening already in the hall on day 30, 13:00–15:00
+        screeningRepository.save(Screening.builder()
+                .event(event).venue(venue).screenDate(start.plusDays(30))
+                .startTime(LocalTime.of(13, 0)).endTime(LocalTime.of(15, 0))
+                .remainingSeats(SEATS).status(Screening.Status.ACTIVE).build());
+    }
+
+    @Test
+    void fourWeeksOfFiveShowsADay() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(post("/api/screenings/schedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request(start, start.plusDays(27), "\"10:00\",\"12:00\",\"14:30\",\"17:00\",\"21:00\"", null)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(28 * 5))
+                .andExpect(jsonPath("$.seats").value(28 * 5 * SEATS));
+        int statements = SqlStatementCounter.count();
+
+        // 140 screening INSERTs (IDENTITY), the rest per week — never per seat
+        assertTrue(statements < 28 * 5 + 40, "schedule used " + statements + " statements");
+        assertEquals(28 * 5 * SEATS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM screening_seats ss JOIN screening s ON s.screening_id = ss.screening_id " +
+                "WHERE s.screen_date BETWEEN ? AND ?", Integer.class, start, start.plusDays(27)));
+        // the 21:00 show runs until 23:00, the next day starts at 10:00
+        assertEquals(5, screeningRepository.findByEvent_EventIdAndScreenDate(event.getEventId(), start.plusDays(27)).size());
+    }
+
+    @Test
+    void clashWithAnExistingScreeningCreatesNothing() throws Exception {
+        long before = screeningRepository.count();
+        mockMvc.perform(post("/api/screenings/schedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request(start.plusDays(29), start.plusDays(31), "\"14:00\"", null)))
+                .andExpect(status().isConflict());
+        assertEquals(before, screeningRepository.count());
+    }
+
+    @Test
+    void overlappingStartTimesAreRejected() throws Exception {
+        // 3 h shows at 18:00 and 20:00 — the run clashes with itself
+        mockMvc.perform(post("/api/screenings/schedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request(start.plusDays(40), start.plusDays(40), "\"18:00\",\"20:00\"", 180)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void lateShowBlocksTheNextMorning() throws Exception {
+        // 23:00 + 3 h runs until 02:00 on day 51 — a 01:00 show that day clashes
+        mockMvc.perform(post("/api/screenings/schedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request(start.plusDays(50), start.plusDays(50), "\"23:00\"", 180)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/screenings/schedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request(start.plusDays(51), start.plusDays(51), "\"01:00\"", 60)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void manualScreeningsGoThroughTheSameCheck() throws Exception {
+        // the day-30 screening occupies 13:00–15:00
+        mockMvc.perform(post("/api/screenings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(screening(start.plusDays(30), "14:00", "16:00")))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/api/screenings/with-seats")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"screening\":" + screening(start.plusDays(30), "12:00", "13:30") + "}"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(post("/api/screenings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(screening(start.plusDays(30), "15:00", "17:00")))
+                .andExpect(status().isCreated());
+        // and a run over that evening now clashes with it
+        mockMvc.perform(post("/api/screenings/schedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request(start.plusDays(30), start.plusDays(30), "\"16:00\"", 60)))
+                .andExpect(status().isConflict());
+    }
+
+    private String screening(LocalDate date, String from, String to) {
+        return "{\"event\":{\"eventId\":" + event.getEventId() + "},\"venue\":{\"venueId\":" + venue.getVenueId()
+                + "},\"screenDate\":\"" + date + "\",\"startTime\":\"" + from + "\",\"endTime\":\"" + to
+                + "\",\"remainingSeats\":" + SEATS + ",\"status\":\"ACTIVE\"}";
+    }
+
+    private String request(LocalDate from, LocalDate to, String startTimes, Integer durationMinutes) {
+        return "{\"eventId\":" + event.getEventId() + ",\"venueId\":" + venue.getVenueId()
+                + ",\"startDate\":\"" + from + "\",\"endDate\":\"" + to + "\""
+                + ",\"startTimes\":[" + startTimes + "]"
+                + (durationMinutes != null ? ",\"durationMinutes\":" + durationMinutes : "") + "}";
+    }
+}
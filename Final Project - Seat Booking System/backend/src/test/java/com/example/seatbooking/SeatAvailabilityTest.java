@@ -0,0 +1,164 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.entity.*;
+import com.example.seatbooking.repository.*;
+import com.example.seatbooking.service.ScreeningSeatsService;
+import com.example.seatbooking.service.SeatHoldService;
+import com.example.seatbooking.service.SeatStateEngine;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ✅ Remaining-seat counters — moved by holds / releases / bookings, summarized for many
+// screenings / events in one call, written back to screening.remaining_seats
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SeatAvailabilityTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private VenueRepository venueRepository;
+    @Autowired private EventsRepository eventsRepository;
+    @Autowired private ScreeningRepository screeningRepository;
+    @Autowired private SeatLayoutRepository seatLayoutRepository;
+    @Autowired private ScreeningSeatsRepository screeningSeatsRepository;
+
+    @Autowired private SeatHoldService seatHoldService;
+    @Autowired private ScreeningSeatsService screeningSeatsService;
+    @Autowired private SeatStateEngine seatStateEngine;
+
+    private Long userId;
+    private Long eventId;
+    private Screening live;
+    private Screening cold;
+    private final List<SeatLayout> seats = new ArrayList<>();
+    private final List<ScreeningSeats> liveSeats = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        User user = userRepository.save(User.builder()
+                .name("Counter").email("counter@test.com").password("secret").role(User.Role.USER).build());
+        Venue venue = venueRepository.save(Venue.builder()
+                .venueName("Counter Hall").address("Main St").district("Colombo").region("West")
+                .capacity(4).build());
+        Events event = eventsRepository.save(Events.builder()
+                .organizer(user).title("Counted").category("Movie").genre("Drama")
+                .duration(120).language("English").showStatus(Events.ShowStatus.UPCOMING).build());
+        live = screening(event, venue, 18);
+        cold = screening(event, venue, 21);
+
+        for (int s = 0; s < 4; s++) {
+            SeatLayout seat = seatLayoutRepository.save(SeatLayout.builder()
+                    .venue(venue).seatNo("C" + s).seatRow("C").seatCategory(s < 2 ? "GOLD" : "SILVER")
+                    .ticketPrice(BigDecimal.TEN).build());
+            seats.add(seat);
+            liveSeats.add(screeningSeat(live, seat));
+            screeningSeat(cold, seat);
+        }
+        userId = user.getUserId();
+        eventId = event.getEventId();
+    }
+
+    @Test
+    void countersFollowEveryTransition() throws Exception {
+        seatStateEngine.state(live.getScreeningId());
+
+        // hold two GOLD seats, book one SILVER seat
+        seatHoldService.holdSeats(live.getScreeningId(), userId, List.of(seats.get(0).getSeatId(), seats.get(1).getSeatId()));
+        screeningSeatsService.updateAvailability(liveSeats.get(2).getScreeningSeatsId(), ScreeningSeats.Availability.BOOKED);
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/screenings/availability").param("ids", live.getScreeningId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].totalSeats").value(4))
+                .andExpect(jsonPath("$[0].remainingSeats").value(1))
+                .andExpect(jsonPath("$[0].remainingByCategory.GOLD").value(0))
+                .andExpect(jsonPath("$[0].remainingByCategory.SILVER").value(1));
+        assertEquals(0, SqlStatementCounter.count());
+
+        // release the holds → both GOLD seats are back
+        seatHoldService.releaseHoldsForUser(userId, live.getScreeningId());
+        assertEquals(3, seatStateEngine.peek(live.getScreeningId()).available());
+
+        seatStateEngine.flushRemaining();
+        assertEquals(3, screeningRepository.findById(live.getScreeningId()).orElseThrow().getRemainingSeats());
+    }
+
+    @Test
+    void coldScreeningsAreCountedInOneQuery() throws Exception {
+        assertNull(seatStateEngine.peek(cold.getScreeningId()));
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/screenings/availability").param("ids", cold.getScreeningId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].totalSeats").value(4))
+                .andExpect(jsonPath("$[0].remainingSeats").value(4))
+                .andExpect(jsonPath("$[0].remainingByCategory.SILVER").value(2));
+        assertEquals(1, SqlStatementCounter.count());
+        assertNull(seatStateEngine.peek(cold.getScreeningId()));
+    }
+
+    @Test
+    void eventTotalsAddUpItsScreenings() throws Exception {
+        int liveLeft = seatStateEngine.state(live.getScreeningId()).available();
+        mockMvc.perform(get("/api/screenings/availability/events").param("ids", eventId.toString(), "999999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['" + eventId + "']").value(liveLeft + 4))
+                .andExpect(jsonPath("$['999999']").value(0));
+    }
+
+    @Test
+    void onlyActiveScreeningsAreLoadedAndInactiveOnesAreDropped() {
+        ResponseStatusException missing = assertThrows(ResponseStatusException.class,
+                () -> seatStateEngine.state(999_999L));
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+
+        Screening ending = screening(live.getEvent(), live.getVenue(), 9);
+        seatStateEngine.state(ending.getScreeningId());
+        ending.setStatus(Screening.Status.COMPLETED);
+        screeningRepository.save(ending);
+
+        // still loaded until the sweep notices, and nothing loads it again afterwards
+        assertNotNull(seatStateEngine.peek(ending.getScreeningId()));
+        assertTrue(seatStateEngine.evictIdle() >= 1);
+        assertNull(seatStateEngine.peek(ending.getScreeningId()));
+        assertNotNull(seatStateEngine.peek(live.getScreeningId()));
+        ResponseStatusException inactive = assertThrows(ResponseStatusException.class,
+                () -> seatStateEngine.state(ending.getScreeningId()));
+        assertEquals(HttpStatus.CONFLICT, inactive.getStatusCode());
+    }
+
+    private Screening screening(Events event, Venue venue, int hour) {
+        return screeningRepository.save(Screening.builder()
+                .event(event).venue(venue).screenDate(LocalDate.now().plusDays(2))
+                .startTime(LocalTime.of(hour, 0)).endTime(LocalTime.of(hour + 2, 0))
+                .remainingSeats(4).status(Screening.Status.ACTIVE).build());
+    }
+
+    private ScreeningSeats screeningSeat(Screening screening, SeatLayout seat) {
+        return screeningSeatsRepository.save(ScreeningSeats.builder()
+                .screening(screening).seat(seat).price(BigDecimal.TEN)
+                .availability(ScreeningSeats.Availability.AVAILABLE).build());
+    }
+}
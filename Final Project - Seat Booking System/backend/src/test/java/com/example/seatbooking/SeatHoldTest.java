@@ -0,0 +1,162 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.entity.*;
+import com.example.seatbooking.repository.*;
+import com.example.seatbooking.service.ScreeningSeatState;
+import com.example.seatbooking.service.SeatHoldService;
+import com.example.seatbooking.service.SeatStateEngine;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ✅ Multi-seat hold — memory decides, one conditional UPDATE claims the rows; a short claim
+// rolls the whole hold back
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SeatHoldTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private VenueRepository venueRepository;
+    @Autowired private EventsRepository eventsRepository;
+    @Autowired private ScreeningRepository screeningRepository;
+    @Autowired private SeatLayoutRepository seatLayoutRepository;
+    @Autowired private ScreeningSeatsRepository screeningSeatsRepository;
+    @Autowired private SeatHoldRepository seatHoldRepository;
+
+    @Autowired private SeatHoldService seatHoldService;
+    @Autowired private SeatStateEngine seatStateEngine;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private User holder;
+    private User bystander;
+    private Long userId;
+    private Long screeningId;
+    private final List<Long> seatIds = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        User user = userRepository.save(User.builder()
+                .name("Holder").email("holder@test.com").password("secret").role(User.Role.USER).build());
+        holder = user;
+        bystander = userRepository.save(User.builder()
+                .name("Bystander").email("bystander@test.com").password("secret").role(User.Role.USER).build());
+        Venue venue = venueRepository.save(Venue.builder()
+                .venueName("Hold Hall").address("Main St").district("Colombo").region("West")
+                .capacity(4).build());
+        Events event = eventsRepository.save(Events.builder()
+                .organizer(user).title("Held").category("Movie").genre("Drama")
+                .duration(120).language("English").showStatus(Events.ShowStatus.UPCOMING).build());
+        Screening screening = screeningRepository.save(Screening.builder()
+                .event(event).venue(venue).screenDate(LocalDate.now().plusDays(2))
+                .startTime(LocalTime.of(18, 0)).endTime(LocalTime.of(20, 0))
+                .remainingSeats(4).status(Screening.Status.ACTIVE).build());
+        for (int s = 0; s < 4; s++) {
+            SeatLayout seat = seatLayoutRepository.save(SeatLayout.builder()
+                    .venue(venue).seatNo("H" + s).seatRow("H").seatCategory("GOLD")
+                    .ticketPrice(BigDecimal.TEN).build());
+            seatIds.add(seat.getSeatId());
+            screeningSeatsRepository.save(ScreeningSeats.builder()
+                    .screening(screening).seat(seat).price(BigDecimal.TEN)
+                    .availability(ScreeningSeats.Availability.AVAILABLE).build());
+        }
+        userId = user.getUserId();
+        screeningId = screening.getScreeningId();
+    }
+
+    @Test
+    void aShortClaimRollsTheWholeHoldBack() {
+        seatStateEngine.state(screeningId);
+        long holdsBefore = seatHoldRepository.count();
+
+        // another instance booked seat 3 — this one's memory still says AVAILABLE
+        jdbcTemplate.update("UPDATE screening_seats SET availability = 'BOOKED' WHERE screening_id = ? AND seat_id = ?",
+                screeningId, seatIds.get(3));
+
+        ResponseStatusException conflict = assertThrows(ResponseStatusException.class,
+                () -> seatHoldService.holdSeats(screeningId, userId, List.of(seatIds.get(2), seatIds.get(3))));
+        assertEquals(HttpStatus.CONFLICT, conflict.getStatusCode());
+
+        // no hold rows, seat 2 free in the DB, seat 3 still BOOKED there (the revert writes nothing)
+        seatStateEngine.flush();
+        assertEquals(holdsBefore, seatHoldRepository.count());
+        assertEquals("AVAILABLE", availability(seatIds.get(2)));
+        assertEquals("BOOKED", availability(seatIds.get(3)));
+
+        // and memory was reloaded from those rows
+        assertEquals(ScreeningSeats.Availability.AVAILABLE, seat(2));
+        assertEquals(ScreeningSeats.Availability.BOOKED, seat(3));
+        assertEquals(3, seatStateEngine.state(screeningId).available());
+    }
+
+    @Test
+    void oneRequestHoldsAtMostTenSeats() throws Exception {
+        String eleven = LongStream.range(0, 11).mapToObj(Long::toString).collect(Collectors.joining(","));
+        mockMvc.perform(post("/api/screening-seats/screening/" + screeningId + "/hold")
+                        .principal(holder::getEmail)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"seatIds\":[" + eleven + "]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void holdsBelongToTheCallerNotTheBody() throws Exception {
+        mockMvc.perform(post("/api/screening-seats/screening/" + screeningId + "/hold")
+                        .principal(holder::getEmail)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":" + bystander.getUserId() + ",\"seatIds\":[" + seatIds.get(0) + "]}"))
+                .andExpect(status().isOk());
+
+        assertEquals(1, seatHoldRepository.findByUserIdAndScreeningIdAndStatus(
+                userId, screeningId, SeatHold.HoldStatus.HELD).size());
+        assertTrue(seatHoldRepository.findByUserIdAndScreeningIdAndStatus(
+                bystander.getUserId(), screeningId, SeatHold.HoldStatus.HELD).isEmpty());
+
+        // the held-by-user lookup reads the engine, not screening_seats rows
+        mockMvc.perform(get("/api/screening-seats/held/user/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].seatId").value(seatIds.get(0)))
+                .andExpect(jsonPath("$[0].availability").value("HELD"));
+        mockMvc.perform(get("/api/screening-seats/held/user/" + bystander.getUserId()))
+                .andExpect(jsonPath("$.length()").value(0));
+        seatHoldService.releaseHoldsForUser(userId, screeningId);
+    }
+
+    private String availability(Long seatId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT availability FROM screening_seats WHERE screening_id = ? AND seat_id = ?",
+                String.class, screeningId, seatId);
+    }
+
+    private ScreeningSeats.Availability seat(int index) {
+        ScreeningSeatState state = seatStateEngine.state(screeningId);
+        return state.availability(state.ordinalOfSeat(seatIds.get(index)));
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.entity.*;
+import com.example.seatbooking.repository.*;
+import com.example.seatbooking.service.SeatHoldService;
+import com.example.seatbooking.service.SeatMapBroadcaster;
+import com.example.seatbooking.service.ScreeningSeatsService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ✅ Live seat map — snapshot first, then batched deltas for holds / releases / bookings;
+// the plain GET is served from the versioned snapshot cache with ETag / 304
+@SpringBootTest(properties = {"seat.stream.batch-ms=50", "seat.stream.max-per-screening=2"})
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SeatMapStreamTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private VenueRepository venueRepository;
+    @Autowired private EventsRepository eventsRepository;
+    @Autowired private ScreeningRepository screeningRepository;
+    @Autowired private SeatLayoutRepository seatLayoutRepository;
+    @Autowired private ScreeningSeatsRepository screeningSeatsRepository;
+
+    @Autowired private ScreeningSeatsService screeningSeatsService;
+    @Autowired private SeatHoldService seatHoldService;
+    @Autowired private SeatMapBroadcaster seatMapBroadcaster;
+
+    private Long userId;
+    private Long screeningId;
+    private Long cappedScreeningId;
+    private Long completedScreeningId;
+    private final List<SeatLayout> seats = new ArrayList<>();
+    private final List<ScreeningSeats> screeningSeats = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        User user = userRepository.save(User.builder()
+                .name("Watcher").email("stream@test.com").password("secret").role(User.Role.USER).build());
+        Venue venue = venueRepository.save(Venue.builder()
+                .venueName("Stream Hall").address("Main St").district("Colombo").region("West")
+                .capacity(100).build());
+        Events event = eventsRepository.save(Events.builder()
+                .organizer(user).title("Live").category("Movie").genre("Drama")
+                .duration(120).language("English").showStatus(Events.ShowStatus.UPCOMING).build());
+        Screening screening = screeningRepository.save(Screening.builder()
+                .event(event).venue(venue).screenDate(LocalDate.now().plusDays(1))
+                .startTime(LocalTime.of(18, 0)).endTime(LocalTime.of(20, 0))
+                .remainingSeats(100).status(Screening.Status.ACTIVE).build());
+        for (int s = 1; s <= 3; s++) {
+            SeatLayout seat = seatLayoutRepository.save(SeatLayout.builder()
+                    .venue(venue).seatNo("S" + s).seatRow("S").seatCategory("GOLD")
+                    .ticketPrice(BigDecimal.TEN).build());
+            seats.add(seat);
+            screeningSeats.add(screeningSeatsRepository.save(ScreeningSeats.builder()
+                    .screening(screening).seat(seat).price(BigDecimal.TEN)
+                    .availability(ScreeningSeats.Availability.AVAILABLE).build()));
+        }
+        userId = user.getUserId();
+        screeningId = screening.getScreeningId();
+        cappedScreeningId = screeningRepository.save(Screening.builder()
+                .event(event).venue(venue).screenDate(LocalDate.now().plusDays(1))
+                .startTime(LocalTime.of(21, 0)).endTime(LocalTime.of(23, 0))
+                .remainingSeats(0).status(Screening.Status.ACTIVE).build()).getScreeningId();
+
+        Screening completed = screeningRepository.save(Screening.builder()
+                .event(event).venue(venue).screenDate(LocalDate.now().minusDays(1))
+                .startTime(LocalTime.of(18, 0)).endTime(LocalTime.of(20, 0))
+                .remainingSeats(3).status(Screening.Status.COMPLETED).build());
+        for (SeatLayout seat : seats) {
+            screeningSeatsRepository.save(ScreeningSeats.builder()
+                    .screening(completed).seat(seat).price(BigDecimal.TEN)
+                    .availability(ScreeningSeats.Availability.AVAILABLE).build());
+        }
+        completedScreeningId = completed.getScreeningId();
+    }
+
+    @Test
+    void snapshotThenCoalescedDeltas() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/screening-seats/screening/" + screeningId + "/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = result.getResponse();
+
+        await(response, body -> body.contains("event:snapshot") && body.contains("\"seatNo\":\"S3\""));
+        assertEquals(1, seatMapBroadcaster.watcherCount(screeningId));
+
+        // hold two seats, then release + book → each seat's latest state shows up in a delta
+        seatHoldService.holdSeats(screeningId, userId, List.of(seats.get(0).getSeatId(), seats.get(1).getSeatId()));
+        await(response, body -> body.contains("event:delta")
+                && body.contains("\"seatId\":" + seats.get(1).getSeatId() + ",\"availability\":\"HELD\""));
+
+        seatHoldService.releaseHoldsForUser(userId, screeningId);
+        screeningSeatsService.updateAvailability(screeningSeats.get(2).getScreeningSeatsId(),
+                ScreeningSeats.Availability.BOOKED);
+        await(response, body -> body.contains("\"seatId\":" + seats.get(0).getSeatId() + ",\"availability\":\"AVAILABLE\"")
+                && body.contains("\"seatId\":" + seats.get(2).getSeatId() + ",\"availability\":\"BOOKED\""));
+
+        // deltas are compact — no seat numbers / prices after the snapshot
+        String deltas = response.getContentAsString();
+        deltas = deltas.substring(deltas.indexOf("event:delta"));
+        assertFalse(deltas.contains("seatNo"));
+    }
+
+    @Test
+    void streamsPerScreeningAreCapped() throws Exception {
+        String url = "/api/screening-seats/screening/" + cappedScreeningId + "/stream";
+        mockMvc.perform(get(url)).andExpect(request().asyncStarted());
+        mockMvc.perform(get(url)).andExpect(request().asyncStarted());
+
+        mockMvc.perform(get(url)).andExpect(status().isServiceUnavailable());
+        assertEquals(2, seatMapBroadcaster.watcherCount(cappedScreeningId));
+    }
+
+    @Test
+    void aFailedSnapshotGivesTheSlotBack() throws Exception {
+        long unknown = 999_999_999L;
+        int open = seatMapBroadcaster.watcherCount();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/screening-seats/screening/" + unknown + "/stream"))
+                    .andExpect(status().isNotFound());
+        }
+        assertEquals(0, seatMapBroadcaster.watcherCount(unknown));
+        assertEquals(open, seatMapBroadcaster.watcherCount());
+    }
+
+    @Test
+    void seatMapIsCachedPerVersion() throws Exception {
+        String url = "/api/screening-seats/screening/" + screeningId;
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // unchanged → 304, and not a single SQL statement
+        SqlStatementCounter.reset();
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(get(url)).andExpect(status().isOk()).andExpect(header().string(HttpHeaders.ETAG, etag));
+        assertEquals(0, SqlStatementCounter.count());
+
+        // any seat transition → new version, new ETag, fresh body
+        ScreeningSeats seat = screeningSeats.get(2);
+        screeningSeatsService.updateAvailability(seat.getScreeningSeatsId(), ScreeningSeats.Availability.BOOKED);
+        String changed = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.screeningSeatsId == " + seat.getScreeningSeatsId()
+                        + ")].availability").value("BOOKED"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void pastScreeningsStayViewableButDoNotStream() throws Exception {
+        String url = "/api/screening-seats/screening/" + completedScreeningId;
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+        mockMvc.perform(get(url + "/available"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+        mockMvc.perform(get(url + "/stream")).andExpect(status().isConflict());
+        mockMvc.perform(get("/api/screening-seats/screening/999999999")).andExpect(status().isNotFound());
+    }
+
+    private static void await(MockHttpServletResponse response, Predicate<String> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.test(response.getContentAsString())) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        fail("Stream never got there:\n" + response.getContentAsString());
+    }
+}
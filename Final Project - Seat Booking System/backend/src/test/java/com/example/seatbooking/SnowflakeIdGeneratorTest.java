@@ -0,0 +1,75 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.service.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void idsAreUniqueAndIncreasingAcrossThreads() throws Exception {
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.forNode(7);
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(pool.submit(() -> {
+                long previous = -1;
+                for (int i = 0; i < 50_000; i++) {
+                    long id = generator.nextId();
+                    // increasing per caller, unique overall
+                    if (id <= previous || !seen.add(id)) {
+                        return false;
+                    }
+                    previous = id;
+                }
+                return true;
+            }));
+        }
+        for (Future<Boolean> worker : workers) {
+            assertTrue(worker.get());
+        }
+        pool.shutdown();
+        assertEquals(8 * 50_000, seen.size());
+    }
+
+    @Test
+    void idCarriesNodeAndTime() {
+        long before = System.currentTimeMillis();
+        long id = SnowflakeIdGenerator.forNode(42).nextId();
+
+        assertEquals(42, SnowflakeIdGenerator.nodeOf(id));
+        assertTrue(SnowflakeIdGenerator.timestampOf(id) >= before);
+        assertSame(SnowflakeIdGenerator.forNode(42), SnowflakeIdGenerator.forNode(42));
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIdGenerator.forNode(SnowflakeIdGenerator.MAX_NODE + 1));
+    }
+
+    @Test
+    void codesRoundTripAndSortLikeTheIds() {
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.forNode(1);
+        String previous = "";
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            String code = SnowflakeIdGenerator.encode(id);
+            assertEquals(13, code.length());
+            assertEquals(id, SnowflakeIdGenerator.decode(code));
+            assertTrue(code.compareTo(previous) > 0);
+            previous = code;
+        }
+        assertEquals("7ZZZZZZZZZZZZ", SnowflakeIdGenerator.encode(Long.MAX_VALUE));
+        // Crockford: case-insensitive, O/I/L read as 0/1/1
+        assertEquals(32, SnowflakeIdGenerator.decode("0000000000010"));
+        assertEquals(32, SnowflakeIdGenerator.decode("OOOOOOOOOOOlo"));
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIdGenerator.decode("BK-123"));
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIdGenerator.decode("0000000000U00"));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.seatbooking;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// ✅ Counts the SQL statements Hibernate prepares on the current thread
+// Registered through hibernate.session_factory.statement_inspector in application-test.properties.
+// Per thread, so the engine's scheduled flushes do not show up in a request's count.
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Integer> COUNT = ThreadLocal.withInitial(() -> 0);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.set(COUNT.get() + 1);
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.set(0);
+    }
+
+    public static int count() {
+        return COUNT.get();
+    }
+}
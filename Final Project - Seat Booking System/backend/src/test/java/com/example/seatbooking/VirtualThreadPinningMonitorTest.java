@@ -0,0 +1,46 @@
+package com.example.seatbooking;
+
+import com.example.seatbooking.config.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final Object monitor = new Object();
+
+    @Test
+    void sleepingInsideSynchronizedIsReportedWithItsSite() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor pinningMonitor = new VirtualThreadPinningMonitor(registry, 10);
+        pinningMonitor.start();
+        try {
+            Thread.ofVirtual().start(this::sleepWhileHoldingMonitor).join();
+
+            // JFR hands events to the stream about once a second
+            Timer pinned = null;
+            for (int i = 0; i < 100 && pinned == null; i++) {
+                Thread.sleep(100);
+                pinned = registry.find(VirtualThreadPinningMonitor.PINNED).timer();
+            }
+            assertNotNull(pinned, "no jdk.VirtualThreadPinned event arrived");
+            assertEquals(1, pinned.count());
+            assertEquals(VirtualThreadPinningMonitorTest.class.getName() + ".sleepWhileHoldingMonitor",
+                    pinned.getId().getTag("site"));
+        } finally {
+            pinningMonitor.stop();
+        }
+    }
+
+    private void sleepWhileHoldingMonitor() {
+        synchronized (monitor) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.seatbooking.service;
+
+import com.example.seatbooking.entity.ScreeningSeats.Availability;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// same package as the state — load / close / drainDirty are the engine's, not public API
+class ScreeningSeatStateTest {
+
+    @Test
+    void transitionsFollowTheSeatLifecycle() {
+        ScreeningSeatState state = state("GOLD", "GOLD", "SILVER");
+
+        assertTrue(state.tryHold(0, 7L, 5_000L));
+        assertFalse(state.tryHold(0, 8L, 5_000L));
+        assertEquals(Availability.HELD, state.availability(0));
+        assertEquals(7L, state.holder(0));
+
+        // only the holder books
+        assertFalse(state.tryBook(0, 8L));
+        assertTrue(state.tryBook(0, 7L));
+        assertEquals(Availability.BOOKED, state.availability(0));
+        assertEquals(0L, state.holdTill(0));
+        assertFalse(state.releaseHeld(0));
+
+        // checkout rolled back → held again with the old deadline
+        assertTrue(state.unbook(0, 7L, 5_000L));
+        assertEquals(Availability.HELD, state.availability(0));
+        assertEquals(5_000L, state.holdTill(0));
+
+        assertFalse(state.releaseIfExpired(0, 4_999L));
+        assertTrue(state.releaseIfExpired(0, 5_000L));
+        assertEquals(Availability.AVAILABLE, state.availability(0));
+        assertEquals(0L, state.holder(0));
+    }
+
+    @Test
+    void reHoldWithALaterDeadlineSurvivesTheOldTimeout() {
+        ScreeningSeatState state = state("GOLD");
+        assertTrue(state.tryHold(0, 7L, 1_000L));
+        assertTrue(state.releaseHeld(0));
+        assertTrue(state.tryHold(0, 8L, 9_000L));
+
+        assertFalse(state.releaseIfExpired(0, 1_000L));
+        assertFalse(state.releaseIfNotExtended(0, 1_000L));
+        assertEquals(8L, state.holder(0));
+    }
+
+    @Test
+    void aStaleReleaseLeavesTheNextHolderAlone() {
+        ScreeningSeatState state = state("GOLD");
+        assertTrue(state.tryHold(0, 7L, 1_000L));
+        assertTrue(state.releaseIfExpired(0, 1_000L));
+        assertTrue(state.tryHold(0, 8L, 9_000L));
+
+        // user 7's hold row still says HELD — letting go of it must not free user 8's seat
+        assertFalse(state.releaseHeldBy(0, 7L));
+        assertEquals(8L, state.holder(0));
+        assertTrue(state.releaseHeldBy(0, 8L));
+        assertEquals(Availability.AVAILABLE, state.availability(0));
+    }
+
+    @Test
+    void holderIdsMustFitTheWord() {
+        ScreeningSeatState state = state("GOLD");
+        assertThrows(IllegalArgumentException.class, () -> state.tryHold(0, 1L << 32, 5_000L));
+        assertEquals(Availability.AVAILABLE, state.availability(0));
+        assertTrue(state.tryHold(0, 0xFFFF_FFFFL, 5_000L));
+        assertEquals(0xFFFF_FFFFL, state.holder(0));
+    }
+
+    @Test
+    void aNewHoldNeverShowsTheLastHoldsDeadline() {
+        ScreeningSeatState state = state("GOLD");
+        assertTrue(state.tryHold(0, 7L, 1_000L));
+        assertTrue(state.releaseHeldBy(0, 7L));
+        assertEquals(0L, state.holdTill(0));
+
+        assertTrue(state.tryHold(0, 8L, 9_000L));
+        assertEquals(9_000L, state.holdTill(0));
+        // the sweep for user 7's old row finds a live deadline, not an expired or missing one
+        assertFalse(state.releaseIfNotExtended(0, 1_000L));
+        assertFalse(state.releaseIfExpired(0, 1_000L));
+    }
+
+    @Test
+    void countersAndVersionMoveWithEveryTransition() {
+        ScreeningSeatState state = state("GOLD", "GOLD", "SILVER");
+        state.load(2, Availability.BOOKED, 3L, 0L);
+        assertEquals(2, state.available());
+        assertEquals(Map.of("GOLD", 2, "SILVER", 0), state.availableByCategory());
+
+        long version = state.version();
+        state.tryHold(0, 7L, 5_000L);
+        assertEquals(1, state.available());
+        assertEquals(1, state.availableByCategory().get("GOLD"));
+        assertTrue(state.version() > version);
+
+        // HELD → BOOKED leaves the count alone, BOOKED → AVAILABLE gives the seat back
+        state.tryBook(0, 7L);
+        assertEquals(1, state.available());
+        assertTrue(state.set(2, Availability.AVAILABLE));
+        assertEquals(2, state.available());
+        assertEquals(1, state.availableByCategory().get("SILVER"));
+
+        // a lost CAS changes nothing
+        version = state.version();
+        assertFalse(state.tryHold(0, 9L, 5_000L));
+        assertEquals(version, state.version());
+    }
+
+    @Test
+    void writeBehindQueuesEachSeatOnce() {
+        ScreeningSeatState state = state("GOLD", "GOLD");
+        state.tryHold(0, 7L, 5_000L);
+        state.releaseHeld(0);
+        state.tryHold(0, 7L, 5_000L);
+        // not written behind — the caller claims the row itself
+        state.tryHold(1, 7L, 5_000L, false);
+
+        assertEquals(List.of(0), state.drainDirty());
+        assertFalse(state.hasDirty());
+    }
+
+    @Test
+    void aClosedStateRefusesEveryTransition() {
+        ScreeningSeatState state = state("GOLD", "GOLD");
+        state.tryHold(0, 7L, 5_000L);
+        state.drainDirty();
+        long version = state.version();
+
+        state.close();
+
+        assertTrue(state.isClosed());
+        assertFalse(state.tryHold(1, 7L, 5_000L));
+        assertFalse(state.tryBook(0, 7L));
+        assertFalse(state.releaseHeld(0));
+        assertFalse(state.releaseIfExpired(0, 10_000L));
+        assertFalse(state.releaseIfNotExtended(0, 10_000L));
+        assertFalse(state.set(1, Availability.BOOKED));
+        assertEquals(version, state.version());
+        assertFalse(state.hasDirty());
+        assertEquals(Availability.HELD, state.availability(0));
+    }
+
+    private static ScreeningSeatState state(String... categories) {
+        List<ScreeningSeatState.SeatInfo> seats = new ArrayList<>();
+        for (int i = 0; i < categories.length; i++) {
+            seats.add(new ScreeningSeatState.SeatInfo(100L + i, 10L + i, "A" + i, "A",
+                    categories[i], BigDecimal.TEN));
+        }
+        return new ScreeningSeatState(1L, seats);
+    }
+}
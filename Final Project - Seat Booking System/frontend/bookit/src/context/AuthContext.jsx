@@ -1,4 +1,5 @@
 import { createContext, useContext, useState, useEffect } from 'react';
+import { authAPI } from '../services/api';
 
 const AuthContext = createContext(null);
 
@@ -32,6 +33,8 @@ export function AuthProvider({ children }) {
   };
 
   const logout = () => {
+    // revoke the token server-side too; local logout never waits for (or fails on) it
+    if (localStorage.getItem('token')) authAPI.logout().catch(() => {});
     localStorage.removeItem('token');
     localStorage.removeItem('user');
     setToken(null);
@@ -494,21 +494,16 @@ export default function ManageSeatsPage() {
       const existing = new Set(screeningSeats.map(ss => ss.seat?.seatId));
       const toCreate = venueSeats.filter(s => !existing.has(s.seatId));
       if (toCreate.length === 0) { setMessage('All seats already exist!'); setMsgType('ok'); setGenerating(false); return; }
-      await Promise.all(toCreate.map(seat => {
-        const cat = seat.seatCategory || 'Regular';
-        const price = defaultPrices[cat] || 150;
-        return screeningSeatsAPI.create({
-          screening:{ screeningId: selectedScreening.screeningId },
-          seat:{ seatId: seat.seatId },
-          price, availability:'AVAILABLE',
-        });
-      }));
+      // ✅ one request — the server copies the missing layout seats with these category prices
+      const prices = {};
+      categories.forEach(cat => { prices[cat] = defaultPrices[cat] || 150; });
+      const { created } = await screeningsAPI.generateSeats(selectedScreening.screeningId, prices);
       const updated = await screeningSeatsAPI.getByScreening(selectedScreening.screeningId);
       setScreeningSeats(updated);
       const pm = {};
       updated.forEach(ss => { pm[ss.seat?.seatId] = ss.price; });
       setPriceMap(pm);
-      setMessage(`✅ Successfully generated ${toCreate.length} seats!`); setMsgType('ok');
+      setMessage(`✅ Successfully generated ${created} seats!`); setMsgType('ok');
     } catch (err) { setMessage('Error: '+err.message); setMsgType('err'); }
     finally { setGenerating(false); }
   };
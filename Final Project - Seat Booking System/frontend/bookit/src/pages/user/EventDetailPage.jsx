@@ -23,6 +23,16 @@ export default function EventDetailPage() {
         const vmap = {};
         vens.forEach(v => { vmap[v.venueId] = v; });
         setVenues(vmap);
+        // ✅ NEW — live "seats left" for every screening in one call (the list may lag a few seconds)
+        if (scrs.length > 0) {
+          screeningsAPI.availability(scrs.slice(0, 200).map(s => s.screeningId))
+            .then(counts => {
+              const left = {};
+              counts.forEach(c => { left[c.screeningId] = c.remainingSeats; });
+              setScreenings(list => list.map(s => s.screeningId in left ? { ...s, remainingSeats: left[s.screeningId] } : s));
+            })
+            .catch(() => {});
+        }
       })
       .finally(() => setLoading(false));
   }, [id]);
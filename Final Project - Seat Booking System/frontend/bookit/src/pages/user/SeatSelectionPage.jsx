@@ -576,6 +576,18 @@ export default function SeatSelectionPage() {
     }).finally(() => setLoading(false));
   }, [screeningId, eventId]);
 
+  // ✅ NEW — live seat map: other users' holds / bookings show up without polling
+  useEffect(() => {
+    const source = screeningSeatsAPI.stream(screeningId);
+    source.addEventListener('snapshot', e => setSeats(JSON.parse(e.data)));
+    source.addEventListener('delta', e => {
+      const changed = new Map(JSON.parse(e.data).map(d => [d.screeningSeatsId, d.availability]));
+      setSeats(prev => prev.map(s =>
+        changed.has(s.screeningSeatsId) ? { ...s, availability: changed.get(s.screeningSeatsId) } : s));
+    });
+    return () => source.close();
+  }, [screeningId]);
+
   const rows = {};
   seats.forEach(seat => {
     const r = seat.seatRow || seat.seat?.seatRow || 'A';
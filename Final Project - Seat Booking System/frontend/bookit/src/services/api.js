@@ -1,17 +1,18 @@
 const BASE_URL = 'http://localhost:8080/api';
 
-const getHeaders = () => {
+const getHeaders = (extra = {}) => {
   const token = localStorage.getItem('token');
   return {
     'Content-Type': 'application/json',
     ...(token ? { Authorization: `Bearer ${token}` } : {}),
+    ...extra,
   };
 };
 
-const request = async (method, path, body = null) => {
+const request = async (method, path, body = null, headers = {}) => {
   const res = await fetch(`${BASE_URL}${path}`, {
     method,
-    headers: getHeaders(),
+    headers: getHeaders(headers),
     ...(body ? { body: JSON.stringify(body) } : {}),
   });
   if (!res.ok) {
@@ -34,6 +35,7 @@ const request = async (method, path, body = null) => {
 export const authAPI = {
   register: (data) => request('POST', '/auth/register', data),
   login:    (data) => request('POST', '/auth/login', data),
+  logout:   ()     => request('POST', '/auth/logout'),
 
   // ✅ NEW - Forgot Password
   forgotPassword: (email) => request('POST', '/users/forgot-password', { email }),
@@ -71,7 +73,15 @@ export const screeningsAPI = {
   getByVenue: (id)         => request('GET',    `/screenings/venue/${id}`),
   getByDate:  (date)       => request('GET',    `/screenings/date/${date}`),
   getByStatus:(s)          => request('GET',    `/screenings/status/${s}`),
+  // ✅ NEW — seats left: [{ screeningId, totalSeats, remainingSeats, remainingByCategory }] / { [eventId]: seats }
+  availability:       (ids)  => request('GET',  `/screenings/availability?ids=${ids.join(',')}`),
+  eventAvailability:  (ids)  => request('GET',  `/screenings/availability/events?ids=${ids.join(',')}`),
   create:     (data)       => request('POST',   '/screenings', data),
+  // ✅ NEW — seats generated server-side from the venue layout; prices: { [seatCategory]: price }
+  createWithSeats: (data, prices) => request('POST', '/screenings/with-seats', { screening: data, categoryPrices: prices }),
+  generateSeats:   (id, prices)   => request('POST', `/screenings/${id}/seats`, prices),
+  // ✅ NEW — recurring run: { eventId, venueId, startDate, endDate, startTimes:['18:00',...], durationMinutes?, categoryPrices? }
+  schedule:        (data)         => request('POST', '/screenings/schedule', data),
   update:     (id, data)   => request('PUT',    `/screenings/${id}`, data),
   delete:     (id)         => request('DELETE', `/screenings/${id}`),
 };
@@ -92,7 +102,11 @@ export const screeningSeatsAPI = {
   getById:            (id)       => request('GET',   `/screening-seats/${id}`),
   getByScreening:     (id)       => request('GET',   `/screening-seats/screening/${id}`),
   getAvailable:       (id)       => request('GET',   `/screening-seats/screening/${id}/available`),
+  // ✅ NEW — live seat map: 'snapshot' (full list) then 'delta' ([{screeningSeatsId, seatId, availability}])
+  stream:             (id)       => new EventSource(`${BASE_URL}/screening-seats/screening/${id}/stream`),
   getHeldByUser:      (id)       => request('GET',   `/screening-seats/held/user/${id}`),
+  // ✅ NEW — holds the best N adjacent seats for the logged-in user: { count, seatCategory? }
+  bestAvailable:      (id, data) => request('POST',  `/screening-seats/screening/${id}/best-available`, data),
   create:             (data)     => request('POST',  '/screening-seats', data),
   updateAvailability: (id, avail)=> request('PATCH', `/screening-seats/${id}/availability?availability=${avail}`),
   update:             (id, data) => request('PUT',   `/screening-seats/${id}`, data),
@@ -124,6 +138,12 @@ export const bookingItemsAPI = {
   delete:       (id)         => request('DELETE', `/booking-items/${id}`),
 };
 
+// ✅ NEW — held seats → booking + items + PENDING payment in one call.
+// Reuse the same key when retrying, so a retry can never book twice: { screeningId, payMode } (the user comes from the login)
+export const checkoutAPI = {
+  checkout: (data, idempotencyKey) => request('POST', '/checkout', data, { 'Idempotency-Key': idempotencyKey }),
+};
+
 export const paymentsAPI = {
   getAll:       ()           => request('GET',    '/payments'),
   getById:      (id)         => request('GET',    `/payments/${id}`),